@@ -20,6 +20,46 @@ public class AqlQueryParser extends QueryParser<QueryContext, ArtifactEntry, Aql
         super(createParser(CharStreams.fromString(query)));
     }
 
+    /**
+     * Trims the query and collapses the whitespaces outside of the quoted values, so that the queries which differ
+     * only in formatting have the same text.
+     */
+    public static String normalize(String query)
+    {
+        StringBuilder result = new StringBuilder(query.length());
+        // The quote which opened the current value, if any.
+        char quote = 0;
+        boolean whitespace = false;
+        for (char c : query.trim().toCharArray())
+        {
+            if (quote == 0 && Character.isWhitespace(c))
+            {
+                whitespace = true;
+
+                continue;
+            }
+            if (whitespace)
+            {
+                result.append(' ');
+                whitespace = false;
+            }
+
+            // A value is only closed with its own quote; if the query closes it with the other one, the rest of it
+            // is left as is, which can only cost a cache miss.
+            if (quote == 0 && (c == '\'' || c == '"'))
+            {
+                quote = c;
+            }
+            else if (c == quote)
+            {
+                quote = 0;
+            }
+            result.append(c);
+        }
+
+        return result.toString();
+    }
+
     public static Parser createParser(CharStream is)
     {
         AQLLexer lexer = new AQLLexer(is);
@@ -9,7 +9,17 @@ import org.carlspring.strongbox.storage.search.SearchResults;
 public interface AqlSearchService
 {
 
+    /**
+     * Parses the AQL query, reusing the {@link Selector} of the same query, which has been parsed before. The
+     * returned {@link Selector} is shared, so it must not be modified.
+     */
+    public Selector<ArtifactEntry> parseQuery(String query);
+
     public SearchResults search(Selector<ArtifactEntry> selector)
         throws IOException;
 
+    public SearchResults search(Selector<ArtifactEntry> selector,
+                                boolean withSnippets)
+        throws IOException;
+
 }
@@ -2,16 +2,20 @@ package org.carlspring.strongbox.services.impl;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 
-import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
-import org.carlspring.strongbox.data.criteria.OQueryTemplate;
-import org.carlspring.strongbox.data.criteria.QueryTemplate;
+import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.ProjectionQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.dependency.snippet.CodeSnippet;
 import org.carlspring.strongbox.dependency.snippet.SnippetGenerator;
@@ -23,13 +27,22 @@ import org.carlspring.strongbox.services.AqlSearchService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.search.SearchResult;
 import org.carlspring.strongbox.storage.search.SearchResults;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
 @Component
 @Transactional
 public class AqlSearchServiceImpl implements AqlSearchService
 {
 
+    /**
+     * Only the fields needed for the {@link SearchResult} are fetched, instead of the whole {@link ArtifactEntry}
+     * graphs with tags, checksums and archive listings.
+     */
+    private static final String PROJECTION = "storageId, repositoryId, artifactCoordinates";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -39,37 +52,105 @@ public class AqlSearchServiceImpl implements AqlSearchService
     @Inject
     private SnippetGenerator snippetGenerator;
 
+    @Value("${strongbox.aql.query-cache.size:1000}")
+    private int queryCacheSize;
+
+    /**
+     * Normalized AQL query -> parsed {@link Selector}.
+     */
+    private Map<String, Selector<ArtifactEntry>> queryCache;
+
+    @PostConstruct
+    public void init()
+    {
+        queryCache = Collections.synchronizedMap(new LinkedHashMap<String, Selector<ArtifactEntry>>(16, 0.75f, true)
+        {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Selector<ArtifactEntry>> eldest)
+            {
+                return size() > queryCacheSize;
+            }
+
+        });
+    }
+
+    public Selector<ArtifactEntry> parseQuery(String query)
+    {
+        String key = AqlQueryParser.normalize(query);
+
+        Selector<ArtifactEntry> selector = queryCache.get(key);
+        if (selector != null)
+        {
+            return selector;
+        }
+
+        // The original query is parsed, so that the syntax error positions match the query of the client.
+        selector = new AqlQueryParser(query).parseQuery();
+        queryCache.put(key, selector);
+
+        return selector;
+    }
+
     public SearchResults search(Selector<ArtifactEntry> selector)
         throws IOException
+    {
+        return search(selector, true);
+    }
+
+    public SearchResults search(Selector<ArtifactEntry> selector,
+                                boolean withSnippets)
+        throws IOException
     {
         SearchResults result = new SearchResults();
 
-        QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(
-                new OQueryTemplate<>(entityManager));
-        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        ProjectionQueryTemplate<ArtifactEntry> queryTemplate = new ProjectionQueryTemplate<>(entityManager);
+        for (ODocument document : queryTemplate.select(projection(selector)))
         {
+            String storageId = document.field("storageId");
+            String repositoryId = document.field("repositoryId");
+            ArtifactCoordinates artifactCoordinates = queryTemplate.detach(document, "artifactCoordinates");
+
             SearchResult r = new SearchResult();
             result.getResults().add(r);
 
-            r.setStorageId(artifactEntry.getStorageId());
-            r.setRepositoryId(artifactEntry.getRepositoryId());
-            r.setArtifactCoordinates(artifactEntry.getArtifactCoordinates());
-
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(artifactEntry.getStorageId(),
-                                                                           artifactEntry.getRepositoryId(),
-                                                                           artifactEntry.getArtifactPath());
+            r.setStorageId(storageId);
+            r.setRepositoryId(repositoryId);
+            r.setArtifactCoordinates(artifactCoordinates);
 
-            Repository repository = repositoryPath.getRepository();
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId,
+                                                                           repositoryId,
+                                                                           artifactCoordinates.toPath());
 
             URL artifactResource = RepositoryFiles.readResourceUrl(repositoryPath);
             r.setUrl(artifactResource.toString());
 
+            if (!withSnippets)
+            {
+                continue;
+            }
+
+            Repository repository = repositoryPath.getRepository();
+
             List<CodeSnippet> snippets = snippetGenerator.generateSnippets(repository.getLayout(),
-                                                                             artifactEntry.getArtifactCoordinates());
+                                                                             artifactCoordinates);
             r.setSnippets(snippets);
         }
 
         return result;
     }
 
+    /**
+     * The selector could be shared, so the projection is applied to a copy.
+     */
+    static Selector<ArtifactEntry> projection(Selector<ArtifactEntry> selector)
+    {
+        Selector<ArtifactEntry> projection = new Selector<>(ArtifactEntry.class);
+        projection.where(selector.getPredicate());
+        projection.with(selector.getPaginator());
+        projection.select(PROJECTION);
+
+        return projection;
+    }
+
 }
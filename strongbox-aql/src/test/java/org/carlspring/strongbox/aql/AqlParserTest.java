@@ -226,4 +226,35 @@ public class AqlParserTest
         assertEquals(Pair.with(1, 78), errorPositionList.get(3));
     }
 
+    @Test
+    public void testNormalizeQuery()
+    {
+        String query = "  storage:storage0   +repository:releases\t+artifactId:'some  strange   artifact'  asc: version ";
+
+        String normalized = AqlQueryParser.normalize(query);
+
+        assertEquals("storage:storage0 +repository:releases +artifactId:'some  strange   artifact' asc: version",
+                     normalized);
+        assertEquals(normalized, AqlQueryParser.normalize(normalized));
+
+        Selector<ArtifactEntry> selector = new AqlQueryParser(normalized).parseQuery();
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>();
+
+        assertEquals(queryTemplate.calculateQueryString(new AqlQueryParser(query).parseQuery()),
+                     queryTemplate.calculateQueryString(selector));
+    }
+
+    @Test
+    public void testNormalizeKeepsTheValuesWithTheOtherQuote()
+    {
+        assertEquals("+artifactId:\"it's  a   value\" +version:'say \"a  b\"'",
+                     AqlQueryParser.normalize("  +artifactId:\"it's  a   value\"   +version:'say \"a  b\"' "));
+        assertEquals("+groupId:'a  b' +artifactId:\"c  d\" asc: version",
+                     AqlQueryParser.normalize("+groupId:'a  b'   +artifactId:\"c  d\"   asc:  version"));
+
+        // Nothing is collapsed after a value, which is never closed with its own quote.
+        assertEquals("+groupId:'a  b\"   +artifactId:c",
+                     AqlQueryParser.normalize("+groupId:'a  b\"   +artifactId:c"));
+    }
+
 }
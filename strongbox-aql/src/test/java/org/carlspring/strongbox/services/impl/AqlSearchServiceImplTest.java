@@ -0,0 +1,66 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import java.lang.reflect.Field;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AqlSearchServiceImplTest
+{
+
+    private AqlSearchServiceImpl aqlSearchService = new AqlSearchServiceImpl();
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        // The module has no Spring test support on its test classpath.
+        Field queryCacheSize = AqlSearchServiceImpl.class.getDeclaredField("queryCacheSize");
+        queryCacheSize.setAccessible(true);
+        queryCacheSize.setInt(aqlSearchService, 2);
+
+        aqlSearchService.init();
+    }
+
+    @Test
+    public void projectionShouldSelectOnlyTheFieldsOfTheResults()
+    {
+        Selector<ArtifactEntry> selector = new AqlQueryParser("storage:storage0 +repository:releases " +
+                                                              "+groupId:'org.carlspring' asc: version").parseQuery();
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>();
+
+        String query = queryTemplate.calculateQueryString(AqlSearchServiceImpl.projection(selector));
+        String entityQuery = queryTemplate.calculateQueryString(selector);
+
+        assertTrue(query.startsWith("SELECT storageId, repositoryId, artifactCoordinates FROM ArtifactEntry WHERE "),
+                   query);
+        // The conditions and the order are the same, and the parsed selector is left as it was.
+        assertEquals(entityQuery.substring(entityQuery.indexOf(" FROM ")), query.substring(query.indexOf(" FROM ")));
+        assertEquals("*", selector.getProjection());
+    }
+
+    @Test
+    public void queriesWhichDifferOnlyInFormattingShouldBeParsedOnce()
+    {
+        Selector<ArtifactEntry> selector = aqlSearchService.parseQuery("storage:storage0 +artifactId:'a  b'");
+
+        assertSame(selector, aqlSearchService.parseQuery("  storage:storage0   +artifactId:'a  b' "));
+        assertNotSame(selector, aqlSearchService.parseQuery("storage:storage0 +artifactId:'a b'"));
+
+        // The least recently used query is evicted.
+        aqlSearchService.parseQuery("storage:storage1");
+        aqlSearchService.parseQuery("storage:storage0 +artifactId:'a b'");
+
+        assertNotSame(selector, aqlSearchService.parseQuery("storage:storage0 +artifactId:'a  b'"));
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.benchmarks;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.config.Maven2LayoutProviderConfig;
+import org.carlspring.strongbox.providers.io.LayoutFileSystemFactory;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemRegistry;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.providers.layout.MavenFileSystem;
+import org.carlspring.strongbox.storage.StorageData;
+import org.carlspring.strongbox.storage.StorageDto;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * A Maven repository in a temporary directory, set up without the application context, so that only the code under
+ * measurement is exercised.
+ */
+public class BenchmarkRepository
+{
+
+    public static final String STORAGE_ID = "storage-benchmarks";
+
+    private final Path basedir;
+
+    private final Repository repository;
+
+    private final RepositoryPathResolver repositoryPathResolver;
+
+    public BenchmarkRepository(String repositoryId)
+            throws IOException
+    {
+        basedir = Files.createTempDirectory("strongbox-benchmarks");
+
+        PropertiesBooter propertiesBooter = new PropertiesBooter();
+        propertiesBooter.setVaultDirectory(basedir.toString());
+
+        StorageDto storage = new StorageDto(STORAGE_ID);
+        storage.setBasedir(basedir.resolve(STORAGE_ID).toString());
+
+        RepositoryDto repository = new RepositoryDto(repositoryId);
+        repository.setBasedir(basedir.resolve(STORAGE_ID).resolve(repositoryId).toString());
+        repository.setLayout(Maven2LayoutProvider.ALIAS);
+        storage.addRepository(repository);
+
+        this.repository = new StorageData(storage).getRepository(repositoryId);
+
+        // Same as the Maven layout provider configuration does, minus the (prototype) bean lookups.
+        LayoutFileSystemFactory fileSystemFactory = r -> new MavenFileSystem(propertiesBooter,
+                                                                             r,
+                                                                             FileSystems.getDefault(),
+                                                                             null);
+
+        RepositoryFileSystemRegistry fileSystemRegistry = new RepositoryFileSystemRegistry();
+        fileSystemRegistry.setFileSystemFactories(
+                Collections.singletonMap(Maven2LayoutProviderConfig.FILE_SYSTEM_ALIAS, fileSystemFactory));
+
+        repositoryPathResolver = new BenchmarkRepositoryPathResolver(fileSystemRegistry);
+
+        Files.createDirectories(getRepositoryBasedir());
+    }
+
+    public Repository getRepository()
+    {
+        return repository;
+    }
+
+    public Path getRepositoryBasedir()
+    {
+        return Paths.get(repository.getBasedir());
+    }
+
+    public RepositoryPathResolver getRepositoryPathResolver()
+    {
+        return repositoryPathResolver;
+    }
+
+    public RootRepositoryPath getRootDirectory()
+    {
+        return repositoryPathResolver.resolve(repository);
+    }
+
+    public void cleanup()
+            throws IOException
+    {
+        FileUtils.deleteDirectory(basedir.toFile());
+    }
+
+    private static class BenchmarkRepositoryPathResolver
+            extends RepositoryPathResolver
+    {
+
+        private BenchmarkRepositoryPathResolver(RepositoryFileSystemRegistry fileSystemRegistry)
+        {
+            this.fileSystemRegistry = fileSystemRegistry;
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler} and stores the results as JSON under <code>target/jmh</code>, so
+ * that they can be compared with the baseline. Any of the regular JMH command line options can be passed on top.
+ *
+ * <pre>
+ *     java -jar target/benchmarks.jar [regexp] [JMH options]
+ * </pre>
+ */
+public class StrongboxBenchmarks
+{
+
+    private static final Path RESULTS_DIRECTORY = Paths.get("target", "jmh");
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList())
+        {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        Files.createDirectories(RESULTS_DIRECTORY);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+        builder.addProfiler(GCProfiler.class);
+
+        if (!commandLineOptions.getResult().hasValue())
+        {
+            builder.resultFormat(ResultFormatType.JSON);
+            builder.result(RESULTS_DIRECTORY.resolve("jmh-result.json").toString());
+        }
+
+        Options options = builder.build();
+
+        new Runner(options).run();
+    }
+
+}
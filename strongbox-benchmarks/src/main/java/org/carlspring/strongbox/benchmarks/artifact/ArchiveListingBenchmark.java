@@ -0,0 +1,114 @@
+package org.carlspring.strongbox.benchmarks.artifact;
+
+import org.carlspring.strongbox.artifact.archive.ZipArchiveListingFunction;
+import org.carlspring.strongbox.benchmarks.BenchmarkRepository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the archive listing of a ZIP archive of incompressible entries of 100KB each (~300MB with 3000 entries):
+ * out of the central directory, as done by {@link ZipArchiveListingFunction}, against a stream of all the local
+ * entry headers, which is the fallback for the archives without a readable central directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveListingBenchmark
+{
+
+    private static final int ENTRY_SIZE = 100 * 1024;
+
+    /**
+     * The number of entries of the archive, besides the manifest.
+     */
+    @Param({ "100", "3000" })
+    private int entries;
+
+    private BenchmarkRepository benchmarkRepository;
+
+    private Path archive;
+
+    @Setup(Level.Trial)
+    public void setUp()
+            throws IOException
+    {
+        benchmarkRepository = new BenchmarkRepository("releases");
+        archive = benchmarkRepository.getRepositoryBasedir().resolve("archive.jar");
+
+        Random random = new Random(entries);
+        byte[] content = new byte[ENTRY_SIZE];
+
+        try (OutputStream os = Files.newOutputStream(archive);
+             ZipOutputStream zos = new ZipOutputStream(os))
+        {
+            zos.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zos.write("Manifest-Version: 1.0\n".getBytes());
+            zos.closeEntry();
+
+            for (int i = 0; i < entries; i++)
+            {
+                random.nextBytes(content);
+
+                zos.putNextEntry(new ZipEntry("org/carlspring/strongbox/Entry" + i + ".class"));
+                zos.write(content);
+                zos.closeEntry();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws IOException
+    {
+        benchmarkRepository.cleanup();
+    }
+
+    @Benchmark
+    public Set<String> centralDirectory()
+            throws IOException
+    {
+        return ZipArchiveListingFunction.INSTANCE.getZipEntryNames(archive);
+    }
+
+    @Benchmark
+    public Set<String> localHeaders()
+            throws IOException
+    {
+        try (InputStream is = Files.newInputStream(archive);
+             BufferedInputStream bis = new BufferedInputStream(is);
+             ArchiveInputStream ais = new ZipArchiveInputStream(bis))
+        {
+            return ZipArchiveListingFunction.INSTANCE.getEntryNames(ais);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.carlspring.strongbox.benchmarks.artifact;
+
+import org.carlspring.strongbox.artifact.MavenArtifact;
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.index.artifact.Gav;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of artifact paths into coordinates, for each of the Maven, npm and NuGet layouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactCoordinatesBenchmark
+{
+
+    private String mavenReleasePath = "org/carlspring/strongbox/strongbox-commons/1.0/strongbox-commons-1.0-sources.jar";
+
+    private String mavenSnapshotPath = "org/carlspring/strongbox/strongbox-commons/1.0-SNAPSHOT/strongbox-commons-1.0-20190101.101010-1.jar";
+
+    private String npmPath = "@types/node/8.0.51/node-8.0.51.tgz";
+
+    private String nugetPath = "Org.Carlspring.Strongbox.Examples.Nuget.Mono/1.0/Org.Carlspring.Strongbox.Examples.Nuget.Mono.1.0.nupkg";
+
+    @Benchmark
+    public Gav mavenReleaseGav()
+    {
+        return MavenArtifactUtils.convertPathToGav(mavenReleasePath);
+    }
+
+    @Benchmark
+    public Gav mavenSnapshotGav()
+    {
+        return MavenArtifactUtils.convertPathToGav(mavenSnapshotPath);
+    }
+
+    @Benchmark
+    public MavenArtifact mavenArtifact()
+    {
+        return MavenArtifactUtils.convertPathToArtifact(mavenReleasePath);
+    }
+
+    @Benchmark
+    public NpmArtifactCoordinates npmCoordinates()
+    {
+        return NpmArtifactCoordinates.parse(npmPath);
+    }
+
+    @Benchmark
+    public NugetArtifactCoordinates nugetCoordinates()
+    {
+        return NugetArtifactCoordinates.parse(nugetPath);
+    }
+
+}
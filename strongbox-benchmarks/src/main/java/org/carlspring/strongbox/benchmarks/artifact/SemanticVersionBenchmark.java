@@ -0,0 +1,94 @@
+package org.carlspring.strongbox.benchmarks.artifact;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing and the comparison of {@link SemanticVersion}s, as done when sorting the versions of an npm or
+ * NuGet package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticVersionBenchmark
+{
+
+    private static final int VERSIONS = 500;
+
+    private String release = "1.10.3";
+
+    private String preRelease = "1.10.3-beta.11+build.20190101";
+
+    private SemanticVersion left;
+
+    private SemanticVersion right;
+
+    private List<SemanticVersion> versions;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        left = SemanticVersion.parse(preRelease);
+        right = SemanticVersion.parse("1.10.3-beta.2+build.20190101");
+
+        Random random = new Random(VERSIONS);
+        versions = new ArrayList<>(VERSIONS);
+        for (int i = 0; i < VERSIONS; i++)
+        {
+            String version = random.nextInt(5) + "." + random.nextInt(20) + "." + random.nextInt(50);
+            if (random.nextBoolean())
+            {
+                version += "-rc." + random.nextInt(10);
+            }
+            versions.add(SemanticVersion.parse(version));
+        }
+    }
+
+    @Benchmark
+    public SemanticVersion parseRelease()
+    {
+        return SemanticVersion.parse(release);
+    }
+
+    @Benchmark
+    public SemanticVersion parsePreRelease()
+    {
+        return SemanticVersion.parse(preRelease);
+    }
+
+    @Benchmark
+    public int compare()
+    {
+        return left.compareTo(right);
+    }
+
+    @Benchmark
+    public List<SemanticVersion> sort()
+    {
+        List<SemanticVersion> result = new ArrayList<>(versions);
+        Collections.sort(result);
+
+        return result;
+    }
+
+}
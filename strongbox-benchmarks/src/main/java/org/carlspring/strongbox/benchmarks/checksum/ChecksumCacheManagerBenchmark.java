@@ -0,0 +1,89 @@
+package org.carlspring.strongbox.benchmarks.checksum;
+
+import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link ChecksumCacheManager} round trip of an upload: the checksums are cached once the artifact is
+ * stored, then looked up and removed when the checksum files follow. The cache is shared between the threads, as it is
+ * between the concurrent uploads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumCacheManagerBenchmark
+{
+
+    private static final String MD5 = "d41d8cd98f00b204e9800998ecf8427e";
+
+    private static final String SHA_1 = "da39a3ee5e6b4b0d3255bfef95601890afd80709";
+
+    /**
+     * The number of checksums already in the cache, i.e. the artifacts of which the checksums haven't been uploaded yet.
+     */
+    @Param({ "0", "10000" })
+    private int cached;
+
+    private ChecksumCacheManager checksumCacheManager;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        checksumCacheManager = new ChecksumCacheManager();
+        for (int i = 0; i < cached; i++)
+        {
+            checksumCacheManager.addArtifactChecksum(artifactPath(i), MessageDigestAlgorithms.MD5, MD5);
+        }
+    }
+
+    @Benchmark
+    public String roundTrip()
+    {
+        return roundTrip(artifactPath(Thread.currentThread().getId() + cached));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String concurrentRoundTrip()
+    {
+        return roundTrip(artifactPath(Thread.currentThread().getId() + cached));
+    }
+
+    private String roundTrip(String artifactPath)
+    {
+        checksumCacheManager.addArtifactChecksum(artifactPath, MessageDigestAlgorithms.MD5, MD5);
+        checksumCacheManager.addArtifactChecksum(artifactPath, MessageDigestAlgorithms.SHA_1, SHA_1);
+
+        String checksum = checksumCacheManager.getArtifactChecksum(artifactPath, MessageDigestAlgorithms.SHA_1);
+
+        checksumCacheManager.removeArtifactChecksum(artifactPath, MessageDigestAlgorithms.MD5);
+        checksumCacheManager.removeArtifactChecksum(artifactPath, MessageDigestAlgorithms.SHA_1);
+
+        return checksum;
+    }
+
+    private static String artifactPath(long i)
+    {
+        return "org/carlspring/strongbox/artifact" + i + "/1.0/artifact" + i + "-1.0.jar";
+    }
+
+}
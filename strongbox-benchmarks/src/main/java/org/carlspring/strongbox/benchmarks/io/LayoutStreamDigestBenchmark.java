@@ -0,0 +1,121 @@
+package org.carlspring.strongbox.benchmarks.io;
+
+import org.carlspring.strongbox.benchmarks.BenchmarkRepository;
+import org.carlspring.strongbox.io.LayoutInputStream;
+import org.carlspring.strongbox.io.LayoutOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the MD5 and SHA-1 digests calculated by {@link LayoutInputStream} on download and by
+ * {@link LayoutOutputStream} on upload, for files in temporary storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutStreamDigestBenchmark
+{
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Param({ "4096", "1048576", "16777216" })
+    private int size;
+
+    private BenchmarkRepository benchmarkRepository;
+
+    private Path source;
+
+    private Path target;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp()
+            throws IOException
+    {
+        benchmarkRepository = new BenchmarkRepository("releases");
+
+        content = new byte[size];
+        new Random(size).nextBytes(content);
+
+        Path root = benchmarkRepository.getRepositoryBasedir();
+        source = Files.write(root.resolve("source.bin"), content);
+        target = root.resolve("target.bin");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws IOException
+    {
+        benchmarkRepository.cleanup();
+    }
+
+    @Benchmark
+    public Map<String, String> read()
+            throws IOException, NoSuchAlgorithmException
+    {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream is = Files.newInputStream(source);
+             LayoutInputStream lis = new LayoutInputStream(is))
+        {
+            while (lis.read(buffer) != -1)
+            {
+                // Only the digests are of interest here.
+            }
+
+            lis.getMessageDigestAsHexadecimalString(MessageDigestAlgorithms.MD5);
+            lis.getMessageDigestAsHexadecimalString(MessageDigestAlgorithms.SHA_1);
+
+            return lis.getHexDigests();
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> write()
+            throws IOException, NoSuchAlgorithmException
+    {
+        LayoutOutputStream los;
+        try (OutputStream os = Files.newOutputStream(target))
+        {
+            los = new LayoutOutputStream(os);
+            los.addAlgorithm(MessageDigestAlgorithms.MD5);
+            los.addAlgorithm(MessageDigestAlgorithms.SHA_1);
+
+            for (int offset = 0; offset < content.length; offset += BUFFER_SIZE)
+            {
+                los.write(content, offset, Math.min(BUFFER_SIZE, content.length - offset));
+            }
+
+            los.close();
+        }
+
+        return los.getDigestMap();
+    }
+
+}
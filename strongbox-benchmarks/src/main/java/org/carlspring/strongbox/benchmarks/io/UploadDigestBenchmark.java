@@ -0,0 +1,131 @@
+package org.carlspring.strongbox.benchmarks.io;
+
+import org.carlspring.strongbox.io.LayoutOutputStream;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the upload digesting of {@link LayoutOutputStream}, without the storage, against digesting with fresh
+ * {@link MessageDigest} instances behind a default sized {@link BufferedOutputStream}, which is what it used to do.
+ * The content is written in 4KB chunks, the same as the upload copy does.
+ * <p>
+ * The <code>gc.alloc.rate.norm</code> of the small uploads is mostly the digest instances and the buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadDigestBenchmark
+{
+
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * The algorithms of the Maven (and most of the other layouts) and of the NuGet layout.
+     */
+    @Param({ "MD5,SHA-1", "SHA-512" })
+    private String algorithms;
+
+    @Param({ "1024", "1048576" })
+    private int size;
+
+    private String[] algorithmNames;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        algorithmNames = algorithms.split(",");
+
+        content = new byte[size];
+        new Random(size).nextBytes(content);
+    }
+
+    @Benchmark
+    public Map<String, String> layoutOutputStream()
+            throws IOException, NoSuchAlgorithmException
+    {
+        LayoutOutputStream los = new LayoutOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        for (String algorithm : algorithmNames)
+        {
+            los.addAlgorithm(algorithm);
+        }
+
+        write(los);
+        los.close();
+
+        return los.getDigestMap();
+    }
+
+    @Benchmark
+    public Map<String, String> freshDigests()
+            throws IOException, NoSuchAlgorithmException
+    {
+        Map<String, MessageDigest> digests = new LinkedHashMap<>();
+        for (String algorithm : algorithmNames)
+        {
+            digests.put(algorithm, MessageDigest.getInstance(algorithm));
+        }
+
+        OutputStream os = new BufferedOutputStream(NullOutputStream.NULL_OUTPUT_STREAM)
+        {
+            @Override
+            public synchronized void write(byte[] b,
+                                           int off,
+                                           int len)
+                    throws IOException
+            {
+                for (MessageDigest digest : digests.values())
+                {
+                    digest.update(b, off, len);
+                }
+                super.write(b, off, len);
+            }
+        };
+
+        write(os);
+        os.close();
+
+        Map<String, String> result = new LinkedHashMap<>();
+        digests.forEach((algorithm, digest) -> result.put(algorithm,
+                                                          MessageDigestUtils.convertToHexadecimalString(digest.digest())));
+
+        return result;
+    }
+
+    private void write(OutputStream os)
+            throws IOException
+    {
+        for (int offset = 0; offset < content.length; offset += CHUNK_SIZE)
+        {
+            os.write(content, offset, Math.min(CHUNK_SIZE, content.length - offset));
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.carlspring.strongbox.benchmarks.nuget;
+
+import org.carlspring.strongbox.repository.NugetSearchIndex.PackageDocument;
+import org.carlspring.strongbox.repository.NugetSearchIndex.RepositorySearchIndex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of a NuGet search term with the trigram index of 100k packages, against the linear scan of
+ * the same packages, which is what the `LIKE '%term%'` condition comes down to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NugetSearchIndexBenchmark
+{
+
+    private static final String[] WORDS = { "json", "logging", "http", "client", "serializer", "extensions",
+                                            "testing", "framework", "data", "cache", "azure", "core", "async",
+                                            "reactive", "crypto", "compression", "xml", "yaml", "config", "di" };
+
+    @Param({ "100000" })
+    private int packages;
+
+    /**
+     * A rare term, a common one, and one which is shorter than a trigram.
+     */
+    @Param({ "package12345", "serializer", "di" })
+    private String term;
+
+    private RepositorySearchIndex index;
+
+    private List<String[]> documents;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        index = new RepositorySearchIndex();
+        documents = new ArrayList<>(packages);
+
+        Random random = new Random(42);
+        for (int i = 0; i < packages; i++)
+        {
+            String id = String.format("Org.%s.%s.Package%d",
+                                      WORDS[random.nextInt(WORDS.length)],
+                                      WORDS[random.nextInt(WORDS.length)],
+                                      i);
+            String text = String.format("Package %d%n%s %s%nThe %s library for %s and %s.",
+                                        i,
+                                        WORDS[random.nextInt(WORDS.length)],
+                                        WORDS[random.nextInt(WORDS.length)],
+                                        WORDS[random.nextInt(WORDS.length)],
+                                        WORDS[random.nextInt(WORDS.length)],
+                                        WORDS[random.nextInt(WORDS.length)]);
+
+            index.add(id, "1.0.0", text);
+            documents.add(new String[]{ id, id.toLowerCase(Locale.ENGLISH), text.toLowerCase(Locale.ENGLISH) });
+        }
+        index.ready();
+    }
+
+    @Benchmark
+    public Set<String> trigramIndex()
+    {
+        Set<String> result = new HashSet<>();
+        index.search(term, PackageDocument::matches, result, Integer.MAX_VALUE);
+
+        return result;
+    }
+
+    @Benchmark
+    public Set<String> linearScan()
+    {
+        Set<String> result = new HashSet<>();
+        for (String[] document : documents)
+        {
+            if (document[1].contains(term) || document[2].contains(term))
+            {
+                result.add(document[0]);
+            }
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.carlspring.strongbox.benchmarks.routing;
+
+import org.carlspring.strongbox.benchmarks.BenchmarkRepository;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
+import org.carlspring.strongbox.storage.StorageData;
+import org.carlspring.strongbox.storage.StorageDto;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRule;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRuleRepository;
+import org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Measures the evaluation of the routing rules of a group repository, which is done for every member of the group,
+ * on every group repository request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactRoutingRulesBenchmark
+{
+
+    private static final String GROUP_REPOSITORY_ID = "group";
+
+    private static final String MEMBER_REPOSITORY_ID = "releases";
+
+    @Param({ "10", "100" })
+    private int rules;
+
+    private BenchmarkRepository benchmarkRepository;
+
+    private Repository groupRepository;
+
+    private ArtifactRoutingRulesChecker artifactRoutingRulesChecker;
+
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp()
+            throws IOException
+    {
+        benchmarkRepository = new BenchmarkRepository(MEMBER_REPOSITORY_ID);
+
+        // Denied by the last of the rules, so that all of them are evaluated.
+        int module = rules - 1;
+        path = String.format("org/carlspring/strongbox/module%d/1.0/module%d-1.0.jar", module, module);
+
+        StorageDto storage = new StorageDto(BenchmarkRepository.STORAGE_ID);
+        storage.addRepository(new RepositoryDto(GROUP_REPOSITORY_ID));
+        groupRepository = new StorageData(storage).getRepository(GROUP_REPOSITORY_ID);
+
+        MutableRoutingRuleRepository member = new MutableRoutingRuleRepository(BenchmarkRepository.STORAGE_ID,
+                                                                               MEMBER_REPOSITORY_ID);
+
+        MutableConfiguration configuration = new MutableConfiguration();
+        for (int i = 0; i < rules; i++)
+        {
+            configuration.getRoutingRules()
+                         .getRules()
+                         .add(MutableRoutingRule.create(BenchmarkRepository.STORAGE_ID,
+                                                        GROUP_REPOSITORY_ID,
+                                                        Collections.singletonList(member),
+                                                        ".*(com|org)/carlspring/strongbox/module" + i + "/.*",
+                                                        RoutingRuleTypeEnum.DENY));
+        }
+        configuration.getRoutingRules()
+                     .getRules()
+                     .add(MutableRoutingRule.create(BenchmarkRepository.STORAGE_ID,
+                                                    GROUP_REPOSITORY_ID,
+                                                    Collections.emptyList(),
+                                                    ".*(com|org)/carlspring/strongbox/accepted/.*",
+                                                    RoutingRuleTypeEnum.ACCEPT));
+
+        artifactRoutingRulesChecker = new ArtifactRoutingRulesChecker();
+
+        Field field = ReflectionUtils.findField(ArtifactRoutingRulesChecker.class, "configurationManager");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field,
+                                 artifactRoutingRulesChecker,
+                                 new StaticConfigurationManager(new Configuration(configuration)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws IOException
+    {
+        benchmarkRepository.cleanup();
+    }
+
+    @Benchmark
+    public boolean isDenied()
+            throws IOException
+    {
+        RepositoryPath repositoryPath = benchmarkRepository.getRepositoryPathResolver()
+                                                           .resolve(benchmarkRepository.getRepository(), path);
+
+        return artifactRoutingRulesChecker.isDenied(groupRepository, repositoryPath);
+    }
+
+    private static class StaticConfigurationManager
+            extends ConfigurationManager
+    {
+
+        private final Configuration configuration;
+
+        private StaticConfigurationManager(Configuration configuration)
+        {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public Configuration getConfiguration()
+        {
+            return configuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package org.carlspring.strongbox.benchmarks.storage;
+
+import org.carlspring.strongbox.benchmarks.BenchmarkRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of the {@link org.carlspring.strongbox.domain.ArtifactEntry} id by storage, repository and
+ * path, as done by the {@link org.carlspring.strongbox.services.ArtifactEntryService} for every artifact request:
+ * with the single (storageId, repositoryId, artifactPath) index, and with the former coordinates index followed by the
+ * (storageId, repositoryId, artifactCoordinates) one.
+ * <p>
+ * The schema is a trimmed down copy of the one of the application, in an in-memory database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactEntryLookupBenchmark
+{
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private static final String QUERY_ARTIFACT_ENTRY_PATH = "SELECT FROM INDEX:idx_artifact_path WHERE key = [:storageId, :repositoryId, :path]";
+
+    private static final String QUERY_ARTIFACT_COORDINATES_ID = "SELECT FROM INDEX:idx_artifact_coordinates WHERE key = :path";
+
+    private static final String QUERY_ARTIFACT_ENTRY_ID = "SELECT FROM INDEX:idx_artifact WHERE key = [:storageId, :repositoryId, :artifactCoordinatesId]";
+
+    /**
+     * The number of artifact entries in the database.
+     */
+    @Param({ "1000", "100000" })
+    private int entries;
+
+    private ODatabaseDocumentTx database;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        database = new ODatabaseDocumentTx("memory:" + getClass().getSimpleName() + System.nanoTime());
+        database.create();
+
+        command("CREATE CLASS ArtifactCoordinates");
+        command("CREATE PROPERTY ArtifactCoordinates.path STRING");
+        command("CREATE INDEX idx_artifact_coordinates ON ArtifactCoordinates (path) UNIQUE_HASH_INDEX");
+
+        command("CREATE CLASS ArtifactEntry");
+        command("CREATE PROPERTY ArtifactEntry.storageId STRING");
+        command("CREATE PROPERTY ArtifactEntry.repositoryId STRING");
+        command("CREATE PROPERTY ArtifactEntry.artifactCoordinates LINK ArtifactCoordinates");
+        command("CREATE PROPERTY ArtifactEntry.artifactPath STRING");
+        command("CREATE INDEX idx_artifact ON ArtifactEntry (storageId, repositoryId, artifactCoordinates) UNIQUE_HASH_INDEX");
+        command("CREATE INDEX idx_artifact_path ON ArtifactEntry (storageId, repositoryId, artifactPath) UNIQUE");
+
+        for (int i = 0; i < entries; i++)
+        {
+            ODocument artifactCoordinates = new ODocument("ArtifactCoordinates");
+            artifactCoordinates.field("path", artifactPath(i));
+            artifactCoordinates.save();
+
+            ODocument artifactEntry = new ODocument("ArtifactEntry");
+            artifactEntry.field("storageId", BenchmarkRepository.STORAGE_ID);
+            artifactEntry.field("repositoryId", REPOSITORY_ID);
+            artifactEntry.field("artifactCoordinates", artifactCoordinates);
+            artifactEntry.field("artifactPath", artifactPath(i));
+            artifactEntry.save();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        database.drop();
+    }
+
+    @Benchmark
+    public ORID compositeIndexLookup()
+    {
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", BenchmarkRepository.STORAGE_ID);
+        params.put("repositoryId", REPOSITORY_ID);
+        params.put("path", nextArtifactPath());
+
+        return lookup(QUERY_ARTIFACT_ENTRY_PATH, params);
+    }
+
+    @Benchmark
+    public ORID coordinatesIndexLookup()
+    {
+        Map<String, Object> params = new HashMap<>();
+        params.put("path", nextArtifactPath());
+
+        ORID artifactCoordinatesId = lookup(QUERY_ARTIFACT_COORDINATES_ID, params);
+        if (artifactCoordinatesId == null)
+        {
+            return null;
+        }
+
+        params = new HashMap<>();
+        params.put("storageId", BenchmarkRepository.STORAGE_ID);
+        params.put("repositoryId", REPOSITORY_ID);
+        params.put("artifactCoordinatesId", artifactCoordinatesId);
+
+        return lookup(QUERY_ARTIFACT_ENTRY_ID, params);
+    }
+
+    private ORID lookup(String sQuery,
+                        Map<String, Object> params)
+    {
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(1);
+
+        List<ODocument> resultList = database.command(oQuery).execute(params);
+
+        return resultList.isEmpty() ? null : ((ODocument) resultList.get(0).field("rid")).getIdentity();
+    }
+
+    private void command(String sql)
+    {
+        database.command(new OCommandSQL(sql)).execute();
+    }
+
+    private String nextArtifactPath()
+    {
+        next = (next + 1) % entries;
+
+        return artifactPath(next);
+    }
+
+    private static String artifactPath(int i)
+    {
+        return "org/carlspring/strongbox/artifact" + i + "/1.0/artifact" + i + "-1.0.jar";
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.carlspring.strongbox.benchmarks.storage;
+
+import org.carlspring.strongbox.providers.io.HazelcastRepositoryLockProvider;
+import org.carlspring.strongbox.providers.io.LocalRepositoryLockProvider;
+import org.carlspring.strongbox.providers.io.RepositoryLockProvider;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link RepositoryLockProvider}s under parallel downloads, each of which holds the read lock of one of
+ * the artifacts while the artifact is being streamed, and under parallel uploads of distinct artifacts, each of which
+ * holds a write lock.
+ * <p>
+ * The Hazelcast provider runs on a single member, which is the case of a standalone instance using it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RepositoryLockProviderBenchmark
+{
+
+    /**
+     * The lock name of {@link org.carlspring.strongbox.providers.io.RepositoryPathLock} for the artifacts.
+     */
+    private static final String LOCK_NAME = "org.carlspring.strongbox%%3Astrongbox-commons-%s%%3Ajar";
+
+    @Param({ LocalRepositoryLockProvider.NAME,
+             HazelcastRepositoryLockProvider.NAME })
+    private String provider;
+
+    /**
+     * The number of distinct artifacts being downloaded.
+     */
+    @Param({ "1", "1000" })
+    private int artifacts;
+
+    /**
+     * The work done while the lock is held, in {@link Blackhole#consumeCPU(long)} tokens.
+     */
+    @Param({ "100" })
+    private long work;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private RepositoryLockProvider lockProvider;
+
+    private String[] lockNames;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        if (HazelcastRepositoryLockProvider.NAME.equals(provider))
+        {
+            Config config = new Config().setInstanceName("strongbox-benchmarks")
+                                        .setProperty("hazelcast.phone.home.enabled", "false");
+            JoinConfig join = config.getNetworkConfig().getJoin();
+            join.getMulticastConfig().setEnabled(false);
+            join.getTcpIpConfig().setEnabled(false);
+
+            hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+            lockProvider = new HazelcastRepositoryLockProvider(hazelcastInstance);
+        }
+        else
+        {
+            lockProvider = new LocalRepositoryLockProvider(64);
+        }
+
+        lockNames = new String[artifacts];
+        for (int i = 0; i < artifacts; i++)
+        {
+            lockNames[i] = String.format(LOCK_NAME, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        if (hazelcastInstance != null)
+        {
+            hazelcastInstance.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void download()
+    {
+        String lockName = lockNames[ThreadLocalRandom.current().nextInt(artifacts)];
+
+        Lock lock = lockProvider.getLock(lockName).readLock();
+        lock.lock();
+        try
+        {
+            Blackhole.consumeCPU(work);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public void upload()
+    {
+        String lockName = String.format(LOCK_NAME, Thread.currentThread().getId());
+
+        Lock lock = lockProvider.getLock(lockName).writeLock();
+        lock.lock();
+        try
+        {
+            Blackhole.consumeCPU(work);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.carlspring.strongbox.benchmarks.storage;
+
+import org.carlspring.strongbox.benchmarks.BenchmarkRepository;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link org.carlspring.strongbox.providers.io.RepositoryPathResolver} resolution of the repository root
+ * and of artifact paths, which is done (at least once) for every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryPathResolverBenchmark
+{
+
+    @Param({ "org/carlspring/strongbox/strongbox-commons/1.0/strongbox-commons-1.0.jar",
+             "org/carlspring/strongbox/strongbox-commons/1.0-SNAPSHOT/strongbox-commons-1.0-20190101.101010-1-javadoc.jar.sha1" })
+    private String path;
+
+    private BenchmarkRepository benchmarkRepository;
+
+    private RootRepositoryPath rootRepositoryPath;
+
+    @Setup(Level.Trial)
+    public void setUp()
+            throws IOException
+    {
+        benchmarkRepository = new BenchmarkRepository("releases");
+        rootRepositoryPath = benchmarkRepository.getRootDirectory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws IOException
+    {
+        benchmarkRepository.cleanup();
+    }
+
+    @Benchmark
+    public RootRepositoryPath resolveRoot()
+    {
+        return benchmarkRepository.getRepositoryPathResolver().resolve(benchmarkRepository.getRepository());
+    }
+
+    @Benchmark
+    public RepositoryPath resolvePath()
+    {
+        return benchmarkRepository.getRepositoryPathResolver().resolve(benchmarkRepository.getRepository(), path);
+    }
+
+    @Benchmark
+    public String resolveAndRelativizePath()
+            throws IOException
+    {
+        return RepositoryFiles.relativizePath(rootRepositoryPath.resolve(path));
+    }
+
+}
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.service.impl;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -18,6 +19,8 @@ import org.apache.http.pool.PoolStats;
 
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
@@ -61,6 +64,20 @@ public class ProxyRepositoryConnectionPoolConfigurationServiceImpl
                 new IdleConnectionMonitorThread(poolingHttpClientConnectionManager, idleConnectionsTimeoutInSeconds);
         idleConnectionMonitorThread.setDaemon(true);
         idleConnectionMonitorThread.start();
+
+        // The pool is shared by the Jersey and the HttpClient clients.
+        registerPoolGauge("leased", PoolStats::getLeased);
+        registerPoolGauge("available", PoolStats::getAvailable);
+        registerPoolGauge("pending", PoolStats::getPending);
+        registerPoolGauge("max", PoolStats::getMax);
+    }
+
+    private void registerPoolGauge(String state,
+                                   ToDoubleFunction<PoolStats> value)
+    {
+        Gauge.builder("strongbox.proxy.connections", this, s -> value.applyAsDouble(s.getTotalStats()))
+             .tag("state", state)
+             .register(Metrics.globalRegistry);
     }
 
     @PreDestroy
@@ -3,15 +3,15 @@ package org.carlspring.strongbox.io;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
 
 /**
  * This {@link InputStream} decorates a source {@link InputStream} with ability to replace a target chain of bytes with
  * another specified chain of bytes.<br>
  * 
- * For example it can be used as Mulitpart Stream Adapter to change boundary bytes.
+ * For example it can be used as Mulitpart Stream Adapter to change boundary bytes.<br>
+ * 
+ * The source is read, and searched, in chunks rather than byte by byte, so that it can be used for the whole body of
+ * large requests.
  * 
  * @author Sergey Bespalov
  * 
@@ -20,12 +20,28 @@ public class ReplacingInputStream
         extends BufferedInputStream
 {
 
-    Deque<Integer> inQueue = new LinkedList<Integer>();
-
-    Deque<Integer> outQueue = new LinkedList<Integer>();
+    private static final int CHUNK_SIZE = 8192;
 
     final byte[] search, replacement;
 
+    /**
+     * The look-ahead of the source bytes, which haven't been read yet.
+     */
+    private final byte[] inBuffer;
+
+    private int inPosition;
+
+    private int inLimit;
+
+    private boolean eof;
+
+    /**
+     * The position within the replacement which is being read, if any.
+     */
+    private int replacementPosition;
+
+    private final byte[] singleByte = new byte[1];
+
     public ReplacingInputStream(InputStream in,
                                 byte[] search,
                                 byte[] replacement)
@@ -33,14 +49,19 @@ public class ReplacingInputStream
         super(in);
         this.search = search;
         this.replacement = replacement;
+        this.inBuffer = new byte[Math.max(CHUNK_SIZE, search.length * 2)];
+        this.replacementPosition = replacement.length;
     }
 
-    private boolean isMatchFound()
+    private boolean isMatchFound(int position)
     {
-        Iterator<Integer> inIter = inQueue.iterator();
+        if (inLimit - position < search.length)
+        {
+            return false;
+        }
         for (int i = 0; i < search.length; i++)
         {
-            if (!inIter.hasNext() || search[i] != inIter.next())
+            if (search[i] != inBuffer[position + i])
             {
                 return false;
             }
@@ -52,14 +73,25 @@ public class ReplacingInputStream
         throws IOException
     {
         // Work up some look-ahead.
-        while (inQueue.size() < search.length)
+        int lookAhead = Math.max(search.length, 1);
+        if (eof || inLimit - inPosition >= lookAhead)
         {
-            int next = super.read();
-            inQueue.offer(next);
-            if (next == -1)
+            return;
+        }
+
+        System.arraycopy(inBuffer, inPosition, inBuffer, 0, inLimit - inPosition);
+        inLimit -= inPosition;
+        inPosition = 0;
+
+        while (inLimit < lookAhead)
+        {
+            int n = super.read(inBuffer, inLimit, inBuffer.length - inLimit);
+            if (n == -1)
             {
+                eof = true;
                 break;
             }
+            inLimit += n;
         }
     }
 
@@ -67,32 +99,9 @@ public class ReplacingInputStream
     public int read()
         throws IOException
     {
+        int n = read(singleByte, 0, 1);
 
-        // Next byte already determined.
-        if (outQueue.isEmpty())
-        {
-
-            readAhead();
-
-            if (isMatchFound())
-            {
-                for (int i = 0; i < search.length; i++)
-                {
-                    inQueue.remove();
-                }
-
-                for (byte b : replacement)
-                {
-                    outQueue.offer((int) b);
-                }
-            }
-            else
-            {
-                outQueue.add(inQueue.remove());
-            }
-        }
-
-        return outQueue.remove();
+        return n == -1 ? -1 : singleByte[0] & 0xFF;
     }
 
     /**
@@ -113,19 +122,47 @@ public class ReplacingInputStream
                     int len)
         throws IOException
     {
-        int i;
         int ok = 0;
-        while (len-- > 0)
+        while (ok < len)
         {
-            i = read();
-            if (i == -1)
+            // Next bytes already determined.
+            if (replacementPosition < replacement.length)
+            {
+                int n = Math.min(len - ok, replacement.length - replacementPosition);
+                System.arraycopy(replacement, replacementPosition, b, off + ok, n);
+                replacementPosition += n;
+                ok += n;
+                continue;
+            }
+
+            readAhead();
+            if (inPosition == inLimit)
             {
-                return (ok == 0) ? -1 : ok;
+                break;
             }
-            b[off++] = (byte) i;
-            ok++;
+
+            if (search.length > 0 && isMatchFound(inPosition))
+            {
+                inPosition += search.length;
+                replacementPosition = 0;
+                continue;
+            }
+
+            // Everything up to the next possible match can be read as it is.
+            int end = inPosition + 1;
+            int lastMatchPosition = eof ? inLimit : inLimit - search.length + 1;
+            while (end < lastMatchPosition && !isMatchFound(end))
+            {
+                end++;
+            }
+
+            int n = Math.min(len - ok, end - inPosition);
+            System.arraycopy(inBuffer, inPosition, b, off + ok, n);
+            inPosition += n;
+            ok += n;
         }
-        return ok;
+
+        return ok == 0 && len > 0 ? -1 : ok;
     }
 
     @Override
@@ -135,4 +172,47 @@ public class ReplacingInputStream
 
         return read(buffer, 0, buffer.length);
     }
+
+    @Override
+    public long skip(long n)
+        throws IOException
+    {
+        byte[] buffer = new byte[(int) Math.min(n, CHUNK_SIZE)];
+        long skipped = 0;
+        while (skipped < n)
+        {
+            int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+            if (read == -1)
+            {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    /**
+     * Counts the bytes which can be read without reading the source: the rest of the replacement, and the looked-ahead
+     * bytes up to the next match, or up to where one could still start.
+     */
+    @Override
+    public int available()
+    {
+        int available = replacement.length - replacementPosition;
+        if (search.length == 0)
+        {
+            return available + (inLimit - inPosition);
+        }
+
+        int lastMatchPosition = eof ? inLimit : inLimit - search.length + 1;
+        for (int position = inPosition; position < lastMatchPosition; position++)
+        {
+            if (isMatchFound(position))
+            {
+                return available + (position - inPosition) + replacement.length;
+            }
+        }
+
+        return available + Math.max(lastMatchPosition - inPosition, 0);
+    }
 }
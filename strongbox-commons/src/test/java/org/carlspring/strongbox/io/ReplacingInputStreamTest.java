@@ -0,0 +1,337 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The results are compared with the ones of {@link String#replace}, and of the byte by byte implementation which
+ * {@link ReplacingInputStream} used to be, kept here as {@link ByteByByteReplacingInputStream}.
+ */
+public class ReplacingInputStreamTest
+{
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Test
+    public void patternSplitAcrossChunksShouldBeReplaced()
+            throws Exception
+    {
+        String search = "--boundary";
+        StringBuilder content = new StringBuilder();
+        // Matches right before, across, and right after the chunk boundaries.
+        for (int boundary = CHUNK_SIZE; boundary <= 4 * CHUNK_SIZE; boundary += CHUNK_SIZE)
+        {
+            for (int shift : new int[]{ -search.length(), -3, 0 })
+            {
+                int offset = boundary + shift;
+                pad(content, offset);
+                content.append(search);
+            }
+        }
+        content.append("end");
+
+        for (int maxSourceRead : new int[]{ 1, 7, CHUNK_SIZE - 1, CHUNK_SIZE, Integer.MAX_VALUE })
+        {
+            for (int readSize : new int[]{ 1, 5, CHUNK_SIZE + 1 })
+            {
+                assertReplaced(content.toString(), search, "--other", maxSourceRead, readSize);
+                assertReplaced(content.toString(), search, "", maxSourceRead, readSize);
+            }
+        }
+    }
+
+    @Test
+    public void overlappingAndPartialMatchesShouldBeReplacedFromLeftToRight()
+            throws Exception
+    {
+        // Overlapping.
+        assertReplaced("ababa", "aba", "X", Integer.MAX_VALUE, 1);
+        assertReplaced("aaaaa", "aa", "b", 1, 3);
+        assertReplaced("aaab", "aab", "-", 2, 2);
+
+        // Partial matches at the end of the stream.
+        assertReplaced("xxab", "abc", "X", Integer.MAX_VALUE, 16);
+        assertReplaced("abcab", "abc", "X", 1, 1);
+        assertReplaced("a", "abc", "X", 1, 1);
+        assertReplaced("", "abc", "X", 1, 1);
+
+        // A match at the very end.
+        assertReplaced("xxabc", "abc", "XY", 3, 2);
+    }
+
+    @Test
+    public void resultShouldBeTheSameAsByteByByte()
+            throws Exception
+    {
+        Random random = new Random(42);
+        byte[] alphabet = "abc".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < 200; i++)
+        {
+            byte[] content = new byte[random.nextInt(3 * CHUNK_SIZE)];
+            for (int j = 0; j < content.length; j++)
+            {
+                content[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            byte[] search = Arrays.copyOf(content, 1 + random.nextInt(Math.min(6, Math.max(content.length, 1))));
+            if (content.length == 0)
+            {
+                search = "ab".getBytes(StandardCharsets.US_ASCII);
+            }
+            byte[] replacement = Arrays.copyOf("XYZ".getBytes(StandardCharsets.US_ASCII), random.nextInt(4));
+
+            byte[] expected = readAll(new ByteByByteReplacingInputStream(new ByteArrayInputStream(content),
+                                                                         search,
+                                                                         replacement),
+                                      1);
+            byte[] actual = readAll(new ReplacingInputStream(new TricklingInputStream(content,
+                                                                                      1 + random.nextInt(100)),
+                                                             search,
+                                                             replacement),
+                                    1 + random.nextInt(CHUNK_SIZE));
+
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void skipShouldSkipTheReplacedContent()
+            throws Exception
+    {
+        String content = "0123abc4567abc89";
+        byte[] search = "abc".getBytes(StandardCharsets.US_ASCII);
+        byte[] replacement = "XYZW".getBytes(StandardCharsets.US_ASCII);
+
+        byte[] expected = readAll(new ByteByByteReplacingInputStream(toStream(content), search, replacement), 1);
+        for (int skip = 0; skip <= expected.length + 1; skip++)
+        {
+            InputStream is = new ReplacingInputStream(new TricklingInputStream(bytes(content), 2),
+                                                      search,
+                                                      replacement);
+            assertEquals(Math.min(skip, expected.length), is.skip(skip));
+            assertArrayEquals(Arrays.copyOfRange(expected, Math.min(skip, expected.length), expected.length),
+                              readAll(is, 3));
+        }
+    }
+
+    @Test
+    public void availableShouldNotExceedTheReplacedContent()
+            throws Exception
+    {
+        String content = "0123abc4567abc89abcab";
+        byte[] search = "abc".getBytes(StandardCharsets.US_ASCII);
+
+        for (byte[] replacement : new byte[][]{ new byte[0], "X".getBytes(StandardCharsets.US_ASCII),
+                                                "XYZW".getBytes(StandardCharsets.US_ASCII) })
+        {
+            byte[] expected = readAll(new ByteByByteReplacingInputStream(toStream(content), search, replacement), 1);
+
+            InputStream is = new ReplacingInputStream(toStream(content), search, replacement);
+            int read = 0;
+            int b;
+            while ((b = is.read()) != -1)
+            {
+                assertEquals(expected[read++], (byte) b);
+
+                int available = is.available();
+                assertTrue(available <= expected.length - read,
+                           String.format("[%s] bytes available, with [%s] left.", available, expected.length - read));
+            }
+            assertEquals(expected.length, read);
+            assertEquals(0, is.available());
+        }
+    }
+
+    private void assertReplaced(String content,
+                                String search,
+                                String replacement,
+                                int maxSourceRead,
+                                int readSize)
+            throws IOException
+    {
+        byte[] expected = bytes(content.replace(search, replacement));
+
+        assertArrayEquals(expected,
+                          readAll(new ByteByByteReplacingInputStream(toStream(content),
+                                                                     bytes(search),
+                                                                     bytes(replacement)),
+                                  1));
+        assertArrayEquals(expected,
+                          readAll(new ReplacingInputStream(new TricklingInputStream(bytes(content), maxSourceRead),
+                                                           bytes(search),
+                                                           bytes(replacement)),
+                                  readSize));
+    }
+
+    private static void pad(StringBuilder content,
+                            int length)
+    {
+        while (content.length() < length)
+        {
+            content.append((char) ('a' + content.length() % 26));
+        }
+    }
+
+    private static byte[] readAll(InputStream is,
+                                  int readSize)
+            throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        if (readSize == 1)
+        {
+            int b;
+            while ((b = is.read()) != -1)
+            {
+                result.write(b);
+            }
+
+            return result.toByteArray();
+        }
+
+        byte[] buffer = new byte[readSize];
+        int n;
+        while ((n = is.read(buffer)) != -1)
+        {
+            result.write(buffer, 0, n);
+        }
+
+        return result.toByteArray();
+    }
+
+    private static InputStream toStream(String content)
+    {
+        return new ByteArrayInputStream(bytes(content));
+    }
+
+    private static byte[] bytes(String content)
+    {
+        return content.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns no more than the given number of bytes per read, like a network stream.
+     */
+    private static class TricklingInputStream
+            extends FilterInputStream
+    {
+
+        private final int maxRead;
+
+        TricklingInputStream(byte[] content,
+                             int maxRead)
+        {
+            super(new ByteArrayInputStream(content));
+            this.maxRead = maxRead;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+                throws IOException
+        {
+            return super.read(b, off, Math.min(len, maxRead));
+        }
+
+    }
+
+    /**
+     * The byte by byte implementation, as the reference of the replaced content.
+     */
+    private static class ByteByByteReplacingInputStream
+            extends FilterInputStream
+    {
+
+        private final Deque<Integer> inQueue = new LinkedList<>();
+
+        private final Deque<Integer> outQueue = new LinkedList<>();
+
+        private final byte[] search, replacement;
+
+        ByteByByteReplacingInputStream(InputStream in,
+                                       byte[] search,
+                                       byte[] replacement)
+        {
+            super(in);
+            this.search = search;
+            this.replacement = replacement;
+        }
+
+        private boolean isMatchFound()
+        {
+            Iterator<Integer> inIter = inQueue.iterator();
+            for (byte b : search)
+            {
+                if (!inIter.hasNext() || b != inIter.next())
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void readAhead()
+                throws IOException
+        {
+            while (inQueue.size() < search.length)
+            {
+                int next = super.read();
+                inQueue.offer(next);
+                if (next == -1)
+                {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public int read()
+                throws IOException
+        {
+            while (outQueue.isEmpty())
+            {
+                readAhead();
+
+                if (isMatchFound())
+                {
+                    for (int i = 0; i < search.length; i++)
+                    {
+                        inQueue.remove();
+                    }
+                    for (byte b : replacement)
+                    {
+                        outQueue.offer(b & 0xFF);
+                    }
+                }
+                else
+                {
+                    outQueue.add(inQueue.remove());
+                }
+            }
+
+            int b = outQueue.remove();
+            if (b == -1)
+            {
+                // Keep returning the end of the stream.
+                outQueue.add(-1);
+            }
+
+            return b;
+        }
+
+    }
+
+}
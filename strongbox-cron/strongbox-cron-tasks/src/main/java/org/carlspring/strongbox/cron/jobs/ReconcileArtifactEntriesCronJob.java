@@ -0,0 +1,101 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.services.ArtifactEntryReconciliationService;
+import org.carlspring.strongbox.services.support.ArtifactEntryReconciliationReport;
+
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Reconciles the artifact entries of the database with the artifact files of the repository.
+ *
+ * The properties are:
+ * - parallelism - the number of threads walking the repository (the number of processors by default),
+ * - resume      - whether to continue from where a previous run stopped, if it didn't complete (true by default),
+ * - dryRun      - whether to only report the differences (false by default).
+ */
+public class ReconcileArtifactEntriesCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_PARALLELISM = "parallelism";
+
+    private static final String PROPERTY_RESUME = "resume";
+
+    private static final String PROPERTY_DRY_RUN = "dryRun";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_PARALLELISM))),
+            new CronJobBooleanTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_RESUME))),
+            new CronJobBooleanTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_DRY_RUN))));
+
+    @Inject
+    private ArtifactEntryReconciliationService artifactEntryReconciliationService;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getRequiredProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getRequiredProperty(PROPERTY_REPOSITORY_ID);
+
+        final int parallelism;
+        String parallelismText = config.getProperty(PROPERTY_PARALLELISM);
+        try
+        {
+            parallelism = parallelismText == null ? 0 : Integer.parseInt(parallelismText);
+        }
+        catch (NumberFormatException ex)
+        {
+            logger.error("Invalid integer value [" + parallelismText +
+                         "] of 'parallelism' property. Cron job won't be fired.", ex);
+            return;
+        }
+
+        boolean resume = Optional.ofNullable(config.getProperty(PROPERTY_RESUME))
+                                 .map(Boolean::valueOf)
+                                 .orElse(Boolean.TRUE);
+        boolean dryRun = Boolean.valueOf(config.getProperty(PROPERTY_DRY_RUN));
+
+        ArtifactEntryReconciliationReport report = artifactEntryReconciliationService.reconcile(storageId,
+                                                                                                repositoryId,
+                                                                                                parallelism,
+                                                                                                resume,
+                                                                                                dryRun);
+
+        logger.info(String.format("Found [%s] artifacts without entry and [%s] entries without artifact in [%s:%s]%s.",
+                                  report.getMissingEntries(),
+                                  report.getOrphanedEntries(),
+                                  storageId,
+                                  repositoryId,
+                                  dryRun ? " (dry run)" : ""));
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(ReconcileArtifactEntriesCronJob.class.getName())
+                                .name("Reconcile Artifact Entries Cron Job")
+                                .description("Reconcile Artifact Entries Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
@@ -3,6 +3,9 @@ package org.carlspring.strongbox.data.criteria;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.EntityManager;
 
@@ -14,6 +17,8 @@ import org.slf4j.LoggerFactory;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * {@link QueryTemplate} implementation for OrientDB engine.
@@ -25,6 +30,11 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    /**
+     * The query timers are registered once per entity, rather than looked up in the registry for every query.
+     */
+    private static final ConcurrentMap<Class<?>, Timer> QUERY_TIMERS = new ConcurrentHashMap<>();
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -45,15 +55,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 
     public R select(Selector<T> s)
     {
-        String sQuery = calculateQueryString(s);
-
-        OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
-        Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
-
-        logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
+        Object result = execute(s);
 
-        Object result = getEmDelegate().command(oQuery)
-                                       .execute(parameterMap);
         if (result instanceof Collection && !((Collection) result).isEmpty()
                 && ((Collection) result).iterator().next() instanceof ODocument)
         {
@@ -67,6 +70,31 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         }
     }
 
+    protected Object execute(Selector<T> s)
+    {
+        String sQuery = calculateQueryString(s);
+
+        OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
+        Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
+
+        logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
+
+        long start = System.nanoTime();
+        Object result = getEmDelegate().command(oQuery)
+                                       .execute(parameterMap);
+        queryTimer(s.getTargetClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return result;
+    }
+
+    private static Timer queryTimer(Class<?> targetClass)
+    {
+        return QUERY_TIMERS.computeIfAbsent(targetClass,
+                                            c -> Timer.builder("strongbox.db.query")
+                                                      .tag("entity", c.getSimpleName())
+                                                      .register(Metrics.globalRegistry));
+    }
+
     public OObjectDatabaseTx getEmDelegate()
     {
         return (OObjectDatabaseTx) entityManager.getDelegate();
@@ -242,6 +270,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
             return " LIKE ";
         case CONTAINS:
             return " CONTAINS ";
+        case IN:
+            return " IN ";
         case IS_NULL:
             return " IS NULL ";
         case IS_NOT_NULL:
@@ -0,0 +1,48 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * {@link QueryTemplate} implementation for the {@link Selector} projections, which returns the plain
+ * {@link ODocument} rows with only the projected fields, instead of the whole entity graphs.
+ */
+public class ProjectionQueryTemplate<T extends GenericEntity> extends OQueryTemplate<List<ODocument>, T>
+{
+
+    public ProjectionQueryTemplate(EntityManager entityManager)
+    {
+        super(entityManager);
+    }
+
+    @Override
+    public List<ODocument> select(Selector<T> s)
+    {
+        Object result = execute(s);
+
+        return result == null ? Collections.emptyList() : (List<ODocument>) result;
+    }
+
+    /**
+     * Detaches the entity, which is linked from the projected field, from OrientDB session.
+     */
+    public <E> E detach(ODocument document,
+                        String field)
+    {
+        OIdentifiable record = document.field(field);
+        if (record == null)
+        {
+            return null;
+        }
+
+        return getEmDelegate().detachAll(getEmDelegate().getUserObjectByRecord(record, null), true);
+    }
+
+}
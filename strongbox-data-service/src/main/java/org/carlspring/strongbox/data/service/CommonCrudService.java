@@ -16,6 +16,8 @@ import javax.persistence.PersistenceContext;
 
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.orientechnologies.orient.core.id.ORecordId;
@@ -35,6 +37,19 @@ public abstract class CommonCrudService<T extends GenericEntity>
 
     private static final Logger logger = LoggerFactory.getLogger(CommonCrudService.class);
 
+    /**
+     * The limit of the query shapes cached per service, as some of the shapes depend on the client queries.
+     */
+    private static final int MAX_CACHED_QUERIES = 256;
+
+    private static final String QUERY_EXISTS_BY_UUID = "SELECT @rid FROM INDEX:idx_uuid WHERE key = :uuid";
+
+    /**
+     * Query shape -> SQL statement. The statements are built once per shape, with all the values passed as
+     * parameters, so that the same shape always has the same text for the OrientDB statement cache.
+     */
+    private final Map<String, String> queryCache = new ConcurrentHashMap<>();
+
     @PersistenceContext
     protected EntityManager entityManager;
 
@@ -152,8 +167,8 @@ public abstract class CommonCrudService<T extends GenericEntity>
             return false;
         }
         
-        String sQuery = String.format("SELECT @rid AS objectId FROM %s WHERE uuid = :uuid",
-                                      getEntityClass().getSimpleName());
+        String sQuery = cachedQuery("identify", () -> String.format("SELECT @rid AS objectId FROM %s WHERE uuid = :uuid",
+                                                                    getEntityClass().getSimpleName()));
 
         OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
         oQuery.setLimit(1);
@@ -206,9 +221,7 @@ public abstract class CommonCrudService<T extends GenericEntity>
     @Override
     public boolean existsByUuid(String uuid)
     {
-        String sQuery = String.format("SELECT @rid FROM INDEX:idx_uuid WHERE key = :uuid");
-
-        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(QUERY_EXISTS_BY_UUID);
         oQuery.setLimit(1);
 
         HashMap<String, String> params = new HashMap<>();
@@ -288,36 +301,90 @@ public abstract class CommonCrudService<T extends GenericEntity>
     }
 
     protected String buildQuery(Map<String, String> map)
+    {
+        return buildQuery(map, "*");
+    }
+
+    protected String buildQuery(Map<String, String> map,
+                                String projection)
+    {
+        // process only coordinates with non-null values
+        List<String> parameterNames = map == null ? Collections.emptyList()
+                : map.entrySet()
+                     .stream()
+                     .filter(entry -> entry.getValue() != null)
+                     .map(Map.Entry::getKey)
+                     .collect(Collectors.toList());
+
+        StringBuilder shape = appendShape(new StringBuilder("select:"), projection);
+        parameterNames.forEach(name -> appendShape(shape, name));
+
+        String query = cachedQuery(shape.toString(), () -> buildQuery(parameterNames, projection));
+
+        logger.debug("Executing SQL query> " + query);
+
+        return query;
+    }
+
+    private String buildQuery(List<String> parameterNames,
+                              String projection)
     {
         StringBuilder sb = new StringBuilder();
-        sb.append("SELECT * FROM ").append(getEntityClass().getSimpleName());
+        sb.append("SELECT ").append(projection).append(" FROM ").append(getEntityClass().getSimpleName());
 
-        if (map == null || map.isEmpty())
+        if (parameterNames.isEmpty())
         {
             return sb.toString();
         }
 
+        // now query should looks like
+        // SELECT * FROM Foo WHERE blah = :blah AND moreBlah = :moreBlah
         sb.append(" WHERE ");
+        sb.append(parameterNames.stream()
+                                .map(name -> String.format("%s = :%s", name, name))
+                                .collect(Collectors.joining(" AND ")));
 
-        // process only coordinates with non-null values
-        map.entrySet()
-           .stream()
-           .filter(entry -> entry.getValue() != null)
-           .forEach(entry -> sb.append(entry.getKey())
-                               .append(" = :")
-                               .append(entry.getKey())
-                               .append(" AND "));
-
-        // remove last 'and' statement (that doesn't relate to any value)
-        String query = sb.toString();
-        query = query.substring(0, query.length() - 5);
+        return sb.toString();
+    }
 
-        // now query should looks like
-        // SELECT * FROM Foo WHERE blah = :blah AND moreBlah = :moreBlah
+    /**
+     * @param shape
+     *            the key, which identifies the query with all its variable parts, except the parameter values
+     * @param query
+     *            builds the query, if it's not cached yet
+     * @return the SQL statement of the shape
+     */
+    protected String cachedQuery(String shape,
+                                 Supplier<String> query)
+    {
+        String result = queryCache.get(shape);
+        if (result != null)
+        {
+            return result;
+        }
 
-        logger.debug("Executing SQL query> " + query);
+        result = query.get();
+        if (queryCache.size() < MAX_CACHED_QUERIES)
+        {
+            queryCache.putIfAbsent(shape, result);
+        }
 
-        return query;
+        return result;
+    }
+
+    /**
+     * Appends a part of a query shape key with its length, so that the parts of different shapes can't add up to
+     * the same key.
+     */
+    protected static StringBuilder appendShape(StringBuilder shape,
+                                               String part)
+    {
+        if (part == null)
+        {
+            return shape.append("-1;");
+        }
+
+        return shape.append(part.length()).append(';').append(part);
     }
 
     private String getEntityClassSimpleNameAsCamelHumpVariable()
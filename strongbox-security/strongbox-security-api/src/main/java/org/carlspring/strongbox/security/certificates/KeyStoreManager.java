@@ -97,7 +97,10 @@ public class KeyStoreManager
                    CertificateException,
                    NoSuchAlgorithmException
     {
-        return store(path, newPassword, load(path, oldPassword));
+        synchronized (this)
+        {
+            return store(path, newPassword, load(path, oldPassword));
+        }
     }
 
     public Map<String, Certificate> listCertificates(Path path,
@@ -129,20 +132,24 @@ public class KeyStoreManager
                    CertificateException,
                    NoSuchAlgorithmException
     {
-        KeyStore keyStore = load(path, password);
         String prefix = host.getCanonicalHostName() + ":" + port;
 
-        Enumeration<String> aliases = keyStore.aliases();
-        while (aliases.hasMoreElements())
+        synchronized (this)
         {
-            String alias = aliases.nextElement();
-            if (StringUtils.startsWithIgnoreCase(alias, prefix))
+            KeyStore keyStore = load(path, password);
+
+            Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements())
             {
-                keyStore.deleteEntry(alias);
+                String alias = aliases.nextElement();
+                if (StringUtils.startsWithIgnoreCase(alias, prefix))
+                {
+                    keyStore.deleteEntry(alias);
+                }
             }
-        }
 
-        return store(path, password, keyStore);
+            return store(path, password, keyStore);
+        }
     }
 
     public KeyStore addCertificates(Path path,
@@ -155,16 +162,10 @@ public class KeyStoreManager
                    NoSuchAlgorithmException,
                    KeyManagementException
     {
-        KeyStore keyStore = load(path, password);
         String prefix = host.getCanonicalHostName() + ":" + port;
         X509Certificate[] chain = remoteCertificateChain(host, port);
 
-        for (X509Certificate cert : chain)
-        {
-            keyStore.setCertificateEntry(prefix + "_" + cert.getSubjectDN().getName(), cert);
-        }
-
-        return store(path, password, keyStore);
+        return storeCertificates(path, password, prefix, chain);
     }
 
     public KeyStore addHttpsCertificates(Path path,
@@ -179,7 +180,6 @@ public class KeyStoreManager
                    IOException,
                    KeyManagementException
     {
-        KeyStore keyStore = load(path, password);
         String prefix = host + ":" + port;
         ChainCaptureTrustManager tm = new ChainCaptureTrustManager();
         SSLContext ctx = SSLContext.getInstance("TLS");
@@ -199,11 +199,6 @@ public class KeyStoreManager
         try
         {
             conn.connect();
-            for (X509Certificate cert : tm.chain)
-            {
-                keyStore.setCertificateEntry(prefix + "_" + cert.getSubjectDN().getName(), cert);
-            }
-            return store(path, password, keyStore);
         }
         finally
         {
@@ -211,6 +206,7 @@ public class KeyStoreManager
             conn.disconnect();
         }
 
+        return storeCertificates(path, password, prefix, tm.chain);
     }
 
     public KeyStore addSslCertificates(Path path,
@@ -225,16 +221,36 @@ public class KeyStoreManager
                    NoSuchAlgorithmException,
                    KeyManagementException
     {
-        KeyStore keyStore = load(path, password);
         String prefix = host + ":" + port;
         X509Certificate[] chain = remoteCertificateChain(socksProxy, credentials, host, port);
 
-        for (X509Certificate cert : chain)
+        return storeCertificates(path, password, prefix, chain);
+    }
+
+    /**
+     * The remote repositories are initialized in parallel, and each of them updates the same trust store, so that
+     * the changes of the key stores are made under the lock of the manager. The certificates are fetched before
+     * taking it.
+     */
+    private KeyStore storeCertificates(Path path,
+                                       char[] password,
+                                       String prefix,
+                                       X509Certificate[] chain)
+            throws KeyStoreException,
+                   IOException,
+                   CertificateException,
+                   NoSuchAlgorithmException
+    {
+        synchronized (this)
         {
-            keyStore.setCertificateEntry(prefix + "_" + cert.getSubjectDN().getName(), cert);
-        }
+            KeyStore keyStore = load(path, password);
+            for (X509Certificate cert : chain)
+            {
+                keyStore.setCertificateEntry(prefix + "_" + cert.getSubjectDN().getName(), cert);
+            }
 
-        return store(path, password, keyStore);
+            return store(path, password, keyStore);
+        }
     }
 
     private X509Certificate[] remoteCertificateChain(InetAddress address,
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.artifact;
 
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.AsyncEventListener;
 import org.carlspring.strongbox.event.artifact.ArtifactEvent;
@@ -8,18 +9,25 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.ThrowingFunction;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.transaction.ChainedTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
 
 public abstract class AsyncArtifactEntryHandler
 {
@@ -39,10 +47,25 @@ public abstract class AsyncArtifactEntryHandler
 
     private final ArtifactEventTypeEnum eventType;
 
+    /**
+     * The events which are being handled, including the ones waiting for the lock.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Counter retries;
+
     public AsyncArtifactEntryHandler(ArtifactEventTypeEnum eventType)
     {
         super();
         this.eventType = eventType;
+
+        String handler = ClassUtils.getUserClass(this).getSimpleName();
+        Gauge.builder("strongbox.artifact.entry.handler.pending", pending, AtomicInteger::get)
+             .tag("handler", handler)
+             .register(Metrics.globalRegistry);
+        retries = Counter.builder("strongbox.artifact.entry.handler.retries")
+                         .tag("handler", handler)
+                         .register(Metrics.globalRegistry);
     }
 
     @AsyncEventListener
@@ -61,6 +84,23 @@ public abstract class AsyncArtifactEntryHandler
             return;
         }
 
+        pending.incrementAndGet();
+        try
+        {
+            handle(repositoryPath);
+        }
+        finally
+        {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Handles the event in a new transaction, holding the lock of the artifact id group of the path.
+     */
+    protected void handle(RepositoryPath repositoryPath)
+        throws InterruptedException
+    {
         // TODO: this is needed just as workadound to have new transaction
         // within this async event (expected to be replaced with
         // just Propagation.REQUIRES_NEW after SB-1200)
@@ -85,8 +125,12 @@ public abstract class AsyncArtifactEntryHandler
         throws IOException,
         InterruptedException
     {
-        Lock lock = repositoryPathLock.lock(repositoryPath,
-                                            ArtifactEntry.class.getSimpleName())
+        Repository repository = repositoryPath.getRepository();
+        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
+
+        Lock lock = repositoryPathLock.lockArtifactIdGroup(repository.getStorage().getId(),
+                                                           repository.getId(),
+                                                           coordinates.getId())
                                       .writeLock();
         lock.lock();
         try
@@ -112,6 +156,18 @@ public abstract class AsyncArtifactEntryHandler
     private void handleWithRetry(RepositoryPath repositoryPath)
         throws InterruptedException,
         IOException
+    {
+        handleWithRetry(repositoryPath, this::handleEvent);
+    }
+
+    /**
+     * Applies the update in a transaction of the current thread, retrying it if needed, but without any lock. It's
+     * meant for updates which are prepared in advance and could be safely applied again.
+     */
+    protected void handleWithRetry(RepositoryPath repositoryPath,
+                                   ThrowingFunction<RepositoryPath, ArtifactEntry, IOException> update)
+        throws InterruptedException,
+        IOException
     {
         Object sync = new Object();
 
@@ -120,7 +176,7 @@ public abstract class AsyncArtifactEntryHandler
             try
             {
 
-                handleTransactional(repositoryPath);
+                handleTransactional(repositoryPath, update);
 
                 return;
             }
@@ -128,6 +184,7 @@ public abstract class AsyncArtifactEntryHandler
             {
                 logger.debug(String.format("Retry event [%s] for path [%s]", this.getClass().getSimpleName(),
                                            repositoryPath));
+                retries.increment();
                 propogateIfNeeded(i, repositoryPath, e);
             }
 
@@ -149,12 +206,13 @@ public abstract class AsyncArtifactEntryHandler
         }
     }
 
-    private void handleTransactional(RepositoryPath repositoryPath)
+    private void handleTransactional(RepositoryPath repositoryPath,
+                                     ThrowingFunction<RepositoryPath, ArtifactEntry, IOException> update)
     {
         new TransactionTemplate(transactionManager).execute(t -> {
             try
             {
-                ArtifactEntry result = handleEvent(repositoryPath);
+                ArtifactEntry result = update.apply(repositoryPath);
                 if (result == null)
                 {
                     logger.debug(String.format("No [%s] result for event [%s] and path [%s].",
@@ -8,9 +8,12 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
+import java.util.zip.ZipException;
 
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Przemyslaw Fusik
@@ -21,10 +24,28 @@ public enum ZipArchiveListingFunction
 
     INSTANCE;
 
+    private static final Logger logger = LoggerFactory.getLogger(ZipArchiveListingFunction.class);
+
     @Override
     public Set<String> listFilenames(final RepositoryPath path)
             throws IOException
     {
+        return listZipFilenames(path);
+    }
+
+    Set<String> listZipFilenames(final Path path)
+            throws IOException
+    {
+        try
+        {
+            return getZipEntryNames(path);
+        }
+        catch (ZipException e)
+        {
+            // No readable central directory (i.e. a truncated archive), so the local entry headers are the only option.
+            logger.debug("Unable to read the central directory of [{}], reading the whole archive instead.", path, e);
+        }
+
         try (InputStream is = Files.newInputStream(path);
              BufferedInputStream bis = new BufferedInputStream(is);
              ArchiveInputStream ais = new ZipArchiveInputStream(bis))
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.artifact.locator.handlers;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegeneration;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -26,6 +27,8 @@ public class ArtifactLocationGenerateChecksumOperation
 
     private boolean forceRegeneration = false;
 
+    private ChecksumRegeneration checksumRegeneration;
+
     public void execute(RepositoryPath path)
             throws IOException
     {
@@ -83,6 +86,12 @@ public class ArtifactLocationGenerateChecksumOperation
         }
 
         RepositoryPath basePath = parentPath;
+        if (checksumRegeneration != null)
+        {
+            checksumRegeneration.submit(basePath);
+            return;
+        }
+
         LayoutFileSystemProvider provider = (LayoutFileSystemProvider) basePath.getFileSystem()
                                                                                                    .provider();
         provider.storeChecksum(basePath, forceRegeneration);
@@ -97,4 +106,18 @@ public class ArtifactLocationGenerateChecksumOperation
     {
         this.forceRegeneration = forceRegeneration;
     }
+
+    public ChecksumRegeneration getChecksumRegeneration()
+    {
+        return checksumRegeneration;
+    }
+
+    /**
+     * @param checksumRegeneration the run to submit the directories to, instead of regenerating their checksums in
+     *                             place
+     */
+    public void setChecksumRegeneration(ChecksumRegeneration checksumRegeneration)
+    {
+        this.checksumRegeneration = checksumRegeneration;
+    }
 }
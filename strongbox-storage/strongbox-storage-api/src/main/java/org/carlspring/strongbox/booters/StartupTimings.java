@@ -0,0 +1,81 @@
+package org.carlspring.strongbox.booters;
+
+import org.carlspring.strongbox.util.ThrowingSupplier;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long the phases of the startup take, and reports the breakdown once the application context is
+ * refreshed.
+ */
+@Component
+public class StartupTimings
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimings.class);
+
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    public <T, E extends Throwable> T record(String phase,
+                                             ThrowingSupplier<T, E> step)
+            throws E
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return step.get();
+        }
+        finally
+        {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            phases.merge(phase, millis, Long::sum);
+
+            logger.debug("Startup phase [{}] took [{}] ms.", phase, millis);
+        }
+    }
+
+    public Map<String, Long> getPhases()
+    {
+        synchronized (phases)
+        {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void report()
+    {
+        if (!reported.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        logger.info(summary());
+    }
+
+    public boolean isReported()
+    {
+        return reported.get();
+    }
+
+    String summary()
+    {
+        StringBuilder summary = new StringBuilder("Startup phases:");
+        getPhases().forEach((phase, millis) -> summary.append(String.format("%n  * %s: %s ms", phase, millis)));
+
+        return summary.toString();
+    }
+
+}
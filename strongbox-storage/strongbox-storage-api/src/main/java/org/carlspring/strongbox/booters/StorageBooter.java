@@ -14,17 +14,29 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Throwables;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.carlspring.strongbox.util.ThrowingConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * @author mtodorov
@@ -49,6 +61,15 @@ public class StorageBooter
     @Inject
     private PropertiesBooter propertiesBooter;
 
+    @Inject
+    private StartupTimings startupTimings;
+
+    /**
+     * The number of the repositories initialized in parallel, the number of processors by default.
+     */
+    @Value("${strongbox.storage.booter.parallelism:0}")
+    private int parallelism;
+
     private Path lockFile;
 
 
@@ -68,7 +89,12 @@ public class StorageBooter
             
             final Configuration configuration = configurationManager.getConfiguration();
 
-            initializeStorages(configuration.getStorages());
+            startupTimings.record("Storages", () ->
+            {
+                initializeStorages(configuration.getStorages());
+
+                return null;
+            });
 
             Collection<Repository> repositories = getRepositoriesHierarchy(configuration.getStorages());
 
@@ -77,7 +103,22 @@ public class StorageBooter
                 logger.info(" -> Initializing repositories...");
             }
 
-            repositories.forEach(ThrowingConsumer.unchecked(this::initializeRepository));
+            // The group repositories are initialized after all of their members, the others are independent.
+            Map<Boolean, List<Repository>> repositoriesByGroup = repositories.stream()
+                                                                             .collect(Collectors.partitioningBy(
+                                                                                     Repository::isGroupRepository));
+            startupTimings.record("Repositories", () ->
+            {
+                initializeRepositories(repositoriesByGroup.get(false));
+
+                return null;
+            });
+            startupTimings.record("Group repositories", () ->
+            {
+                repositoriesByGroup.get(true).forEach(ThrowingConsumer.unchecked(this::initializeRepository));
+
+                return null;
+            });
         }
         else
         {
@@ -139,6 +180,51 @@ public class StorageBooter
         logger.info("  * Initializing " + storage.getId() + "...");
     }
 
+    private void initializeRepositories(List<Repository> repositories)
+            throws IOException, RepositoryManagementStrategyException
+    {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, repositories.size())),
+                                                                new CustomizableThreadFactory("storage-booter-"));
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (Repository repository : repositories)
+        {
+            tasks.add(() ->
+                      {
+                          initializeRepository(repository);
+
+                          return null;
+                      });
+        }
+
+        try
+        {
+            List<Future<Object>> results = executor.invokeAll(tasks);
+            for (Future<Object> result : results)
+            {
+                result.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Interrupted while initializing the repositories.", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfInstanceOf(e.getCause(), RepositoryManagementStrategyException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+
+            throw new UndeclaredThrowableException(e.getCause());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     private void initializeRepository(Repository repository)
             throws IOException, RepositoryManagementStrategyException
     {
@@ -2,18 +2,31 @@ package org.carlspring.strongbox.config;
 
 import org.carlspring.strongbox.booters.StorageBooter;
 import org.carlspring.strongbox.booters.TempDirBooter;
+import org.carlspring.strongbox.providers.io.HazelcastRepositoryLockProvider;
+import org.carlspring.strongbox.providers.io.LocalRepositoryLockProvider;
+import org.carlspring.strongbox.providers.io.RepositoryLockProvider;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 
 import javax.inject.Inject;
+import javax.sql.DataSource;
 import java.util.LinkedHashSet;
 import java.util.List;
 
+import com.hazelcast.core.HazelcastInstance;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.util.StringUtils;
 
 @Configuration
 @ComponentScan({ "org.carlspring.strongbox.artifact",
@@ -31,9 +44,62 @@ import org.springframework.scheduling.annotation.EnableAsync;
 public class StorageApiConfig
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(StorageApiConfig.class);
+
+    public static final String LIQUIBASE_STORAGE_API = "liquibaseStorageApi";
+
+    private static final String ENTITY_MANAGER_FACTORY = "entityManagerFactory";
+
     @Inject
     private List<ArtifactCoordinatesValidator> versionValidators;
 
+    /**
+     * Either <code>local</code> or <code>hazelcast</code>. If not set, the Hazelcast locks are only used when the
+     * cluster members are discovered.
+     */
+    @Value("${strongbox.storage.lock.provider:}")
+    private String lockProvider;
+
+    @Value("${strongbox.storage.lock.concurrency-level:64}")
+    private int lockConcurrencyLevel;
+
+    @Value("${cacheManagerConfiguration.enableMulticastConfig:false}")
+    private boolean clustered;
+
+    /**
+     * Applies the changes of the storage API entities, on top of the base schema.
+     */
+    @Bean(name = LIQUIBASE_STORAGE_API)
+    @DependsOn("liquibase")
+    SpringLiquibase storageApiLiquibase(DataSource dataSource,
+                                        ResourceLoader resourceLoader)
+    {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-storage-api.xml");
+        return liquibase;
+    }
+
+    /**
+     * Every service gets its sessions from the entity manager factory, so it waits for the storage API changes, and
+     * not only for the base schema.
+     */
+    @Bean
+    static BeanFactoryPostProcessor entityManagerFactoryDependsOnStorageApiLiquibase()
+    {
+        return beanFactory -> {
+            if (!beanFactory.containsBeanDefinition(ENTITY_MANAGER_FACTORY))
+            {
+                return;
+            }
+
+            BeanDefinition entityManagerFactory = beanFactory.getBeanDefinition(ENTITY_MANAGER_FACTORY);
+            entityManagerFactory.setDependsOn(StringUtils.addStringToArray(entityManagerFactory.getDependsOn(),
+                                                                           LIQUIBASE_STORAGE_API));
+        };
+    }
+
     @Bean
     ChecksumCacheManager checksumCacheManager()
     {
@@ -44,6 +110,26 @@ public class StorageApiConfig
         return checksumCacheManager;
     }
 
+    @Bean
+    RepositoryLockProvider repositoryLockProvider(HazelcastInstance hazelcastInstance)
+    {
+        String provider = lockProvider.isEmpty() ?
+                          (clustered ? HazelcastRepositoryLockProvider.NAME : LocalRepositoryLockProvider.NAME) :
+                          lockProvider;
+
+        logger.info(String.format("Using the [%s] repository lock provider.", provider));
+
+        switch (provider)
+        {
+            case HazelcastRepositoryLockProvider.NAME:
+                return new HazelcastRepositoryLockProvider(hazelcastInstance);
+            case LocalRepositoryLockProvider.NAME:
+                return new LocalRepositoryLockProvider(lockConcurrencyLevel);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown repository lock provider [%s].", provider));
+        }
+    }
+
     @Bean
     LinkedHashSet<ArtifactCoordinatesValidator> versionValidators()
     {
@@ -10,7 +10,6 @@ import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
-import javax.persistence.Transient;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
@@ -37,6 +36,12 @@ public class ArtifactEntry
                            CascadeType.REFRESH })
     private AbstractArtifactCoordinates artifactCoordinates;
 
+    /**
+     * The path of the {@link #artifactCoordinates}, which is stored for the (storageId, repositoryId, artifactPath)
+     * index.
+     */
+    private String artifactPath;
+
     @ManyToMany(targetEntity = ArtifactTagEntry.class)
     private Set<ArtifactTag> tagSet;
 
@@ -47,6 +52,18 @@ public class ArtifactEntry
 
     private Long sizeInBytes;
 
+    /**
+     * The packaging of the artifact, as declared by its descriptor (like the `<packaging>` of a Maven POM), which is
+     * read when the artifact is stored.
+     */
+    private String packaging;
+
+    /**
+     * The name of the artifact, as declared by its descriptor (like the `<name>` of a Maven POM), which is read when
+     * the artifact is stored.
+     */
+    private String name;
+
     private Date lastUpdated;
 
     private Date lastUsed;
@@ -87,6 +104,7 @@ public class ArtifactEntry
     public void setArtifactCoordinates(ArtifactCoordinates artifactCoordinates)
     {
         this.artifactCoordinates = (AbstractArtifactCoordinates) artifactCoordinates;
+        setArtifactPath(artifactCoordinates == null ? null : artifactCoordinates.toPath());
     }
 
     public Set<ArtifactTag> getTagSet()
@@ -119,6 +137,26 @@ public class ArtifactEntry
         this.sizeInBytes = sizeInBytes;
     }
 
+    public String getPackaging()
+    {
+        return packaging;
+    }
+
+    public void setPackaging(String packaging)
+    {
+        this.packaging = packaging;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
     public Date getLastUpdated()
     {
         return lastUpdated != null ? new Date(lastUpdated.getTime()) : null;
@@ -169,7 +207,6 @@ public class ArtifactEntry
         this.artifactArchiveListing = artifactArchiveListing;
     }
 
-    @Transient
     public String getArtifactPath()
     {
         return Optional.of(getArtifactCoordinates())
@@ -177,6 +214,11 @@ public class ArtifactEntry
                        .orElseThrow(() -> new IllegalStateException("ArtifactCoordinates required to be set."));
     }
 
+    protected void setArtifactPath(String artifactPath)
+    {
+        this.artifactPath = artifactPath;
+    }
+
     @Override
     public String toString()
     {
@@ -191,6 +233,8 @@ public class ArtifactEntry
         sb.append(", artifactArchiveListing=").append(artifactArchiveListing);
         sb.append(", entityVersion=").append(entityVersion);
         sb.append(", sizeInBytes=").append(sizeInBytes);
+        sb.append(", packaging='").append(packaging).append('\'');
+        sb.append(", name='").append(name).append('\'');
         sb.append(", lastUpdated=").append(lastUpdated);
         sb.append(", lastUsed=").append(lastUsed);
         sb.append(", created=").append(created);
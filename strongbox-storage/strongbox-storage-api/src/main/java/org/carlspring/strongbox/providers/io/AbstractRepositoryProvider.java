@@ -138,7 +138,9 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
     {
         RepositoryPath repositoryPath = (RepositoryPath) ctx.getPath();
         logger.debug(String.format("Writing [%s]", repositoryPath));
-        
+
+        RepositoryPathScope.invalidate(repositoryPath);
+
         if (!RepositoryFiles.isArtifact(repositoryPath))
         {
             return;
@@ -229,8 +231,12 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
         artifactEntry.getChecksums().clear();
         artifactEntry.getChecksums().putAll(los.getDigestMap());
 
+        layoutProviderRegistry.getProvider(repository.getLayout()).populateArtifactEntry(repositoryPath, artifactEntry);
+
         RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
         repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, artifactEntry);
+
+        RepositoryPathScope.invalidate(repositoryPath);
     }
 
     protected ArtifactEntry provideArtifactEntry(RepositoryPath repositoryPath) throws IOException
@@ -0,0 +1,38 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import ca.thoughtwire.lock.DistributedLockService;
+
+/**
+ * {@link RepositoryLockProvider} for clustered deployments, with the locks shared by all the members of the
+ * Hazelcast cluster.
+ */
+public class HazelcastRepositoryLockProvider
+        implements RepositoryLockProvider
+{
+
+    public static final String NAME = "hazelcast";
+
+    private final DistributedLockService lockService;
+
+    public HazelcastRepositoryLockProvider(HazelcastInstance hazelcastInstance)
+    {
+        lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public ReadWriteLock getLock(String name)
+    {
+        return lockService.getReentrantReadWriteLock(name);
+    }
+
+}
@@ -0,0 +1,130 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * {@link RepositoryLockProvider} for single node deployments, where there is no other member to share the locks with.
+ * <p>
+ * There is a {@link ReentrantReadWriteLock} per lock name, rather than per stripe of names, because the paths are
+ * locked in a nested way (for example the artifact and then it's metadata), so that two unrelated names sharing a
+ * stripe could deadlock. The locks are weakly referenced and are collected once nobody uses them.
+ */
+public class LocalRepositoryLockProvider
+        implements RepositoryLockProvider
+{
+
+    public static final String NAME = "local";
+
+    private final ConcurrentMap<String, LocalReadWriteLock> locks;
+
+    public LocalRepositoryLockProvider(int concurrencyLevel)
+    {
+        locks = new MapMaker().concurrencyLevel(concurrencyLevel)
+                              .weakValues()
+                              .makeMap();
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public ReadWriteLock getLock(String name)
+    {
+        return locks.computeIfAbsent(name, n -> new LocalReadWriteLock());
+    }
+
+    /**
+     * The read and write locks of {@link ReentrantReadWriteLock} don't reference the lock they belong to, so they are
+     * wrapped with the ones which do, to keep the weakly referenced lock while any of them is held.
+     */
+    private static class LocalReadWriteLock
+            implements ReadWriteLock
+    {
+
+        private final Lock readLock;
+
+        private final Lock writeLock;
+
+        LocalReadWriteLock()
+        {
+            ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+            readLock = new OwnedLock(lock.readLock());
+            writeLock = new OwnedLock(lock.writeLock());
+        }
+
+        @Override
+        public Lock readLock()
+        {
+            return readLock;
+        }
+
+        @Override
+        public Lock writeLock()
+        {
+            return writeLock;
+        }
+
+        private class OwnedLock
+                implements Lock
+        {
+
+            private final Lock lock;
+
+            OwnedLock(Lock lock)
+            {
+                this.lock = lock;
+            }
+
+            @Override
+            public void lock()
+            {
+                lock.lock();
+            }
+
+            @Override
+            public void lockInterruptibly()
+                throws InterruptedException
+            {
+                lock.lockInterruptibly();
+            }
+
+            @Override
+            public boolean tryLock()
+            {
+                return lock.tryLock();
+            }
+
+            @Override
+            public boolean tryLock(long time,
+                                   TimeUnit unit)
+                throws InterruptedException
+            {
+                return lock.tryLock(time, unit);
+            }
+
+            @Override
+            public void unlock()
+            {
+                lock.unlock();
+            }
+
+            @Override
+            public Condition newCondition()
+            {
+                return lock.newCondition();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Provides the named {@link ReadWriteLock}s which {@link RepositoryPathLock} hands out for the repository paths.
+ */
+public interface RepositoryLockProvider
+{
+
+    /**
+     * @return the name of the provider, used to tag the lock metrics
+     */
+    String getName();
+
+    /**
+     * Returns the lock of the name. Any two calls with the same name, which are made while the lock is held, must
+     * return the same lock.
+     */
+    ReadWriteLock getLock(String name);
+
+}
@@ -3,23 +3,34 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import com.hazelcast.core.HazelcastInstance;
-
-import ca.thoughtwire.lock.DistributedLockService;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 /**
+ * The locks are provided by the {@link RepositoryLockProvider}, which is the Hazelcast one in clustered deployments
+ * and the in-JVM one otherwise. The time it takes to acquire any of them is recorded as the
+ * <code>strongbox.repository.lock.acquire</code> timer, which is tagged with the name of the provider, so that the
+ * Hazelcast locks can be told apart from the local ones. The time the repository streams wait for them is also
+ * recorded per repository as the <code>strongbox.repository.lock.wait</code> timer, see
+ * {@link RepositoryStreamMetrics}.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -28,12 +39,30 @@ public class RepositoryPathLock
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryPathLock.class);
 
-    private DistributedLockService lockService;
+    private RepositoryLockProvider lockProvider;
+
+    private Timer readLockAcquisition;
+
+    private Timer writeLockAcquisition;
 
     @Inject
-    public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
+    public void setLockProvider(RepositoryLockProvider lockProvider)
     {
-        lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+        this.lockProvider = lockProvider;
+        this.readLockAcquisition = acquisitionTimer(lockProvider, "read");
+        this.writeLockAcquisition = acquisitionTimer(lockProvider, "write");
+    }
+
+    private static Timer acquisitionTimer(RepositoryLockProvider lockProvider,
+                                          String mode)
+    {
+        return Timer.builder("strongbox.repository.lock.acquire")
+                    .tag("provider", lockProvider.getName())
+                    .tag("mode", mode)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1000))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(Metrics.globalRegistry);
     }
 
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath) throws IOException
@@ -50,7 +79,25 @@ public class RepositoryPathLock
                                   .orElseGet(() -> lock.toString());
         logger.debug(String.format("Get lock for [%s]", lock));
         
-        return lockService.getReentrantReadWriteLock(lockName);
+        return new TimedReadWriteLock(lockProvider.getLock(lockName));
+    }
+
+    /**
+     * Returns the lock of the entries of a <code>RepositoryArtifactIdGroup</code>, which has to be held while any entry
+     * of the group is stored, since it could move the last version tag of the other entries of the group.
+     */
+    public ReadWriteLock lockArtifactIdGroup(String storageId,
+                                             String repositoryId,
+                                             String artifactId)
+    {
+        String lockName = String.format("%s/%s/%s?%s",
+                                        storageId,
+                                        repositoryId,
+                                        artifactId,
+                                        ArtifactEntry.class.getSimpleName());
+        logger.debug(String.format("Get lock for [%s]", lockName));
+
+        return new TimedReadWriteLock(lockProvider.getLock(lockName));
     }
 
     private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
@@ -58,9 +105,8 @@ public class RepositoryPathLock
         if (RepositoryFiles.isArtifact(repositoryPath))
         {
             ArtifactCoordinates c = RepositoryFiles.readCoordinates(repositoryPath);
-            // We should lock all the RepositoryArtifactIdGroup because there can be
-            // `ArtifactEntryServiceImpl.updateLastVersionTag()` operations
-            // which affetcs on other artifacts from group.
+            // All the versions of an artifact share the lock of the artifact id. The entries of the
+            // RepositoryArtifactIdGroup have their own lock, see `lockArtifactIdGroup()`.
             return URI.create(URLEncoder.encode(c.getId(), "UTF-8"));
         }
 
@@ -71,4 +117,103 @@ public class RepositoryPathLock
         return lock;
     }
 
+    /**
+     * The timed read and write locks are created once per {@link #lock(RepositoryPath, String)}, rather than for every
+     * call of {@link #readLock()} and {@link #writeLock()}.
+     */
+    private class TimedReadWriteLock
+            implements ReadWriteLock
+    {
+
+        private final Lock readLock;
+
+        private final Lock writeLock;
+
+        TimedReadWriteLock(ReadWriteLock lock)
+        {
+            this.readLock = new TimedLock(lock.readLock(), readLockAcquisition);
+            this.writeLock = new TimedLock(lock.writeLock(), writeLockAcquisition);
+        }
+
+        @Override
+        public Lock readLock()
+        {
+            return readLock;
+        }
+
+        @Override
+        public Lock writeLock()
+        {
+            return writeLock;
+        }
+
+    }
+
+    private static class TimedLock
+            implements Lock
+    {
+
+        private final Lock lock;
+
+        private final Timer acquisition;
+
+        TimedLock(Lock lock,
+                  Timer acquisition)
+        {
+            this.lock = lock;
+            this.acquisition = acquisition;
+        }
+
+        @Override
+        public void lock()
+        {
+            long start = System.nanoTime();
+            lock.lock();
+            acquisition.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            long start = System.nanoTime();
+            lock.lockInterruptibly();
+            acquisition.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            return lock.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            long start = System.nanoTime();
+            boolean acquired = lock.tryLock(time, unit);
+            if (acquired)
+            {
+                acquisition.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+
+            return acquired;
+        }
+
+        @Override
+        public void unlock()
+        {
+            lock.unlock();
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            return lock.newCondition();
+        }
+
+    }
+
 }
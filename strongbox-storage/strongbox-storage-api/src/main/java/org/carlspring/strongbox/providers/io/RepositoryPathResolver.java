@@ -86,6 +86,8 @@ public class RepositoryPathResolver
         private CachedRepositoryPath(RepositoryPath target)
         {
             super(target.getTarget(), target.getFileSystem());
+
+            this.cachedAttributes = RepositoryPathScope.attributes(getTarget());
         }
 
         @Override
@@ -97,9 +99,16 @@ public class RepositoryPathResolver
                 return null;
             }
 
-            return artifactEntryService.findOneArtifact(getRepository().getStorage().getId(),
-                                                        getRepository().getId(),
-                                                        RepositoryFiles.relativizePath(this));
+            String storageId = getRepository().getStorage().getId();
+            String repositoryId = getRepository().getId();
+            String path = RepositoryFiles.relativizePath(this);
+
+            return RepositoryPathScope.artifactEntry(storageId,
+                                                     repositoryId,
+                                                     path,
+                                                     () -> artifactEntryService.findOneArtifact(storageId,
+                                                                                                repositoryId,
+                                                                                                path));
             // TODO: we should check this restriction 
 //            if (Files.exists(this) && !Files.isDirectory(this) && RepositoryFiles.isArtifact(this) && result == null)
 //            {
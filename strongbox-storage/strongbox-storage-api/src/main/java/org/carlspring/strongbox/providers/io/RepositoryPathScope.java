@@ -0,0 +1,176 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.ThrowingSupplier;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoizes the repository attributes and the {@link ArtifactEntry} of the {@link RepositoryPath}s within a unit of
+ * work, like a download request. Without it, every {@link RepositoryPath} instance of the same path (and there are
+ * several of them within a request) reads the attributes, and looks up the {@link ArtifactEntry}, again.
+ * <br>
+ * The scope is bound to the thread which opened it, and the memoized values of a path are dropped whenever the path,
+ * or its {@link ArtifactEntry}, is written.
+ *
+ * <pre>
+ * try (RepositoryPathScope scope = RepositoryPathScope.open())
+ * {
+ *     ...
+ * }
+ * </pre>
+ */
+public class RepositoryPathScope
+        implements Closeable
+{
+
+    private static final ThreadLocal<RepositoryPathScope> CURRENT = new ThreadLocal<>();
+
+    private final RepositoryPathScope previous;
+
+    private final Map<Path, Map<RepositoryFileAttributeType, Object>> attributes = new HashMap<>();
+
+    private final Map<String, Optional<ArtifactEntry>> artifactEntries = new HashMap<>();
+
+    private RepositoryPathScope(RepositoryPathScope previous)
+    {
+        this.previous = previous;
+    }
+
+    public static RepositoryPathScope open()
+    {
+        RepositoryPathScope scope = new RepositoryPathScope(CURRENT.get());
+        CURRENT.set(scope);
+
+        return scope;
+    }
+
+    @Override
+    public void close()
+    {
+        if (CURRENT.get() != this)
+        {
+            return;
+        }
+
+        if (previous == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static boolean isOpen()
+    {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return the attributes map shared by all the paths with the same target within the current scope, or a new one
+     *         if there is no scope
+     */
+    static Map<RepositoryFileAttributeType, Object> attributes(Path target)
+    {
+        RepositoryPathScope scope = CURRENT.get();
+        if (scope == null)
+        {
+            return new HashMap<>();
+        }
+
+        // The path can be handed over to other threads, like the ones of the async event handlers.
+        return scope.attributes.computeIfAbsent(target, k -> new ConcurrentHashMap<>());
+    }
+
+    static ArtifactEntry artifactEntry(String storageId,
+                                       String repositoryId,
+                                       String path,
+                                       ThrowingSupplier<ArtifactEntry, IOException> lookup)
+        throws IOException
+    {
+        RepositoryPathScope scope = CURRENT.get();
+        if (scope == null)
+        {
+            return lookup.get();
+        }
+
+        String key = key(storageId, repositoryId, path);
+        Optional<ArtifactEntry> artifactEntry = scope.artifactEntries.get(key);
+        if (artifactEntry == null)
+        {
+            artifactEntry = Optional.ofNullable(lookup.get());
+            scope.artifactEntries.put(key, artifactEntry);
+        }
+
+        return artifactEntry.orElse(null);
+    }
+
+    /**
+     * Drops the memoized attributes and {@link ArtifactEntry} of the path.
+     */
+    public static void invalidate(RepositoryPath path)
+        throws IOException
+    {
+        RepositoryPathScope scope = CURRENT.get();
+        if (scope == null)
+        {
+            return;
+        }
+
+        // Cleared rather than just removed, as the paths which are already resolved still refer to it.
+        Optional.ofNullable(scope.attributes.remove(path.getTarget())).ifPresent(Map::clear);
+        path.cachedAttributes.clear();
+
+        Repository repository = path.getRepository();
+        scope.artifactEntries.remove(key(repository.getStorage().getId(),
+                                         repository.getId(),
+                                         RepositoryFiles.relativizePath(path)));
+    }
+
+    /**
+     * Drops the memoized {@link ArtifactEntry} of the path.
+     */
+    public static void invalidate(String storageId,
+                                  String repositoryId,
+                                  String path)
+    {
+        RepositoryPathScope scope = CURRENT.get();
+        if (scope == null)
+        {
+            return;
+        }
+
+        scope.artifactEntries.remove(key(storageId, repositoryId, path));
+    }
+
+    /**
+     * Drops all the memoized {@link ArtifactEntry}s, for the writes where the paths are not known.
+     */
+    public static void invalidateArtifactEntries()
+    {
+        RepositoryPathScope scope = CURRENT.get();
+        if (scope == null)
+        {
+            return;
+        }
+
+        scope.artifactEntries.clear();
+    }
+
+    private static String key(String storageId,
+                              String repositoryId,
+                              String path)
+    {
+        return String.format("%s:%s:%s", storageId, repositoryId, path);
+    }
+
+}
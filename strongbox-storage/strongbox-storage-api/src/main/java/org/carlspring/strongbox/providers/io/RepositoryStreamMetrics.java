@@ -0,0 +1,99 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Download and upload metrics of a repository. The meters are looked up once per repository, so that recording them
+ * for every stream doesn't go through the registry.
+ */
+class RepositoryStreamMetrics
+{
+
+    private static final ConcurrentMap<String, RepositoryStreamMetrics> REPOSITORY_METRICS = new ConcurrentHashMap<>();
+
+    private final Timer downloads;
+
+    private final Counter downloadedBytes;
+
+    private final Timer uploads;
+
+    private final Counter uploadedBytes;
+
+    private final Timer readLockWait;
+
+    private final Timer writeLockWait;
+
+    private RepositoryStreamMetrics(MeterRegistry registry,
+                                    Repository repository)
+    {
+        Tags tags = Tags.of("storage", repository.getStorage().getId(), "repository", repository.getId());
+
+        downloads = streamTimer("strongbox.repository.download", tags).register(registry);
+        downloadedBytes = Counter.builder("strongbox.repository.download.bytes")
+                                 .baseUnit("bytes")
+                                 .tags(tags)
+                                 .register(registry);
+        uploads = streamTimer("strongbox.repository.upload", tags).register(registry);
+        uploadedBytes = Counter.builder("strongbox.repository.upload.bytes")
+                               .baseUnit("bytes")
+                               .tags(tags)
+                               .register(registry);
+        readLockWait = Timer.builder("strongbox.repository.lock.wait")
+                            .tags(tags)
+                            .tag("mode", "read")
+                            .register(registry);
+        writeLockWait = Timer.builder("strongbox.repository.lock.wait")
+                             .tags(tags)
+                             .tag("mode", "write")
+                             .register(registry);
+    }
+
+    private static Timer.Builder streamTimer(String name,
+                                             Tags tags)
+    {
+        return Timer.builder(name)
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(5));
+    }
+
+    static RepositoryStreamMetrics of(Repository repository)
+    {
+        return REPOSITORY_METRICS.computeIfAbsent(repository.getStorageIdAndRepositoryId(),
+                                                  k -> new RepositoryStreamMetrics(Metrics.globalRegistry,
+                                                                                   repository));
+    }
+
+    void lockAcquired(boolean write,
+                      long waitNanos)
+    {
+        (write ? writeLockWait : readLockWait).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void downloaded(long bytes,
+                    long durationNanos)
+    {
+        downloads.record(durationNanos, TimeUnit.NANOSECONDS);
+        downloadedBytes.increment(bytes);
+    }
+
+    void uploaded(long bytes,
+                  long durationNanos)
+    {
+        uploads.record(durationNanos, TimeUnit.NANOSECONDS);
+        uploadedBytes.increment(bytes);
+    }
+
+}
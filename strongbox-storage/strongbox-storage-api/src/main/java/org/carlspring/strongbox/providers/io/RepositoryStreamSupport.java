@@ -37,6 +37,10 @@ public class RepositoryStreamSupport
     protected final ReadWriteLock lockSource;
     
     protected final RepositoryStreamCallback callback;
+
+    private RepositoryStreamMetrics metrics;
+
+    private long openedAt;
     
     
     public RepositoryStreamSupport(ReadWriteLock lockSource,
@@ -74,9 +78,16 @@ public class RepositoryStreamSupport
         
         logger.debug(String.format("Locking [%s].", path));
         
-        Lock lock = ctx instanceof RepositoryStreamWriteContext ? lockSource.writeLock() : lockSource.readLock();
+        boolean write = ctx instanceof RepositoryStreamWriteContext;
+        Lock lock = write ? lockSource.writeLock() : lockSource.readLock();
         ctx.setLock(lock);
+
+        long lockRequestedAt = System.nanoTime();
         lock.lock();
+        openedAt = System.nanoTime();
+
+        metrics = RepositoryStreamMetrics.of(path.getRepository());
+        metrics.lockAcquired(write, openedAt - lockRequestedAt);
 
         logger.debug(String.format("Locked [%s].", path));
         
@@ -97,6 +108,12 @@ public class RepositoryStreamSupport
         logger.debug(String.format("Unlocked [%s].", ctx.getPath()));
         
         clearContext();
+        metrics = null;
+    }
+
+    private long getOpenedNanos()
+    {
+        return System.nanoTime() - openedAt;
     }
 
     protected void commit() throws IOException
@@ -162,10 +179,17 @@ public class RepositoryStreamSupport
             try
             {
                 super.close();
-                if (((CountingOutputStream) out).getByteCount() > 0) 
+
+                long byteCount = ((CountingOutputStream) out).getByteCount();
+                if (byteCount > 0) 
                 {
                     callback.onAfterWrite((RepositoryStreamWriteContext) ctx);
                 }
+
+                if (metrics != null)
+                {
+                    metrics.uploaded(byteCount, getOpenedNanos());
+                }
             }
             catch (Exception e) 
             {
@@ -234,10 +258,17 @@ public class RepositoryStreamSupport
             try
             {
                 super.close();
-                if (((CountingInputStream) in).getByteCount() > 0) 
+
+                long byteCount = ((CountingInputStream) in).getByteCount();
+                if (byteCount > 0) 
                 {
                     callback.onAfterRead((RepositoryStreamReadContext) ctx);
                 }
+
+                if (metrics != null)
+                {
+                    metrics.downloaded(byteCount, getOpenedNanos());
+                }
             } 
             finally
             {
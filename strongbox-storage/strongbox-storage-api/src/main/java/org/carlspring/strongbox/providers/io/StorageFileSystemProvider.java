@@ -306,6 +306,8 @@ public abstract class StorageFileSystemProvider
                                 boolean force)
         throws IOException
     {
+        RepositoryPathScope.invalidate(repositoryPath);
+
         Repository repository = repositoryPath.getFileSystem().getRepository();
         if (!repository.isTrashEnabled() || RepositoryFiles.isTrash(repositoryPath))
         {
@@ -341,6 +343,8 @@ public abstract class StorageFileSystemProvider
             return;
         }
 
+        RepositoryPathScope.invalidate(path);
+
         if (!Files.isDirectory(trashPath.getTarget()))
         {
             Files.move(trashPath.getTarget(), path.getTarget(), StandardCopyOption.REPLACE_EXISTING);
@@ -374,6 +378,7 @@ public abstract class StorageFileSystemProvider
             Files.delete(path.getTarget());
         }
         Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.ATOMIC_MOVE);
+        RepositoryPathScope.invalidate(path);
 
         //path.artifactEntry = tempPath.artifactEntry;
 
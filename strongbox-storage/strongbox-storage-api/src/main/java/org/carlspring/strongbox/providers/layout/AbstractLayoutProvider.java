@@ -23,6 +23,7 @@ import org.carlspring.strongbox.artifact.archive.TarGzArchiveListingFunction;
 import org.carlspring.strongbox.artifact.archive.ZipArchiveListingFunction;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.providers.datastore.StorageProviderRegistry;
 import org.carlspring.strongbox.providers.io.LayoutFileSystem;
@@ -225,6 +226,13 @@ public abstract class AbstractLayoutProvider<T extends ArtifactCoordinates>
         return Collections.emptySet();
     }
 
+    @Override
+    public void populateArtifactEntry(RepositoryPath repositoryPath,
+                                      ArtifactEntry artifactEntry)
+            throws IOException
+    {
+    }
+
     @Override
     public Set<ArtifactGroup> getArtifactGroups(RepositoryPath path)
             throws IOException
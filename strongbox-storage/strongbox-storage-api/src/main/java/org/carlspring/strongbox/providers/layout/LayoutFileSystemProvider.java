@@ -6,12 +6,16 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
@@ -51,6 +55,8 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutFileSystemProvider.class);
 
+    private static final int CHECKSUM_BUFFER_SIZE = 128 * 1024;
+
     @Inject
     private ArtifactEventListenerRegistry artifactEventListenerRegistry;
     
@@ -178,65 +184,122 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                               boolean forceRegeneration)
             throws IOException
     {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to read attributes for [%s]", p), e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to write checksum for [%s]", p), e);
-                 }
-             });
+        for (RepositoryPath path : resolveChecksumSources(basePath))
+        {
+            try
+            {
+                regenerateChecksum(path, forceRegeneration);
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to write checksum for [%s]", path), e);
+            }
+        }
     }
 
-    
-    protected void writeChecksum(RepositoryPath path,
+    /**
+     * @return the files under the base path which should have checksums
+     */
+    public List<RepositoryPath> resolveChecksumSources(RepositoryPath basePath)
+            throws IOException
+    {
+        try (Stream<Path> pathStream = Files.walk(basePath))
+        {
+            return pathStream.filter(p -> !Files.isDirectory(p))
+                             .map(p -> (RepositoryPath) p)
+                             .filter(p -> {
+                                 try
+                                 {
+                                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum(p));
+                                 }
+                                 catch (IOException e)
+                                 {
+                                     logger.error(String.format("Failed to read attributes for [%s]", p), e);
+                                 }
+                                 return false;
+                             })
+                             .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Writes the checksums of the file. Unless forced, the checksums which are not older than the file are kept and
+     * the file isn't read at all if all of them are.
+     *
+     * @return the number of bytes digested, or <code>-1</code> if the checksums are up to date
+     */
+    public long regenerateChecksum(RepositoryPath path,
+                                   boolean force)
+            throws IOException
+    {
+        if (!force && isChecksumUpToDate(path))
+        {
+            return -1;
+        }
+
+        return writeChecksum(path, force);
+    }
+
+    public boolean isChecksumUpToDate(RepositoryPath path)
+            throws IOException
+    {
+        FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+        for (String digestAlgorithm : path.getFileSystem().getDigestAlgorithmSet())
+        {
+            if (!isChecksumUpToDate(getChecksumPath(path, digestAlgorithm), lastModifiedTime))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isChecksumUpToDate(RepositoryPath checksumPath,
+                                       FileTime lastModifiedTime)
+            throws IOException
+    {
+        return Files.exists(checksumPath) && Files.getLastModifiedTime(checksumPath).compareTo(lastModifiedTime) >= 0;
+    }
+
+    protected long writeChecksum(RepositoryPath path,
                                  boolean force)
             throws IOException
     {
+        FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+        long bytes = 0;
         try (InputStream is = newInputStream(path))
         {
-            byte[] buffer = new byte[1024];
-            while (is.read(buffer) > 0)
+            byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+            int n;
+            while ((n = is.read(buffer)) != -1)
             {
                 //calculate checksum while reading the stream
+                bytes += n;
             }
             Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
-            digestAlgorithmSet.stream()
-                              .forEach(p ->
-                                       {
-                                           String checksum = StreamUtils.findSource(LayoutInputStream.class, is)
-                                                                        .getMessageDigestAsHexadecimalString(p);
-                                           RepositoryPath checksumPath = getChecksumPath(path, p);
-                                           if (Files.exists(checksumPath) && !force)
-                                           {
-                                               return;
-                                           }
-                                           try
-                                           {
-                                               Files.write(checksumPath, checksum.getBytes());
-                                           }
-                                           catch (IOException e)
-                                           {
-                                               logger.error(String.format("Failed to write checksum for [%s]",
-                                                                          checksumPath.toString()), e);
-                                           }
-                                       });
+            for (String digestAlgorithm : digestAlgorithmSet)
+            {
+                String checksum = StreamUtils.findSource(LayoutInputStream.class, is)
+                                             .getMessageDigestAsHexadecimalString(digestAlgorithm);
+                RepositoryPath checksumPath = getChecksumPath(path, digestAlgorithm);
+                if (!force && isChecksumUpToDate(checksumPath, lastModifiedTime))
+                {
+                    continue;
+                }
+                try
+                {
+                    Files.write(checksumPath, checksum.getBytes());
+                }
+                catch (IOException e)
+                {
+                    logger.error(String.format("Failed to write checksum for [%s]",
+                                               checksumPath.toString()), e);
+                }
+            }
         }
+
+        return bytes;
     }
 
     @Override
@@ -7,6 +7,7 @@ import javax.annotation.Nonnull;
 
 import org.carlspring.strongbox.artifact.ArtifactGroup;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategy;
 
@@ -20,6 +21,14 @@ public interface LayoutProvider<T extends ArtifactCoordinates>
     @Nonnull
     Set<String> listArchiveFilenames(RepositoryPath repositoryPath);
 
+    /**
+     * Sets the properties of the {@link ArtifactEntry}, which are read from the content of the artifact, once it has
+     * been written.
+     */
+    void populateArtifactEntry(RepositoryPath repositoryPath,
+                               ArtifactEntry artifactEntry)
+            throws IOException;
+
     Set<String> getDefaultArtifactCoordinateValidators();
 
     String getAlias();
@@ -15,9 +15,17 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.io.input.CountingInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -30,6 +38,8 @@ public class ProxyRepositoryArtifactResolver
 {
     private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryArtifactResolver.class);
 
+    private static final ConcurrentMap<String, FetchMetrics> FETCH_METRICS = new ConcurrentHashMap<>();
+
     @Inject
     private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
@@ -56,11 +66,16 @@ public class ProxyRepositoryArtifactResolver
         throws IOException
     {
         Repository repository = repositoryPath.getFileSystem().getRepository();
+        final FetchMetrics metrics = FETCH_METRICS.computeIfAbsent(repository.getStorageIdAndRepositoryId(),
+                                                                   k -> new FetchMetrics(repository));
+
         final RemoteRepository remoteRepository = repository.getRemoteRepository();
         if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
         {
             logger.debug("Remote repository '" + remoteRepository.getUrl() + "' is down.");
 
+            metrics.unavailable.increment();
+
             return null;
         }
 
@@ -70,13 +85,22 @@ public class ProxyRepositoryArtifactResolver
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        // The lock wait isn't part of the remote latency.
+        long start = System.nanoTime();
+        boolean success = false;
+        CountingInputStream cis = new CountingInputStream(new ProxyRepositoryInputStream(client, repositoryPath));
+        try (InputStream is = new BufferedInputStream(cis))
         {
-            return doFetch(repositoryPath, is);
+            RepositoryPath result = doFetch(repositoryPath, is);
+            success = true;
+
+            return result;
         }
         finally
         {
             lock.unlock();
+
+            metrics.fetched(success, cis.getByteCount(), System.nanoTime() - start);
         }
     }
 
@@ -115,4 +139,52 @@ public class ProxyRepositoryArtifactResolver
         return repositoryPath;
     }
 
+    /**
+     * The remote fetch meters of a repository, registered once rather than looked up for every fetch.
+     */
+    private static class FetchMetrics
+    {
+
+        private final Counter unavailable;
+
+        private final Timer succeeded;
+
+        private final Timer failed;
+
+        private final Counter bytes;
+
+        FetchMetrics(Repository repository)
+        {
+            Tags tags = Tags.of("storage", repository.getStorage().getId(), "repository", repository.getId());
+
+            unavailable = Counter.builder("strongbox.proxy.fetch.unavailable")
+                                 .tags(tags)
+                                 .register(Metrics.globalRegistry);
+            succeeded = fetchTimer(tags, "success");
+            failed = fetchTimer(tags, "failure");
+            bytes = Counter.builder("strongbox.proxy.fetch.bytes")
+                           .baseUnit("bytes")
+                           .tags(tags)
+                           .register(Metrics.globalRegistry);
+        }
+
+        private static Timer fetchTimer(Tags tags,
+                                        String outcome)
+        {
+            return Timer.builder("strongbox.proxy.fetch")
+                        .tags(tags)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(Metrics.globalRegistry);
+        }
+
+        void fetched(boolean success,
+                     long fetchedBytes,
+                     long durationNanos)
+        {
+            (success ? succeeded : failed).record(durationNanos, TimeUnit.NANOSECONDS);
+            bytes.increment(fetchedBytes);
+        }
+    }
+
 }
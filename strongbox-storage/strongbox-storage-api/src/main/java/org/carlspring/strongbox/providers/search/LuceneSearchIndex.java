@@ -0,0 +1,367 @@
+package org.carlspring.strongbox.providers.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * The Lucene index of the {@link LuceneSearchProvider} in a directory.
+ * <p>
+ * Only one {@link IndexWriter} can hold the lock of the directory, so the index is shared by all the providers of the
+ * JVM which use the same vault, like the cached application contexts of the tests do. It's opened by the first of
+ * them and closed with the last one.
+ */
+class LuceneSearchIndex
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneSearchIndex.class);
+
+    static final int GRAM_SIZE = 3;
+
+    /**
+     * The fields of the grams of the values, whose substrings are matched with the phrases of their trigrams.
+     */
+    static final String FIELD_GRAMS_SUFFIX = ".grams";
+
+    /**
+     * The fields of the shorter grams, which match the substrings shorter than a trigram.
+     */
+    static final String FIELD_SHORT_GRAMS_SUFFIX = ".shortGrams";
+
+    static final String FIELD_ID = "id";
+
+    /**
+     * Marks the index, which has been completely populated from the database and then closed cleanly. It's removed
+     * when the index is opened, so that the index is populated again after a crash, which could lose the changes of
+     * the last commit interval. The format version of the documents is a part of the marker, so that the index of an
+     * older format is populated again as well.
+     */
+    private static final String FIELD_MARKER = "marker";
+
+    private static final String MARKER_POPULATED = "populated-v2";
+
+    /**
+     * The directory of the index -> the index.
+     */
+    private static final Map<Path, LuceneSearchIndex> OPEN_INDEXES = new HashMap<>();
+
+    private final Path indexDirectory;
+
+    private final Directory directory;
+
+    private final IndexWriter indexWriter;
+
+    private final SearcherManager searcherManager;
+
+    private final ScheduledExecutorService refreshExecutor;
+
+    private final AtomicBoolean populating = new AtomicBoolean();
+
+    private volatile boolean ready;
+
+    /**
+     * The ids of the documents, or the id prefixes of the directories, removed while the index is being populated,
+     * which must not be brought back by the database pages read before the removal.
+     */
+    private final Set<String> removedWhilePopulating = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * The number of the providers, which have opened the index and not closed it yet; guarded by
+     * {@link #OPEN_INDEXES}.
+     */
+    private int owners;
+
+    private LuceneSearchIndex(Path indexDirectory,
+                              long refreshIntervalMs,
+                              long commitIntervalSeconds)
+            throws IOException
+    {
+        this.indexDirectory = indexDirectory;
+
+        Files.createDirectories(indexDirectory);
+
+        directory = FSDirectory.open(indexDirectory);
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(new GramAnalyzer()));
+        searcherManager = new SearcherManager(indexWriter, true, new SearcherFactory());
+
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("lucene-search-"));
+        refreshExecutor.scheduleWithFixedDelay(this::refresh, refreshIntervalMs, refreshIntervalMs,
+                                               TimeUnit.MILLISECONDS);
+        refreshExecutor.scheduleWithFixedDelay(this::commit, commitIntervalSeconds, commitIntervalSeconds,
+                                               TimeUnit.SECONDS);
+
+        ready = count(new TermQuery(new Term(FIELD_MARKER, MARKER_POPULATED))) > 0;
+
+        // Any marker, including the ones of the older formats.
+        indexWriter.deleteDocuments(new PrefixQuery(new Term(FIELD_MARKER, "")));
+        indexWriter.commit();
+    }
+
+    /**
+     * Opens the index in the directory, or shares the one which is already open. Every call has to be followed by a
+     * {@link #close()}.
+     */
+    static LuceneSearchIndex open(Path indexDirectory,
+                                  long refreshIntervalMs,
+                                  long commitIntervalSeconds)
+            throws IOException
+    {
+        Path key = indexDirectory.toAbsolutePath().normalize();
+
+        synchronized (OPEN_INDEXES)
+        {
+            LuceneSearchIndex index = OPEN_INDEXES.get(key);
+            if (index == null)
+            {
+                index = new LuceneSearchIndex(key, refreshIntervalMs, commitIntervalSeconds);
+                OPEN_INDEXES.put(key, index);
+            }
+
+            index.owners++;
+
+            return index;
+        }
+    }
+
+    void close()
+            throws IOException
+    {
+        synchronized (OPEN_INDEXES)
+        {
+            if (--owners > 0)
+            {
+                return;
+            }
+
+            OPEN_INDEXES.remove(indexDirectory);
+        }
+
+        refreshExecutor.shutdown();
+
+        if (ready)
+        {
+            Document marker = new Document();
+            marker.add(new StringField(FIELD_MARKER, MARKER_POPULATED, Field.Store.NO));
+
+            indexWriter.addDocument(marker);
+        }
+        indexWriter.commit();
+
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    boolean isReady()
+    {
+        return ready;
+    }
+
+    /**
+     * @return `true` if the index has to be populated, and the caller is the one to do it
+     */
+    boolean startPopulating()
+    {
+        return !ready && populating.compareAndSet(false, true);
+    }
+
+    void populated()
+            throws IOException
+    {
+        indexWriter.commit();
+        searcherManager.maybeRefresh();
+
+        ready = true;
+        removedWhilePopulating.clear();
+        populating.set(false);
+    }
+
+    /**
+     * Lets the next {@link #startPopulating()} try again.
+     */
+    void populatingFailed()
+    {
+        populating.set(false);
+    }
+
+    void deleteAll()
+            throws IOException
+    {
+        indexWriter.deleteAll();
+    }
+
+    void index(Document document)
+            throws IOException
+    {
+        String id = document.get(FIELD_ID);
+        removedWhilePopulating.remove(id);
+
+        indexWriter.updateDocument(new Term(FIELD_ID, id), document);
+    }
+
+    /**
+     * Adds a document read from the database, unless it has been removed in the meantime.
+     */
+    void indexIfNotRemoved(Document document)
+            throws IOException
+    {
+        String id = document.get(FIELD_ID);
+        synchronized (removedWhilePopulating)
+        {
+            if (removedWhilePopulating.stream().anyMatch(r -> r.equals(id) || r.endsWith("/") && id.startsWith(r)))
+            {
+                return;
+            }
+        }
+
+        indexWriter.addDocument(document);
+    }
+
+    /**
+     * Removes the document with the id, or all the documents underneath, if the id ends with a slash.
+     */
+    void remove(String id)
+    {
+        if (!ready)
+        {
+            removedWhilePopulating.add(id);
+        }
+
+        try
+        {
+            if (id.endsWith("/"))
+            {
+                indexWriter.deleteDocuments(new PrefixQuery(new Term(FIELD_ID, id)));
+            }
+            else
+            {
+                indexWriter.deleteDocuments(new Term(FIELD_ID, id));
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to remove [%s] from the search index.", id), e);
+        }
+    }
+
+    List<Document> find(Query query,
+                        int maxResults)
+            throws IOException
+    {
+        IndexSearcher searcher = searcherManager.acquire();
+        try
+        {
+            ScoreDoc[] scoreDocs = searcher.search(query, maxResults).scoreDocs;
+
+            List<Document> result = new ArrayList<>(scoreDocs.length);
+            for (ScoreDoc scoreDoc : scoreDocs)
+            {
+                result.add(searcher.doc(scoreDoc.doc));
+            }
+
+            return result;
+        }
+        finally
+        {
+            searcherManager.release(searcher);
+        }
+    }
+
+    int count(Query query)
+            throws IOException
+    {
+        IndexSearcher searcher = searcherManager.acquire();
+        try
+        {
+            return searcher.count(query);
+        }
+        finally
+        {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Makes the changes searchable right away, rather than with the next periodic refresh.
+     */
+    void refresh()
+    {
+        try
+        {
+            searcherManager.maybeRefresh();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to refresh the search index.", e);
+        }
+    }
+
+    private void commit()
+    {
+        try
+        {
+            if (indexWriter.hasUncommittedChanges())
+            {
+                indexWriter.commit();
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to commit the search index.", e);
+        }
+    }
+
+    /**
+     * Splits the gram fields into the trigrams, one per position, so that a substring is matched by the phrase of its
+     * own trigrams, and the short gram fields into the grams shorter than that. The other fields are not analyzed.
+     */
+    static class GramAnalyzer
+            extends Analyzer
+    {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName)
+        {
+            if (fieldName.endsWith(FIELD_SHORT_GRAMS_SUFFIX))
+            {
+                return new TokenStreamComponents(new NGramTokenizer(1, GRAM_SIZE - 1));
+            }
+
+            return new TokenStreamComponents(new NGramTokenizer(GRAM_SIZE, GRAM_SIZE));
+        }
+
+    }
+
+}
@@ -0,0 +1,656 @@
+package org.carlspring.strongbox.providers.search;
+
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.search.SearchRequest;
+import org.carlspring.strongbox.storage.search.SearchResult;
+import org.carlspring.strongbox.storage.search.SearchResults;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.carlspring.strongbox.providers.search.LuceneSearchIndex.FIELD_GRAMS_SUFFIX;
+import static org.carlspring.strongbox.providers.search.LuceneSearchIndex.FIELD_ID;
+import static org.carlspring.strongbox.providers.search.LuceneSearchIndex.FIELD_SHORT_GRAMS_SUFFIX;
+import static org.carlspring.strongbox.providers.search.LuceneSearchIndex.GRAM_SIZE;
+
+/**
+ * Searches the artifacts of all layouts within an embedded Lucene index, which is kept in the vault next to the
+ * database.
+ * <p>
+ * The index has a document per {@link ArtifactEntry}, with its coordinates, tags and path, and it's updated from the
+ * artifact events. The changes become searchable with the periodic near-real-time refresh of the searcher. The
+ * index is opened with the first search, and populated from the database in the background when it's created; until
+ * then the provider is not {@link #isReady() ready}.
+ * <p>
+ * The query has the same <code>key=value;</code> format as for the {@link OrientDbSearchProvider}, where the key is
+ * a coordinate name, <code>tag</code> or <code>path</code>, and the value is either:
+ * <ul>
+ * <li><code>*</code>, to match the artifacts which have the coordinate, tag or path,</li>
+ * <li>a prefix followed by <code>*</code>,</li>
+ * <li>a substring, either as is or between two <code>*</code>, which is matched with the trigrams of the coordinate,
+ * as the {@link OrientDbSearchProvider} matches it with <code>LIKE</code>; the tags and the path are matched
+ * exactly,</li>
+ * <li>any other wildcard pattern, with <code>*</code> and <code>?</code>.</li>
+ * </ul>
+ * All the values are case insensitive.
+ * <p>
+ * The results are built from the stored fields of the documents, with the coordinates read from the path by the
+ * layout, so a search doesn't touch the database.
+ */
+@Component("luceneSearchProvider")
+public class LuceneSearchProvider
+        extends AbstractSearchProvider
+        implements DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneSearchProvider.class);
+
+    private static final String QUERY_PATTERN_DB = "([^=]+)=([^;]+);";
+
+    public static final String ALIAS = "Lucene";
+
+    static final String FIELD_STORAGE_ID = "storageId";
+
+    static final String FIELD_REPOSITORY_ID = "repositoryId";
+
+    static final String FIELD_PATH = "path";
+
+    static final String FIELD_ARTIFACT_PATH = "artifactPath";
+
+    static final String FIELD_TAG = "tag";
+
+    static final String FIELD_COORDINATE_PREFIX = "coordinates.";
+
+    /**
+     * The id of the {@link org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry} of the artifact, whose
+     * last version tag moves from one artifact to another.
+     */
+    static final String FIELD_ARTIFACT_GROUP = "artifactGroup";
+
+    /**
+     * The names of the fields which the artifact has, for the <code>*</code> queries.
+     */
+    static final String FIELD_NAMES = "fieldNames";
+
+    private static final int POPULATE_BATCH_SIZE = 1000;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Inject
+    private Executor eventTaskExecutor;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Value("${strongbox.search.lucene.refresh-interval-ms:250}")
+    private long refreshIntervalMs;
+
+    @Value("${strongbox.search.lucene.commit-interval-seconds:60}")
+    private long commitIntervalSeconds;
+
+    @Value("${strongbox.search.lucene.max-results:10000}")
+    private int maxResults;
+
+    private LuceneSearchIndex index;
+
+    private boolean destroyed;
+
+    @Override
+    public String getAlias()
+    {
+        return ALIAS;
+    }
+
+    public boolean isReady()
+    {
+        try
+        {
+            LuceneSearchIndex index = getIndex();
+
+            return index != null && index.isReady();
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to open the search index.", e);
+
+            return false;
+        }
+    }
+
+    /**
+     * Opens the index with the first call, and starts populating it, if it hasn't been populated yet.
+     *
+     * @return the index, or `null` once the provider has been destroyed
+     */
+    synchronized LuceneSearchIndex getIndex()
+            throws IOException
+    {
+        if (destroyed)
+        {
+            return null;
+        }
+
+        if (index == null)
+        {
+            index = LuceneSearchIndex.open(Paths.get(propertiesBooter.getVaultDirectory(), "search"),
+                                           refreshIntervalMs,
+                                           commitIntervalSeconds);
+        }
+
+        if (index.startPopulating())
+        {
+            LuceneSearchIndex populatedIndex = index;
+            eventTaskExecutor.execute(() -> populate(populatedIndex));
+        }
+
+        return index;
+    }
+
+    @Override
+    public synchronized void destroy()
+            throws IOException
+    {
+        destroyed = true;
+
+        if (index != null)
+        {
+            index.close();
+            index = null;
+        }
+    }
+
+    @Override
+    public SearchResults search(SearchRequest searchRequest)
+            throws SearchException
+    {
+        SearchResults searchResults = new SearchResults();
+
+        Query query = parseQuery(searchRequest);
+        if (query == null)
+        {
+            return searchResults;
+        }
+
+        LuceneSearchIndex index;
+        List<Document> documents;
+        try
+        {
+            index = requireIndex();
+            documents = index.find(query, maxResults);
+        }
+        catch (IOException e)
+        {
+            throw new SearchException(e);
+        }
+
+        for (Document document : documents)
+        {
+            String storageId = document.get(FIELD_STORAGE_ID);
+            String repositoryId = document.get(FIELD_REPOSITORY_ID);
+
+            Storage storage = getConfiguration().getStorage(storageId);
+            if (storage == null || storage.getRepository(repositoryId) == null)
+            {
+                // The repository has been removed without the artifact events.
+                index.remove(toId(storageId, repositoryId, ""));
+
+                continue;
+            }
+
+            SearchResult searchResult = createSearchResult(storageId,
+                                                           repositoryId,
+                                                           document.get(FIELD_ARTIFACT_PATH));
+            if (searchResult != null)
+            {
+                searchResults.getResults().add(searchResult);
+            }
+        }
+
+        logger.debug("Results: {}", searchResults.getResults().size());
+
+        return searchResults;
+    }
+
+    @Override
+    public boolean contains(SearchRequest searchRequest)
+            throws SearchException
+    {
+        Query query = parseQuery(searchRequest);
+        if (query == null)
+        {
+            return false;
+        }
+
+        try
+        {
+            return requireIndex().count(query) > 0;
+        }
+        catch (IOException e)
+        {
+            throw new SearchException(e);
+        }
+    }
+
+    @AsyncEventListener
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+            throws IOException
+    {
+        RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
+
+        if (ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() == event.getType())
+        {
+            if (!RepositoryFiles.isArtifact(repositoryPath))
+            {
+                return;
+            }
+
+            indexArtifact(repositoryPath.getRepository().getStorage().getId(),
+                          repositoryPath.getRepository().getId(),
+                          RepositoryFiles.relativizePath(repositoryPath));
+        }
+        else if (ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType() == event.getType())
+        {
+            removeArtifact(repositoryPath.getRepository().getStorage().getId(),
+                           repositoryPath.getRepository().getId(),
+                           RepositoryFiles.relativizePath(repositoryPath));
+        }
+    }
+
+    /**
+     * Indexes the stored artifact, and reindexes the artifact which had the last version tag of the same group,
+     * because the tag has been moved from it while the artifact was stored.
+     */
+    void indexArtifact(String storageId,
+                       String repositoryId,
+                       String path)
+            throws IOException
+    {
+        LuceneSearchIndex index = getIndex();
+        if (index == null)
+        {
+            return;
+        }
+
+        String id = toId(storageId, repositoryId, path);
+        List<Document> documents = new TransactionTemplate(transactionManager).execute(t -> {
+            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+            if (artifactEntry == null)
+            {
+                return Collections.emptyList();
+            }
+
+            List<Document> result = new ArrayList<>();
+            result.add(toDocument(artifactEntry));
+
+            for (Document previous : findLastVersion(index, artifactEntry))
+            {
+                String previousPath = previous.get(FIELD_ARTIFACT_PATH);
+                if (path.equals(previousPath))
+                {
+                    continue;
+                }
+
+                ArtifactEntry previousEntry = artifactEntryService.findOneArtifact(storageId,
+                                                                                   repositoryId,
+                                                                                   previousPath);
+                if (previousEntry != null)
+                {
+                    result.add(toDocument(previousEntry));
+                }
+                else
+                {
+                    index.remove(toId(storageId, repositoryId, previousPath));
+                }
+            }
+
+            return result;
+        });
+
+        for (Document document : documents)
+        {
+            index.index(document);
+        }
+
+        if (documents.isEmpty())
+        {
+            logger.debug("The artifact [{}] was not found in the database.", id);
+        }
+    }
+
+    /**
+     * Removes the artifact, or everything underneath, if the path is a directory.
+     */
+    void removeArtifact(String storageId,
+                        String repositoryId,
+                        String path)
+            throws IOException
+    {
+        LuceneSearchIndex index = getIndex();
+        if (index == null)
+        {
+            return;
+        }
+
+        String id = toId(storageId, repositoryId, path);
+
+        index.remove(id);
+        index.remove(id.endsWith("/") ? id : id + "/");
+    }
+
+    private List<Document> findLastVersion(LuceneSearchIndex index,
+                                           ArtifactEntry artifactEntry)
+    {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new TermQuery(new Term(FIELD_ARTIFACT_GROUP, artifactGroup(artifactEntry))),
+                  BooleanClause.Occur.FILTER);
+        query.add(new TermQuery(new Term(FIELD_TAG, ArtifactTag.LAST_VERSION)), BooleanClause.Occur.FILTER);
+
+        try
+        {
+            return index.find(query.build(), maxResults);
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to find the last version of [%s].", artifactGroup(artifactEntry)),
+                         e);
+
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Builds the result from the stored fields of a document, with the coordinates read from the path by the layout.
+     * The proxied artifacts, which are not cached yet, are found as well, as they are by the
+     * {@link OrientDbSearchProvider}.
+     */
+    SearchResult createSearchResult(String storageId,
+                                    String repositoryId,
+                                    String path)
+    {
+        try
+        {
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
+
+            return new SearchResult(storageId,
+                                    repositoryId,
+                                    RepositoryFiles.readCoordinates(repositoryPath),
+                                    RepositoryFiles.readResourceUrl(repositoryPath).toString());
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to resolve artifact resource for [%s]",
+                                       toId(storageId, repositoryId, path)), e);
+
+            return null;
+        }
+    }
+
+    private LuceneSearchIndex requireIndex()
+            throws IOException
+    {
+        LuceneSearchIndex index = getIndex();
+        if (index == null)
+        {
+            throw new IOException("The search index has been closed.");
+        }
+
+        return index;
+    }
+
+    Query parseQuery(SearchRequest searchRequest)
+    {
+        Matcher matcher = Pattern.compile(QUERY_PATTERN_DB).matcher(searchRequest.getQuery());
+        if (!matcher.find())
+        {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        do
+        {
+            query.add(valueQuery(fieldName(matcher.group(1).trim()), matcher.group(2).trim()),
+                      BooleanClause.Occur.FILTER);
+        }
+        while (matcher.find());
+
+        if (searchRequest.getStorageId() != null && !searchRequest.getStorageId().trim().isEmpty())
+        {
+            query.add(new TermQuery(new Term(FIELD_STORAGE_ID, searchRequest.getStorageId())),
+                      BooleanClause.Occur.FILTER);
+        }
+        if (searchRequest.getRepositoryId() != null && !searchRequest.getRepositoryId().trim().isEmpty())
+        {
+            query.add(new TermQuery(new Term(FIELD_REPOSITORY_ID, searchRequest.getRepositoryId())),
+                      BooleanClause.Occur.FILTER);
+        }
+
+        return query.build();
+    }
+
+    private String fieldName(String key)
+    {
+        if (FIELD_TAG.equals(key) || FIELD_PATH.equals(key))
+        {
+            return key;
+        }
+
+        return FIELD_COORDINATE_PREFIX + key;
+    }
+
+    private Query valueQuery(String field,
+                             String value)
+    {
+        value = value.toLowerCase(Locale.ENGLISH);
+
+        if ("*".equals(value))
+        {
+            return new TermQuery(new Term(FIELD_NAMES, field));
+        }
+
+        boolean coordinate = field.startsWith(FIELD_COORDINATE_PREFIX);
+
+        int wildcard = indexOfWildcard(value);
+        if (wildcard < 0)
+        {
+            return coordinate ? substringQuery(field, value) : new TermQuery(new Term(field, value));
+        }
+        else if (wildcard == value.length() - 1 && value.endsWith("*"))
+        {
+            return new PrefixQuery(new Term(field, value.substring(0, wildcard)));
+        }
+
+        String inner = value.substring(1, value.length() - 1);
+        if (coordinate && value.length() > 2 && value.startsWith("*") && value.endsWith("*") &&
+            indexOfWildcard(inner) < 0)
+        {
+            return substringQuery(field, inner);
+        }
+
+        return new WildcardQuery(new Term(field, value));
+    }
+
+    /**
+     * Matches the substring with the phrase of its trigrams, or with the short gram, if it's too short to have a
+     * trigram.
+     */
+    private Query substringQuery(String field,
+                                 String value)
+    {
+        if (value.length() < GRAM_SIZE)
+        {
+            return new TermQuery(new Term(field + FIELD_SHORT_GRAMS_SUFFIX, value));
+        }
+
+        PhraseQuery.Builder query = new PhraseQuery.Builder();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++)
+        {
+            query.add(new Term(field + FIELD_GRAMS_SUFFIX, value.substring(i, i + GRAM_SIZE)), i);
+        }
+
+        return query.build();
+    }
+
+    private int indexOfWildcard(String value)
+    {
+        int asterisk = value.indexOf('*');
+        int questionMark = value.indexOf('?');
+
+        return asterisk < 0 ? questionMark : questionMark < 0 ? asterisk : Math.min(asterisk, questionMark);
+    }
+
+    private void populate(LuceneSearchIndex index)
+    {
+        try
+        {
+            index.deleteAll();
+
+            int skip = 0;
+            List<Document> documents;
+            do
+            {
+                final int pageSkip = skip;
+                documents = new TransactionTemplate(transactionManager).execute(t -> {
+                    List<Document> page = new ArrayList<>();
+                    for (ArtifactEntry artifactEntry : artifactEntryService.findArtifactList(null,
+                                                                                            null,
+                                                                                            Collections.emptyMap(),
+                                                                                            Collections.emptySet(),
+                                                                                            pageSkip,
+                                                                                            POPULATE_BATCH_SIZE,
+                                                                                            "uuid",
+                                                                                            true))
+                    {
+                        page.add(toDocument(artifactEntry));
+                    }
+
+                    return page;
+                });
+
+                for (Document document : documents)
+                {
+                    index.indexIfNotRemoved(document);
+                }
+
+                skip += POPULATE_BATCH_SIZE;
+            }
+            while (documents.size() == POPULATE_BATCH_SIZE);
+
+            index.populated();
+
+            logger.info("Populated the search index with [{}] artifacts.", index.count(new MatchAllDocsQuery()));
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to populate the search index.", e);
+
+            index.populatingFailed();
+        }
+    }
+
+    private Document toDocument(ArtifactEntry artifactEntry)
+    {
+        String path = artifactEntry.getArtifactPath();
+
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID,
+                                     toId(artifactEntry.getStorageId(), artifactEntry.getRepositoryId(), path),
+                                     Field.Store.YES));
+        document.add(new StringField(FIELD_STORAGE_ID, artifactEntry.getStorageId(), Field.Store.YES));
+        document.add(new StringField(FIELD_REPOSITORY_ID, artifactEntry.getRepositoryId(), Field.Store.YES));
+        document.add(new StoredField(FIELD_ARTIFACT_PATH, path));
+        document.add(new StringField(FIELD_PATH, path.toLowerCase(Locale.ENGLISH), Field.Store.NO));
+        document.add(new StringField(FIELD_NAMES, FIELD_PATH, Field.Store.NO));
+        document.add(new StringField(FIELD_ARTIFACT_GROUP, artifactGroup(artifactEntry), Field.Store.NO));
+
+        for (Map.Entry<String, String> coordinate : artifactEntry.getArtifactCoordinates()
+                                                                 .getCoordinates()
+                                                                 .entrySet())
+        {
+            if (coordinate.getValue() == null)
+            {
+                continue;
+            }
+
+            String field = FIELD_COORDINATE_PREFIX + coordinate.getKey();
+            String value = coordinate.getValue().toLowerCase(Locale.ENGLISH);
+
+            document.add(new StringField(field, value, Field.Store.NO));
+            document.add(new TextField(field + FIELD_GRAMS_SUFFIX, value, Field.Store.NO));
+            document.add(new TextField(field + FIELD_SHORT_GRAMS_SUFFIX, value, Field.Store.NO));
+            document.add(new StringField(FIELD_NAMES, field, Field.Store.NO));
+        }
+
+        for (ArtifactTag tag : artifactEntry.getTagSet())
+        {
+            document.add(new StringField(FIELD_TAG, tag.getName().toLowerCase(Locale.ENGLISH), Field.Store.NO));
+        }
+        if (!artifactEntry.getTagSet().isEmpty())
+        {
+            document.add(new StringField(FIELD_NAMES, FIELD_TAG, Field.Store.NO));
+        }
+
+        return document;
+    }
+
+    private String artifactGroup(ArtifactEntry artifactEntry)
+    {
+        return toId(artifactEntry.getStorageId(),
+                    artifactEntry.getRepositoryId(),
+                    artifactEntry.getArtifactCoordinates().getId());
+    }
+
+    static String toId(String storageId,
+                       String repositoryId,
+                       String path)
+    {
+        return String.format("%s/%s/%s", storageId, repositoryId, path);
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.support.ArtifactEntryReconciliationReport;
+
+import java.io.IOException;
+
+/**
+ * Reconciles the {@link ArtifactEntry} records of a repository with the artifact files which are actually stored in
+ * it, for example after a restore, or after the storage has been copied at the disk level.
+ */
+public interface ArtifactEntryReconciliationService
+{
+
+    /**
+     * Adds the entries of the artifact files which have none, and removes the entries of which the file doesn't exist.
+     *
+     * @param parallelism
+     *            the number of threads walking the repository directories
+     * @param resume
+     *            whether to continue from the checkpoint of a previous run, which didn't complete
+     * @param dryRun
+     *            whether to only report the differences, without changing anything
+     */
+    ArtifactEntryReconciliationReport reconcile(String storageId,
+                                                String repositoryId,
+                                                int parallelism,
+                                                boolean resume,
+                                                boolean dryRun)
+            throws IOException;
+
+}
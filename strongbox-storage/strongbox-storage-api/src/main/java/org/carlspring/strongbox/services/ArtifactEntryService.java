@@ -77,4 +77,20 @@ public interface ArtifactEntryService
                                   String repositoryId,
                                   String path);
 
+    /**
+     * Returns the artifact entries of the repository within the path range, ordered by path. The range is read with
+     * the (storageId, repositoryId, artifactPath) index, so the next page is expected to be requested from right after
+     * the last path of the previous one, rather than with a skip.
+     *
+     * @param fromPath
+     *            the lower bound (inclusive), or <code>null</code> to read from the first path
+     * @param toPath
+     *            the upper bound (exclusive), or <code>null</code> to read up to the last path
+     */
+    List<ArtifactEntry> findArtifactPage(String storageId,
+                                         String repositoryId,
+                                         String fromPath,
+                                         String toPath,
+                                         int limit);
+
 }
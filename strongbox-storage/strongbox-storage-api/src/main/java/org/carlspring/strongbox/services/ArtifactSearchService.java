@@ -10,6 +10,11 @@ import org.carlspring.strongbox.storage.search.SearchResults;
 public interface ArtifactSearchService
 {
 
+    /**
+     * The {@link SearchRequest} option, which selects the search provider by its alias.
+     */
+    String OPTION_SEARCH_PROVIDER = "searchProvider";
+
     SearchResults search(SearchRequest searchRequest)
             throws SearchException;
 
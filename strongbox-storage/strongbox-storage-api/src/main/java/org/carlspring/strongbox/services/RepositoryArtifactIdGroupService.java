@@ -1,8 +1,10 @@
 package org.carlspring.strongbox.services;
 
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +29,17 @@ public interface RepositoryArtifactIdGroupService
                                            String repositoryId,
                                            String artifactId);
 
+    /**
+     * Stores the artifact entries (along with their coordinates) in their groups, within a single transaction. Unlike
+     * {@link #addArtifactToGroup(RepositoryArtifactIdGroupEntry, ArtifactEntry)} for every entry, each group is looked up (or
+     * created), saved and has its last version tag updated just once per batch.
+     * <p>
+     * New entries of which the path is already stored are skipped. The locks of the groups (see
+     * {@link org.carlspring.strongbox.providers.io.RepositoryPathLock#lockArtifactIdGroup(String, String, String)})
+     * are taken by the batch, and held until its transaction completes.
+     */
+    void addArtifactsToGroups(Collection<? extends ArtifactEntry> artifactEntries);
+
     @Override
     default Class<RepositoryArtifactIdGroupEntry> getEntityClass()
     {
@@ -0,0 +1,366 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryReconciliationService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.services.support.ArtifactEntryReconciliationReport;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * The repository is reconciled one chunk at a time, a chunk being a file or a directory at {@link #CHUNK_DEPTH}
+ * (<code>org/apache/</code> for example), in path order:
+ * <ul>
+ * <li>the artifact files of the chunk are listed by walking its directories in a fork-join pool;</li>
+ * <li>the entries within the path range of the chunk, which spans up to the next chunk, are read page by page, right
+ * after the last read path;</li>
+ * <li>the entries without a file are removed a page at a time, and the files without an entry are added in batches of
+ * <code>strongbox.artifact.reconciliation.batch-size</code>.</li>
+ * </ul>
+ * Once a chunk is reconciled, the start of the next one is saved as the checkpoint of the repository (unless it's a dry
+ * run), to resume from if the run doesn't complete.
+ */
+@Component
+public class ArtifactEntryReconciliationServiceImpl
+        implements ArtifactEntryReconciliationService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryReconciliationServiceImpl.class);
+
+    private static final int CHUNK_DEPTH = 2;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Value("${strongbox.artifact.reconciliation.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public ArtifactEntryReconciliationReport reconcile(String storageId,
+                                                       String repositoryId,
+                                                       int parallelism,
+                                                       boolean resume,
+                                                       boolean dryRun)
+            throws IOException
+    {
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        Assert.notNull(storage, String.format("Storage [%s] not found.", storageId));
+        Repository repository = storage.getRepository(repositoryId);
+        Assert.notNull(repository, String.format("Repository [%s] not found.", repositoryId));
+
+        ArtifactEntryReconciliationReport report = new ArtifactEntryReconciliationReport(storageId, repositoryId, dryRun);
+
+        Path checkpointFile = Paths.get(propertiesBooter.getVaultDirectory(),
+                                        "reconciliation",
+                                        storageId,
+                                        repositoryId + ".checkpoint");
+        String checkpoint = resume && Files.exists(checkpointFile) ?
+                            new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim() : null;
+        report.setResumedFrom(checkpoint);
+
+        RootRepositoryPath rootPath = repositoryPathResolver.resolve(repository);
+
+        SortedSet<String> chunks = new TreeSet<>();
+        listChunks(rootPath, CHUNK_DEPTH, chunks);
+        List<String> remainingChunks = new ArrayList<>(checkpoint == null ? chunks : chunks.tailSet(checkpoint));
+        if (remainingChunks.isEmpty())
+        {
+            // There are no files left, but there still could be entries.
+            remainingChunks.add(null);
+        }
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism :
+                                                     Runtime.getRuntime().availableProcessors());
+        try
+        {
+            String fromPath = checkpoint;
+            for (int i = 0; i < remainingChunks.size(); i++)
+            {
+                String toPath = i + 1 < remainingChunks.size() ? remainingChunks.get(i + 1) : null;
+
+                reconcileChunk(rootPath, remainingChunks.get(i), fromPath, toPath, forkJoinPool, report);
+
+                if (!dryRun && toPath != null)
+                {
+                    Files.createDirectories(checkpointFile.getParent());
+                    Files.write(checkpointFile, toPath.getBytes(StandardCharsets.UTF_8));
+                }
+                fromPath = toPath;
+            }
+        }
+        finally
+        {
+            forkJoinPool.shutdownNow();
+        }
+
+        if (!dryRun)
+        {
+            Files.deleteIfExists(checkpointFile);
+        }
+
+        logger.info(String.format("Reconciled [%s].", report));
+
+        return report;
+    }
+
+    /**
+     * Lists the files and the directories at the given depth, in which case the directories end with a slash, so that
+     * all the paths under a directory sort between it and the next chunk.
+     */
+    private void listChunks(RepositoryPath directory,
+                            int depth,
+                            SortedSet<String> chunks)
+            throws IOException
+    {
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory))
+        {
+            for (Path path : directoryStream)
+            {
+                RepositoryPath repositoryPath = (RepositoryPath) path;
+                if (!Files.isDirectory(repositoryPath))
+                {
+                    chunks.add(RepositoryFiles.relativizePath(repositoryPath));
+                }
+                else if (depth > 1)
+                {
+                    listChunks(repositoryPath, depth - 1, chunks);
+                }
+                else
+                {
+                    chunks.add(RepositoryFiles.relativizePath(repositoryPath) + "/");
+                }
+            }
+        }
+    }
+
+    private void reconcileChunk(RootRepositoryPath rootPath,
+                                String chunk,
+                                String fromPath,
+                                String toPath,
+                                ForkJoinPool forkJoinPool,
+                                ArtifactEntryReconciliationReport report)
+            throws IOException
+    {
+        SortedSet<String> artifactPaths = new TreeSet<>();
+        if (chunk != null)
+        {
+            try
+            {
+                artifactPaths.addAll(forkJoinPool.invoke(new ArtifactPathsTask(rootPath.resolve(chunk))));
+            }
+            catch (UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+        }
+        report.addScannedFiles(artifactPaths.size());
+
+        Repository repository = rootPath.getRepository();
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        List<ArtifactEntry> page;
+        String pageFromPath = fromPath;
+        do
+        {
+            page = artifactEntryService.findArtifactPage(storageId, repositoryId, pageFromPath, toPath, batchSize);
+            report.addScannedEntries(page.size());
+
+            List<ArtifactEntry> orphanedEntries = new ArrayList<>();
+            for (ArtifactEntry artifactEntry : page)
+            {
+                String artifactPath = artifactEntry.getArtifactPath();
+                // The least path greater than the last read one.
+                pageFromPath = artifactPath + Character.MIN_VALUE;
+
+                if (artifactPaths.remove(artifactPath) || !isCached(artifactEntry))
+                {
+                    continue;
+                }
+                // The artifact could have been stored after its directory was walked.
+                if (Files.exists(rootPath.resolve(artifactPath)))
+                {
+                    continue;
+                }
+
+                report.addOrphanedEntry(artifactPath);
+                orphanedEntries.add(artifactEntry);
+            }
+
+            if (!report.isDryRun())
+            {
+                artifactEntryService.delete(orphanedEntries);
+            }
+        }
+        while (page.size() == batchSize);
+
+        List<ArtifactEntry> missingEntries = new ArrayList<>();
+        for (String artifactPath : artifactPaths)
+        {
+            RepositoryPath repositoryPath = rootPath.resolve(artifactPath);
+            // The artifact could have been deleted after its directory was walked.
+            if (!Files.exists(repositoryPath))
+            {
+                continue;
+            }
+
+            report.addMissingEntry(artifactPath);
+            if (report.isDryRun())
+            {
+                continue;
+            }
+
+            missingEntries.add(createArtifactEntry(repositoryPath));
+            if (missingEntries.size() >= batchSize)
+            {
+                repositoryArtifactIdGroupService.addArtifactsToGroups(missingEntries);
+                missingEntries.clear();
+            }
+        }
+        repositoryArtifactIdGroupService.addArtifactsToGroups(missingEntries);
+    }
+
+    /**
+     * The remote entries which haven't been cached yet have no file by design.
+     */
+    private boolean isCached(ArtifactEntry artifactEntry)
+    {
+        return !(artifactEntry instanceof RemoteArtifactEntry)
+                || Boolean.TRUE.equals(((RemoteArtifactEntry) artifactEntry).getIsCached());
+    }
+
+    private ArtifactEntry createArtifactEntry(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        ArtifactEntry artifactEntry;
+        if (repository.isProxyRepository())
+        {
+            RemoteArtifactEntry remoteArtifactEntry = new RemoteArtifactEntry();
+            remoteArtifactEntry.setIsCached(true);
+            artifactEntry = remoteArtifactEntry;
+        }
+        else
+        {
+            artifactEntry = new ArtifactEntry();
+        }
+
+        artifactEntry.setStorageId(repository.getStorage().getId());
+        artifactEntry.setRepositoryId(repository.getId());
+        artifactEntry.setArtifactCoordinates(RepositoryFiles.readCoordinates(repositoryPath));
+        artifactEntry.setSizeInBytes(Files.size(repositoryPath));
+
+        Date lastModified = new Date(Files.getLastModifiedTime(repositoryPath).toMillis());
+        artifactEntry.setCreated(lastModified);
+        artifactEntry.setLastUpdated(lastModified);
+        artifactEntry.setLastUsed(lastModified);
+
+        return artifactEntry;
+    }
+
+    /**
+     * Lists the relative paths of the artifact files under the path, forking a subtask for every directory.
+     */
+    private static class ArtifactPathsTask
+            extends RecursiveTask<List<String>>
+    {
+
+        private final RepositoryPath path;
+
+        ArtifactPathsTask(RepositoryPath path)
+        {
+            this.path = path;
+        }
+
+        @Override
+        protected List<String> compute()
+        {
+            try
+            {
+                if (!Files.isDirectory(path))
+                {
+                    return Boolean.TRUE.equals(RepositoryFiles.isArtifact(path)) ?
+                           Collections.singletonList(RepositoryFiles.relativizePath(path)) :
+                           Collections.emptyList();
+                }
+
+                List<String> result = new ArrayList<>();
+                List<ArtifactPathsTask> subtasks = new ArrayList<>();
+                try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(path))
+                {
+                    for (Path child : directoryStream)
+                    {
+                        RepositoryPath repositoryPath = (RepositoryPath) child;
+                        if (Files.isDirectory(repositoryPath))
+                        {
+                            ArtifactPathsTask subtask = new ArtifactPathsTask(repositoryPath);
+                            subtask.fork();
+                            subtasks.add(subtask);
+                        }
+                        else if (Boolean.TRUE.equals(RepositoryFiles.isArtifact(repositoryPath)))
+                        {
+                            result.add(RepositoryFiles.relativizePath(repositoryPath));
+                        }
+                    }
+                }
+
+                for (ArtifactPathsTask subtask : subtasks)
+                {
+                    result.addAll(subtask.join());
+                }
+
+                return result;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
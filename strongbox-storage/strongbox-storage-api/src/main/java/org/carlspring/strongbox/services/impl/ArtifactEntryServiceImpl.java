@@ -5,6 +5,7 @@ import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPathScope;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 
@@ -35,6 +36,16 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    private static final String QUERY_ARTIFACT_ENTRY_ID = "SELECT FROM INDEX:idx_artifact_path WHERE key = [:storageId, :repositoryId, :path]";
+
+    private static final String QUERY_ARTIFACT_PAGE = "SELECT FROM ArtifactEntry WHERE storageId = :storageId AND repositoryId = :repositoryId AND artifactPath >= :fromPath";
+
+    private static final String QUERY_ARTIFACT_PAGE_BOUNDED = QUERY_ARTIFACT_PAGE + " AND artifactPath < :toPath";
+
+    static final String PAGE_SKIP = "pageSkip";
+
+    static final String PAGE_LIMIT = "pageLimit";
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -49,9 +60,21 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             entity.setCreated(new Date());
         }
 
+        invalidate(entity);
+
         return super.cascadeEntitySave(entity);
     }
 
+    private void invalidate(ArtifactEntry entity)
+    {
+        if (entity.getArtifactCoordinates() == null)
+        {
+            return;
+        }
+
+        RepositoryPathScope.invalidate(entity.getStorageId(), entity.getRepositoryId(), entity.getArtifactPath());
+    }
+
     @Override
     public List<ArtifactEntry> findArtifactList(String storageId,
                                                 String repositoryId,
@@ -83,22 +106,17 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                                      .collect(Collectors.toMap(t -> String.format("%sTag", t.getName().replaceAll("-", "")),
                                                                                t -> (ArtifactTagEntry) t));
 
-        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
+        List<Pair<String, String>> storageRepositoryPairList = toList(storageId, repositoryId);
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, "*", coordinates.keySet(), tagMap.keySet(),
                                               skip,
                                               limit, orderBy, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
-        if (storageId != null && !storageId.trim().isEmpty())
-        {
-            parameterMap.put("storageId0", storageId);
-        }
-        if (repositoryId != null && !repositoryId.trim().isEmpty())
-        {
-            parameterMap.put("repositoryId0", repositoryId);
-        }
+        putStorageRepositoryParameters(parameterMap, storageRepositoryPairList);
 
         tagMap.entrySet().stream().forEach(e -> parameterMap.put(e.getKey(), e.getValue().getName()));
+        putPagingParameters(parameterMap, skip, limit);
 
         List<ArtifactEntry> entries = getDelegate().command(oQuery).execute(parameterMap);
 
@@ -166,27 +184,12 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                  boolean strict)
     {
         coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
-        sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, "count(distinct(artifactCoordinates))", coordinates.keySet(),
+                                              Collections.emptySet(), 0, 0, null, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
-
-        Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
-            String storageId = p[idx].getValue0();
-            String repositoryId = p[idx].getValue1();
-
-            if (storageId != null && !storageId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("storageId%s", idx), p[idx].getValue0());
-            }
-            if (repositoryId != null && !repositoryId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
-            }
-        });
-
+        putStorageRepositoryParameters(parameterMap, storageRepositoryPairList);
 
         List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
         return (Long) result.iterator().next().field("count");
@@ -198,27 +201,12 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                boolean strict)
     {
         coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
-        sQuery = sQuery.replace("*", "count(*)");
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, "count(*)", coordinates.keySet(),
+                                              Collections.emptySet(), 0, 0, null, strict);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
         Map<String, Object> parameterMap = new HashMap<>(coordinates);
-
-        Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
-            String storageId = p[idx].getValue0();
-            String repositoryId = p[idx].getValue1();
-
-            if (storageId != null && !storageId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("storageId%s", idx), p[idx].getValue0());
-            }
-            if (repositoryId != null && !repositoryId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
-            }
-        });
-
+        putStorageRepositoryParameters(parameterMap, storageRepositoryPairList);
 
         List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
         return (Long) result.iterator().next().field("count");
@@ -240,27 +228,96 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return Arrays.asList(new Pair[] { Pair.with(storageId, repositoryId) });
     }
 
+    /**
+     * Builds the query of the shape, which is given with the parameter names, and caches its text. The pagination is
+     * bound with the {@link #PAGE_SKIP} and {@link #PAGE_LIMIT} parameters, so that the text stays the same for every
+     * page.
+     */
     protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
+                                           String projection,
                                            Set<String> parameterNameSet,
                                            Set<String> tagNameSet,
                                            int skip,
                                            int limit,
                                            String orderBy,
                                            boolean strict)
+    {
+        // The names are sorted, so that the same shape always has the same text.
+        Set<String> parameterNames = new TreeSet<>(parameterNameSet);
+        Set<String> tagNames = new TreeSet<>(tagNameSet);
+
+        StringBuilder shape = appendShape(new StringBuilder("coordinates:"), projection);
+        shape.append(strict ? 's' : 'l');
+        for (Pair<String, String> storageRepositoryPair : storageRepositoryPairList)
+        {
+            shape.append(storageRepositoryShape(storageRepositoryPair));
+        }
+        shape.append(':');
+        parameterNames.forEach(name -> appendShape(shape, name));
+        shape.append(':');
+        tagNames.forEach(name -> appendShape(shape, name));
+        shape.append(':');
+        appendShape(shape, orderBy);
+
+        boolean paged = isPaged(skip, limit);
+        shape.append(paged ? 'p' : 'a');
+
+        String query = cachedQuery(shape.toString(),
+                                   () -> buildCoordinatesQuery(storageRepositoryPairList,
+                                                               projection,
+                                                               parameterNames,
+                                                               tagNames,
+                                                               orderBy,
+                                                               strict) +
+                                         (paged ? String.format(" SKIP :%s LIMIT :%s", PAGE_SKIP, PAGE_LIMIT) : ""));
+
+        logger.debug("Executing SQL query> " + query);
+
+        return query;
+    }
+
+    private boolean isPaged(int skip,
+                            int limit)
+    {
+        return skip > 0 || limit > 0;
+    }
+
+    /**
+     * Binds the pagination of the query, which was built with the same skip and limit.
+     */
+    private void putPagingParameters(Map<String, Object> parameterMap,
+                                     int skip,
+                                     int limit)
+    {
+        if (!isPaged(skip, limit))
+        {
+            return;
+        }
+
+        parameterMap.put(PAGE_SKIP, Math.max(skip, 0));
+        parameterMap.put(PAGE_LIMIT, limit > 0 ? limit : -1);
+    }
+
+    private String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
+                                         String projection,
+                                         Set<String> parameterNames,
+                                         Set<String> tagNames,
+                                         String orderBy,
+                                         boolean strict)
     {
         StringBuilder sb = new StringBuilder();
-        sb.append("SELECT * FROM ").append(getEntityClass().getSimpleName());
+        sb.append("SELECT ").append(projection).append(" FROM ").append(getEntityClass().getSimpleName());
 
         Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         // COORDINATES
         StringBuffer c1 = new StringBuffer();
-        parameterNameSet.stream()
-                        .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
-                                        .append("artifactCoordinates.coordinates.")
-                                        .append(e)
-                                        .append(".toLowerCase()")
-                                        .append(strict ? " = " : " like ")
-                                        .append(String.format(":%s", e)));
+        parameterNames.stream()
+                      .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
+                                      .append("artifactCoordinates.coordinates.")
+                                      .append(e)
+                                      .append(".toLowerCase()")
+                                      .append(strict ? " = " : " like ")
+                                      .append(String.format(":%s", e)));
         sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
 
         //REPOSITORIES
@@ -271,7 +328,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         sb.append(c2.length() > 0 ? c2.toString() : "true");
 
         //TAGS
-        tagNameSet.stream().forEach(t -> sb.append(String.format(" AND tagSet contains (name = :%s)", t)));
+        tagNames.stream().forEach(t -> sb.append(String.format(" AND tagSet contains (name = :%s)", t)));
 
         //ORDER
         if ("uuid".equals(orderBy))
@@ -283,24 +340,44 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             sb.append(String.format(" ORDER BY artifactCoordinates.coordinates.%s", orderBy));
         }
 
-        //PAGE
-        if (skip > 0)
-        {
-            sb.append(String.format(" SKIP %s", skip));
-        }
-        if (limit > 0)
-        {
-            sb.append(String.format(" LIMIT %s", limit));
-        }
-
         // now query should looks like
         // SELECT * FROM Foo WHERE blah = :blah AND moreBlah = :moreBlah
 
-        logger.debug("Executing SQL query> " + sb.toString());
-
         return sb.toString();
     }
 
+    /**
+     * @return the digit of the storage and repository slots, which the pair has
+     */
+    private char storageRepositoryShape(Pair<String, String> storageRepositoryPair)
+    {
+        return (char) ('0' + (isEmpty(storageRepositoryPair.getValue0()) ? 0 : 1) +
+                       (isEmpty(storageRepositoryPair.getValue1()) ? 0 : 2));
+    }
+
+    private void putStorageRepositoryParameters(Map<String, Object> parameterMap,
+                                                Collection<Pair<String, String>> storageRepositoryPairList)
+    {
+        int idx = 0;
+        for (Pair<String, String> storageRepositoryPair : storageRepositoryPairList)
+        {
+            if (!isEmpty(storageRepositoryPair.getValue0()))
+            {
+                parameterMap.put(String.format("storageId%s", idx), storageRepositoryPair.getValue0());
+            }
+            if (!isEmpty(storageRepositoryPair.getValue1()))
+            {
+                parameterMap.put(String.format("repositoryId%s", idx), storageRepositoryPair.getValue1());
+            }
+            idx++;
+        }
+    }
+
+    private boolean isEmpty(String value)
+    {
+        return value == null || value.trim().isEmpty();
+    }
+
     public String calculateStorageAndRepositoryCondition(Pair<String, String> storageRepositoryPairArray,
                                                          int idx)
     {
@@ -372,18 +449,51 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                        .orElse(null);
     }
 
+    @Override
+    public List<ArtifactEntry> findArtifactPage(String storageId,
+                                                String repositoryId,
+                                                String fromPath,
+                                                String toPath,
+                                                int limit)
+    {
+        String sQuery = toPath == null ? QUERY_ARTIFACT_PAGE : QUERY_ARTIFACT_PAGE_BOUNDED;
+
+        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery + " ORDER BY artifactPath");
+        oQuery.setLimit(limit);
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("fromPath", fromPath == null ? "" : fromPath);
+        params.put("toPath", toPath);
+
+        return getDelegate().command(oQuery).execute(params);
+    }
+
     @Override
     public void delete(String id)
     {
+        RepositoryPathScope.invalidateArtifactEntries();
+
         super.delete(id);
     }
 
     @Override
     public void delete(ArtifactEntry entity)
     {
+        invalidate(entity);
+
         super.delete(entity);
     }
 
+    @Override
+    public int delete(List<ArtifactEntry> entityList)
+    {
+        RepositoryPathScope.invalidateArtifactEntries();
+
+        return super.delete(entityList);
+    }
+
     @Override
     public void deleteAll()
     {
@@ -394,36 +504,17 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                      String repositoryId,
                                      String path)
     {
-        String sQuery = String.format("SELECT FROM INDEX:idx_artifact_coordinates WHERE key = :path");
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(QUERY_ARTIFACT_ENTRY_ID);
+        oQuery.setLimit(1);
 
         HashMap<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
         params.put("path", path);
 
-        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
-        oQuery.setLimit(1);
-
         List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
         ODocument result = resultList.isEmpty() ? null : resultList.iterator().next();
 
-        ORID artifactCoordinatesId = result == null ? null : ((ODocument) result.field("rid")).getIdentity();
-        if (artifactCoordinatesId == null)
-        {
-            return null;
-        }
-
-        sQuery = String.format("SELECT FROM INDEX:idx_artifact WHERE key = [:storageId, :repositoryId, :artifactCoordinatesId]");
-
-        oQuery = new OSQLSynchQuery<>(sQuery);
-        oQuery.setLimit(1);
-
-        params = new HashMap<>();
-        params.put("storageId", storageId);
-        params.put("repositoryId", repositoryId);
-        params.put("artifactCoordinatesId", artifactCoordinatesId);
-
-        resultList = getDelegate().command(oQuery).execute(params);
-        result = resultList.isEmpty() ? null : resultList.iterator().next();
-
         return result == null ? null : ((ODocument) result.field("rid")).getIdentity();
     }
 
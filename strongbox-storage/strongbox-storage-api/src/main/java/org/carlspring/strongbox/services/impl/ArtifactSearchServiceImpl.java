@@ -1,7 +1,9 @@
 package org.carlspring.strongbox.services.impl;
 
+import org.carlspring.strongbox.providers.search.LuceneSearchProvider;
 import org.carlspring.strongbox.providers.search.OrientDbSearchProvider;
 import org.carlspring.strongbox.providers.search.SearchException;
+import org.carlspring.strongbox.providers.search.SearchProvider;
 import org.carlspring.strongbox.services.ArtifactSearchService;
 import org.carlspring.strongbox.storage.search.SearchRequest;
 import org.carlspring.strongbox.storage.search.SearchResults;
@@ -21,19 +23,36 @@ public class ArtifactSearchServiceImpl
     @Inject
     private OrientDbSearchProvider orientDbSearchProvider;
 
+    @Inject
+    private LuceneSearchProvider luceneSearchProvider;
+
 
     @Override
     public SearchResults search(SearchRequest searchRequest)
             throws SearchException
     {
-        return orientDbSearchProvider.search(searchRequest);
+        return getSearchProvider(searchRequest).search(searchRequest);
     }
 
     @Override
     public boolean contains(SearchRequest searchRequest)
             throws SearchException
     {
-        return !search(searchRequest).getResults().isEmpty();
+        return getSearchProvider(searchRequest).contains(searchRequest);
+    }
+
+    /**
+     * The Lucene index is used, unless the OrientDB provider is requested explicitly, or the index is still being
+     * populated.
+     */
+    private SearchProvider getSearchProvider(SearchRequest searchRequest)
+    {
+        if (OrientDbSearchProvider.ALIAS.equalsIgnoreCase(searchRequest.getOption(OPTION_SEARCH_PROVIDER)))
+        {
+            return orientDbSearchProvider;
+        }
+
+        return luceneSearchProvider.isReady() ? luceneSearchProvider : orientDbSearchProvider;
     }
 
-}
\ No newline at end of file
+}
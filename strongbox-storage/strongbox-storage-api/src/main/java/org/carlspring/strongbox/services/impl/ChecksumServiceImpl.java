@@ -10,17 +10,27 @@ import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.services.ChecksumService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegeneration;
 import org.carlspring.strongbox.storage.repository.Repository;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * The checksums are regenerated in a dedicated fork-join pool, bounded by
+ * <code>strongbox.checksum.regeneration.parallelism</code> (the number of processors by default), so that a
+ * regeneration doesn't take over the common pool.
+ *
  * @author Kate Novik.
  */
 @Component
@@ -38,6 +48,23 @@ public class ChecksumServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Value("${strongbox.checksum.regeneration.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool regenerationPool;
+
+    @PostConstruct
+    public void init()
+    {
+        regenerationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        regenerationPool.shutdownNow();
+    }
+
     @Override
     public void regenerateChecksum(String storageId,
                                    String repositoryId,
@@ -61,13 +88,30 @@ public class ChecksumServiceImpl
                                                     .map(p -> repositoryPathResolver.resolve(repository, basePath))
                                                     .orElseGet(() -> repositoryPathResolver.resolve(repository));
         
+        ChecksumRegeneration checksumRegeneration = new ChecksumRegeneration(repositoryBasePath.toString(),
+                                                                             regenerationPool,
+                                                                             regenerationPool.getParallelism() * 4,
+                                                                             forceRegeneration);
+
         ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
         operation.setBasePath(repositoryBasePath);
         operation.setForceRegeneration(forceRegeneration);
+        operation.setChecksumRegeneration(checksumRegeneration);
 
         ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
         locator.setOperation(operation);
         locator.locateArtifactDirectories();
+
+        try
+        {
+            checksumRegeneration.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while regenerating the checksums of [%s].",
+                                                           repositoryBasePath));
+        }
     }
 
     public Configuration getConfiguration()
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.services.impl;
 
+import org.carlspring.strongbox.booters.StartupTimings;
 import org.carlspring.strongbox.client.MutableRemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.configuration.*;
 import org.carlspring.strongbox.event.repository.RepositoryEvent;
@@ -58,6 +59,9 @@ public class ConfigurationManagementServiceImpl
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private StartupTimings startupTimings;
+
     /**
      * Yes, this is a state object.
      * It is protected by the {@link #configurationLock} here
@@ -78,9 +82,19 @@ public class ConfigurationManagementServiceImpl
         MutableConfiguration configuration;
         try
         {
-            configuration = configurationFileManager.read();
-            setConfiguration(configuration);
-            setRepositoryArtifactCoordinateValidators();
+            configuration = startupTimings.record("Read configuration", configurationFileManager::read);
+            startupTimings.record("Apply configuration", () ->
+            {
+                setConfiguration(configuration);
+
+                return null;
+            });
+            startupTimings.record("Artifact coordinate validators", () ->
+            {
+                setRepositoryArtifactCoordinateValidators();
+
+                return null;
+            });
         }
         catch (IOException e)
         {
@@ -6,22 +6,37 @@ import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathScope;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
 
 import com.orientechnologies.common.concur.ONeedRetryException;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.javatuples.Triplet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 /**
@@ -40,6 +55,12 @@ public class RepositoryArtifactIdGroupServiceImpl
     @Inject
     private ArtifactTagService artifactTagService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
     @Override
     public void addArtifactToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
                                    ArtifactEntry artifactEntry)
@@ -59,10 +80,210 @@ public class RepositoryArtifactIdGroupServiceImpl
                               e2) -> e1.getArtifactCoordinates().compareTo(e2.getArtifactCoordinates()))
                      .forEach(e -> checkAndUpdateLastVersionTagIfNeeded(e, artifactEntry, lastVersionTag));
 
-
+        invalidate(artifactGroup);
         save(artifactGroup);
     }
 
+    @Override
+    public void addArtifactsToGroups(Collection<? extends ArtifactEntry> artifactEntries)
+    {
+        if (artifactEntries.isEmpty())
+        {
+            return;
+        }
+
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        Map<Triplet<String, String, String>, List<ArtifactEntry>> artifactGroups = new LinkedHashMap<>();
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            Assert.notNull(artifactEntry.getArtifactCoordinates(), "coordinates should not be null");
+
+            artifactGroups.computeIfAbsent(Triplet.with(artifactEntry.getStorageId(),
+                                                        artifactEntry.getRepositoryId(),
+                                                        artifactEntry.getArtifactCoordinates().getId()),
+                                           k -> new ArrayList<>())
+                          .add(artifactEntry);
+        }
+
+        // The entries are only checked once the locks are held, as the single artifact updates could store them
+        // meanwhile.
+        Deque<Lock> locks = lockArtifactIdGroups(artifactGroups.keySet());
+        try
+        {
+            Set<String> artifactPaths = new HashSet<>();
+            for (Map.Entry<Triplet<String, String, String>, List<ArtifactEntry>> artifactGroupEntries : artifactGroups.entrySet())
+            {
+                List<ArtifactEntry> newEntries = new ArrayList<>();
+                for (ArtifactEntry artifactEntry : artifactGroupEntries.getValue())
+                {
+                    if (!skip(artifactEntry, artifactPaths))
+                    {
+                        newEntries.add(artifactEntry);
+                    }
+                }
+                if (newEntries.isEmpty())
+                {
+                    continue;
+                }
+
+                Triplet<String, String, String> key = artifactGroupEntries.getKey();
+                RepositoryArtifactIdGroupEntry artifactGroup = findOneOrCreate(key.getValue0(),
+                                                                               key.getValue1(),
+                                                                               key.getValue2());
+
+                newEntries.forEach(artifactGroup::putArtifactEntry);
+                updateLastVersionTag(artifactGroup, lastVersionTag);
+
+                invalidate(artifactGroup);
+                save(artifactGroup);
+            }
+        }
+        finally
+        {
+            unlockAfterCompletion(locks);
+        }
+    }
+
+    /**
+     * The entries of the group, whose last version tags could have been moved, are saved along with the group rather
+     * than with the {@link ArtifactEntryService}, so their memoized values are dropped here.
+     */
+    private void invalidate(RepositoryArtifactIdGroupEntry artifactGroup)
+    {
+        for (ArtifactEntry artifactEntry : artifactGroup.getArtifactEntries())
+        {
+            RepositoryPathScope.invalidate(artifactEntry.getStorageId(),
+                                           artifactEntry.getRepositoryId(),
+                                           artifactEntry.getArtifactPath());
+        }
+    }
+
+    /**
+     * Takes the locks of the groups in the order of their keys, which is the same for every batch, so that two
+     * overlapping batches can't deadlock.
+     */
+    private Deque<Lock> lockArtifactIdGroups(Set<Triplet<String, String, String>> keys)
+    {
+        Deque<Lock> locks = new ArrayDeque<>();
+        try
+        {
+            for (Triplet<String, String, String> key : new TreeSet<>(keys))
+            {
+                Lock lock = repositoryPathLock.lockArtifactIdGroup(key.getValue0(), key.getValue1(), key.getValue2())
+                                              .writeLock();
+                lock.lock();
+                locks.push(lock);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            unlock(locks);
+            throw e;
+        }
+
+        return locks;
+    }
+
+    /**
+     * The locks are released once the transaction completes, rather than right away, since the changes of the batch
+     * are not visible to the others until then.
+     */
+    private void unlockAfterCompletion(Deque<Lock> locks)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            unlock(locks);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+        {
+            @Override
+            public void afterCompletion(int status)
+            {
+                unlock(locks);
+            }
+        });
+    }
+
+    private void unlock(Deque<Lock> locks)
+    {
+        while (!locks.isEmpty())
+        {
+            locks.pop().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the entry is either a duplicate within the batch, or a new entry of which the path is already
+     * stored. It's called with the lock of the group of the entry held.
+     */
+    private boolean skip(ArtifactEntry artifactEntry,
+                         Set<String> artifactPaths)
+    {
+        String artifactPath = String.format("%s/%s/%s",
+                                            artifactEntry.getStorageId(),
+                                            artifactEntry.getRepositoryId(),
+                                            artifactEntry.getArtifactPath());
+        if (!artifactPaths.add(artifactPath))
+        {
+            logger.debug(String.format("Skip duplicate [%s] of the batch.", artifactPath));
+
+            return true;
+        }
+
+        if (artifactEntry.getUuid() != null)
+        {
+            return false;
+        }
+
+        if (artifactEntryService.artifactExists(artifactEntry.getStorageId(),
+                                                artifactEntry.getRepositoryId(),
+                                                artifactEntry.getArtifactPath()))
+        {
+            logger.debug(String.format("Skip [%s], which is already stored.", artifactPath));
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Tags the greatest version of the group as the last one, and untags all the others.
+     */
+    private void updateLastVersionTag(RepositoryArtifactIdGroupEntry artifactGroup,
+                                      ArtifactTag lastVersionTag)
+    {
+        Optional<ArtifactEntry> lastVersionEntry = artifactGroup.getArtifactEntries()
+                                                                .stream()
+                                                                .max((e1,
+                                                                      e2) -> e1.getArtifactCoordinates()
+                                                                               .compareTo(e2.getArtifactCoordinates()));
+        if (!lastVersionEntry.isPresent())
+        {
+            return;
+        }
+
+        logger.debug(String.format("Set [%s] last version to [%s]",
+                                   artifactGroup.getName(),
+                                   lastVersionEntry.get().getArtifactCoordinates().getVersion()));
+
+        for (ArtifactEntry artifactEntry : artifactGroup.getArtifactEntries())
+        {
+            if (artifactEntry == lastVersionEntry.get())
+            {
+                artifactEntry.getTagSet().add(lastVersionTag);
+            }
+            else if (artifactEntry.getTagSet().contains(lastVersionTag))
+            {
+                artifactEntry.getTagSet().remove(lastVersionTag);
+            }
+        }
+    }
+
     private <S extends ArtifactEntry> Optional<S> checkAndUpdateLastVersionTagIfNeeded(S lastVersionEntry,
                                                                                        S entity,
                                                                                        ArtifactTag lastVersionTag)
@@ -109,8 +330,7 @@ public class RepositoryArtifactIdGroupServiceImpl
         params.put("storageId", storageId);
         params.put("repositoryId", repositoryId);
 
-        String sQuery = buildQuery(params);
-        sQuery = sQuery.replace("*", "count(distinct(name))");
+        String sQuery = buildQuery(params, "count(distinct(name))");
 
         OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
         oQuery.setLimit(1);
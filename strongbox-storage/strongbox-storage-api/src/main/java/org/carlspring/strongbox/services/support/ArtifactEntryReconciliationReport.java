@@ -0,0 +1,155 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of an {@link org.carlspring.strongbox.services.ArtifactEntryReconciliationService} run. Only the first
+ * {@link #MAX_REPORTED_PATHS} paths of each kind are listed, while all of them are counted.
+ */
+public class ArtifactEntryReconciliationReport
+{
+
+    public static final int MAX_REPORTED_PATHS = 100;
+
+    private final String storageId;
+
+    private final String repositoryId;
+
+    private final boolean dryRun;
+
+    private String resumedFrom;
+
+    private long scannedFiles;
+
+    private long scannedEntries;
+
+    private long missingEntries;
+
+    private long orphanedEntries;
+
+    private final List<String> missingEntryPaths = new ArrayList<>();
+
+    private final List<String> orphanedEntryPaths = new ArrayList<>();
+
+    public ArtifactEntryReconciliationReport(String storageId,
+                                             String repositoryId,
+                                             boolean dryRun)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.dryRun = dryRun;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public boolean isDryRun()
+    {
+        return dryRun;
+    }
+
+    /**
+     * @return the checkpoint the run started from, or <code>null</code> if it started from the beginning
+     */
+    public String getResumedFrom()
+    {
+        return resumedFrom;
+    }
+
+    public void setResumedFrom(String resumedFrom)
+    {
+        this.resumedFrom = resumedFrom;
+    }
+
+    public long getScannedFiles()
+    {
+        return scannedFiles;
+    }
+
+    public void addScannedFiles(long count)
+    {
+        scannedFiles += count;
+    }
+
+    public long getScannedEntries()
+    {
+        return scannedEntries;
+    }
+
+    public void addScannedEntries(long count)
+    {
+        scannedEntries += count;
+    }
+
+    /**
+     * @return the number of artifact files without an entry
+     */
+    public long getMissingEntries()
+    {
+        return missingEntries;
+    }
+
+    public void addMissingEntry(String path)
+    {
+        missingEntries++;
+        if (missingEntryPaths.size() < MAX_REPORTED_PATHS)
+        {
+            missingEntryPaths.add(path);
+        }
+    }
+
+    public List<String> getMissingEntryPaths()
+    {
+        return Collections.unmodifiableList(missingEntryPaths);
+    }
+
+    /**
+     * @return the number of entries without an artifact file
+     */
+    public long getOrphanedEntries()
+    {
+        return orphanedEntries;
+    }
+
+    public void addOrphanedEntry(String path)
+    {
+        orphanedEntries++;
+        if (orphanedEntryPaths.size() < MAX_REPORTED_PATHS)
+        {
+            orphanedEntryPaths.add(path);
+        }
+    }
+
+    public List<String> getOrphanedEntryPaths()
+    {
+        return Collections.unmodifiableList(orphanedEntryPaths);
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder("ArtifactEntryReconciliationReport{");
+        sb.append("storageId='").append(storageId).append('\'');
+        sb.append(", repositoryId='").append(repositoryId).append('\'');
+        sb.append(", dryRun=").append(dryRun);
+        sb.append(", resumedFrom='").append(resumedFrom).append('\'');
+        sb.append(", scannedFiles=").append(scannedFiles);
+        sb.append(", scannedEntries=").append(scannedEntries);
+        sb.append(", missingEntries=").append(missingEntries);
+        sb.append(", orphanedEntries=").append(orphanedEntries);
+        sb.append(", missingEntryPaths=").append(missingEntryPaths);
+        sb.append(", orphanedEntryPaths=").append(orphanedEntryPaths);
+        sb.append('}');
+        return sb.toString();
+    }
+
+}
@@ -4,25 +4,47 @@ import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
 import org.carlspring.strongbox.domain.ArtifactArchiveListing;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 /**
+ * Enriches the {@link ArtifactEntry} of the stored artifact with the archive listing.
+ * <p>
+ * The listing is done on a dedicated, bounded enrichment queue, without holding any storage lock or database
+ * transaction, so that large archives hold up neither the event executor, nor the concurrent access to the
+ * artifact. Once the queue is full, the listing of the stored artifact is discarded and logged (and counted as
+ * <code>strongbox.artifact.archive.listing.discarded</code>), rather than done by the event thread, which would hold up
+ * the other event listeners.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 public class ArtifactStoredEventListener
         extends AsyncArtifactEntryHandler
+        implements InitializingBean, DisposableBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactStoredEventListener.class);
@@ -30,34 +52,132 @@ public class ArtifactStoredEventListener
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Value("${strongbox.artifact.archive-listing.threads:2}")
+    private int enrichmentThreads;
+
+    @Value("${strongbox.artifact.archive-listing.queue-capacity:1000}")
+    private int enrichmentQueueCapacity;
+
+    private ThreadPoolExecutor enrichmentExecutor;
+
+    private Counter discarded;
+
     public ArtifactStoredEventListener()
     {
         super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED);
     }
 
     @Override
-    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath)
-            throws IOException
+    public void afterPropertiesSet()
     {
-        ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
+        enrichmentExecutor = new ThreadPoolExecutor(enrichmentThreads,
+                                                    enrichmentThreads,
+                                                    0L,
+                                                    TimeUnit.MILLISECONDS,
+                                                    new ArrayBlockingQueue<>(enrichmentQueueCapacity),
+                                                    new CustomizableThreadFactory("archive-listing-"));
 
-        if (artifactEntry == null)
+        Gauge.builder("strongbox.artifact.archive.listing.queue", enrichmentExecutor, e -> e.getQueue().size())
+             .register(Metrics.globalRegistry);
+        discarded = Counter.builder("strongbox.artifact.archive.listing.discarded")
+                           .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void destroy()
+    {
+        enrichmentExecutor.shutdown();
+    }
+
+    @Override
+    protected void handle(RepositoryPath repositoryPath)
+    {
+        try
         {
-            logger.warn(String.format("No [%s] for [%s].",
-                                      ArtifactEntry.class.getSimpleName(),
+            enrichmentExecutor.execute(() -> {
+                try
+                {
+                    enrich(repositoryPath);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                catch (Exception e)
+                {
+                    logger.error(String.format("Failed to list the archive filenames of [%s].", repositoryPath), e);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            discarded.increment();
+            logger.warn(String.format("The archive listing queue is full, the archive filenames of [%s] are not listed.",
                                       repositoryPath));
+        }
+    }
 
-            return null;
+    private void enrich(RepositoryPath repositoryPath)
+            throws IOException, InterruptedException
+    {
+        final Set<String> archiveFilenames = listArchiveFilenames(repositoryPath);
+        if (archiveFilenames.isEmpty())
+        {
+            return;
         }
 
+        // Nothing is locked, so the entry is read again on every attempt, as it could have been changed concurrently.
+        handleWithRetry(repositoryPath, p -> updateArtifactArchiveListing(p, findArtifactEntry(p), archiveFilenames));
+    }
+
+    @Override
+    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        return updateArtifactArchiveListing(repositoryPath,
+                                            repositoryPath.getArtifactEntry(),
+                                            listArchiveFilenames(repositoryPath));
+    }
+
+    private ArtifactEntry findArtifactEntry(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        final Repository repository = repositoryPath.getRepository();
+
+        return artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                    repository.getId(),
+                                                    RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    private Set<String> listArchiveFilenames(RepositoryPath repositoryPath)
+    {
         final Repository repository = repositoryPath.getRepository();
         final LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
-        final Set<String> archiveFilenames = layoutProvider.listArchiveFilenames(repositoryPath);
+
+        return layoutProvider.listArchiveFilenames(repositoryPath);
+    }
+
+    private ArtifactEntry updateArtifactArchiveListing(RepositoryPath repositoryPath,
+                                                       ArtifactEntry artifactEntry,
+                                                       Set<String> archiveFilenames)
+    {
         if (archiveFilenames.isEmpty())
         {
             return null;
         }
 
+        if (artifactEntry == null)
+        {
+            logger.warn(String.format("No [%s] for [%s].",
+                                      ArtifactEntry.class.getSimpleName(),
+                                      repositoryPath));
+
+            return null;
+        }
+
         ArtifactArchiveListing artifactArchiveListing = artifactEntry.getArtifactArchiveListing();
         if (artifactArchiveListing == null)
         {
@@ -0,0 +1,261 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single checksum regeneration run. The directories are submitted as they are found and each of them is walked and
+ * digested in the fork-join pool, file by file, while the number of the directories being processed at a time is
+ * bounded, so that the directory walk doesn't get too far ahead of the digesting.
+ * <p>
+ * The progress is logged periodically and the totals, together with the throughput, once the run is complete.
+ */
+public class ChecksumRegeneration
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ChecksumRegeneration.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final String name;
+
+    private final ForkJoinPool pool;
+
+    private final Semaphore pendingDirectories;
+
+    private final boolean forceRegeneration;
+
+    /**
+     * The (relative) paths of the submitted directories, as the sub-directories are already walked with them.
+     */
+    private final Set<String> submittedDirectories = ConcurrentHashMap.newKeySet();
+
+    private final Phaser completion = new Phaser(1);
+
+    private final AtomicLong digestedFiles = new AtomicLong();
+
+    private final AtomicLong digestedBytes = new AtomicLong();
+
+    private final AtomicLong upToDateFiles = new AtomicLong();
+
+    private final AtomicLong failedFiles = new AtomicLong();
+
+    private final long startedAt = System.nanoTime();
+
+    private final AtomicLong reportedAt = new AtomicLong(startedAt);
+
+    public ChecksumRegeneration(String name,
+                                ForkJoinPool pool,
+                                int maxPendingDirectories,
+                                boolean forceRegeneration)
+    {
+        this.name = name;
+        this.pool = pool;
+        this.pendingDirectories = new Semaphore(maxPendingDirectories);
+        this.forceRegeneration = forceRegeneration;
+    }
+
+    /**
+     * Submits the files of the directory (including the sub-directories) for the checksum regeneration, waiting if
+     * there are too many directories pending already.
+     */
+    public void submit(RepositoryPath directory)
+            throws IOException
+    {
+        String path = RepositoryFiles.relativizePath(directory);
+        if (isSubmitted(path) || !submittedDirectories.add(path))
+        {
+            return;
+        }
+
+        try
+        {
+            pendingDirectories.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while submitting [%s].", directory));
+        }
+
+        completion.register();
+        pool.execute(new DirectoryTask(directory));
+    }
+
+    /**
+     * Waits for all the submitted directories to be processed and logs the totals.
+     */
+    public void await()
+            throws InterruptedException
+    {
+        completion.awaitAdvanceInterruptibly(completion.arrive());
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        logger.info(String.format("Regenerated the checksums of [%s]: %s, in [%d] ms.",
+                                  name,
+                                  describeProgress(elapsedNanos),
+                                  TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+    }
+
+    public long getDigestedFiles()
+    {
+        return digestedFiles.get();
+    }
+
+    public long getDigestedBytes()
+    {
+        return digestedBytes.get();
+    }
+
+    public long getUpToDateFiles()
+    {
+        return upToDateFiles.get();
+    }
+
+    public long getFailedFiles()
+    {
+        return failedFiles.get();
+    }
+
+    private boolean isSubmitted(String path)
+    {
+        if (submittedDirectories.contains(""))
+        {
+            return true;
+        }
+
+        for (int i = path.indexOf('/'); i != -1; i = path.indexOf('/', i + 1))
+        {
+            if (submittedDirectories.contains(path.substring(0, i)))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void reportProgressIfDue()
+    {
+        long now = System.nanoTime();
+        long reported = reportedAt.get();
+        if (now - reported < PROGRESS_INTERVAL_NANOS || !reportedAt.compareAndSet(reported, now))
+        {
+            return;
+        }
+
+        logger.info(String.format("Regenerating the checksums of [%s]: %s so far.",
+                                  name,
+                                  describeProgress(now - startedAt)));
+    }
+
+    private String describeProgress(long elapsedNanos)
+    {
+        double megabytes = digestedBytes.get() / (1024d * 1024d);
+        double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000d;
+
+        return String.format("[%d] files digested ([%.1f] MB, [%.1f] MB/s), [%d] up to date, [%d] failed",
+                             digestedFiles.get(),
+                             megabytes,
+                             megabytes / seconds,
+                             upToDateFiles.get(),
+                             failedFiles.get());
+    }
+
+    private class DirectoryTask
+            extends RecursiveAction
+    {
+
+        private final RepositoryPath directory;
+
+        DirectoryTask(RepositoryPath directory)
+        {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute()
+        {
+            try
+            {
+                LayoutFileSystemProvider provider = (LayoutFileSystemProvider) directory.getFileSystem().provider();
+                List<FileTask> fileTasks = provider.resolveChecksumSources(directory)
+                                                   .stream()
+                                                   .map(p -> new FileTask(provider, p))
+                                                   .collect(Collectors.toList());
+
+                invokeAll(fileTasks);
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to walk [%s]", directory), e);
+            }
+            finally
+            {
+                pendingDirectories.release();
+                completion.arriveAndDeregister();
+            }
+        }
+
+    }
+
+    private class FileTask
+            extends RecursiveAction
+    {
+
+        private final LayoutFileSystemProvider provider;
+
+        private final RepositoryPath path;
+
+        FileTask(LayoutFileSystemProvider provider,
+                 RepositoryPath path)
+        {
+            this.provider = provider;
+            this.path = path;
+        }
+
+        @Override
+        protected void compute()
+        {
+            try
+            {
+                long bytes = provider.regenerateChecksum(path, forceRegeneration);
+                if (bytes < 0)
+                {
+                    upToDateFiles.incrementAndGet();
+                }
+                else
+                {
+                    digestedFiles.incrementAndGet();
+                    digestedBytes.addAndGet(bytes);
+                }
+            }
+            catch (IOException e)
+            {
+                failedFiles.incrementAndGet();
+                logger.error(String.format("Failed to write checksum for [%s]", path), e);
+            }
+
+            reportProgressIfDue();
+        }
+
+    }
+
+}
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ObjectUtils;
@@ -21,6 +22,8 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -36,6 +39,8 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
 
     private ScheduledExecutorService executor;
 
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
     @Inject
     private ConfigurationManager configurationManager;
 
@@ -56,6 +61,19 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
     {
         int heartbeatThreadsNumber = getRemoteRepositoriesHeartbeatThreadsNumber();
         executor = Executors.newScheduledThreadPool(heartbeatThreadsNumber);
+    }
+
+    /**
+     * The monitoring is scheduled once the application context is ready, so that the first heartbeats of all the
+     * remote repositories don't compete with the startup.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void scheduleRemoteRepositoriesMonitoring()
+    {
+        if (!scheduled.compareAndSet(false, true))
+        {
+            return;
+        }
 
         int defaultIntervalSeconds = getDefaultRemoteRepositoriesHeartbeatIntervalSeconds();
 
@@ -0,0 +1,113 @@
+package org.carlspring.strongbox.artifact.archive;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZipArchiveListingFunctionTest
+{
+
+    private static final Path ARCHIVES_BASEDIR = Paths.get("target/archive-listing").toAbsolutePath();
+
+    /**
+     * The length of the end of central directory record of an archive without a comment.
+     */
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+
+    @Test
+    public void centralDirectoryListingShouldMatchTheStreamListing()
+            throws IOException
+    {
+        Path archive = createArchive("listing.zip", 100, 1024);
+
+        Set<String> centralDirectoryListing = ZipArchiveListingFunction.INSTANCE.getZipEntryNames(archive);
+
+        assertEquals(streamListing(archive), centralDirectoryListing);
+        assertEquals(101, centralDirectoryListing.size());
+        assertTrue(centralDirectoryListing.contains("META-INF/MANIFEST.MF"));
+        assertTrue(centralDirectoryListing.contains("org/carlspring/strongbox/Entry99.class"));
+    }
+
+    @Test
+    public void truncatedArchiveShouldBeListedFromTheLocalHeaders()
+            throws IOException
+    {
+        Path archive = createArchive("truncated.zip", 10, 1024);
+        Set<String> listing = streamListing(archive);
+
+        // Cut off the end of central directory record, without which the central directory can't be found.
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.WRITE))
+        {
+            channel.truncate(channel.size() - END_OF_CENTRAL_DIRECTORY_LENGTH);
+        }
+
+        assertThrows(ZipException.class, () -> ZipArchiveListingFunction.INSTANCE.getZipEntryNames(archive));
+
+        Set<String> fallbackListing = ZipArchiveListingFunction.INSTANCE.listZipFilenames(archive);
+
+        assertEquals(listing, fallbackListing);
+        assertEquals(11, fallbackListing.size());
+    }
+
+    private Set<String> streamListing(Path archive)
+            throws IOException
+    {
+        try (InputStream is = Files.newInputStream(archive);
+             BufferedInputStream bis = new BufferedInputStream(is);
+             ArchiveInputStream ais = new ZipArchiveInputStream(bis))
+        {
+            return ZipArchiveListingFunction.INSTANCE.getEntryNames(ais);
+        }
+    }
+
+    private Path createArchive(String fileName,
+                               int entries,
+                               int entrySize)
+            throws IOException
+    {
+        Files.createDirectories(ARCHIVES_BASEDIR);
+        Path archive = ARCHIVES_BASEDIR.resolve(fileName);
+
+        Random random = new Random(entries);
+        byte[] content = new byte[entrySize];
+
+        try (OutputStream os = Files.newOutputStream(archive);
+             ZipOutputStream zos = new ZipOutputStream(os))
+        {
+            zos.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zos.write("Manifest-Version: 1.0\n".getBytes());
+            zos.closeEntry();
+
+            for (int i = 0; i < entries; i++)
+            {
+                String name = "org/carlspring/strongbox/Entry" + i + ".class";
+                random.nextBytes(content);
+
+                zos.putNextEntry(new ZipEntry(name));
+                zos.write(content);
+                zos.closeEntry();
+            }
+        }
+
+        return archive;
+    }
+
+}
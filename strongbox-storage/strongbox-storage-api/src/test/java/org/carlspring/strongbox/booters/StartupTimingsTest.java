@@ -0,0 +1,57 @@
+package org.carlspring.strongbox.booters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StartupTimingsTest
+{
+
+    private StartupTimings startupTimings = new StartupTimings();
+
+    @Test
+    public void phasesShouldBeRecordedInOrder()
+            throws Exception
+    {
+        assertEquals("configuration", startupTimings.record("Configuration", () -> "configuration"));
+        startupTimings.record("Repositories", () ->
+        {
+            Thread.sleep(20);
+
+            return null;
+        });
+        // A phase which is recorded again adds up.
+        startupTimings.record("Configuration", () -> null);
+
+        assertEquals(Arrays.asList("Configuration", "Repositories"),
+                     new ArrayList<>(startupTimings.getPhases().keySet()));
+        assertTrue(startupTimings.getPhases().get("Repositories") >= 20);
+
+        String[] summary = startupTimings.summary().split("\\R");
+        assertEquals(3, summary.length);
+        assertTrue(summary[1].matches("  \\* Configuration: \\d+ ms"), summary[1]);
+        assertTrue(summary[2].matches("  \\* Repositories: \\d+ ms"), summary[2]);
+
+        assertFalse(startupTimings.isReported());
+        startupTimings.report();
+        assertTrue(startupTimings.isReported());
+    }
+
+    @Test
+    public void failedPhaseShouldBeRecorded()
+    {
+        assertThrows(IOException.class, () -> startupTimings.record("Configuration", () ->
+        {
+            throw new IOException();
+        }));
+
+        assertTrue(startupTimings.getPhases().containsKey("Configuration"));
+    }
+
+}
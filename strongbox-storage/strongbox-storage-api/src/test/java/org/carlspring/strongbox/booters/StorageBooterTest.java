@@ -0,0 +1,182 @@
+package org.carlspring.strongbox.booters;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.layout.LayoutProvider;
+import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryStatusEnum;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class StorageBooterTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    @TempDir
+    Path vaultDirectory;
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private LayoutProviderRegistry layoutProviderRegistry;
+
+    @Mock
+    private RepositoryManagementService repositoryManagementService;
+
+    @Mock
+    private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Mock
+    private PropertiesBooter propertiesBooter;
+
+    @Spy
+    private StartupTimings startupTimings = new StartupTimings();
+
+    @InjectMocks
+    private StorageBooter storageBooter;
+
+    private Repository releases;
+
+    private Repository snapshots;
+
+    private Repository group;
+
+    /**
+     * The ids of the repositories in the order of their initialization.
+     */
+    private List<String> initialized = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(storageBooter, "parallelism", 2);
+
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.doReturn(STORAGE_ID).when(storage).getId();
+
+        releases = mockRepository(storage, "releases", false);
+        snapshots = mockRepository(storage, "snapshots", false);
+        group = mockRepository(storage, "group", true);
+
+        Map<String, Repository> repositories = new LinkedHashMap<>();
+        repositories.put(group.getId(), group);
+        repositories.put(releases.getId(), releases);
+        repositories.put(snapshots.getId(), snapshots);
+        Mockito.doReturn(repositories).when(storage).getRepositories();
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        Mockito.doReturn(Collections.singletonMap(STORAGE_ID, storage)).when(configuration).getStorages();
+        Mockito.doReturn(configuration).when(configurationManager).getConfiguration();
+
+        Mockito.doReturn(new LinkedHashSet<>(Arrays.asList(releases, snapshots)))
+               .when(groupRepositorySetCollector).collect(group, true);
+        Mockito.doReturn(Mockito.mock(LayoutProvider.class)).when(layoutProviderRegistry).getProvider(anyString());
+        Mockito.doReturn(vaultDirectory.toString()).when(propertiesBooter).getVaultDirectory();
+    }
+
+    @Test
+    public void groupShouldBeInitializedAfterItsMembers()
+            throws Exception
+    {
+        // Neither of the members is let through until the other one has started.
+        CountDownLatch membersStarted = new CountDownLatch(2);
+        Mockito.doAnswer(invocation ->
+        {
+            String repositoryId = invocation.getArgument(1);
+            if (!repositoryId.equals(group.getId()))
+            {
+                membersStarted.countDown();
+                assertTrue(membersStarted.await(10, TimeUnit.SECONDS), "The members were not initialized in parallel.");
+            }
+
+            initialized.add(repositoryId);
+
+            return null;
+        }).when(repositoryManagementService).createRepository(eq(STORAGE_ID), anyString());
+
+        storageBooter.initialize();
+
+        assertEquals(3, initialized.size());
+        assertEquals(group.getId(), initialized.get(2));
+
+        Mockito.verify(repositoryManagementService).putInService(STORAGE_ID, releases.getId());
+        Mockito.verify(repositoryManagementService).putInService(STORAGE_ID, snapshots.getId());
+        Mockito.verify(repositoryManagementService).putInService(STORAGE_ID, group.getId());
+
+        assertTrue(startupTimings.getPhases().containsKey("Repositories"));
+        assertTrue(startupTimings.getPhases().containsKey("Group repositories"));
+    }
+
+    @Test
+    public void failedRepositoryShouldFailTheStartup()
+            throws Exception
+    {
+        Mockito.doAnswer(invocation ->
+        {
+            String repositoryId = invocation.getArgument(1);
+            if (repositoryId.equals(releases.getId()))
+            {
+                throw new IOException("Failed to create the repository.");
+            }
+
+            initialized.add(repositoryId);
+
+            return null;
+        }).when(repositoryManagementService).createRepository(eq(STORAGE_ID), anyString());
+
+        IOException e = assertThrows(IOException.class, () -> storageBooter.initialize());
+        assertEquals("Failed to create the repository.", e.getMessage());
+
+        // The other repositories of the batch are initialized all the same, but not the group of the failed one.
+        assertEquals(Collections.singletonList(snapshots.getId()), initialized);
+        Mockito.verify(repositoryManagementService, Mockito.never()).putInService(STORAGE_ID, releases.getId());
+        Mockito.verify(repositoryManagementService, Mockito.never()).createRepository(STORAGE_ID, group.getId());
+    }
+
+    private Repository mockRepository(Storage storage,
+                                      String repositoryId,
+                                      boolean groupRepository)
+    {
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.doReturn(repositoryId).when(repository).getId();
+        Mockito.doReturn(storage).when(repository).getStorage();
+        Mockito.doReturn("Null Layout").when(repository).getLayout();
+        Mockito.doReturn(RepositoryStatusEnum.IN_SERVICE.getStatus()).when(repository).getStatus();
+        Mockito.doReturn(groupRepository).when(repository).isGroupRepository();
+
+        return repository;
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalRepositoryLockProviderTest
+{
+
+    private final LocalRepositoryLockProvider lockProvider = new LocalRepositoryLockProvider(4);
+
+    @Test
+    public void heldLockShouldBeSharedByName()
+            throws Exception
+    {
+        Lock writeLock = lockProvider.getLock("org.carlspring.strongbox%3Astrongbox-commons%3A1.0%3Ajar").writeLock();
+        writeLock.lock();
+        try
+        {
+            // Allow the lock to be collected, if it's not referenced by the held one.
+            System.gc();
+
+            ReadWriteLock lock = lockProvider.getLock("org.carlspring.strongbox%3Astrongbox-commons%3A1.0%3Ajar");
+            assertFalse(tryLockInAnotherThread(lock.readLock()));
+            assertTrue(tryLockInAnotherThread(lockProvider.getLock("strongbox-commons-1.1").writeLock()));
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    @Test
+    public void readLocksShouldNotExcludeEachOther()
+            throws Exception
+    {
+        ReadWriteLock lock = lockProvider.getLock("strongbox-commons-1.0");
+        assertSame(lock, lockProvider.getLock("strongbox-commons-1.0"));
+
+        lock.readLock().lock();
+        try
+        {
+            assertTrue(tryLockInAnotherThread(lock.readLock()));
+            assertFalse(tryLockInAnotherThread(lock.writeLock()));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean tryLockInAnotherThread(Lock lock)
+            throws Exception
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean acquired = lock.tryLock();
+            if (acquired)
+            {
+                lock.unlock();
+            }
+
+            return acquired;
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepositoryPathLockTest
+{
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final RepositoryPathLock repositoryPathLock = new RepositoryPathLock();
+
+    @BeforeEach
+    public void setUp()
+    {
+        Metrics.addRegistry(registry);
+        repositoryPathLock.setLockProvider(new LocalRepositoryLockProvider(4));
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void acquisitionShouldBeTimedPerProviderAndMode()
+            throws Exception
+    {
+        ReadWriteLock lock = repositoryPathLock.lockArtifactIdGroup("storage0", "releases", "strongbox-commons");
+        assertSame(lock.writeLock(), lock.writeLock());
+
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        writeLock.unlock();
+
+        Lock readLock = lock.readLock();
+        assertTrue(readLock.tryLock(1, TimeUnit.SECONDS));
+        readLock.unlock();
+        // Not timed, since it doesn't wait.
+        assertTrue(readLock.tryLock());
+        readLock.unlock();
+
+        assertEquals(1, acquisitionTimer("write").count());
+        assertEquals(1, acquisitionTimer("read").count());
+    }
+
+    private Timer acquisitionTimer(String mode)
+    {
+        Timer timer = registry.find("strongbox.repository.lock.acquire")
+                              .tag("provider", LocalRepositoryLockProvider.NAME)
+                              .tag("mode", mode)
+                              .timer();
+        assertNotNull(timer, mode);
+
+        return timer;
+    }
+
+}
@@ -0,0 +1,204 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.artifact.generator.NullArtifactGenerator;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactResolutionService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.NullLayoutProvider;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.TestArtifact;
+import org.carlspring.strongbox.testing.repository.NullRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The attribute reads are counted by the {@link NullLayoutProvider}, and the {@link ArtifactEntry} lookups by the
+ * {@link ArtifactEntryService} of the {@link RepositoryPathResolver}, both on the test thread only, so that the ones
+ * of the async event handlers are left out.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public class RepositoryPathScopeTest
+{
+
+    private static final String REPOSITORY = "rpst-releases";
+
+    private static final String ARTIFACT = "org/carlspring/test/rpst-artifact.ext";
+
+    private static final String REPOSITORY_GROUP_WRITE = "rpst-group-write";
+
+    private static final String ARTIFACT_GROUP_WRITE = "org/carlspring/test/rpst-group-write.ext";
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactResolutionService artifactResolutionService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private NullLayoutProvider nullLayoutProvider;
+
+    private AtomicInteger artifactEntryLookups = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp()
+    {
+        Thread testThread = Thread.currentThread();
+        Answer<Object> delegate = AdditionalAnswers.delegatesTo(artifactEntryService);
+        ArtifactEntryService countingArtifactEntryService = Mockito.mock(ArtifactEntryService.class, invocation ->
+        {
+            if (Thread.currentThread() == testThread && "findOneArtifact".equals(invocation.getMethod().getName()))
+            {
+                artifactEntryLookups.incrementAndGet();
+            }
+
+            return delegate.answer(invocation);
+        });
+
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(repositoryPathResolver), "artifactEntryService",
+                                     countingArtifactEntryService);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(repositoryPathResolver), "artifactEntryService",
+                                     artifactEntryService);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void downloadShouldResolveThePathOncePerScope(@NullRepository(repositoryId = REPOSITORY) Repository repository,
+                                                         @TestArtifact(repositoryId = REPOSITORY, resource = ARTIFACT, generator = NullArtifactGenerator.class) Path artifact)
+        throws IOException
+    {
+        download(repository);
+
+        // The resolution and the read look the entry up on their own.
+        assertTrue(artifactEntryLookups.getAndSet(0) > 1);
+
+        try (RepositoryPathScope scope = RepositoryPathScope.open())
+        {
+            int attributeReads = download(repository);
+            assertTrue(attributeReads > 0);
+            assertEquals(1, artifactEntryLookups.getAndSet(0));
+
+            // The path of another download within the scope shares what has already been read.
+            assertTrue(download(repository) < attributeReads);
+            assertEquals(0, artifactEntryLookups.getAndSet(0));
+
+            // A write drops the memoized values of the path.
+            RepositoryPathScope.invalidate(repositoryPathResolver.resolve(repository, ARTIFACT));
+
+            assertTrue(download(repository) > 0);
+            assertEquals(1, artifactEntryLookups.getAndSet(0));
+        }
+        assertFalse(RepositoryPathScope.isOpen());
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void groupWriteShouldDropTheMemoizedEntries(@NullRepository(repositoryId = REPOSITORY_GROUP_WRITE) Repository repository)
+        throws IOException
+    {
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(storageId);
+        artifactEntry.setRepositoryId(repositoryId);
+        artifactEntry.setArtifactCoordinates(new NullArtifactCoordinates(ARTIFACT_GROUP_WRITE));
+        repositoryArtifactIdGroupService.addArtifactsToGroups(Collections.singletonList(artifactEntry));
+
+        try (RepositoryPathScope scope = RepositoryPathScope.open())
+        {
+            assertNotNull(repositoryPathResolver.resolve(repository, ARTIFACT_GROUP_WRITE).getArtifactEntry());
+            assertNotNull(repositoryPathResolver.resolve(repository, ARTIFACT_GROUP_WRITE).getArtifactEntry());
+            assertEquals(1, artifactEntryLookups.getAndSet(0));
+
+            // The entries of the group are saved by cascade, and their last version tags could have been moved.
+            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne(storageId,
+                                                                                                    repositoryId,
+                                                                                                    ARTIFACT_GROUP_WRITE);
+            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup,
+                                                                artifactEntryService.findOneArtifact(storageId,
+                                                                                                     repositoryId,
+                                                                                                     ARTIFACT_GROUP_WRITE));
+
+            assertNotNull(repositoryPathResolver.resolve(repository, ARTIFACT_GROUP_WRITE).getArtifactEntry());
+            assertEquals(1, artifactEntryLookups.getAndSet(0));
+        }
+    }
+
+    /**
+     * Downloads the artifact the way the artifact controllers do.
+     *
+     * @return the number of the repository attribute reads
+     */
+    private int download(Repository repository)
+        throws IOException
+    {
+        int attributeReads;
+
+        nullLayoutProvider.startCountingAttributeReads();
+        try
+        {
+            RepositoryPath repositoryPath = artifactResolutionService.resolvePath(repository.getStorage().getId(),
+                                                                                  repository.getId(),
+                                                                                  ARTIFACT);
+            assertNotNull(repositoryPath);
+
+            try (InputStream is = artifactResolutionService.getInputStream(repositoryPath))
+            {
+                IOUtils.toByteArray(is);
+            }
+        }
+        finally
+        {
+            attributeReads = nullLayoutProvider.stopCountingAttributeReads();
+        }
+
+        return attributeReads;
+    }
+
+}
@@ -0,0 +1,343 @@
+package org.carlspring.strongbox.providers.search;
+
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.search.SearchRequest;
+import org.carlspring.strongbox.storage.search.SearchResult;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The index is kept in a temporary vault, the database is mocked, and the results are built from the stored paths
+ * only, with the layout left out.
+ */
+public class LuceneSearchProviderTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "releases";
+
+    @TempDir
+    Path vault;
+
+    private ArtifactEntryService artifactEntryService = mock(ArtifactEntryService.class);
+
+    private ConfigurationManager configurationManager = mock(ConfigurationManager.class);
+
+    /**
+     * The artifacts in the database, by path.
+     */
+    private Map<String, ArtifactEntry> artifactEntries = new LinkedHashMap<>();
+
+    private List<LuceneSearchProvider> providers = new ArrayList<>();
+
+    private LuceneSearchProvider provider;
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        Repository repository = mock(Repository.class);
+        Storage storage = mock(Storage.class);
+        when(storage.getRepository(REPOSITORY_ID)).thenReturn(repository);
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.getStorage(STORAGE_ID)).thenReturn(storage);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        when(artifactEntryService.findOneArtifact(eq(STORAGE_ID), eq(REPOSITORY_ID), anyString()))
+                .thenAnswer(invocation -> artifactEntries.get(invocation.<String>getArgument(2)));
+
+        provider = provider(Runnable::run);
+        provider.getIndex();
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws Exception
+    {
+        for (LuceneSearchProvider p : providers)
+        {
+            p.destroy();
+        }
+    }
+
+    @Test
+    public void storedArtifactsShouldBeIndexedAndDeletedOnesRemoved()
+            throws Exception
+    {
+        String path1 = store("org/carlspring/foo/1.0/foo-1.0.jar", "foo", "1.0");
+        String path2 = store("org/carlspring/foo-bar/1.0/foo-bar-1.0.jar", "foo-bar", "1.0");
+        store("org/carlspring/baz/1.0/baz-1.0.jar", "baz", "1.0");
+
+        // The results are sorted by the path.
+        assertEquals(Arrays.asList(path2, path1), search("artifactId=foo*;"));
+        assertEquals(Collections.singletonList(path2), search("artifactId=foo-bar;"));
+        assertTrue(provider.contains(new SearchRequest(STORAGE_ID, REPOSITORY_ID, "artifactId=baz;")));
+
+        // Deleting a directory removes everything underneath.
+        provider.removeArtifact(STORAGE_ID, REPOSITORY_ID, "org/carlspring/foo-bar");
+        provider.removeArtifact(STORAGE_ID, REPOSITORY_ID, path1);
+        provider.getIndex().refresh();
+
+        assertEquals(Collections.emptyList(), search("artifactId=foo*;"));
+        assertFalse(provider.contains(new SearchRequest(STORAGE_ID, REPOSITORY_ID, "artifactId=foo;")));
+        assertTrue(provider.contains(new SearchRequest(STORAGE_ID, REPOSITORY_ID, "artifactId=baz;")));
+
+        // Nothing is looked up in the database to build the results.
+        artifactEntries.clear();
+        assertEquals(1, search("artifactId=baz;").size());
+    }
+
+    @Test
+    public void queriesShouldBeTranslatedWithoutLeadingWildcards()
+    {
+        assertClause(PhraseQuery.class, "artifactId=commons-io;");
+        assertClause(PhraseQuery.class, "artifactId=*mmons*;");
+        assertClause(TermQuery.class, "artifactId=io;");
+        assertClause(TermQuery.class, "artifactId=*;");
+        assertClause(PrefixQuery.class, "artifactId=commons*;");
+        assertClause(TermQuery.class, "path=org/carlspring/foo/1.0/foo-1.0.jar;");
+        assertClause(TermQuery.class, "tag=last-version;");
+        // Only the patterns, which can't be matched otherwise, are left to the wildcard query.
+        assertClause(WildcardQuery.class, "artifactId=comm?ns-*;");
+    }
+
+    @Test
+    public void valuesShouldBeMatchedAsTheOrientDbProviderMatchesThem()
+            throws Exception
+    {
+        String path1 = store("org/carlspring/commons-io/1.0/commons-io-1.0.jar", "Commons-IO", "1.0");
+        String path2 = store("org/carlspring/commons-lang/1.0/commons-lang-1.0.jar", "commons-lang", "1.0");
+
+        // Substrings, case insensitive, of any length.
+        assertEquals(Arrays.asList(path1, path2), search("artifactId=mmon;"));
+        assertEquals(Collections.singletonList(path1), search("artifactId=ons-io;"));
+        assertEquals(Collections.singletonList(path1), search("artifactId=*S-I*;"));
+        assertEquals(Collections.singletonList(path2), search("artifactId=an;"));
+        assertEquals(Collections.singletonList(path1), search("artifactId=o;version=1;path=" + path1 + ";"));
+        assertEquals(Collections.emptyList(), search("artifactId=commons-ion;"));
+
+        // Existence, and the wildcards.
+        assertEquals(Arrays.asList(path1, path2), search("version=*;"));
+        assertEquals(Collections.emptyList(), search("classifier=*;"));
+        assertEquals(Collections.singletonList(path2), search("artifactId=c?mmons-l*;"));
+
+        // The tags and the path are matched exactly.
+        assertEquals(Collections.emptyList(), search("path=commons-io;"));
+    }
+
+    @Test
+    public void lastVersionTagShouldBeMovedInTheIndex()
+            throws Exception
+    {
+        String path1 = store("org/carlspring/foo/1.0/foo-1.0.jar", "foo", "1.0", ArtifactTag.LAST_VERSION);
+        store("org/carlspring/bar/1.0/bar-1.0.jar", "bar", "1.0", ArtifactTag.LAST_VERSION);
+
+        assertEquals(Collections.singletonList(path1), search("artifactId=foo;tag=last-version;"));
+
+        // The tag is moved from the previous version, while the new version is stored.
+        artifactEntries.get(path1).getTagSet().clear();
+        String path2 = store("org/carlspring/foo/1.1/foo-1.1.jar", "foo", "1.1", ArtifactTag.LAST_VERSION);
+
+        assertEquals(Collections.singletonList(path2), search("artifactId=foo;tag=last-version;"));
+        assertEquals(Arrays.asList(path1, path2), search("artifactId=foo;"));
+        // The other groups are left alone.
+        assertEquals(1, search("artifactId=bar;tag=last-version;").size());
+    }
+
+    @Test
+    public void removedRepositoriesShouldBePrunedFromTheResults()
+            throws Exception
+    {
+        store("org/carlspring/foo/1.0/foo-1.0.jar", "foo", "1.0");
+
+        when(configurationManager.getConfiguration().getStorage(STORAGE_ID).getRepository(REPOSITORY_ID))
+                .thenReturn(null);
+
+        assertEquals(Collections.emptyList(), search("artifactId=foo;"));
+
+        provider.getIndex().refresh();
+        assertFalse(provider.contains(new SearchRequest(STORAGE_ID, REPOSITORY_ID, "artifactId=foo;")));
+    }
+
+    @Test
+    public void indexShouldBeSharedByTheProvidersOfTheSameVault()
+            throws Exception
+    {
+        String path = store("org/carlspring/foo/1.0/foo-1.0.jar", "foo", "1.0");
+
+        // Another application context with the same vault, which can't open an index writer of its own.
+        LuceneSearchProvider other = provider(Runnable::run);
+
+        assertSame(provider.getIndex(), other.getIndex());
+        assertTrue(other.isReady());
+
+        provider.destroy();
+
+        assertFalse(provider.isReady());
+        assertEquals(Collections.singletonList(path),
+                     other.search(new SearchRequest(STORAGE_ID, REPOSITORY_ID, "artifactId=foo;"))
+                          .getResults()
+                          .stream()
+                          .map(SearchResult::getUrl)
+                          .collect(Collectors.toList()));
+
+        other.destroy();
+
+        // The index was closed cleanly, so it's reopened without being populated again.
+        ArtifactEntryService reopenedArtifactEntryService = mock(ArtifactEntryService.class);
+        LuceneSearchProvider reopened = provider(Runnable::run);
+        ReflectionTestUtils.setField(reopened, "artifactEntryService", reopenedArtifactEntryService);
+
+        assertTrue(reopened.isReady());
+        verify(reopenedArtifactEntryService, never()).findArtifactList(any(), any(), any(), any(), anyInt(),
+                                                                       anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    public void providerShouldNotBeReadyWhileTheIndexIsBeingPopulated()
+            throws Exception
+    {
+        // The index of the other vault has to be populated.
+        vault = vault.resolve("other");
+
+        List<Runnable> tasks = new ArrayList<>();
+        LuceneSearchProvider populating = provider(tasks::add);
+
+        assertFalse(populating.isReady());
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+
+        assertTrue(populating.isReady());
+    }
+
+    private LuceneSearchProvider provider(Executor eventTaskExecutor)
+    {
+        PropertiesBooter propertiesBooter = mock(PropertiesBooter.class);
+        when(propertiesBooter.getVaultDirectory()).thenReturn(vault.toString());
+
+        LuceneSearchProvider result = spy(new LuceneSearchProvider());
+        ReflectionTestUtils.setField(result, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(result, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(result, "propertiesBooter", propertiesBooter);
+        ReflectionTestUtils.setField(result, "eventTaskExecutor", eventTaskExecutor);
+        ReflectionTestUtils.setField(result, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(result, "refreshIntervalMs", 60000L);
+        ReflectionTestUtils.setField(result, "commitIntervalSeconds", 60L);
+        ReflectionTestUtils.setField(result, "maxResults", 100);
+
+        // The URL stands for the path, which the result has been built from.
+        doAnswer(invocation -> new SearchResult(invocation.getArgument(0),
+                                                invocation.getArgument(1),
+                                                null,
+                                                invocation.getArgument(2)))
+                .when(result).createSearchResult(anyString(), anyString(), anyString());
+
+        providers.add(result);
+
+        return result;
+    }
+
+    private String store(String path,
+                         String artifactId,
+                         String version,
+                         String... tags)
+            throws Exception
+    {
+        Map<String, String> coordinates = new LinkedHashMap<>();
+        coordinates.put("groupId", "org.carlspring");
+        coordinates.put("artifactId", artifactId);
+        coordinates.put("version", version);
+        coordinates.put("classifier", null);
+
+        AbstractArtifactCoordinates artifactCoordinates = mock(AbstractArtifactCoordinates.class);
+        when(artifactCoordinates.getCoordinates()).thenReturn(coordinates);
+        when(artifactCoordinates.getId()).thenReturn("org.carlspring:" + artifactId);
+        when(artifactCoordinates.toPath()).thenReturn(path);
+
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(REPOSITORY_ID);
+        artifactEntry.setArtifactCoordinates(artifactCoordinates);
+        for (String tag : tags)
+        {
+            ArtifactTagEntry artifactTag = new ArtifactTagEntry();
+            artifactTag.setName(tag);
+            artifactEntry.getTagSet().add(artifactTag);
+        }
+        artifactEntries.put(path, artifactEntry);
+
+        provider.indexArtifact(STORAGE_ID, REPOSITORY_ID, path);
+        provider.getIndex().refresh();
+
+        return path;
+    }
+
+    private List<String> search(String query)
+            throws SearchException
+    {
+        return provider.search(new SearchRequest(STORAGE_ID, REPOSITORY_ID, query))
+                       .getResults()
+                       .stream()
+                       .map(SearchResult::getUrl)
+                       .sorted()
+                       .collect(Collectors.toList());
+    }
+
+    private void assertClause(Class<? extends Query> expected,
+                              String query)
+    {
+        BooleanQuery booleanQuery = (BooleanQuery) provider.parseQuery(new SearchRequest(STORAGE_ID,
+                                                                                         REPOSITORY_ID,
+                                                                                         query));
+
+        assertEquals(expected, booleanQuery.clauses().get(0).getQuery().getClass(), query);
+    }
+
+}
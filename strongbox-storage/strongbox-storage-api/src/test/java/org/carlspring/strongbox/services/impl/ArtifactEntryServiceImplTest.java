@@ -0,0 +1,130 @@
+package org.carlspring.strongbox.services.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The statements of the coordinates queries are checked without a database, through the statement cache.
+ */
+public class ArtifactEntryServiceImplTest
+{
+
+    private ArtifactEntryServiceImpl artifactEntryService = new ArtifactEntryServiceImpl();
+
+    @Test
+    public void sameShapeShouldHitTheCache()
+    {
+        String query = buildQuery(artifactEntryService.toList("storage0", "releases"),
+                                  "*",
+                                  new LinkedHashSet<>(Arrays.asList("groupId", "artifactId")),
+                                  Collections.singleton("lastversion"),
+                                  0,
+                                  0,
+                                  "version",
+                                  true);
+
+        // Other values, and another order of the names.
+        assertEquals(query, buildQuery(artifactEntryService.toList("storage1", "snapshots"),
+                                       "*",
+                                       new LinkedHashSet<>(Arrays.asList("artifactId", "groupId")),
+                                       Collections.singleton("lastversion"),
+                                       0,
+                                       0,
+                                       "version",
+                                       true));
+        assertEquals(1, queryCache().size());
+
+        // The values of the pagination are bound as parameters.
+        String pagedQuery = buildQuery(artifactEntryService.toList("storage0", "releases"),
+                                       "*",
+                                       new HashSet<>(Arrays.asList("groupId", "artifactId")),
+                                       Collections.singleton("lastversion"),
+                                       20,
+                                       10,
+                                       "version",
+                                       true);
+        assertEquals(query + " SKIP :pageSkip LIMIT :pageLimit", pagedQuery);
+        assertEquals(pagedQuery, buildQuery(artifactEntryService.toList("storage0", "releases"),
+                                            "*",
+                                            new HashSet<>(Arrays.asList("groupId", "artifactId")),
+                                            Collections.singleton("lastversion"),
+                                            40,
+                                            0,
+                                            "version",
+                                            true));
+        assertEquals(2, queryCache().size());
+    }
+
+    @Test
+    public void differentShapesShouldNotCollide()
+    {
+        List<Pair<String, String>> storageAndRepository = artifactEntryService.toList("storage0", "releases");
+        Set<String> groupId = Collections.singleton("groupId");
+        Set<String> none = Collections.emptySet();
+
+        List<String> queries = Arrays.asList(
+                buildQuery(storageAndRepository, "*", groupId, none, 0, 0, null, true),
+                // Loose.
+                buildQuery(storageAndRepository, "*", groupId, none, 0, 0, null, false),
+                // Another projection.
+                buildQuery(storageAndRepository, "count(*)", groupId, none, 0, 0, null, true),
+                // Only the storage, only the repository, or neither.
+                buildQuery(artifactEntryService.toList("storage0", null), "*", groupId, none, 0, 0, null, true),
+                buildQuery(artifactEntryService.toList(null, "releases"), "*", groupId, none, 0, 0, null, true),
+                buildQuery(artifactEntryService.toList(null, null), "*", groupId, none, 0, 0, null, true),
+                // Two pairs.
+                buildQuery(Arrays.asList(Pair.with("storage0", "releases"), Pair.with("storage0", "snapshots")),
+                           "*", groupId, none, 0, 0, null, true),
+                // The same name as a tag, rather than a coordinate.
+                buildQuery(storageAndRepository, "*", none, groupId, 0, 0, null, true),
+                // Names, which would add up to the same text.
+                buildQuery(storageAndRepository, "*", new HashSet<>(Arrays.asList("a", "b")), none, 0, 0, null,
+                           true),
+                buildQuery(storageAndRepository, "*", Collections.singleton("ab"), none, 0, 0, null, true),
+                // Ordered.
+                buildQuery(storageAndRepository, "*", groupId, none, 0, 0, "uuid", true),
+                buildQuery(storageAndRepository, "*", groupId, none, 0, 0, "version", true));
+
+        assertEquals(queries.size(), new HashSet<>(queries).size(), queries.toString());
+        assertEquals(queries.size(), queryCache().size());
+        assertTrue(queries.get(1).contains("artifactCoordinates.coordinates.groupId.toLowerCase() like :groupId"),
+                   queries.get(1));
+    }
+
+    private String buildQuery(Collection<Pair<String, String>> storageRepositoryPairList,
+                              String projection,
+                              Set<String> parameterNameSet,
+                              Set<String> tagNameSet,
+                              int skip,
+                              int limit,
+                              String orderBy,
+                              boolean strict)
+    {
+        return artifactEntryService.buildCoordinatesQuery(storageRepositoryPairList,
+                                                          projection,
+                                                          parameterNameSet,
+                                                          tagNameSet,
+                                                          skip,
+                                                          limit,
+                                                          orderBy,
+                                                          strict);
+    }
+
+    private Map<String, String> queryCache()
+    {
+        return (Map<String, String>) ReflectionTestUtils.getField(artifactEntryService, "queryCache");
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.providers.search.LuceneSearchProvider;
+import org.carlspring.strongbox.providers.search.OrientDbSearchProvider;
+import org.carlspring.strongbox.services.ArtifactSearchService;
+import org.carlspring.strongbox.storage.search.SearchRequest;
+import org.carlspring.strongbox.storage.search.SearchResults;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArtifactSearchServiceImplTest
+{
+
+    private ArtifactSearchServiceImpl artifactSearchService = new ArtifactSearchServiceImpl();
+
+    private OrientDbSearchProvider orientDbSearchProvider = mock(OrientDbSearchProvider.class);
+
+    private LuceneSearchProvider luceneSearchProvider = mock(LuceneSearchProvider.class);
+
+    private SearchResults orientDbResults = new SearchResults();
+
+    private SearchResults luceneResults = new SearchResults();
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        ReflectionTestUtils.setField(artifactSearchService, "orientDbSearchProvider", orientDbSearchProvider);
+        ReflectionTestUtils.setField(artifactSearchService, "luceneSearchProvider", luceneSearchProvider);
+
+        when(orientDbSearchProvider.search(any())).thenReturn(orientDbResults);
+        when(orientDbSearchProvider.contains(any())).thenReturn(false);
+        when(luceneSearchProvider.search(any())).thenReturn(luceneResults);
+        when(luceneSearchProvider.contains(any())).thenReturn(true);
+    }
+
+    @Test
+    public void luceneShouldBeUsedOnceItIsReady()
+            throws Exception
+    {
+        when(luceneSearchProvider.isReady()).thenReturn(true);
+
+        assertSame(luceneResults, artifactSearchService.search(searchRequest(null)));
+        assertTrue(artifactSearchService.contains(searchRequest(null)));
+        assertSame(luceneResults, artifactSearchService.search(searchRequest(LuceneSearchProvider.ALIAS)));
+        verify(orientDbSearchProvider, never()).search(any());
+    }
+
+    @Test
+    public void orientDbShouldBeUsedWhileTheIndexIsBeingPopulated()
+            throws Exception
+    {
+        when(luceneSearchProvider.isReady()).thenReturn(false);
+
+        assertSame(orientDbResults, artifactSearchService.search(searchRequest(null)));
+        assertFalse(artifactSearchService.contains(searchRequest(null)));
+        // Even if Lucene is asked for.
+        assertSame(orientDbResults, artifactSearchService.search(searchRequest(LuceneSearchProvider.ALIAS)));
+        verify(luceneSearchProvider, never()).search(any());
+    }
+
+    @Test
+    public void orientDbShouldBeUsedWhenItIsAskedFor()
+            throws Exception
+    {
+        when(luceneSearchProvider.isReady()).thenReturn(true);
+
+        assertSame(orientDbResults, artifactSearchService.search(searchRequest(OrientDbSearchProvider.ALIAS)));
+        assertSame(orientDbResults, artifactSearchService.search(searchRequest("orientdb")));
+        assertFalse(artifactSearchService.contains(searchRequest(OrientDbSearchProvider.ALIAS)));
+        verify(luceneSearchProvider, never()).search(any());
+    }
+
+    private SearchRequest searchRequest(String searchProvider)
+    {
+        SearchRequest searchRequest = new SearchRequest("storage0", "releases", "artifactId=foo;");
+        if (searchProvider != null)
+        {
+            searchRequest.addOption(ArtifactSearchService.OPTION_SEARCH_PROVIDER, searchProvider);
+        }
+
+        return searchRequest;
+    }
+
+}
@@ -1,11 +1,23 @@
 package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
 
 import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
 import org.junit.jupiter.api.Assertions;
@@ -29,6 +41,12 @@ class RepositoryArtifactIdGroupServiceImplTest
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
     @Test
     public void repositoryArtifactIdGroupShouldBeProtectedByIndex()
     {
@@ -46,4 +64,125 @@ class RepositoryArtifactIdGroupServiceImplTest
             System.out.println(repositoryArtifactIdGroupService.save(g2).getObjectId());
         });
     }
+
+    @Test
+    public void artifactsShouldBeAddedToGroupsWithinBatch()
+    {
+        String path1 = "org/carlspring/strongbox/rais-batch-1.0.jar";
+        String path2 = "org/carlspring/strongbox/rais-batch-1.1.jar";
+
+        repositoryArtifactIdGroupService.addArtifactsToGroups(Arrays.asList(artifactEntry("s2", "r2", path1),
+                                                                            artifactEntry("s2", "r2", path2),
+                                                                            artifactEntry("s2", "r2", path2)));
+
+        // Already stored, so it should be skipped.
+        repositoryArtifactIdGroupService.addArtifactsToGroups(Arrays.asList(artifactEntry("s2", "r2", path1)));
+
+        for (String path : Arrays.asList(path1, path2))
+        {
+            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOne("s2", "r2", path);
+
+            Assertions.assertNotNull(artifactGroup);
+            Assertions.assertEquals(1, artifactGroup.getArtifactEntries().size());
+
+            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact("s2", "r2", path);
+
+            Assertions.assertNotNull(artifactEntry);
+            Assertions.assertTrue(artifactEntry.getTagSet()
+                                               .stream()
+                                               .anyMatch(t -> ArtifactTagEntry.LAST_VERSION.equals(t.getName())));
+        }
+    }
+
+    @Test
+    public void batchShouldHoldTheLocksOfItsGroups()
+            throws Exception
+    {
+        String path = "org/carlspring/strongbox/rais-locked-1.0.jar";
+
+        Lock lock = repositoryPathLock.lockArtifactIdGroup("s3", "r3", path).writeLock();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> batch;
+
+            lock.lock();
+            try
+            {
+                batch = executor.submit(() -> repositoryArtifactIdGroupService.addArtifactsToGroups(
+                        Arrays.asList(artifactEntry("s3", "r3", path))));
+
+                // The batch waits for the lock of the group, which is held by a single artifact update.
+                Assertions.assertThrows(TimeoutException.class, () -> batch.get(500, TimeUnit.MILLISECONDS));
+                Assertions.assertNull(repositoryArtifactIdGroupService.findOne("s3", "r3", path));
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            batch.get(10, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        Assertions.assertNotNull(repositoryArtifactIdGroupService.findOne("s3", "r3", path));
+
+        // The lock is released once the batch is committed.
+        Assertions.assertTrue(lock.tryLock());
+        lock.unlock();
+    }
+
+    @Test
+    public void entryStoredWhileTheBatchWaitsShouldBeSkipped()
+            throws Exception
+    {
+        String path = "org/carlspring/strongbox/rais-stored-1.0.jar";
+
+        Lock lock = repositoryPathLock.lockArtifactIdGroup("s4", "r4", path).writeLock();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> batch;
+
+            lock.lock();
+            try
+            {
+                batch = executor.submit(() -> repositoryArtifactIdGroupService.addArtifactsToGroups(
+                        Arrays.asList(artifactEntry("s4", "r4", path))));
+                Assertions.assertThrows(TimeoutException.class, () -> batch.get(500, TimeUnit.MILLISECONDS));
+
+                // Stored by a single artifact update, which holds the lock of the group.
+                artifactEntryService.save(artifactEntry("s4", "r4", path));
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            // The entry is not stored twice.
+            batch.get(10, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        Assertions.assertNotNull(artifactEntryService.findOneArtifact("s4", "r4", path));
+    }
+
+    private ArtifactEntry artifactEntry(String storageId,
+                                        String repositoryId,
+                                        String path)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(storageId);
+        artifactEntry.setRepositoryId(repositoryId);
+        artifactEntry.setArtifactCoordinates(new NullArtifactCoordinates(path));
+
+        return artifactEntry;
+    }
+
 }
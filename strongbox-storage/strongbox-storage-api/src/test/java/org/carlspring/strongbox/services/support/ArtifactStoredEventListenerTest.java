@@ -0,0 +1,107 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.LayoutProvider;
+import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+public class ArtifactStoredEventListenerTest
+{
+
+    private static final String LAYOUT = "Maven 2";
+
+    @Mock
+    private LayoutProviderRegistry layoutProviderRegistry;
+
+    @Mock
+    private LayoutProvider layoutProvider;
+
+    @InjectMocks
+    private ArtifactStoredEventListener artifactStoredEventListener;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(artifactStoredEventListener, "enrichmentThreads", 1);
+        ReflectionTestUtils.setField(artifactStoredEventListener, "enrichmentQueueCapacity", 1);
+        artifactStoredEventListener.afterPropertiesSet();
+
+        Mockito.doReturn(layoutProvider).when(layoutProviderRegistry).getProvider(LAYOUT);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        artifactStoredEventListener.destroy();
+    }
+
+    @Test
+    public void listingShouldBeDiscardedOnceTheQueueIsFull()
+            throws Exception
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> listingThreads = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation ->
+        {
+            listingThreads.add(Thread.currentThread().getName());
+            started.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+
+            // Nothing to store, so that the database isn't needed.
+            return Collections.emptySet();
+        }).when(layoutProvider).listArchiveFilenames(any(RepositoryPath.class));
+
+        RepositoryPath listed = mockRepositoryPath();
+        RepositoryPath queued = mockRepositoryPath();
+        RepositoryPath discarded = mockRepositoryPath();
+
+        artifactStoredEventListener.handle(listed);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        artifactStoredEventListener.handle(queued);
+        // Neither listed by the event thread, nor blocking it.
+        artifactStoredEventListener.handle(discarded);
+
+        Counter discardedCounter = (Counter) ReflectionTestUtils.getField(artifactStoredEventListener, "discarded");
+        assertEquals(1, discardedCounter.count());
+
+        release.countDown();
+
+        Mockito.verify(layoutProvider, Mockito.timeout(10000)).listArchiveFilenames(queued);
+        Mockito.verify(layoutProvider, Mockito.never()).listArchiveFilenames(discarded);
+        assertEquals(2, listingThreads.size());
+        assertTrue(listingThreads.stream().allMatch(t -> t.startsWith("archive-listing-")), listingThreads.toString());
+    }
+
+    private RepositoryPath mockRepositoryPath()
+    {
+        Repository repository = Mockito.mock(Repository.class);
+        Mockito.doReturn(LAYOUT).when(repository).getLayout();
+
+        RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+        Mockito.doReturn(repository).when(repositoryPath).getRepository();
+
+        return repositoryPath;
+    }
+
+}
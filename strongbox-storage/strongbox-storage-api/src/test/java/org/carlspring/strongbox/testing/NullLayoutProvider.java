@@ -2,7 +2,10 @@ package org.carlspring.strongbox.testing;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -10,6 +13,7 @@ import javax.inject.Inject;
 
 import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.AbstractLayoutProvider;
@@ -21,6 +25,11 @@ public class NullLayoutProvider extends AbstractLayoutProvider<NullArtifactCoord
     @Inject
     private NullRepositoryManagementStrategy nullRepositoryManagementStragegy;
 
+    /**
+     * The number of the repository attribute reads of the current thread, if they are being counted.
+     */
+    private final ThreadLocal<AtomicInteger> attributeReads = new ThreadLocal<>();
+
     @Override
     public RepositoryManagementStrategy getRepositoryManagementStrategy()
     {
@@ -52,6 +61,36 @@ public class NullLayoutProvider extends AbstractLayoutProvider<NullArtifactCoord
         return new NullArtifactCoordinates(RepositoryFiles.relativizePath(repositoryPath));
     }
 
+    @Override
+    protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                   RepositoryFileAttributeType... attributeTypes)
+        throws IOException
+    {
+        Optional.ofNullable(attributeReads.get()).ifPresent(AtomicInteger::incrementAndGet);
+
+        return super.getRepositoryFileAttributes(repositoryPath, attributeTypes);
+    }
+
+    /**
+     * Starts counting the repository attribute reads of the current thread, leaving out the ones of the other threads,
+     * like the async event handlers.
+     */
+    public void startCountingAttributeReads()
+    {
+        attributeReads.set(new AtomicInteger());
+    }
+
+    /**
+     * @return the number of the repository attribute reads of the current thread, since the counting was started
+     */
+    public int stopCountingAttributeReads()
+    {
+        AtomicInteger count = attributeReads.get();
+        attributeReads.remove();
+
+        return count == null ? 0 : count.get();
+    }
+
     protected Set<String> getDigestAlgorithmSet()
     {
         return Stream.of(MessageDigestAlgorithms.MD5)
@@ -0,0 +1,91 @@
+package org.carlspring.strongbox.io;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes the digests of several algorithms in a single pass over the same data, with the {@link MessageDigest}
+ * instances taken from the {@link MessageDigestPool}.
+ * <p>
+ * The digests are computed once, by {@link #digest()}, which also returns the instances to the pool. Not thread
+ * safe.
+ */
+public class DigestEngine
+{
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private Map<String, byte[]> result;
+
+    public void addAlgorithm(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        if (result != null)
+        {
+            throw new IllegalStateException("The digests are already computed.");
+        }
+        if (!digests.containsKey(algorithm))
+        {
+            digests.put(algorithm, MessageDigestPool.acquire(algorithm));
+        }
+    }
+
+    /**
+     * @return the digests which are being computed; empty once {@link #digest()} was called
+     */
+    public Map<String, MessageDigest> getDigests()
+    {
+        return Collections.unmodifiableMap(digests);
+    }
+
+    public void update(byte[] b,
+                       int off,
+                       int len)
+    {
+        if (len == 0)
+        {
+            return;
+        }
+
+        for (MessageDigest digest : digests.values())
+        {
+            digest.update(b, off, len);
+        }
+    }
+
+    public void update(byte b)
+    {
+        for (MessageDigest digest : digests.values())
+        {
+            digest.update(b);
+        }
+    }
+
+    /**
+     * Completes the digests and releases the {@link MessageDigest} instances. Any subsequent calls return the same
+     * result.
+     *
+     * @return algorithm -> digest
+     */
+    public Map<String, byte[]> digest()
+    {
+        if (result != null)
+        {
+            return result;
+        }
+
+        Map<String, byte[]> digestMap = new LinkedHashMap<>();
+        for (Map.Entry<String, MessageDigest> e : digests.entrySet())
+        {
+            digestMap.put(e.getKey(), e.getValue().digest());
+            MessageDigestPool.release(e.getKey(), e.getValue());
+        }
+        digests.clear();
+
+        return result = Collections.unmodifiableMap(digestMap);
+    }
+
+}
@@ -149,15 +149,7 @@ public class LayoutInputStream
     public int read(byte[] bytes)
             throws IOException
     {
-        int len = in.read(bytes);
-
-        for (Map.Entry entry : digests.entrySet())
-        {
-            MessageDigest digest = (MessageDigest) entry.getValue();
-            digest.update(bytes);
-        }
-
-        return len;
+        return read(bytes, 0, bytes.length);
     }
 
     InputStream getTarget()
@@ -1,11 +1,12 @@
 package org.carlspring.strongbox.io;
 
-import org.carlspring.commons.io.MultipleDigestOutputStream;
 import org.carlspring.strongbox.util.MessageDigestUtils;
 
-import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.function.Function;
@@ -24,13 +25,27 @@ import org.slf4j.LoggerFactory;
  *     ArtifactOutputStream aos = (ArtifactOutputStream) Files.newOutputStream(repositoryPath); 
  * </pre>
  * 
+ * The written bytes are collected in a buffer, which is digested by all the algorithms and then written to the
+ * source stream at once. The algorithms are chosen by the layout, see {@link DigestEngine}.
+ * 
  * @author Sergey Bespalov
  */
-public class LayoutOutputStream extends MultipleDigestOutputStream
+public class LayoutOutputStream extends FilterOutputStream
 {
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutOutputStream.class);
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DigestEngine digestEngine = new DigestEngine();
+
+    /**
+     * Allocated on the first write, as most of the checksum and metadata files are never going to fill it.
+     */
+    private byte[] buffer;
+
+    private int count;
+
     private Function<byte[], String> digestStringifier = MessageDigestUtils::convertToHexadecimalString;
 
     /**
@@ -43,7 +58,29 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public LayoutOutputStream(OutputStream source)
             throws NoSuchAlgorithmException
     {
-        super(new BufferedOutputStream(source), new String[]{});
+        super(source);
+    }
+
+    public void addAlgorithm(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        digestEngine.addAlgorithm(algorithm);
+    }
+
+    public MessageDigest getMessageDigest(String algorithm)
+    {
+        return getDigests().get(algorithm);
+    }
+
+    /**
+     * @return the digests which are being computed
+     * @throws IllegalStateException if the digests are already completed by {@link #getDigestMap()}
+     */
+    public Map<String, MessageDigest> getDigests()
+    {
+        checkNotDigested();
+
+        return digestEngine.getDigests();
     }
 
     public void setCacheOutputStreamTemplate(Function<OutputStreamFunction, ?> chahceOutputStreamTemplate)
@@ -71,16 +108,31 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
         this.digestStringifier = digestStringifier;
     }
 
+    /**
+     * Completes the digests of everything written so far. The stream can't be written to afterwards, any subsequent
+     * calls return the same result.
+     *
+     * @return algorithm -> digest
+     */
     public Map<String, String> getDigestMap()
     {
         if (digestMap == null)
         {
-            digestMap = getDigests().entrySet()
+            try
+            {
+                flushBuffer();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            digestMap = digestEngine.digest()
+                                    .entrySet()
                                     .stream()
                                     .collect(Collectors.toMap(Map.Entry::getKey,
                                                               e -> stringifyDigest(digestStringifier,
-                                                                                   e.getValue()
-                                                                                    .digest())));
+                                                                                   e.getValue())));
         }
         
         return digestMap;
@@ -96,7 +148,18 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(int b)
         throws IOException
     {
-        super.write(b);
+        checkNotDigested();
+
+        if (buffer == null)
+        {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        if (count == buffer.length)
+        {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
 
@@ -106,7 +169,29 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
                       int len)
         throws IOException
     {
-        super.write(b, off, len);
+        checkNotDigested();
+
+        if (len >= BUFFER_SIZE)
+        {
+            // Nothing to gain from copying it into the buffer.
+            flushBuffer();
+            digestEngine.update(b, off, len);
+            out.write(b, off, len);
+        }
+        else
+        {
+            if (buffer == null)
+            {
+                buffer = new byte[BUFFER_SIZE];
+            }
+            if (len > buffer.length - count)
+            {
+                flushBuffer();
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
         cacheOutputStreamTemplate.apply(o -> o.write(b, off, len));
     }
 
@@ -114,26 +199,54 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(byte[] b)
             throws IOException
     {
-        super.write(b);
-        cacheOutputStreamTemplate.apply(o -> o.write(b));
+        write(b, 0, b.length);
     }
 
     @Override
     public void close()
             throws IOException
     {
-        super.close();
-        cacheOutputStreamTemplate.apply(o -> o.close());
+        try
+        {
+            flushBuffer();
+        }
+        finally
+        {
+            out.close();
+            cacheOutputStreamTemplate.apply(o -> o.close());
+        }
     }
 
     @Override
     public void flush()
             throws IOException
     {
-        super.flush();
+        flushBuffer();
+        out.flush();
         cacheOutputStreamTemplate.apply(o -> o.flush());
     }
 
+    private void flushBuffer()
+        throws IOException
+    {
+        if (count == 0)
+        {
+            return;
+        }
+
+        digestEngine.update(buffer, 0, count);
+        out.write(buffer, 0, count);
+        count = 0;
+    }
+
+    private void checkNotDigested()
+    {
+        if (digestMap != null)
+        {
+            throw new IllegalStateException("The digests are already computed.");
+        }
+    }
+
     private Object doWithOutputStream(OutputStreamFunction f)
     {
         if (cacheOutputStream == null)
@@ -0,0 +1,56 @@
+package org.carlspring.strongbox.io;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per thread pool of {@link MessageDigest} instances, so that every stream doesn't have to look up the provider and
+ * to allocate the digest state of it's algorithms again.
+ * <p>
+ * A digest can be released by any thread, not necessarily the one which acquired it; it's then pooled by the
+ * releasing thread.
+ */
+public final class MessageDigestPool
+{
+
+    /**
+     * The number of the idle instances kept per algorithm and thread.
+     */
+    private static final int MAX_IDLE = 4;
+
+    private static final ThreadLocal<Map<String, Deque<MessageDigest>>> IDLE_DIGESTS = ThreadLocal.withInitial(
+            HashMap::new);
+
+    private MessageDigestPool()
+    {
+    }
+
+    public static MessageDigest acquire(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        Deque<MessageDigest> idle = IDLE_DIGESTS.get().get(algorithm);
+        MessageDigest digest = idle == null ? null : idle.pollFirst();
+
+        return digest != null ? digest : MessageDigest.getInstance(algorithm);
+    }
+
+    /**
+     * Resets the digest and returns it to the pool of the current thread. It must not be used afterwards.
+     */
+    public static void release(String algorithm,
+                               MessageDigest digest)
+    {
+        digest.reset();
+
+        Deque<MessageDigest> idle = IDLE_DIGESTS.get().computeIfAbsent(algorithm, a -> new ArrayDeque<>(MAX_IDLE));
+        if (idle.size() < MAX_IDLE)
+        {
+            idle.offerFirst(digest);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.carlspring.strongbox.io;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LayoutOutputStreamTest
+{
+
+    @Test
+    public void digestsShouldMatchTheWrittenContent()
+            throws Exception
+    {
+        byte[] content = new byte[200 * 1024 + 17];
+        new Random(content.length).nextBytes(content);
+
+        // Single bytes, small chunks and chunks larger than the buffer, twice, to reuse the pooled digests.
+        for (int i = 0; i < 2; i++)
+        {
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            LayoutOutputStream los = new LayoutOutputStream(target);
+            los.addAlgorithm(MessageDigestAlgorithms.MD5);
+            los.addAlgorithm(MessageDigestAlgorithms.SHA_1);
+
+            los.write(content[0]);
+            los.write(content, 1, 4095);
+            los.write(content, 4096, 100 * 1024);
+            los.write(content, 4096 + 100 * 1024, content.length - 4096 - 100 * 1024);
+
+            // The digests are requested before the stream is closed, as on upload.
+            Map<String, String> digestMap = los.getDigestMap();
+            los.close();
+
+            assertArrayEquals(content, target.toByteArray());
+            assertEquals(2, digestMap.size());
+            assertEquals(digest(MessageDigestAlgorithms.MD5, content), digestMap.get(MessageDigestAlgorithms.MD5));
+            assertEquals(digest(MessageDigestAlgorithms.SHA_1, content), digestMap.get(MessageDigestAlgorithms.SHA_1));
+        }
+    }
+
+    @Test
+    public void streamShouldNotBeWrittenToOnceDigested()
+            throws Exception
+    {
+        byte[] content = "content".getBytes();
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        LayoutOutputStream los = new LayoutOutputStream(target);
+        los.addAlgorithm(MessageDigestAlgorithms.SHA_1);
+        los.write(content);
+
+        Map<String, String> digestMap = los.getDigestMap();
+
+        assertThrows(IllegalStateException.class, () -> los.write(1));
+        assertThrows(IllegalStateException.class, () -> los.write(content));
+        assertThrows(IllegalStateException.class, () -> los.getDigests());
+
+        // The same digests, of the bytes written before, and nothing else went to the target.
+        assertSame(digestMap, los.getDigestMap());
+        assertEquals(digest(MessageDigestAlgorithms.SHA_1, content), digestMap.get(MessageDigestAlgorithms.SHA_1));
+
+        los.close();
+        assertArrayEquals(content, target.toByteArray());
+    }
+
+    private String digest(String algorithm,
+                          byte[] content)
+            throws Exception
+    {
+        return MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance(algorithm).digest(content));
+    }
+
+}
@@ -14,6 +14,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -88,33 +89,11 @@ public class VersionCollector
                         continue;
                     }
 
-                    if (ArtifactUtils.isSnapshot(version))
-                    {
-                        version = ArtifactUtils.toSnapshotVersion(version);
-                    }
-
-                    MetadataVersion metadataVersion = new MetadataVersion();
-                    metadataVersion.setVersion(version);
-                    metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
-
-                    versions.add(metadataVersion);
+                    versions.add(createMetadataVersion(version, fileAttributes.lastModifiedTime()));
 
                     if (artifactIsPlugin(pom))
                     {
-                        String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
-
-                        // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
-                        // TODO: This needs to be addressed properly, as it's not correct.
-                        // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
-                        // TODO: either via a ZipInputStream, or using TrueZip.
-                        // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
-
-                        Plugin plugin = new Plugin();
-                        plugin.setName(name);
-                        plugin.setArtifactId(pom.getArtifactId());
-                        plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
-
-                        request.addPlugin(plugin);
+                        request.addPlugin(createPlugin(pom));
                     }
                 }
             }
@@ -124,6 +103,12 @@ public class VersionCollector
             }
         }
 
+        return populateRequest(request, versions);
+    }
+
+    protected VersionCollectionRequest populateRequest(VersionCollectionRequest request,
+                                                       List<MetadataVersion> versions)
+    {
         // 1.1 < 1.2 < 1.3 ....
         if (!versions.isEmpty())
         {
@@ -136,6 +121,39 @@ public class VersionCollector
         return request;
     }
 
+    protected MetadataVersion createMetadataVersion(String version,
+                                                    FileTime createdDate)
+    {
+        if (ArtifactUtils.isSnapshot(version))
+        {
+            version = ArtifactUtils.toSnapshotVersion(version);
+        }
+
+        MetadataVersion metadataVersion = new MetadataVersion();
+        metadataVersion.setVersion(version);
+        metadataVersion.setCreatedDate(createdDate);
+
+        return metadataVersion;
+    }
+
+    protected Plugin createPlugin(Model pom)
+    {
+        String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
+
+        // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
+        // TODO: This needs to be addressed properly, as it's not correct.
+        // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
+        // TODO: either via a ZipInputStream, or using TrueZip.
+        // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
+
+        Plugin plugin = new Plugin();
+        plugin.setName(name);
+        plugin.setArtifactId(pom.getArtifactId());
+        plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
+
+        return plugin;
+    }
+
     private Path getPomPath(Path artifactBasePath,
                             Path versionDirectoryPath)
     {
@@ -243,12 +261,12 @@ public class VersionCollector
         return versioning;
     }
 
-    private boolean artifactIsPlugin(Model model)
+    protected boolean artifactIsPlugin(Model model)
     {
-        return model.getPackaging().equals("maven-plugin");
+        return "maven-plugin".equals(model.getPackaging());
     }
 
-    private Model getPom(Path filePath)
+    protected Model getPom(Path filePath)
             throws IOException, XmlPullParserException
     {
         try (Reader rr = new FileReader(filePath.toFile()))
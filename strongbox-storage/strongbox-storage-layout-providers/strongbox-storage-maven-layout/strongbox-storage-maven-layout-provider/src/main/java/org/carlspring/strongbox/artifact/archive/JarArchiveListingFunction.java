@@ -8,9 +8,12 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
+import java.util.zip.ZipException;
 
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.jar.JarArchiveInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Przemyslaw Fusik
@@ -20,10 +23,21 @@ public enum JarArchiveListingFunction
 {
     INSTANCE;
 
+    private static final Logger logger = LoggerFactory.getLogger(JarArchiveListingFunction.class);
+
     @Override
     public Set<String> listFilenames(final RepositoryPath path)
             throws IOException
     {
+        try
+        {
+            return getZipEntryNames(path);
+        }
+        catch (ZipException e)
+        {
+            logger.debug("Falling back to the local file headers of [{}].", path, e);
+        }
+
         try (InputStream is = Files.newInputStream(path);
              BufferedInputStream bis = new BufferedInputStream(is);
              ArchiveInputStream ais = new JarArchiveInputStream(bis))
@@ -36,6 +36,7 @@ public class MavenArtifactDeletedEventListener
         try
         {
             mavenMetadataGroupRepositoryComponent.cleanupGroupsContaining(event.getPath());
+            mavenMetadataGroupRepositoryComponent.updateGroupsContaining(event.getPath());
         }
         catch (IOException e)
         {
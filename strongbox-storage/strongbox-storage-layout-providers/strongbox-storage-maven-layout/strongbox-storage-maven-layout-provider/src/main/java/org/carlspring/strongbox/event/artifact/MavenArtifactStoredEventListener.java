@@ -0,0 +1,98 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.nio.file.Files;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.index.artifact.Gav;
+import org.springframework.stereotype.Component;
+
+/**
+ * Patches the existing <code>maven-metadata.xml</code> of a hosted repository with the version of the stored
+ * artifact, instead of regenerating it from a scan of the whole artifact directory.
+ */
+@Component
+public class MavenArtifactStoredEventListener
+        extends BaseMavenArtifactEventListener
+{
+
+    @AsyncEventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        final Repository repository = getRepository(event);
+
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()))
+        {
+            return;
+        }
+
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        {
+            return;
+        }
+
+        if (!repository.isHostedRepository())
+        {
+            return;
+        }
+
+        try
+        {
+            if (updateArtifactMetadata(event.getPath()))
+            {
+                updateMetadataInGroupsContainingRepository(event, path -> path.getParent().getParent());
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Unable to update artifact metadata of file " + event.getPath() + " of repository " +
+                         repository.getId(), e);
+        }
+    }
+
+    private boolean updateArtifactMetadata(RepositoryPath artifactPath)
+            throws Exception
+    {
+        if (!RepositoryFiles.isArtifact(artifactPath))
+        {
+            return false;
+        }
+
+        Gav gav = MavenArtifactUtils.convertPathToGav(artifactPath);
+        if (gav == null || gav.isHash() || gav.isSignature())
+        {
+            return false;
+        }
+
+        RepositoryPath artifactBasePath = artifactPath.getParent().getParent();
+
+        // Metadata which doesn't exist yet is generated by the regular rebuild, there's nothing to patch here.
+        if (!Files.exists(MetadataHelper.getMetadataPath(artifactBasePath)))
+        {
+            return false;
+        }
+
+        if (gav.isSnapshot() && !gav.getVersion().equals(gav.getBaseVersion()))
+        {
+            return mavenMetadataManager.addTimestampedSnapshotVersion(artifactBasePath,
+                                                                      gav.getVersion(),
+                                                                      gav.getClassifier(),
+                                                                      gav.getExtension());
+        }
+
+        if ("pom".equals(gav.getExtension()) && StringUtils.isBlank(gav.getClassifier()))
+        {
+            return mavenMetadataManager.addVersion(artifactBasePath, gav.getVersion());
+        }
+
+        return false;
+    }
+
+}
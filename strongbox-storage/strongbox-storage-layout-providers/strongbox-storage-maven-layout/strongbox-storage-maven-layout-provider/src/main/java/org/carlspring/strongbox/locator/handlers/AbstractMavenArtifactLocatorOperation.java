@@ -26,11 +26,23 @@ public abstract class AbstractMavenArtifactLocatorOperation
 
     private RepositoryPath previousPath;
 
+    private VersionCollector versionCollector = new VersionCollector();
+
 
     public AbstractMavenArtifactLocatorOperation()
     {
     }
 
+    public VersionCollector getVersionCollector()
+    {
+        return versionCollector;
+    }
+
+    public void setVersionCollector(VersionCollector versionCollector)
+    {
+        this.versionCollector = versionCollector;
+    }
+
     public void execute(RepositoryPath direcotryPath)
             throws IOException
     {
@@ -79,7 +91,6 @@ public abstract class AbstractMavenArtifactLocatorOperation
         }
         getVisitedRootPaths().put(artifactGroupDirectoryPath, versionDirectories);
 
-        VersionCollector versionCollector = new VersionCollector();
         VersionCollectionRequest request = versionCollector.collectVersions(artifactGroupDirectoryPath.toAbsolutePath());
 
         if (logger.isDebugEnabled())
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.metadata.VersionCollectionRequest;
+import org.carlspring.strongbox.storage.metadata.VersionCollector;
 
 import javax.annotation.Nonnull;
 import java.util.List;
@@ -35,6 +36,15 @@ public class GenerateMavenMetadataOperation
         this.artifactEventListenerRegistry = artifactEventListenerRegistry;
     }
 
+    public GenerateMavenMetadataOperation(@Nonnull final MavenMetadataManager mavenMetadataManager,
+                                          @Nonnull final ArtifactEventListenerRegistry artifactEventListenerRegistry,
+                                          @Nonnull final VersionCollector versionCollector)
+    {
+        this(mavenMetadataManager, artifactEventListenerRegistry);
+        Objects.requireNonNull(versionCollector);
+        setVersionCollector(versionCollector);
+    }
+
     @Override
     public void executeOperation(VersionCollectionRequest request,
                                  RepositoryPath artifactGroupDirectoryPath,
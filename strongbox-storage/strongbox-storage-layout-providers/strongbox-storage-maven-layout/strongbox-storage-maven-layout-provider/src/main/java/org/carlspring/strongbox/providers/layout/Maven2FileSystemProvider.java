@@ -246,28 +246,6 @@ public class Maven2FileSystemProvider extends LayoutFileSystemProvider
         throws IOException,
                XmlPullParserException
     {
-
-        Metadata metadataVersionLevel = mavenMetadataManager.readMetadata(artifactPath);
-        if (metadataVersionLevel != null && metadataVersionLevel.getVersioning() != null)
-        {
-            metadataVersionLevel.getVersioning().getVersions().remove(version);
-
-            if (version.equals(metadataVersionLevel.getVersioning().getLatest()))
-            {
-                MetadataHelper.setLatest(metadataVersionLevel);
-            }
-
-            if (version.equals(metadataVersionLevel.getVersioning().getRelease()))
-            {
-                MetadataHelper.setRelease(metadataVersionLevel);
-            }
-
-            MetadataHelper.setLastUpdated(metadataVersionLevel.getVersioning());
-
-            mavenMetadataManager.storeMetadata(artifactPath,
-                                               null,
-                                               metadataVersionLevel,
-                                               MetadataType.ARTIFACT_ROOT_LEVEL);
-        }
+        mavenMetadataManager.removeVersion(artifactPath, version);
     }
 }
@@ -5,6 +5,7 @@ import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.artifact.archive.JarArchiveListingFunction;
 import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.LayoutFileSystem;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
@@ -16,6 +17,8 @@ import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
@@ -24,6 +27,9 @@ import java.util.Set;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.maven.index.artifact.M2ArtifactRecognizer;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -130,6 +136,33 @@ public class Maven2LayoutProvider
         return false;
     }
 
+    /**
+     * Keeps the packaging and the name of the POM, so that the metadata of the plugins can be generated without
+     * reading the POMs again.
+     */
+    @Override
+    public void populateArtifactEntry(RepositoryPath repositoryPath,
+                                      ArtifactEntry artifactEntry)
+            throws IOException
+    {
+        if (!isArtifactMetadata(repositoryPath))
+        {
+            return;
+        }
+
+        try (InputStream is = Files.newInputStream(repositoryPath))
+        {
+            Model pom = new MavenXpp3Reader().read(is, false);
+
+            artifactEntry.setPackaging(pom.getPackaging());
+            artifactEntry.setName(pom.getName());
+        }
+        catch (XmlPullParserException e)
+        {
+            logger.warn(String.format("Unable to read the POM [%s].", repositoryPath), e);
+        }
+    }
+
     @Override
     public Set<String> getDefaultArtifactCoordinateValidators()
     {
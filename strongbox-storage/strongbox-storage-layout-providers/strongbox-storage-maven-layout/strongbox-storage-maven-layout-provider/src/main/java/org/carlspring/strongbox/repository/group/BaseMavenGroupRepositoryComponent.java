@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.repository.group;
 
+import org.carlspring.strongbox.configuration.ConfigurationUtils;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -13,7 +14,9 @@ import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -142,6 +145,61 @@ public abstract class BaseMavenGroupRepositoryComponent
         }
     }
 
+    /**
+     * Resolves the path of the group repository in all the leaf (non-group) repositories of it's sub tree, which
+     * would contribute to it, according to the same routing rules as the ones applied on
+     * {@link #updateGroupsContaining(RepositoryPath)}.
+     */
+    protected List<RepositoryPath> resolveInLeafRepositories(final RepositoryPath groupRepositoryPath)
+            throws IOException
+    {
+        final Map<String, RepositoryPath> leafRepositoryPaths = new LinkedHashMap<>();
+
+        Repository groupRepository = groupRepositoryPath.getRepository();
+        resolveInLeafRepositories(groupRepository,
+                                  groupRepository,
+                                  RepositoryFiles.relativizePath(groupRepositoryPath),
+                                  new ArrayList<>(),
+                                  leafRepositoryPaths);
+
+        return new ArrayList<>(leafRepositoryPaths.values());
+    }
+
+    private void resolveInLeafRepositories(final Repository groupRepository,
+                                           final Repository repository,
+                                           final String artifactPath,
+                                           final List<Repository> leafRoute,
+                                           final Map<String, RepositoryPath> leafRepositoryPaths)
+            throws IOException
+    {
+        for (String storageAndRepositoryId : repository.getGroupRepositories())
+        {
+            String sId = ConfigurationUtils.getStorageId(repository.getStorage().getId(), storageAndRepositoryId);
+            String rId = ConfigurationUtils.getRepositoryId(storageAndRepositoryId);
+
+            Repository subRepository = getRepository(sId, rId);
+            if (subRepository == null || !subRepository.isInService() || leafRoute.contains(subRepository))
+            {
+                continue;
+            }
+
+            leafRoute.add(subRepository);
+
+            if (subRepository.isGroupRepository())
+            {
+                resolveInLeafRepositories(groupRepository, subRepository, artifactPath, leafRoute, leafRepositoryPaths);
+            }
+            else if (!leafRepositoryPaths.containsKey(subRepository.getStorageIdAndRepositoryId()) &&
+                     !isOperationDeniedByRoutingRules(groupRepository, leafRoute, artifactPath))
+            {
+                leafRepositoryPaths.put(subRepository.getStorageIdAndRepositoryId(),
+                                        repositoryPathResolver.resolve(subRepository, artifactPath));
+            }
+
+            leafRoute.remove(subRepository);
+        }
+    }
+
     protected RepositoryPath getRepositoryPath(final Repository repository)
     {
         return repositoryPathResolver.resolve(repository);
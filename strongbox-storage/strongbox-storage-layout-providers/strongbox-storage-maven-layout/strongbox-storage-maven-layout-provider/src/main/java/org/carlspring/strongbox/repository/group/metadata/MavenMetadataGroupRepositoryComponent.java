@@ -1,21 +1,45 @@
 package org.carlspring.strongbox.repository.group.metadata;
 
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.repository.group.BaseMavenGroupRepositoryComponent;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.metadata.MetadataType;
+import org.carlspring.strongbox.storage.metadata.comparators.SnapshotVersionComparator;
+import org.carlspring.strongbox.storage.metadata.comparators.VersionComparator;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * Group repository metadata is merged lazily, when it's requested, out of the metadata of the leaf repositories of
+ * the group. The merge result is stored in the group repository and is kept until the metadata of one of it's members
+ * changes. Even then, it's only merged again if the checksums of the member metadata files are not the same as the
+ * ones it was merged from.
+ * <br>
+ * The merge results are remembered per group repository path, in a cache bounded by
+ * {@code strongbox.maven.group-metadata.cache.size}; an evicted path is simply merged again on its next request.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -23,65 +47,272 @@ public class MavenMetadataGroupRepositoryComponent
         extends BaseMavenGroupRepositoryComponent
 {
 
+    private static final String CHECKSUM_ALGORITHM = "SHA-1";
+
     @Inject
     private MavenMetadataManager mavenMetadataManager;
 
+    /**
+     * The maximum number of the group repository paths to remember the merge result of.
+     */
+    @Value("${strongbox.maven.group-metadata.cache.size:10000}")
+    private long cacheSize;
+
+    @Value("${strongbox.maven.group-metadata.cache.expire-after-access-seconds:3600}")
+    private long cacheExpireAfterAccessSeconds;
+
+    /**
+     * Group repository path (storageId:repositoryId:path) -> merged metadata.
+     */
+    private Cache<String, MergedGroupMetadata> mergedGroupMetadata;
+
+    @PostConstruct
+    public void init()
+    {
+        mergedGroupMetadata = CacheBuilder.newBuilder()
+                                          .maximumSize(cacheSize)
+                                          .expireAfterAccess(cacheExpireAfterAccessSeconds, TimeUnit.SECONDS)
+                                          .build();
+    }
+
     @Override
     protected void cleanupGroupWhenArtifactPathNoLongerExistsInSubTree(final Repository groupRepository,
                                                                        final String artifactPath)
             throws IOException
     {
         final LayoutProvider layoutProvider = getRepositoryProvider(groupRepository);
-        
+
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(groupRepository, artifactPath);
+        invalidate(repositoryPath, true);
         Files.delete(repositoryPath);
     }
 
     @Override
     protected UpdateCallback newInstance(RepositoryPath repositoryPath)
     {
-        return new MetadataUpdateCallback(repositoryPath);
+        return new MetadataInvalidationCallback(repositoryPath);
     }
 
-    class MetadataUpdateCallback
-            implements UpdateCallback
+    /**
+     * Merges the metadata of the group repository artifact, unless the merge result of the same member metadata is
+     * already there.
+     *
+     * @param groupArtifactBasePath the artifact (or the plugin group) base path in the group repository
+     */
+    public void mergeGroupMetadataIfNecessary(final RepositoryPath groupArtifactBasePath)
+            throws IOException
     {
+        final String key = key(groupArtifactBasePath.getRepository(),
+                               RepositoryFiles.relativizePath(groupArtifactBasePath));
+        final Path groupMetadataPath = MetadataHelper.getMetadataPath(groupArtifactBasePath);
+        final ConcurrentMap<String, MergedGroupMetadata> groupMetadata = mergedGroupMetadata.asMap();
 
-        private final RepositoryPath initiatorRepositoryPath;
+        // Every invalidation replaces the entry, so the one observed here tells whether it was invalidated meanwhile.
+        final MergedGroupMetadata merged = groupMetadata.computeIfAbsent(key, k -> new MergedGroupMetadata(null, true));
+        if (!merged.isStale() && Files.exists(groupMetadataPath))
+        {
+            return;
+        }
 
-        private Metadata mergeMetadata;
+        final List<Path> memberMetadataPaths = new ArrayList<>();
+        for (RepositoryPath leafArtifactBasePath : resolveInLeafRepositories(groupArtifactBasePath))
+        {
+            Path metadataPath = MetadataHelper.getMetadataPath(leafArtifactBasePath);
+            if (Files.exists(metadataPath))
+            {
+                memberMetadataPaths.add(metadataPath);
+            }
+        }
 
-        MetadataUpdateCallback(RepositoryPath repositoryPath)
+        if (memberMetadataPaths.isEmpty())
         {
-            this.initiatorRepositoryPath = repositoryPath;
+            return;
         }
 
-        @Override
-        public void beforeUpdate()
-                throws IOException
+        final String memberChecksums = calculateChecksums(memberMetadataPaths);
+        if (!memberChecksums.equals(merged.getMemberChecksums()) || !Files.exists(groupMetadataPath))
         {
-            final RepositoryPath artifactAbsolutePath = initiatorRepositoryPath.toAbsolutePath();
+            Metadata metadata = merge(memberMetadataPaths);
+            if (metadata == null)
+            {
+                return;
+            }
 
-            try
+            Files.createDirectories(groupArtifactBasePath);
+            mavenMetadataManager.storeMetadata(groupArtifactBasePath, null, metadata, MetadataType.ARTIFACT_ROOT_LEVEL);
+
+            logger.debug("Merged the metadata of [{}] out of [{}].", groupArtifactBasePath, memberMetadataPaths);
+        }
+
+        // If the member metadata was changed in the meantime, the entry stays stale and the next request checks it
+        // again.
+        groupMetadata.replace(key, merged, new MergedGroupMetadata(memberChecksums, false));
+    }
+
+    /**
+     * Marks the merged metadata of the group repository path as stale.
+     *
+     * @param nested whether the merged metadata of any path above, or below it, should be marked as stale as well
+     */
+    private void invalidate(final RepositoryPath groupRepositoryPath,
+                            final boolean nested)
+            throws IOException
+    {
+        final Repository groupRepository = groupRepositoryPath.getRepository();
+        final String path = RepositoryFiles.relativizePath(groupRepositoryPath);
+        final ConcurrentMap<String, MergedGroupMetadata> groupMetadata = mergedGroupMetadata.asMap();
+
+        groupMetadata.computeIfPresent(key(groupRepository, path), (k, merged) -> merged.stale());
+        if (!nested)
+        {
+            return;
+        }
+
+        final String groupKey = key(groupRepository, "");
+        for (String key : groupMetadata.keySet())
+        {
+            if (!key.startsWith(groupKey))
+            {
+                continue;
+            }
+
+            String p = key.substring(groupKey.length());
+            if (p.startsWith(path + "/") || path.startsWith(p + "/"))
             {
-                mergeMetadata = mavenMetadataManager.readMetadata(artifactAbsolutePath);
+                groupMetadata.computeIfPresent(key, (k, merged) -> merged.stale());
             }
-            catch (final FileNotFoundException ex)
+        }
+    }
+
+    private static String key(final Repository groupRepository,
+                              final String path)
+    {
+        return groupRepository.getStorageIdAndRepositoryId() + ":" + path;
+    }
+
+    private String calculateChecksums(final List<Path> memberMetadataPaths)
+            throws IOException
+    {
+        StringBuilder checksums = new StringBuilder();
+        for (Path metadataPath : memberMetadataPaths)
+        {
+            try
             {
-                logger.warn("Unable to read metadata in repository path {}.", artifactAbsolutePath);
-                throw new StopUpdateSilentlyException();
+                checksums.append(metadataPath.toUri())
+                         .append('=')
+                         .append(MessageDigestUtils.calculateChecksum(metadataPath, CHECKSUM_ALGORITHM))
+                         .append(';');
             }
-            catch (final XmlPullParserException e)
+            catch (NoSuchAlgorithmException e)
             {
                 throw new IOException(e);
             }
         }
 
+        return checksums.toString();
+    }
+
+    private Metadata merge(final List<Path> memberMetadataPaths)
+            throws IOException
+    {
+        Metadata metadata = null;
+        for (Path metadataPath : memberMetadataPaths)
+        {
+            Metadata memberMetadata;
+            try
+            {
+                memberMetadata = mavenMetadataManager.readMetadata(metadataPath.getParent());
+            }
+            catch (XmlPullParserException e)
+            {
+                logger.warn("Unable to read metadata in repository path {}.", metadataPath, e);
+                continue;
+            }
+
+            if (metadata == null)
+            {
+                metadata = memberMetadata;
+                continue;
+            }
+
+            metadata.merge(memberMetadata);
+
+            Versioning versioning = metadata.getVersioning();
+            if (versioning != null && versioning.getVersions() != null)
+            {
+                versioning.getVersions().sort(new VersionComparator());
+            }
+            if (versioning != null && versioning.getSnapshotVersions() != null)
+            {
+                versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+            }
+        }
+
+        return metadata;
+    }
+
+    class MetadataInvalidationCallback
+            implements UpdateCallback
+    {
+
+        private final RepositoryPath initiatorRepositoryPath;
+
+        private boolean deleted;
+
+        MetadataInvalidationCallback(RepositoryPath repositoryPath)
+        {
+            this.initiatorRepositoryPath = repositoryPath;
+        }
+
+        @Override
+        public void beforeUpdate()
+        {
+            // A deleted path could have contained any number of artifacts.
+            deleted = !Files.exists(initiatorRepositoryPath);
+        }
+
         @Override
         public void performUpdate(final RepositoryPath parentRepositoryArtifactAbsolutePath)
                 throws IOException
         {
-            mavenMetadataManager.mergeAndStore(parentRepositoryArtifactAbsolutePath, mergeMetadata);
+            logger.debug("Invalidating the metadata of [{}] on the change of [{}].",
+                         parentRepositoryArtifactAbsolutePath,
+                         initiatorRepositoryPath);
+
+            invalidate(parentRepositoryArtifactAbsolutePath, deleted);
+        }
+    }
+
+    static class MergedGroupMetadata
+    {
+
+        private final String memberChecksums;
+
+        private final boolean stale;
+
+        MergedGroupMetadata(String memberChecksums,
+                            boolean stale)
+        {
+            this.memberChecksums = memberChecksums;
+            this.stale = stale;
+        }
+
+        String getMemberChecksums()
+        {
+            return memberChecksums;
+        }
+
+        boolean isStale()
+        {
+            return stale;
+        }
+
+        /**
+         * @return always a new instance, so that a merge which is in progress can tell it was invalidated
+         */
+        MergedGroupMetadata stale()
+        {
+            return new MergedGroupMetadata(memberChecksums, true);
         }
     }
 
@@ -11,6 +11,7 @@ import java.util.concurrent.locks.Lock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 /**
  * @author Przemyslaw Fusik
@@ -24,6 +25,12 @@ public abstract class AbstractRepositoryIndexCreator
     @Inject
     protected RepositoryPathLock repositoryPathLock;
 
+    /**
+     * The number of incremental index chunks to keep, next to the full index. Zero turns them off.
+     */
+    @Value("${strongbox.maven.index.max-chunks:" + IndexPacker.DEFAULT_MAX_INDEX_CHUNKS + "}")
+    protected int maxIndexChunks;
+
     @Override
     public RepositoryPath apply(Repository repository)
             throws IOException
@@ -61,6 +68,13 @@ public abstract class AbstractRepositoryIndexCreator
         return repositoryIndexDirectoryPath;
     }
 
+    protected RepositoryPath pack(final RepositoryPath repositoryIndexDirectoryPath,
+                                  final RepositoryCloseableIndexingContext indexingContext)
+            throws IOException
+    {
+        return IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext, maxIndexChunks);
+    }
+
     protected abstract void onIndexingContextCreated(RepositoryPath repositoryIndexDirectoryPath,
                                                      RepositoryCloseableIndexingContext indexingContext)
             throws IOException;
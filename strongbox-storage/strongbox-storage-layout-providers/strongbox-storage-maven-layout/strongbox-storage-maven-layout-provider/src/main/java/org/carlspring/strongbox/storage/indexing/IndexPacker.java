@@ -3,7 +3,15 @@ package org.carlspring.strongbox.storage.indexing;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.maven.index.context.IndexingContext;
@@ -14,19 +22,35 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Packs the full index, along with an incremental chunk of the documents which were changed since the previous pack.
+ * Only the last {@code maxIndexChunks} chunks are kept, the older ones are removed.
+ *
  * @author Przemyslaw Fusik
  */
 public class IndexPacker
 {
 
+    public static final int DEFAULT_MAX_INDEX_CHUNKS = 30;
+
     private static final Logger logger = LoggerFactory.getLogger(IndexPacker.class);
 
     private static final org.apache.maven.index.packer.IndexPacker INSTANCE = new DefaultIndexPacker(
             new DefaultIncrementalHandler());
 
+    private static final Pattern INDEX_CHUNK_PATTERN = Pattern.compile(
+            Pattern.quote(IndexingContext.INDEX_FILE_PREFIX) + "\\.(\\d+)\\.gz(\\..+)?");
+
     public static RepositoryPath pack(final RepositoryPath indexPath,
                                       final IndexingContext context)
             throws IOException
+    {
+        return pack(indexPath, context, DEFAULT_MAX_INDEX_CHUNKS);
+    }
+
+    public static RepositoryPath pack(final RepositoryPath indexPath,
+                                      final IndexingContext context,
+                                      final int maxIndexChunks)
+            throws IOException
     {
         final IndexSearcher indexSearcher = context.acquireIndexSearcher();
         try
@@ -36,6 +60,8 @@ public class IndexPacker
                                                                         indexSearcher.getIndexReader(),
                                                                         indexPath.toFile());
             request.setUseTargetProperties(true);
+            request.setCreateIncrementalChunks(maxIndexChunks > 0);
+            request.setMaxIndexChunks(Math.max(maxIndexChunks, 1));
             IndexPacker.INSTANCE.packIndex(request);
 
             logger.info(String.format("Index for %s was packed successfully.", indexPath));
@@ -44,6 +70,9 @@ public class IndexPacker
         {
             context.releaseIndexSearcher(indexSearcher);
         }
+
+        pruneIndexChunks(indexPath);
+
         return indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
     }
 
@@ -51,4 +80,47 @@ public class IndexPacker
     {
         return Files.exists(indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz"));
     }
+
+    /**
+     * Removes the incremental chunks (and their checksums) which are no longer listed in the index properties. Just
+     * like the packer, it works with the underlying files directly, bypassing the repository file system.
+     */
+    private static void pruneIndexChunks(final RepositoryPath indexPath)
+            throws IOException
+    {
+        final Path indexDirectory = indexPath.toFile().toPath();
+        final Path propertiesPath = indexDirectory.resolve(IndexingContext.INDEX_REMOTE_PROPERTIES_FILE);
+        if (!Files.exists(propertiesPath))
+        {
+            return;
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(propertiesPath))
+        {
+            properties.load(inputStream);
+        }
+
+        final Set<String> chunks = new HashSet<>();
+        for (String name : properties.stringPropertyNames())
+        {
+            if (name.startsWith(IndexingContext.INDEX_CHUNK_PREFIX))
+            {
+                chunks.add(properties.getProperty(name));
+            }
+        }
+
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(indexDirectory))
+        {
+            for (Path path : paths)
+            {
+                final Matcher matcher = INDEX_CHUNK_PATTERN.matcher(path.getFileName().toString());
+                if (matcher.matches() && !chunks.contains(matcher.group(1)))
+                {
+                    logger.debug(String.format("Removing the outdated index chunk %s.", path));
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
 }
@@ -5,18 +5,34 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.artifact.GavCalculator;
 import org.apache.maven.index.context.DocumentFilter;
 import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
 
 /**
@@ -197,6 +213,175 @@ public class RepositoryCloseableIndexingContext
         indexingContext.merge(directory, filter);
     }
 
+    /**
+     * Merges the artifacts of the given index which are either missing, or different, in this one. Unlike
+     * {@link #merge(Directory)}, the merged documents get the current time as their last modification time, so that
+     * they're part of the next incremental chunk, while the ones which are already up to date are left untouched.
+     *
+     * @param directory the index to merge
+     * @param merged    the UINFOs merged so far, which are skipped, and to which the merged UINFOs are added
+     * @return the number of added, or updated, artifacts
+     */
+    public int mergeChanged(Directory directory,
+                            Set<String> merged)
+            throws IOException
+    {
+        int changed = 0;
+
+        final IndexWriter indexWriter = getIndexWriter();
+        final IndexSearcher indexSearcher = acquireIndexSearcher();
+        try (IndexReader reader = DirectoryReader.open(directory))
+        {
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            for (int i = 0; i < reader.maxDoc(); i++)
+            {
+                if (liveDocs != null && !liveDocs.get(i))
+                {
+                    continue;
+                }
+
+                final Document document = reader.document(i);
+                final String uinfo = document.get(ArtifactInfo.UINFO);
+                if (uinfo == null || !merged.add(uinfo))
+                {
+                    continue;
+                }
+
+                final Document candidate = IndexUtils.updateDocument(document, indexingContext, true);
+                final TopDocs existing = indexSearcher.search(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), 1);
+                if (existing.scoreDocs.length > 0 &&
+                    isSameArtifact(candidate, indexSearcher.doc(existing.scoreDocs[0].doc)))
+                {
+                    continue;
+                }
+
+                indexWriter.updateDocument(new Term(ArtifactInfo.UINFO, uinfo), candidate);
+                changed++;
+            }
+        }
+        finally
+        {
+            releaseIndexSearcher(indexSearcher);
+        }
+
+        return changed;
+    }
+
+    /**
+     * Adds the given artifacts which are either missing, or different, in this index. Unlike
+     * {@link org.apache.maven.index.Indexer#addArtifactsToIndex(Collection, IndexingContext)}, the ones which are
+     * already up to date are left untouched, so that the caller knows whether the index has changed at all.
+     *
+     * @return the number of added, or updated, artifacts
+     */
+    public int addChangedArtifacts(Collection<? extends ArtifactContext> artifactContexts)
+            throws IOException
+    {
+        int changed = 0;
+
+        final IndexWriter indexWriter = getIndexWriter();
+        final IndexSearcher indexSearcher = acquireIndexSearcher();
+        try
+        {
+            for (ArtifactContext artifactContext : artifactContexts)
+            {
+                final Document candidate = artifactContext.getGav() != null ? artifactContext.createDocument(this) : null;
+                if (candidate == null)
+                {
+                    continue;
+                }
+
+                final String uinfo = artifactContext.getArtifactInfo().getUinfo();
+                final TopDocs existing = indexSearcher.search(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), 1);
+                if (existing.scoreDocs.length > 0 &&
+                    isSameArtifact(candidate, indexSearcher.doc(existing.scoreDocs[0].doc)))
+                {
+                    continue;
+                }
+
+                indexWriter.updateDocument(new Term(ArtifactInfo.UINFO, uinfo), candidate);
+                changed++;
+            }
+        }
+        finally
+        {
+            releaseIndexSearcher(indexSearcher);
+        }
+
+        return changed;
+    }
+
+    /**
+     * Removes the artifacts which are not in the given set of UINFOs, leaving a deletion marker for each one of them,
+     * so that the removal is part of the next incremental chunk as well.
+     *
+     * @return the number of removed artifacts
+     */
+    public int retainArtifacts(Set<String> retained)
+            throws IOException
+    {
+        int removed = 0;
+
+        final IndexWriter indexWriter = getIndexWriter();
+        final IndexSearcher indexSearcher = acquireIndexSearcher();
+        try
+        {
+            final IndexReader reader = indexSearcher.getIndexReader();
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            for (int i = 0; i < reader.maxDoc(); i++)
+            {
+                if (liveDocs != null && !liveDocs.get(i))
+                {
+                    continue;
+                }
+
+                final String uinfo = reader.document(i).get(ArtifactInfo.UINFO);
+                if (uinfo == null || retained.contains(uinfo))
+                {
+                    continue;
+                }
+
+                final Document deleted = new Document();
+                deleted.add(new StoredField(ArtifactInfo.DELETED, uinfo));
+                deleted.add(new StoredField(ArtifactInfo.LAST_MODIFIED, Long.toString(System.currentTimeMillis())));
+
+                indexWriter.addDocument(deleted);
+                indexWriter.deleteDocuments(new Term(ArtifactInfo.UINFO, uinfo));
+                removed++;
+            }
+        }
+        finally
+        {
+            releaseIndexSearcher(indexSearcher);
+        }
+
+        return removed;
+    }
+
+    private static boolean isSameArtifact(Document document,
+                                          Document other)
+    {
+        return storedFields(document).equals(storedFields(other));
+    }
+
+    /**
+     * Only the stored fields are compared, since a document read from the index has no others, unlike a new one.
+     */
+    private static Map<String, List<String>> storedFields(Document document)
+    {
+        final Map<String, List<String>> fields = new TreeMap<>();
+        for (IndexableField field : document.getFields())
+        {
+            if (field.fieldType().stored() && !ArtifactInfo.LAST_MODIFIED.equals(field.name()) &&
+                field.stringValue() != null)
+            {
+                fields.computeIfAbsent(field.name(), name -> new ArrayList<>()).add(field.stringValue());
+            }
+        }
+
+        return fields;
+    }
+
     @Override
     public void replace(Directory directory)
             throws IOException
@@ -13,13 +13,35 @@ import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
 import java.util.concurrent.locks.Lock;
 
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.SimpleFSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexingContext;
 import org.springframework.stereotype.Component;
 
 /**
+ * The group index is merged out of the indexes of the group members. Every member index is merged along with its
+ * generation, which is taken from the properties of the packed member index: the chain id, along with the counter of
+ * the incremental chunks, which only change when the member index is packed with changed artifacts. The next time
+ * around, only the members whose generation has changed since are merged again (along with the ones after them, as
+ * the first member wins if an artifact is in more than one of them). When none of them has changed, the group index is
+ * neither merged, nor packed, and the member indexes are not read at all. The generations are kept in
+ * {@code merged-members.properties}, next to the group index, so that they outlive a restart. Since the group index is
+ * only packed if the merge has actually changed something, the same applies to groups nested in other groups.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -28,6 +50,14 @@ public class RepositoryGroupIndexCreator
         extends AbstractRepositoryIndexCreator
 {
 
+    static final String MERGED_MEMBERS_FILE = "merged-members.properties";
+
+    private static final String INDEX_CHAIN_ID = "nexus.index.chain-id";
+
+    private static final String INDEX_CHUNK_COUNTER = "nexus.index.last-incremental";
+
+    private static final String INDEX_TIMESTAMP = "nexus.index.timestamp";
+
     @Inject
     @RepositoryIndexDirectoryPathResolverQualifier(IndexTypeEnum.LOCAL)
     private RepositoryIndexDirectoryPathResolver localIndexDirectoryPathResolver;
@@ -48,22 +78,66 @@ public class RepositoryGroupIndexCreator
                                             final RepositoryCloseableIndexingContext indexingContext)
             throws IOException
     {
+        final Repository repository = indexingContext.getRepositoryRaw();
+
+        // Just like the packed index, it's written to the underlying file directly.
+        final Path mergedMembersPath = repositoryIndexDirectoryPath.toFile().toPath().resolve(MERGED_MEMBERS_FILE);
+
+        final MergedGroupIndex previous = MergedGroupIndex.read(mergedMembersPath);
+        if (previous != null && IndexPacker.packageExists(repositoryIndexDirectoryPath) &&
+            previous.isMergedFrom(indexingContext.getTimestamp(), readMemberGenerations(repository)))
+        {
+            logger.debug(String.format("None of the members of [%s] has changed, skipping the index merge.",
+                                       repository.getStorageIdAndRepositoryId()));
+            return;
+        }
+
+        // The group index is updated in place, rather than purged and merged again, so that only the artifacts which
+        // were changed in the member indexes get a new last modification time and make it to the incremental chunk.
+        final Map<String, String> memberGenerations = new LinkedHashMap<>();
+        final Set<String> merged = new HashSet<>();
+        int changed = mergeSubrepositoryIndexes(indexingContext, previous, memberGenerations, merged);
+        changed += indexingContext.retainArtifacts(merged);
+
+        if (changed > 0)
+        {
+            indexingContext.rebuildGroups();
+            indexingContext.commit();
+            indexingContext.updateTimestamp(true);
+        }
+        if (changed > 0 || !IndexPacker.packageExists(repositoryIndexDirectoryPath))
+        {
+            pack(repositoryIndexDirectoryPath, indexingContext);
+        }
 
-        indexingContext.purge();
-        mergeSubrepositoryIndexes(indexingContext);
-        IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+        new MergedGroupIndex(indexingContext.getTimestamp(), memberGenerations).write(mergedMembersPath);
     }
 
-    private void mergeSubrepositoryIndexes(RepositoryCloseableIndexingContext indexingContext)
+    /**
+     * Merges the member indexes, starting from the first one which has changed since the previous merge. Only the
+     * UINFOs of the members before it are collected, as their artifacts are already in the group index.
+     *
+     * @param previous          the previous merge, if any
+     * @param memberGenerations the member generations, which are filled in the order of the members
+     * @param merged            the UINFOs of the merged, and collected, artifacts
+     * @return the number of added, or updated, artifacts
+     */
+    private int mergeSubrepositoryIndexes(final RepositoryCloseableIndexingContext indexingContext,
+                                          final MergedGroupIndex previous,
+                                          final Map<String, String> memberGenerations,
+                                          final Set<String> merged)
             throws IOException
     {
         final Repository repository = indexingContext.getRepositoryRaw();
         final Storage storage = repository.getStorage();
 
+        boolean changed = previous == null || !previous.isMergedFrom(indexingContext.getTimestamp());
+        int updated = 0;
         for (final String storageAndRepositoryId : repository.getGroupRepositories())
         {
             final String sId = ConfigurationUtils.getStorageId(storage.getId(), storageAndRepositoryId);
             final String rId = ConfigurationUtils.getRepositoryId(storageAndRepositoryId);
+            final String memberId = sId + ":" + rId;
 
             final RepositoryPath subRepositoryIndexDirectoryPath = getSubRepositoryIndexPath(sId, rId);
 
@@ -71,20 +145,117 @@ public class RepositoryGroupIndexCreator
             lock.lock();
             try
             {
-                try
+                final String generation = readGeneration(subRepositoryIndexDirectoryPath);
+                memberGenerations.put(memberId, generation);
+
+                changed = changed || generation == null || !previous.isMergedFrom(memberId, generation);
+
+                final Directory directory = openMemberIndex(subRepositoryIndexDirectoryPath);
+                if (changed)
                 {
-                    indexingContext.merge(new SimpleFSDirectory(subRepositoryIndexDirectoryPath));
+                    updated += indexingContext.mergeChanged(directory, merged);
                 }
-                catch (IndexNotFoundException ex)
+                else
                 {
-                    logger.warn(String.format("IndexNotFound in [%s]", subRepositoryIndexDirectoryPath), ex);
+                    collectArtifacts(directory, merged);
                 }
             }
+            catch (IndexNotFoundException ex)
+            {
+                logger.warn(String.format("IndexNotFound in [%s]", subRepositoryIndexDirectoryPath), ex);
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        return updated;
+    }
+
+    private Map<String, String> readMemberGenerations(final Repository repository)
+            throws IOException
+    {
+        final Map<String, String> memberGenerations = new LinkedHashMap<>();
+        for (final String storageAndRepositoryId : repository.getGroupRepositories())
+        {
+            final String sId = ConfigurationUtils.getStorageId(repository.getStorage().getId(), storageAndRepositoryId);
+            final String rId = ConfigurationUtils.getRepositoryId(storageAndRepositoryId);
+
+            final RepositoryPath subRepositoryIndexDirectoryPath = getSubRepositoryIndexPath(sId, rId);
+
+            final Lock lock = repositoryPathLock.lock(subRepositoryIndexDirectoryPath).readLock();
+            lock.lock();
+            try
+            {
+                memberGenerations.put(sId + ":" + rId, readGeneration(subRepositoryIndexDirectoryPath));
+            }
             finally
             {
                 lock.unlock();
             }
         }
+
+        return memberGenerations;
+    }
+
+    /**
+     * @return the generation of the packed member index, or {@code null} if it's not packed
+     */
+    private String readGeneration(final RepositoryPath subRepositoryIndexDirectoryPath)
+            throws IOException
+    {
+        final Path indexDirectory = subRepositoryIndexDirectoryPath.toFile().toPath();
+        final Path propertiesPath = indexDirectory.resolve(IndexingContext.INDEX_REMOTE_PROPERTIES_FILE);
+        if (!Files.exists(propertiesPath))
+        {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(propertiesPath))
+        {
+            properties.load(inputStream);
+        }
+
+        // Without the incremental chunks, there is only the time the index was packed at.
+        final String chunkCounter = properties.getProperty(INDEX_CHUNK_COUNTER);
+        if (chunkCounter == null)
+        {
+            return properties.getProperty(INDEX_TIMESTAMP);
+        }
+
+        return properties.getProperty(INDEX_CHAIN_ID) + "/" + chunkCounter;
+    }
+
+    Directory openMemberIndex(final RepositoryPath subRepositoryIndexDirectoryPath)
+            throws IOException
+    {
+        return new SimpleFSDirectory(subRepositoryIndexDirectoryPath);
+    }
+
+    private void collectArtifacts(final Directory directory,
+                                  final Set<String> merged)
+            throws IOException
+    {
+        final Set<String> fieldsToLoad = Collections.singleton(ArtifactInfo.UINFO);
+        try (IndexReader reader = DirectoryReader.open(directory))
+        {
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            for (int i = 0; i < reader.maxDoc(); i++)
+            {
+                if (liveDocs != null && !liveDocs.get(i))
+                {
+                    continue;
+                }
+
+                final String uinfo = reader.document(i, fieldsToLoad).get(ArtifactInfo.UINFO);
+                if (uinfo != null)
+                {
+                    merged.add(uinfo);
+                }
+            }
+        }
     }
 
     private RepositoryPath getSubRepositoryIndexPath(final String storageId,
@@ -110,5 +281,110 @@ public class RepositoryGroupIndexCreator
     {
         return localIndexDirectoryPathResolver;
     }
-}
 
+    static class MergedGroupIndex
+    {
+
+        private static final String GROUP_TIMESTAMP = "group.timestamp";
+
+        private static final String MEMBERS = "members";
+
+        private static final String MEMBER_PREFIX = "member.";
+
+        private final Date timestamp;
+
+        private final Map<String, String> memberGenerations;
+
+        MergedGroupIndex(Date timestamp,
+                         Map<String, String> memberGenerations)
+        {
+            this.timestamp = timestamp;
+            this.memberGenerations = memberGenerations;
+        }
+
+        /**
+         * @return the previous merge, or {@code null} if there is none, or it can't be read
+         */
+        static MergedGroupIndex read(Path path)
+        {
+            if (!Files.exists(path))
+            {
+                return null;
+            }
+
+            final Properties properties = new Properties();
+            try (InputStream inputStream = Files.newInputStream(path))
+            {
+                properties.load(inputStream);
+            }
+            catch (IOException e)
+            {
+                return null;
+            }
+
+            final String groupTimestamp = properties.getProperty(GROUP_TIMESTAMP);
+            final String members = properties.getProperty(MEMBERS);
+            if (groupTimestamp == null || members == null)
+            {
+                return null;
+            }
+
+            final Map<String, String> memberGenerations = new LinkedHashMap<>();
+            for (String memberId : members.isEmpty() ? new String[0] : members.split(","))
+            {
+                memberGenerations.put(memberId, properties.getProperty(MEMBER_PREFIX + memberId));
+            }
+
+            return new MergedGroupIndex(groupTimestamp.isEmpty() ? null : new Date(Long.parseLong(groupTimestamp)),
+                                        memberGenerations);
+        }
+
+        /**
+         * Writes the merge to a temporary file first, so that it's never read half written.
+         */
+        void write(Path path)
+                throws IOException
+        {
+            final Properties properties = new Properties();
+            properties.setProperty(GROUP_TIMESTAMP, timestamp != null ? Long.toString(timestamp.getTime()) : "");
+            properties.setProperty(MEMBERS, String.join(",", memberGenerations.keySet()));
+            for (Map.Entry<String, String> memberGeneration : memberGenerations.entrySet())
+            {
+                if (memberGeneration.getValue() != null)
+                {
+                    properties.setProperty(MEMBER_PREFIX + memberGeneration.getKey(), memberGeneration.getValue());
+                }
+            }
+
+            final Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temporaryPath))
+            {
+                properties.store(outputStream, null);
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * @return whether the group index is still the one which was merged, rather than rebuilt, or removed
+         */
+        boolean isMergedFrom(Date groupTimestamp)
+        {
+            return Objects.equals(timestamp, groupTimestamp);
+        }
+
+        boolean isMergedFrom(String memberId,
+                             String memberGeneration)
+        {
+            return Objects.equals(memberGenerations.get(memberId), memberGeneration);
+        }
+
+        boolean isMergedFrom(Date groupTimestamp,
+                             Map<String, String> currentMemberGenerations)
+        {
+            return isMergedFrom(groupTimestamp) &&
+                   !currentMemberGenerations.containsValue(null) &&
+                   new ArrayList<>(memberGenerations.entrySet()).equals(
+                           new ArrayList<>(currentMemberGenerations.entrySet()));
+        }
+    }
+}
@@ -48,9 +48,24 @@ public class RepositoryHostedIndexCreator
                                             final RepositoryCloseableIndexingContext indexingContext)
             throws IOException
     {
-        indexingContext.purge();
-        fulfillIndexingContext(indexingContext);
-        IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+        // The index is updated in place, rather than purged and rebuilt, so that only the changed artifacts get a new
+        // last modification time and the incremental chunk covers just them.
+        final Set<String> indexed = new HashSet<>();
+        final int changed = fulfillIndexingContext(indexingContext, indexed) +
+                            indexingContext.retainArtifacts(indexed);
+        if (changed == 0 && IndexPacker.packageExists(repositoryIndexDirectoryPath))
+        {
+            // Nothing to publish, an empty chunk would only make the clients download it.
+            return;
+        }
+
+        if (changed > 0)
+        {
+            indexingContext.rebuildGroups();
+        }
+        indexingContext.commit();
+        indexingContext.updateTimestamp(true);
+        pack(repositoryIndexDirectoryPath, indexingContext);
     }
 
     @Override
@@ -65,9 +80,15 @@ public class RepositoryHostedIndexCreator
         return indexDirectoryPathResolver;
     }
 
-    private void fulfillIndexingContext(final RepositoryCloseableIndexingContext indexingContext)
+    /**
+     * @param indexed the UINFOs of the indexed artifacts, which are added here
+     * @return the number of added, or updated, artifacts
+     */
+    private int fulfillIndexingContext(final RepositoryCloseableIndexingContext indexingContext,
+                                       final Set<String> indexed)
             throws IOException
     {
+        int changed = 0;
 
         final Repository repository = indexingContext.getRepositoryRaw();
         final String storageId = repository.getStorage().getId();
@@ -77,7 +98,7 @@ public class RepositoryHostedIndexCreator
                                                                                             repositoryId);
         if (totalArtifactGroupsInRepository == 0)
         {
-            return;
+            return changed;
         }
 
         final long iterations = totalArtifactGroupsInRepository / REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE + 1;
@@ -92,8 +113,15 @@ public class RepositoryHostedIndexCreator
                     pagingCriteria);
 
             final List<ArtifactContext> artifactContexts = createArtifactContexts(repositoryArtifactIdGroupEntries);
-            Indexer.INSTANCE.addArtifactsToIndex(artifactContexts, indexingContext);
+            changed += indexingContext.addChangedArtifacts(artifactContexts);
+
+            for (final ArtifactContext artifactContext : artifactContexts)
+            {
+                indexed.add(artifactContext.getArtifactInfo().getUinfo());
+            }
         }
+
+        return changed;
     }
 
     private List<ArtifactContext> createArtifactContexts(final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries)
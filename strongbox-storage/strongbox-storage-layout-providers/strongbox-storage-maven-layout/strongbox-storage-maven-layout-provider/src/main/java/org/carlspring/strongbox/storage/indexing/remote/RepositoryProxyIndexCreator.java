@@ -75,7 +75,7 @@ public class RepositoryProxyIndexCreator
                                        storageId, repositoryId));
             if (!IndexPacker.packageExists(repositoryIndexDirectoryPath))
             {
-                IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+                pack(repositoryIndexDirectoryPath, indexingContext);
             }
             return;
         }
@@ -91,7 +91,7 @@ public class RepositoryProxyIndexCreator
                             "Performed an incremental update, with changes covering the period between %s - %s.",
                             contextCurrentTimestamp, updateResult.getTimestamp()));
         }
-        IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+        pack(repositoryIndexDirectoryPath, indexingContext);
     }
 
     private IndexUpdateResult fetchIndex(final RepositoryCloseableIndexingContext indexingContext,
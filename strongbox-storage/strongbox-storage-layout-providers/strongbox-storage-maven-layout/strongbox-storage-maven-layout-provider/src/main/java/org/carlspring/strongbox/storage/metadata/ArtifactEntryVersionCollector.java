@@ -0,0 +1,217 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.metadata.versions.MetadataVersion;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.artifact.repository.metadata.Plugin;
+import org.apache.maven.model.Model;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.javatuples.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link VersionCollector} which derives the versions of an artifact from the persisted {@link ArtifactEntry}
+ * records instead of listing the version directories and parsing every POM.
+ * <p>
+ * The packaging and the name of the POM are read from its {@link ArtifactEntry}, where they are kept when the POM is
+ * stored; only the POMs stored before that are still parsed. If there are no entries for the artifact in the
+ * database, the filesystem scan of the {@link VersionCollector} is used as a fallback.
+ */
+@Component
+public class ArtifactEntryVersionCollector
+        extends VersionCollector
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryVersionCollector.class);
+
+    private static final String MAVEN_PLUGIN_PACKAGING = "maven-plugin";
+
+    private static final String POM_EXTENSION = "pom";
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+
+    @Override
+    public VersionCollectionRequest collectVersions(Path artifactBasePath)
+            throws IOException
+    {
+        if (!(artifactBasePath instanceof RepositoryPath))
+        {
+            return super.collectVersions(artifactBasePath);
+        }
+
+        RepositoryPath artifactGroupDirectoryPath = (RepositoryPath) artifactBasePath;
+        Repository repository = artifactGroupDirectoryPath.getRepository();
+        if (repository.isGroupRepository())
+        {
+            return super.collectVersions(artifactBasePath);
+        }
+
+        Pair<String, String> artifactGroup = MavenArtifactUtils.getDirectoryGA(artifactGroupDirectoryPath);
+        String groupId = artifactGroup.getValue0();
+        String artifactId = artifactGroup.getValue1();
+
+        Map<String, String> coordinates = new HashMap<>();
+        coordinates.put("groupId", groupId);
+        coordinates.put("artifactId", artifactId);
+
+        // The coordinates are matched case-insensitively by the query, so the exact match is checked here.
+        List<MavenArtifactCoordinates> artifactCoordinates = new ArrayList<>();
+        Map<String, ArtifactEntry> artifactEntries = new HashMap<>();
+        for (ArtifactEntry artifactEntry : artifactEntryService.findArtifactList(repository.getStorage().getId(),
+                                                                                repository.getId(),
+                                                                                coordinates,
+                                                                                true))
+        {
+            ArtifactCoordinates c = artifactEntry.getArtifactCoordinates();
+            if (!(c instanceof MavenArtifactCoordinates))
+            {
+                continue;
+            }
+
+            MavenArtifactCoordinates mavenCoordinates = (MavenArtifactCoordinates) c;
+            if (!groupId.equals(mavenCoordinates.getGroupId()) ||
+                !artifactId.equals(mavenCoordinates.getArtifactId()) ||
+                mavenCoordinates.getVersion() == null)
+            {
+                continue;
+            }
+
+            artifactCoordinates.add(mavenCoordinates);
+            artifactEntries.put(mavenCoordinates.toPath(), artifactEntry);
+        }
+
+        // No pom, no metadata.
+        Map<String, List<MavenArtifactCoordinates>> pomsByBaseVersion =
+                artifactCoordinates.stream()
+                                   .filter(c -> POM_EXTENSION.equals(c.getExtension()) &&
+                                                StringUtils.isBlank(c.getClassifier()))
+                                   .collect(Collectors.groupingBy(c -> toBaseVersion(c.getVersion()),
+                                                                  TreeMap::new,
+                                                                  Collectors.toList()));
+        if (pomsByBaseVersion.isEmpty())
+        {
+            logger.debug("No artifact entries found for [{}], falling back to the filesystem scan.",
+                         artifactGroupDirectoryPath);
+
+            return super.collectVersions(artifactBasePath);
+        }
+
+        VersionCollectionRequest request = new VersionCollectionRequest();
+        request.setArtifactBasePath(artifactBasePath);
+
+        List<MetadataVersion> versions = new ArrayList<>();
+        for (Map.Entry<String, List<MavenArtifactCoordinates>> e : pomsByBaseVersion.entrySet())
+        {
+            String baseVersion = e.getKey();
+
+            // Same as the filesystem scan: the latest available POM represents a snapshot version directory.
+            MavenArtifactCoordinates pomCoordinates = e.getValue()
+                                                       .stream()
+                                                       .max(Comparator.comparing(c -> FilenameUtils.getName(c.toPath())))
+                                                       .get();
+
+            List<ArtifactEntry> versionEntries = artifactCoordinates.stream()
+                                                                    .filter(c -> baseVersion.equals(toBaseVersion(c.getVersion())))
+                                                                    .map(c -> artifactEntries.get(c.toPath()))
+                                                                    .collect(Collectors.toList());
+
+            versions.add(createMetadataVersion(pomCoordinates.getVersion(),
+                                               getCreatedDate(artifactGroupDirectoryPath, baseVersion, versionEntries)));
+
+            ArtifactEntry pomEntry = artifactEntries.get(pomCoordinates.toPath());
+            if (pomEntry.getPackaging() != null)
+            {
+                if (MAVEN_PLUGIN_PACKAGING.equals(pomEntry.getPackaging()))
+                {
+                    request.addPlugin(createPlugin(artifactId, pomEntry.getName()));
+                }
+
+                continue;
+            }
+
+            RepositoryPath pomPath = artifactGroupDirectoryPath.resolve(baseVersion)
+                                                               .resolve(FilenameUtils.getName(pomCoordinates.toPath()));
+            try
+            {
+                Model pom = getPom(pomPath);
+                if (artifactIsPlugin(pom))
+                {
+                    request.addPlugin(createPlugin(pom));
+                }
+            }
+            catch (XmlPullParserException | IOException ex)
+            {
+                logger.error("POM file '" + pomPath.toAbsolutePath() + "' appears to be corrupt.", ex);
+            }
+        }
+
+        return populateRequest(request, versions);
+    }
+
+    /**
+     * Same as {@link #createPlugin(Model)} for the POM with the name.
+     */
+    private Plugin createPlugin(String artifactId,
+                                String name)
+    {
+        Model model = new Model();
+        model.setArtifactId(artifactId);
+        model.setName(name);
+
+        return createPlugin(model);
+    }
+
+    private FileTime getCreatedDate(RepositoryPath artifactGroupDirectoryPath,
+                                    String baseVersion,
+                                    List<ArtifactEntry> versionEntries)
+            throws IOException
+    {
+        Optional<Date> lastUpdated = versionEntries.stream()
+                                                   .filter(Objects::nonNull)
+                                                   .map(e -> e.getLastUpdated() != null ? e.getLastUpdated() :
+                                                             e.getCreated())
+                                                   .filter(Objects::nonNull)
+                                                   .max(Comparator.naturalOrder());
+        if (lastUpdated.isPresent())
+        {
+            return FileTime.fromMillis(lastUpdated.get().getTime());
+        }
+
+        return Files.getLastModifiedTime(artifactGroupDirectoryPath.resolve(baseVersion));
+    }
+
+    private static String toBaseVersion(String version)
+    {
+        return ArtifactUtils.isSnapshot(version) ? ArtifactUtils.toSnapshotVersion(version) : version;
+    }
+
+}
@@ -21,11 +21,16 @@ import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.artifact.repository.metadata.Metadata;
@@ -55,6 +60,8 @@ public class MavenMetadataManager
 
     private static final Logger logger = LoggerFactory.getLogger(MavenMetadataManager.class);
 
+    private static final int INCREMENTAL_UPDATE_ATTEMPTS = 3;
+
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
 
@@ -124,23 +131,12 @@ public class MavenMetadataManager
                               final MetadataType metadataType) throws IOException
     {
 
-        doInLock(metadataBasePath, path ->
+        doInLock(metadataBasePath, version, metadataType, path ->
                  {
                      try
                      {
                          Path metadataPath = MetadataHelper.getMetadataPath(metadataBasePath, version, metadataType);
-                         try (OutputStream os = new MultipleDigestOutputStream(metadataPath,
-                                                                               Files.newOutputStream(metadataPath,
-                                                                                                     StandardOpenOption.CREATE,
-                                                                                                     StandardOpenOption.TRUNCATE_EXISTING)))
-                         {
-                             Writer writer = WriterFactory.newXmlWriter(os);
-
-                             MetadataXpp3Writer mappingWriter = new MetadataXpp3Writer();
-                             mappingWriter.write(writer, metadata);
-
-                             os.flush();
-                         }
+                         writeMetadata(metadataPath, toByteArray(metadata));
                      }
                      catch (Exception ex)
                      {
@@ -150,6 +146,269 @@ public class MavenMetadataManager
         );
     }
 
+    /**
+     * Adds a version to the artifact level metadata, without re-scanning the artifact directory.
+     *
+     * @return <code>false</code>, if there is no metadata to update yet
+     */
+    public boolean addVersion(RepositoryPath artifactBasePath,
+                              String version)
+            throws IOException
+    {
+        String baseVersion = ArtifactUtils.isSnapshot(version) ? ArtifactUtils.toSnapshotVersion(version) : version;
+
+        return updateMetadata(artifactBasePath, null, MetadataType.ARTIFACT_ROOT_LEVEL, metadata ->
+        {
+            Versioning versioning = getVersioning(metadata);
+            if (versioning.getVersions().contains(baseVersion))
+            {
+                return false;
+            }
+
+            versioning.addVersion(baseVersion);
+            updateLatestAndRelease(versioning);
+
+            return true;
+        });
+    }
+
+    /**
+     * Adds a timestamped snapshot build to the snapshot version level metadata and it's base version to the artifact
+     * level metadata, without re-scanning the artifact directory.
+     *
+     * @return <code>false</code>, if there is no artifact level metadata to update yet
+     */
+    public boolean addTimestampedSnapshotVersion(RepositoryPath artifactBasePath,
+                                                 String version,
+                                                 String classifier,
+                                                 String extension)
+            throws IOException
+    {
+        String baseVersion = ArtifactUtils.toSnapshotVersion(version);
+
+        boolean updated = updateMetadata(artifactBasePath, baseVersion, MetadataType.SNAPSHOT_VERSION_LEVEL, metadata ->
+        {
+            Versioning versioning = getVersioning(metadata);
+
+            List<SnapshotVersion> snapshotVersions = versioning.getSnapshotVersions();
+            snapshotVersions.removeIf(sv -> version.equals(sv.getVersion()) &&
+                                            StringUtils.defaultString(classifier).equals(
+                                                    StringUtils.defaultString(sv.getClassifier())) &&
+                                            StringUtils.defaultString(extension).equals(
+                                                    StringUtils.defaultString(sv.getExtension())));
+            snapshotVersions.add(MetadataHelper.createSnapshotVersion(metadata.getGroupId(),
+                                                                      metadata.getArtifactId(),
+                                                                      version,
+                                                                      classifier,
+                                                                      extension));
+            snapshotVersions.sort(new SnapshotVersionComparator());
+
+            MetadataHelper.setupSnapshotVersioning(versioning);
+            MetadataHelper.setLastUpdated(versioning);
+
+            return true;
+        });
+
+        if (!updated)
+        {
+            // There is no snapshot metadata yet, so it's only this one version directory which needs to be scanned.
+            Pair<String, String> artifactGroup = MavenArtifactUtils.getDirectoryGA(artifactBasePath);
+            generateSnapshotVersioningMetadata(artifactGroup.getValue0(),
+                                               artifactGroup.getValue1(),
+                                               artifactBasePath.resolve(baseVersion),
+                                               baseVersion,
+                                               true);
+        }
+
+        return addVersion(artifactBasePath, baseVersion);
+    }
+
+    /**
+     * Removes a version from the artifact level metadata, without re-scanning the artifact directory.
+     *
+     * @return <code>false</code>, if there is no metadata to update
+     */
+    public boolean removeVersion(RepositoryPath artifactBasePath,
+                                 String version)
+            throws IOException
+    {
+        return updateMetadata(artifactBasePath, null, MetadataType.ARTIFACT_ROOT_LEVEL, metadata ->
+        {
+            Versioning versioning = metadata.getVersioning();
+            if (versioning == null || !versioning.getVersions().contains(version))
+            {
+                return false;
+            }
+
+            versioning.removeVersion(version);
+            updateLatestAndRelease(versioning);
+
+            return true;
+        });
+    }
+
+    /**
+     * Reads the existing metadata, applies the patch to it in memory and writes it back. The write lock is only held
+     * to check that the metadata wasn't changed concurrently and to write the patched content, which is stored
+     * atomically along with it's checksums.
+     *
+     * @param patch returns <code>false</code>, if there was nothing to change
+     * @return <code>false</code>, if there is no metadata to update
+     */
+    public boolean updateMetadata(RepositoryPath metadataBasePath,
+                                  String version,
+                                  MetadataType metadataType,
+                                  Predicate<Metadata> patch)
+            throws IOException
+    {
+        // The metadata file itself is locked, as it is by the clients which deploy it.
+        RepositoryPath metadataPath = (RepositoryPath) MetadataHelper.getMetadataPath(metadataBasePath,
+                                                                                      version,
+                                                                                      metadataType);
+
+        for (int i = 0; i < INCREMENTAL_UPDATE_ATTEMPTS; i++)
+        {
+            if (!Files.exists(metadataPath))
+            {
+                return false;
+            }
+
+            byte[] source = readBytes(metadataPath);
+            Metadata metadata = readMetadata(source);
+            if (!patch.test(metadata))
+            {
+                return true;
+            }
+            byte[] target = toByteArray(metadata);
+
+            Lock lock = repositoryPathLock.lock(metadataPath).writeLock();
+            lock.lock();
+            try
+            {
+                if (Files.exists(metadataPath) && Arrays.equals(source, readBytes(metadataPath)))
+                {
+                    writeMetadata(metadataPath, target);
+
+                    return true;
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            logger.debug("Metadata [{}] was changed concurrently, retrying the update.", metadataPath);
+        }
+
+        // Too much contention, so the whole update is done in the lock.
+        Lock lock = repositoryPathLock.lock(metadataPath).writeLock();
+        lock.lock();
+        try
+        {
+            if (!Files.exists(metadataPath))
+            {
+                return false;
+            }
+
+            Metadata metadata = readMetadata(readBytes(metadataPath));
+            if (patch.test(metadata))
+            {
+                writeMetadata(metadataPath, toByteArray(metadata));
+            }
+
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private Versioning getVersioning(Metadata metadata)
+    {
+        if (metadata.getVersioning() == null)
+        {
+            metadata.setVersioning(new Versioning());
+        }
+
+        return metadata.getVersioning();
+    }
+
+    private void updateLatestAndRelease(Versioning versioning)
+    {
+        List<String> versions = versioning.getVersions();
+        versions.sort(new VersionComparator());
+
+        versioning.setLatest(versions.isEmpty() ? null : versions.get(versions.size() - 1));
+
+        String release = null;
+        for (String v : versions)
+        {
+            if (!ArtifactUtils.isSnapshot(v))
+            {
+                release = v;
+            }
+        }
+        versioning.setRelease(release);
+
+        MetadataHelper.setLastUpdated(versioning);
+    }
+
+    private byte[] readBytes(Path metadataPath)
+            throws IOException
+    {
+        try (InputStream is = Files.newInputStream(metadataPath))
+        {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+    private Metadata readMetadata(byte[] content)
+            throws IOException
+    {
+        try
+        {
+            return readMetadata(new ByteArrayInputStream(content));
+        }
+        catch (XmlPullParserException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    private byte[] toByteArray(Metadata metadata)
+            throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        Writer writer = WriterFactory.newXmlWriter(os);
+
+        MetadataXpp3Writer mappingWriter = new MetadataXpp3Writer();
+        mappingWriter.write(writer, metadata);
+
+        writer.flush();
+
+        return os.toByteArray();
+    }
+
+    private void writeMetadata(Path metadataPath,
+                               byte[] content)
+            throws IOException
+    {
+        try (OutputStream os = new MultipleDigestOutputStream(metadataPath,
+                                                              Files.newOutputStream(metadataPath,
+                                                                                    StandardOpenOption.CREATE,
+                                                                                    StandardOpenOption.TRUNCATE_EXISTING)))
+        {
+            os.write(content);
+            os.flush();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Generate a metadata file for an artifact.
      */
@@ -314,7 +573,7 @@ public class MavenMetadataManager
     public void mergeAndStore(final RepositoryPath metadataBasePath,
                               final Metadata mergeMetadata) throws IOException
     {
-        doInLock(metadataBasePath, path ->
+        doInLock(metadataBasePath, null, MetadataType.ARTIFACT_ROOT_LEVEL, path ->
         {
             if (Files.exists(metadataBasePath))
             {
@@ -384,7 +643,7 @@ public class MavenMetadataManager
                               final Metadata metadata,
                               final Metadata mergeMetadata) throws IOException
     {
-        doInLock(metadataBasePath, path ->
+        doInLock(metadataBasePath, null, MetadataType.ARTIFACT_ROOT_LEVEL, path ->
         {
             metadata.merge(mergeMetadata);
 
@@ -409,10 +668,19 @@ public class MavenMetadataManager
         });
     }
 
+    /**
+     * Runs the operation in the write lock of the metadata file which is written, the same one as updateMetadata()
+     * locks.
+     */
     private void doInLock(RepositoryPath metadataBasePath,
+                          String version,
+                          MetadataType metadataType,
                           Consumer<Path> operation) throws IOException
     {
-        Lock lock = repositoryPathLock.lock(metadataBasePath).writeLock();
+        RepositoryPath metadataPath = (RepositoryPath) MetadataHelper.getMetadataPath(metadataBasePath,
+                                                                                      version,
+                                                                                      metadataType);
+        Lock lock = repositoryPathLock.lock(metadataPath).writeLock();
         lock.lock();
 
         try
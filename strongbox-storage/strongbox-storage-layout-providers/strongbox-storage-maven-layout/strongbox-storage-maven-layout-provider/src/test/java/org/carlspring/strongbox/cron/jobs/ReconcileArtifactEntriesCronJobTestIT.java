@@ -0,0 +1,245 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.config.Maven2LayoutProviderCronTasksTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryReconciliationService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntryReconciliationReport;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ContextConfiguration(classes = Maven2LayoutProviderCronTasksTestConfig.class)
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public class ReconcileArtifactEntriesCronJobTestIT
+        extends BaseCronJobWithMavenIndexingTestCase
+{
+
+    private static final String REPOSITORY_RELEASES = "raecj-releases";
+
+    private static final String REPOSITORY_DRY_RUN = "raecj-dry-run";
+
+    private static final String REPOSITORY_RESUME = "raecj-resume";
+
+    private static final String REPOSITORY_REMOTE_ENTRIES = "raecj-remote-entries";
+
+    private static final String ORPHANED_ARTIFACT_PATH = "org/carlspring/strongbox/reconcile/strongbox-orphaned/1.0/strongbox-orphaned-1.0.jar";
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ArtifactEntryReconciliationService artifactEntryReconciliationService;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testReconcileArtifactEntries(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                             Repository repository,
+                                             @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                id = "org.carlspring.strongbox.reconcile:strongbox-missing",
+                                                                versions = "1.0")
+                                             Path artifact)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String missingArtifactPath = deleteArtifactEntry(repository, artifact);
+        saveOrphanedArtifactEntry(new ArtifactEntry(), storageId, repositoryId);
+
+        assertFalse(artifactEntryService.artifactExists(storageId, repositoryId, missingArtifactPath));
+        assertTrue(artifactEntryService.artifactExists(storageId, repositoryId, ORPHANED_ARTIFACT_PATH));
+
+        addCronJobConfig(expectedJobKey,
+                         expectedJobName,
+                         ReconcileArtifactEntriesCronJob.class,
+                         storageId,
+                         repositoryId,
+                         properties -> properties.put("parallelism", "2"));
+
+        await().atMost(EVENT_TIMEOUT_SECONDS, TimeUnit.SECONDS).untilTrue(receivedExpectedEvent());
+
+        assertTrue(artifactEntryService.artifactExists(storageId, repositoryId, missingArtifactPath));
+        assertNull(artifactEntryService.findOneArtifact(storageId, repositoryId, ORPHANED_ARTIFACT_PATH));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testDryRunShouldOnlyReport(@MavenRepository(repositoryId = REPOSITORY_DRY_RUN)
+                                           Repository repository,
+                                           @MavenTestArtifact(repositoryId = REPOSITORY_DRY_RUN,
+                                                              id = "org.carlspring.strongbox.reconcile:strongbox-missing",
+                                                              versions = "1.0")
+                                           Path artifact)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String missingArtifactPath = deleteArtifactEntry(repository, artifact);
+        saveOrphanedArtifactEntry(new ArtifactEntry(), storageId, repositoryId);
+
+        ArtifactEntryReconciliationReport report = artifactEntryReconciliationService.reconcile(storageId,
+                                                                                                repositoryId,
+                                                                                                2,
+                                                                                                true,
+                                                                                                true);
+
+        assertTrue(report.isDryRun());
+        assertEquals(1, report.getMissingEntries());
+        assertEquals(Collections.singletonList(missingArtifactPath), report.getMissingEntryPaths());
+        assertEquals(1, report.getOrphanedEntries());
+        assertEquals(Collections.singletonList(ORPHANED_ARTIFACT_PATH), report.getOrphanedEntryPaths());
+
+        // Nothing has been changed.
+        assertFalse(artifactEntryService.artifactExists(storageId, repositoryId, missingArtifactPath));
+        assertTrue(artifactEntryService.artifactExists(storageId, repositoryId, ORPHANED_ARTIFACT_PATH));
+        assertFalse(Files.exists(getCheckpointFile(storageId, repositoryId)));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testResumeFromCheckpoint(@MavenRepository(repositoryId = REPOSITORY_RESUME)
+                                         Repository repository,
+                                         @MavenTestArtifact(repositoryId = REPOSITORY_RESUME,
+                                                            id = "org.apache.reconcile:strongbox-before-checkpoint",
+                                                            versions = "1.0")
+                                         Path artifactBeforeCheckpoint,
+                                         @MavenTestArtifact(repositoryId = REPOSITORY_RESUME,
+                                                            id = "org.carlspring.reconcile:strongbox-after-checkpoint",
+                                                            versions = "1.0")
+                                         Path artifactAfterCheckpoint)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String pathBeforeCheckpoint = deleteArtifactEntry(repository, artifactBeforeCheckpoint);
+        String pathAfterCheckpoint = deleteArtifactEntry(repository, artifactAfterCheckpoint);
+
+        // A previous run stopped once the `org/apache/` chunk was reconciled.
+        String checkpoint = "org/carlspring/";
+        Path checkpointFile = getCheckpointFile(storageId, repositoryId);
+        Files.createDirectories(checkpointFile.getParent());
+        Files.write(checkpointFile, checkpoint.getBytes(StandardCharsets.UTF_8));
+
+        ArtifactEntryReconciliationReport report = artifactEntryReconciliationService.reconcile(storageId,
+                                                                                                repositoryId,
+                                                                                                2,
+                                                                                                true,
+                                                                                                false);
+
+        assertEquals(checkpoint, report.getResumedFrom());
+        assertEquals(Collections.singletonList(pathAfterCheckpoint), report.getMissingEntryPaths());
+
+        assertFalse(artifactEntryService.artifactExists(storageId, repositoryId, pathBeforeCheckpoint));
+        assertTrue(artifactEntryService.artifactExists(storageId, repositoryId, pathAfterCheckpoint));
+        // The run has completed.
+        assertFalse(Files.exists(checkpointFile));
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testUncachedRemoteEntriesShouldBeKept(@MavenRepository(repositoryId = REPOSITORY_REMOTE_ENTRIES)
+                                                      Repository repository)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        RemoteArtifactEntry remoteArtifactEntry = new RemoteArtifactEntry();
+        remoteArtifactEntry.setIsCached(false);
+        saveOrphanedArtifactEntry(remoteArtifactEntry, storageId, repositoryId);
+
+        ArtifactEntryReconciliationReport report = artifactEntryReconciliationService.reconcile(storageId,
+                                                                                                repositoryId,
+                                                                                                2,
+                                                                                                true,
+                                                                                                false);
+
+        // The remote entry has no file, since it hasn't been cached yet.
+        assertEquals(0, report.getOrphanedEntries());
+        assertTrue(artifactEntryService.artifactExists(storageId, repositoryId, ORPHANED_ARTIFACT_PATH));
+    }
+
+    /**
+     * @return the path of the artifact, which is left without an entry
+     */
+    private String deleteArtifactEntry(Repository repository,
+                                       Path artifact)
+            throws Exception
+    {
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(repository, (RepositoryPath) artifact.normalize());
+        String path = RepositoryFiles.relativizePath(artifactPath);
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                                           repository.getId(),
+                                                                           path);
+        assertNotNull(artifactEntry);
+        artifactEntryService.delete(artifactEntry);
+
+        return path;
+    }
+
+    private void saveOrphanedArtifactEntry(ArtifactEntry artifactEntry,
+                                           String storageId,
+                                           String repositoryId)
+    {
+        artifactEntry.setStorageId(storageId);
+        artifactEntry.setRepositoryId(repositoryId);
+        artifactEntry.setArtifactCoordinates(new MavenArtifactCoordinates("org.carlspring.strongbox.reconcile",
+                                                                          "strongbox-orphaned",
+                                                                          "1.0",
+                                                                          null,
+                                                                          "jar"));
+        artifactEntryService.save(artifactEntry);
+    }
+
+    private Path getCheckpointFile(String storageId,
+                                   String repositoryId)
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(),
+                         "reconciliation",
+                         storageId,
+                         repositoryId + ".checkpoint");
+    }
+
+}
@@ -1,18 +1,26 @@
 package org.carlspring.strongbox.repository.group;
 
 import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.GroupRepositoryProvider;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.MavenMetadataServiceHelper;
 
 import javax.inject.Inject;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 
 /**
  * @author Przemyslaw Fusik
@@ -35,6 +43,9 @@ public abstract class BaseMavenGroupRepositoryComponentTest
     @Inject
     protected MavenMetadataServiceHelper mavenMetadataServiceHelper;
 
+    @Inject
+    protected GroupRepositoryProvider groupRepositoryProvider;
+
     protected void copyArtifactMetadata(String sourceRepositoryId,
                                         String destinationRepositoryId,
                                         String path)
@@ -50,6 +61,27 @@ public abstract class BaseMavenGroupRepositoryComponentTest
         FileUtils.copyFile(sourcePath.toFile(), destinationPath.toFile());
     }
 
+    /**
+     * Group repository metadata is merged on request, so it has to be read the same way it's served.
+     */
+    protected Metadata readGroupMetadata(Repository groupRepository,
+                                         String artifactBasePath)
+            throws IOException, XmlPullParserException
+    {
+        RepositoryPath metadataPath = repositoryPathResolver.resolve(groupRepository, artifactBasePath)
+                                                            .resolve(MetadataHelper.MAVEN_METADATA_XML);
+        RepositoryPath resolvedPath = groupRepositoryProvider.fetchPath(metadataPath);
+        if (resolvedPath == null)
+        {
+            throw new FileNotFoundException(metadataPath.toString());
+        }
+
+        try (InputStream is = Files.newInputStream(resolvedPath))
+        {
+            return mavenMetadataManager.readMetadata(is);
+        }
+    }
+
     protected Configuration getConfiguration()
     {
         return configurationManagementService.getConfiguration();
@@ -0,0 +1,126 @@
+package org.carlspring.strongbox.repository.group.metadata;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.repository.group.BaseMavenGroupRepositoryComponentTest;
+import org.carlspring.strongbox.storage.metadata.MetadataType;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+/**
+ * The group repository metadata is written by {@link MavenMetadataGroupRepositoryComponent} only, so a marker version
+ * put in it tells whether it was merged again or not.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class MavenMetadataGroupRepositoryComponentCacheTest
+        extends BaseMavenGroupRepositoryComponentTest
+{
+
+    private static final String REPOSITORY_LEAF_1 = "mmgrcct-leaf-1";
+
+    private static final String REPOSITORY_LEAF_2 = "mmgrcct-leaf-2";
+
+    private static final String REPOSITORY_GROUP = "mmgrcct-group";
+
+    private static final String CACHED_PATH = "org/carlspring/strongbox/group/cache/cached";
+
+    private static final String OTHER_PATH = "org/carlspring/strongbox/group/cache/other";
+
+    private static final String MARKER_VERSION = "0.0-marker";
+
+    @Inject
+    private MavenMetadataGroupRepositoryComponent mavenGroupRepositoryComponent;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void mergedMetadataShouldBeCachedAndInvalidatedPerPath(
+            @MavenRepository(repositoryId = REPOSITORY_LEAF_1) Repository repositoryLeaf1,
+            @MavenRepository(repositoryId = REPOSITORY_LEAF_2) Repository repositoryLeaf2,
+            @Group({ REPOSITORY_LEAF_1,
+                     REPOSITORY_LEAF_2 })
+            @MavenRepository(repositoryId = REPOSITORY_GROUP) Repository repositoryGroup,
+            @MavenTestArtifact(repositoryId = REPOSITORY_LEAF_1, id = "org.carlspring.strongbox.group.cache:cached", versions = "1.0")
+                    Path cachedLeaf1,
+            @MavenTestArtifact(repositoryId = REPOSITORY_LEAF_2, id = "org.carlspring.strongbox.group.cache:cached", versions = "2.0")
+                    Path cachedLeaf2,
+            @MavenTestArtifact(repositoryId = REPOSITORY_LEAF_1, id = "org.carlspring.strongbox.group.cache:other", versions = "1.0")
+                    Path otherLeaf1)
+            throws Exception
+    {
+        mavenMetadataServiceHelper.generateMavenMetadata(repositoryLeaf1);
+        mavenMetadataServiceHelper.generateMavenMetadata(repositoryLeaf2);
+
+        RepositoryPath groupPath = repositoryPathResolver.resolve(repositoryGroup, CACHED_PATH);
+        RepositoryPath leafPath = repositoryPathResolver.resolve(repositoryLeaf1, CACHED_PATH);
+
+        mavenGroupRepositoryComponent.mergeGroupMetadataIfNecessary(groupPath);
+        assertEquals(Arrays.asList("1.0", "2.0"), readVersions(groupPath));
+
+        // A hit: nothing is merged again.
+        storeVersions(groupPath, MARKER_VERSION);
+        mavenGroupRepositoryComponent.mergeGroupMetadataIfNecessary(groupPath);
+        assertEquals(Collections.singletonList(MARKER_VERSION), readVersions(groupPath));
+
+        // The change of another path doesn't invalidate this one.
+        mavenGroupRepositoryComponent.updateGroupsContaining(repositoryPathResolver.resolve(repositoryLeaf1,
+                                                                                           OTHER_PATH));
+        mavenGroupRepositoryComponent.mergeGroupMetadataIfNecessary(groupPath);
+        assertEquals(Collections.singletonList(MARKER_VERSION), readVersions(groupPath));
+
+        // Invalidated, but the member metadata is the same as the one it was merged from.
+        mavenGroupRepositoryComponent.updateGroupsContaining(leafPath);
+        mavenGroupRepositoryComponent.mergeGroupMetadataIfNecessary(groupPath);
+        assertEquals(Collections.singletonList(MARKER_VERSION), readVersions(groupPath));
+
+        // Invalidated, and the member metadata has changed.
+        storeVersions(leafPath, "1.0", "1.1");
+        mavenGroupRepositoryComponent.updateGroupsContaining(leafPath);
+        mavenGroupRepositoryComponent.mergeGroupMetadataIfNecessary(groupPath);
+        assertEquals(Arrays.asList("1.0", "1.1", "2.0"), readVersions(groupPath));
+    }
+
+    private List<String> readVersions(RepositoryPath artifactBasePath)
+            throws Exception
+    {
+        return mavenMetadataManager.readMetadata(artifactBasePath).getVersioning().getVersions();
+    }
+
+    private void storeVersions(RepositoryPath artifactBasePath,
+                               String... versions)
+            throws Exception
+    {
+        Metadata metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        Versioning versioning = metadata.getVersioning();
+        versioning.setVersions(Arrays.asList(versions));
+        versioning.setLatest(versions[versions.length - 1]);
+        versioning.setRelease(versions[versions.length - 1]);
+
+        mavenMetadataManager.storeMetadata(artifactBasePath, null, metadata, MetadataType.ARTIFACT_ROOT_LEVEL);
+    }
+
+}
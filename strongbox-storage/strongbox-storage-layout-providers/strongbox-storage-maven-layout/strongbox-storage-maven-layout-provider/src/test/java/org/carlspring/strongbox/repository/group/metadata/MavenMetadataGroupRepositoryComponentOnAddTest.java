@@ -132,19 +132,16 @@ public class MavenMetadataGroupRepositoryComponentOnAddTest
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
 
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupZQ, "com/artifacts/to/update/releases/update-group"));
+        metadata = readGroupMetadata(repositoryGroupZQ, "com/artifacts/to/update/releases/update-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
 
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupX, "com/artifacts/to/update/releases/update-group"));
+        metadata = readGroupMetadata(repositoryGroupX, "com/artifacts/to/update/releases/update-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(2));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
         assertThat(metadata.getVersioning().getVersions().get(1), CoreMatchers.equalTo("1.2.2"));
 
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupW, "com/artifacts/to/update/releases/update-group"));
+        metadata = readGroupMetadata(repositoryGroupW, "com/artifacts/to/update/releases/update-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(2));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
         assertThat(metadata.getVersioning().getVersions().get(1), CoreMatchers.equalTo("1.2.2"));
@@ -143,26 +143,22 @@ public class MavenMetadataGroupRepositoryComponentOnDeleteTest
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.2"));
 
         // direct parent
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupF, "com/artifacts/to/delete/releases/delete-group"));
+        metadata = readGroupMetadata(repositoryGroupF, "com/artifacts/to/delete/releases/delete-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.2"));
 
         // next direct parent
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupB, "com/artifacts/to/delete/releases/delete-group"));
+        metadata = readGroupMetadata(repositoryGroupB, "com/artifacts/to/delete/releases/delete-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.2"));
 
         // grand parent
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupH, "com/artifacts/to/delete/releases/delete-group"));
+        metadata = readGroupMetadata(repositoryGroupH, "com/artifacts/to/delete/releases/delete-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.2"));
 
         // grand parent with other kids
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupA, "com/artifacts/to/delete/releases/delete-group"));
+        metadata = readGroupMetadata(repositoryGroupA, "com/artifacts/to/delete/releases/delete-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(2));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
         assertThat(metadata.getVersioning().getVersions().get(1), CoreMatchers.equalTo("1.2.2"));
@@ -185,19 +185,16 @@ public class MavenMetadataGroupRepositoryComponentOnUploadTest
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
 
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupAh, "com/artifacts/to/update/releases/update-group"));
+        metadata = readGroupMetadata(repositoryGroupAh, "com/artifacts/to/update/releases/update-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(1));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
 
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupAb, "com/artifacts/to/update/releases/update-group"));
+        metadata = readGroupMetadata(repositoryGroupAb, "com/artifacts/to/update/releases/update-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(2));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
         assertThat(metadata.getVersioning().getVersions().get(1), CoreMatchers.equalTo("1.2.2"));
 
-        metadata = mavenMetadataManager.readMetadata(
-                repositoryPathResolver.resolve(repositoryGroupAa, "com/artifacts/to/update/releases/update-group"));
+        metadata = readGroupMetadata(repositoryGroupAa, "com/artifacts/to/update/releases/update-group");
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(2));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
         assertThat(metadata.getVersioning().getVersions().get(1), CoreMatchers.equalTo("1.2.2"));
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
@@ -369,4 +370,44 @@ public class MavenChecksumServiceTest
                    "The checksum file for metadata is empty!");
     }
 
+    @Test
+    @ExtendWith({RepositoryManagementTestExecutionListener.class,
+                 ArtifactManagementTestExecutionListener.class})
+    public void testRegenerateOutdatedMavenChecksum(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                                    Repository repository,
+                                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                       resource = A3)
+                                                    Path artifact)
+            throws IOException,
+                   XmlPullParserException,
+                   NoSuchAlgorithmException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        artifactMetadataService.rebuildMetadata(storageId,
+                                                repositoryId,
+                                                "org/carlspring/strongbox/checksum");
+
+        String fileName = artifact.getFileName().toString();
+        Path md5File = artifact.resolveSibling(fileName + "." + MessageDigestAlgorithms.MD5.toLowerCase());
+        Path sha1File = artifact.resolveSibling(fileName + ".sha1");
+
+        Files.write(md5File, new byte[0]);
+        Files.write(sha1File, new byte[0]);
+
+        // The MD5 checksum is newer than the artifact, while the SHA1 one is older.
+        FileTime artifactLastModifiedTime = Files.getLastModifiedTime(artifact);
+        Files.setLastModifiedTime(md5File, FileTime.fromMillis(artifactLastModifiedTime.toMillis() + 60000));
+        Files.setLastModifiedTime(sha1File, FileTime.fromMillis(artifactLastModifiedTime.toMillis() - 60000));
+
+        checksumService.regenerateChecksum(storageId,
+                                           repositoryId,
+                                           "org/carlspring/strongbox/checksum/maven/checksum-rewrite",
+                                           false);
+
+        assertEquals(0, Files.size(md5File), "The up to date checksum file for artifact was rewritten!");
+        assertTrue(Files.size(sha1File) > 0, "The outdated checksum file for artifact wasn't rewritten!");
+    }
+
 }
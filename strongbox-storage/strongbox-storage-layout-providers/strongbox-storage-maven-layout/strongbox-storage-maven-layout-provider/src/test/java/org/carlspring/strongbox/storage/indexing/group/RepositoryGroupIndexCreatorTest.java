@@ -0,0 +1,214 @@
+package org.carlspring.strongbox.storage.indexing.group;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.indexing.BaseRepositoryIndexCreatorTest;
+import org.carlspring.strongbox.storage.indexing.IndexTypeEnum;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexCreator;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexCreator.RepositoryIndexCreatorQualifier;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexingContextFactory;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexingContextFactory.RepositoryIndexingContextFactoryQualifier;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.carlspring.strongbox.testing.MavenIndexedRepositorySetup;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import javax.inject.Inject;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.apache.lucene.search.Query;
+import org.apache.maven.index.MAVEN;
+import org.apache.maven.index.expr.SourcedSearchExpression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class RepositoryGroupIndexCreatorTest
+        extends BaseRepositoryIndexCreatorTest
+{
+
+    private static final String REPOSITORY_RELEASES_1 = "rgic-releases-1";
+
+    private static final String REPOSITORY_RELEASES_1_1 = "rgic-releases-1-1";
+
+    private static final String REPOSITORY_RELEASES_1_GROUP = "rgic-releases-1-group";
+
+    private static final String REPOSITORY_RELEASES_1_GROUP_WITH_NESTED_GROUP = "rgic-releases-1-group-with-nested-group";
+
+    private static final String REPOSITORY_RELEASES_2 = "rgic-releases-2";
+
+    private static final String REPOSITORY_RELEASES_2_1 = "rgic-releases-2-1";
+
+    private static final String REPOSITORY_RELEASES_2_GROUP = "rgic-releases-2-group";
+
+    private static final String REPOSITORY_RELEASES_2_GROUP_WITH_NESTED_GROUP = "rgic-releases-2-group-with-nested-group";
+
+    private static final String PROPERTIES_INJECTOR_GROUP_ID = "org.carlspring";
+
+    private static final String PROPERTIES_INJECTOR_ARTIFACT_ID = "properties-injector";
+
+    private static final String SLF4J_GROUP_ID = "org.slf4j";
+
+    private static final String SLF4J_ARTIFACT_ID = "slf4j-log4j12";
+
+    private static final String INDEX_FILE = "nexus-maven-repository-index.gz";
+
+    private Resource slf4jJarArtifact = new ClassPathResource("artifacts/slf4j-log4j12-1.7.26.jar");
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    @RepositoryIndexCreatorQualifier(RepositoryTypeEnum.HOSTED)
+    private RepositoryIndexCreator hostedRepositoryIndexCreator;
+
+    @Inject
+    @RepositoryIndexCreatorQualifier(RepositoryTypeEnum.GROUP)
+    private RepositoryIndexCreator groupRepositoryIndexCreator;
+
+    @Inject
+    @RepositoryIndexingContextFactoryQualifier(IndexTypeEnum.LOCAL)
+    private RepositoryIndexingContextFactory indexingContextFactory;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void unchangedNestedGroupIndexesShouldNotBePackedAgain(@MavenRepository(repositoryId = REPOSITORY_RELEASES_1,
+                                                                                   setup = MavenIndexedRepositorySetup.class)
+                                                                  Repository repository1,
+                                                                  @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_1,
+                                                                                     id = PROPERTIES_INJECTOR_GROUP_ID + ":" +
+                                                                                          PROPERTIES_INJECTOR_ARTIFACT_ID,
+                                                                                     versions = { "1.8" })
+                                                                  Path artifactPathPropertiesInjector,
+                                                                  @MavenRepository(repositoryId = REPOSITORY_RELEASES_1_1,
+                                                                                   setup = MavenIndexedRepositorySetup.class)
+                                                                  Repository repository11,
+                                                                  @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_1_1,
+                                                                                     id = SLF4J_GROUP_ID + ":" + SLF4J_ARTIFACT_ID,
+                                                                                     versions = { "1.9" })
+                                                                  Path artifactPathSlf4j,
+                                                                  @Group(repositories = REPOSITORY_RELEASES_1_1)
+                                                                  @MavenRepository(repositoryId = REPOSITORY_RELEASES_1_GROUP,
+                                                                                   setup = MavenIndexedRepositorySetup.class)
+                                                                  Repository groupRepository,
+                                                                  @Group(repositories = { REPOSITORY_RELEASES_1,
+                                                                                          REPOSITORY_RELEASES_1_GROUP })
+                                                                  @MavenRepository(repositoryId = REPOSITORY_RELEASES_1_GROUP_WITH_NESTED_GROUP,
+                                                                                   setup = MavenIndexedRepositorySetup.class)
+                                                                  Repository groupWithNestedGroupRepository)
+            throws Exception
+    {
+        hostedRepositoryIndexCreator.apply(repository1);
+        hostedRepositoryIndexCreator.apply(repository11);
+
+        final RepositoryPath groupIndexPath = groupRepositoryIndexCreator.apply(groupRepository).resolve(INDEX_FILE);
+        final RepositoryPath groupWithNestedGroupIndexPath = groupRepositoryIndexCreator.apply(
+                groupWithNestedGroupRepository).resolve(INDEX_FILE);
+
+        final String groupChecksum = MessageDigestUtils.calculateChecksum(groupIndexPath, "SHA-1");
+        final String groupWithNestedGroupChecksum = MessageDigestUtils.calculateChecksum(
+                groupWithNestedGroupIndexPath, "SHA-1");
+
+        assertThat(groupIndexPath.resolveSibling(RepositoryGroupIndexCreator.MERGED_MEMBERS_FILE)).matches(Files::exists);
+
+        // The member index is re-created, but with the same artifacts.
+        hostedRepositoryIndexCreator.apply(repository11);
+
+        // The merges are skipped without reading the member indexes, also by an instance which hasn't merged them.
+        final RepositoryGroupIndexCreator groupIndexCreator = Mockito.spy(
+                (RepositoryGroupIndexCreator) groupRepositoryIndexCreator);
+        groupIndexCreator.apply(groupRepository);
+        groupIndexCreator.apply(groupWithNestedGroupRepository);
+
+        Mockito.verify(groupIndexCreator, Mockito.never()).openMemberIndex(ArgumentMatchers.any());
+
+        assertThat(MessageDigestUtils.calculateChecksum(groupIndexPath, "SHA-1")).isEqualTo(groupChecksum);
+        assertThat(MessageDigestUtils.calculateChecksum(groupWithNestedGroupIndexPath, "SHA-1")).isEqualTo(
+                groupWithNestedGroupChecksum);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void changedMemberShouldBeMergedIntoNestedGroups(@MavenRepository(repositoryId = REPOSITORY_RELEASES_2,
+                                                                             setup = MavenIndexedRepositorySetup.class)
+                                                            Repository repository2,
+                                                            @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_2,
+                                                                               id = PROPERTIES_INJECTOR_GROUP_ID + ":" +
+                                                                                    PROPERTIES_INJECTOR_ARTIFACT_ID,
+                                                                               versions = { "1.8" })
+                                                            Path artifactPathPropertiesInjector,
+                                                            @MavenRepository(repositoryId = REPOSITORY_RELEASES_2_1,
+                                                                             setup = MavenIndexedRepositorySetup.class)
+                                                            Repository repository21,
+                                                            @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES_2_1,
+                                                                               id = SLF4J_GROUP_ID + ":" + SLF4J_ARTIFACT_ID,
+                                                                               versions = { "1.9" })
+                                                            Path artifactPathSlf4j,
+                                                            @Group(repositories = REPOSITORY_RELEASES_2_1)
+                                                            @MavenRepository(repositoryId = REPOSITORY_RELEASES_2_GROUP,
+                                                                             setup = MavenIndexedRepositorySetup.class)
+                                                            Repository groupRepository,
+                                                            @Group(repositories = { REPOSITORY_RELEASES_2,
+                                                                                    REPOSITORY_RELEASES_2_GROUP })
+                                                            @MavenRepository(repositoryId = REPOSITORY_RELEASES_2_GROUP_WITH_NESTED_GROUP,
+                                                                             setup = MavenIndexedRepositorySetup.class)
+                                                            Repository groupWithNestedGroupRepository)
+            throws Exception
+    {
+        hostedRepositoryIndexCreator.apply(repository2);
+        hostedRepositoryIndexCreator.apply(repository21);
+
+        groupRepositoryIndexCreator.apply(groupRepository);
+        final RepositoryPath groupWithNestedGroupIndexDirectoryPath = groupRepositoryIndexCreator.apply(
+                groupWithNestedGroupRepository);
+        final String groupWithNestedGroupChecksum = MessageDigestUtils.calculateChecksum(
+                groupWithNestedGroupIndexDirectoryPath.resolve(INDEX_FILE), "SHA-1");
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository21.getStorage().getId(),
+                                                                       repository21.getId(),
+                                                                       "org/slf4j/slf4j-log4j12/1.7.26/slf4j-log4j12-1.7.26.jar");
+        artifactManagementService.validateAndStore(repositoryPath, slf4jJarArtifact.getInputStream());
+        hostedRepositoryIndexCreator.apply(repository21);
+
+        groupRepositoryIndexCreator.apply(groupRepository);
+        groupRepositoryIndexCreator.apply(groupWithNestedGroupRepository);
+
+        assertThat(MessageDigestUtils.calculateChecksum(groupWithNestedGroupIndexDirectoryPath.resolve(INDEX_FILE),
+                                                        "SHA-1")).isNotEqualTo(groupWithNestedGroupChecksum);
+        try (Stream<Path> paths = Files.list(groupWithNestedGroupIndexDirectoryPath.toFile().toPath()))
+        {
+            assertThat(paths.map(p -> p.getFileName().toString()))
+                    .anyMatch(f -> f.matches("nexus-maven-repository-index\\.\\d+\\.gz"));
+        }
+
+        try (RepositoryIndexingContextAssert repositoryIndexingContextAssert = new RepositoryIndexingContextAssert(
+                groupWithNestedGroupRepository, groupRepositoryIndexCreator, indexingContextFactory))
+        {
+            Query q = indexer.constructQuery(MAVEN.VERSION, new SourcedSearchExpression("1.7.26"));
+            repositoryIndexingContextAssert.onSearchQuery(q).hitTotalTimes(1);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package org.carlspring.strongbox.storage.indexing.local;
 
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.indexing.BaseRepositoryIndexCreatorTest;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexCreator;
 import org.carlspring.strongbox.storage.indexing.RepositoryIndexCreator.RepositoryIndexCreatorQualifier;
@@ -17,16 +19,27 @@ import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementT
 import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import javax.inject.Inject;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.lucene.document.Document;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.updater.IndexDataReader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.parallel.Execution;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,11 +59,18 @@ public class RepositoryHostedIndexCreatorTest
     private static final String REPOSITORY_RELEASES = "ri-releases";
     private static final String GROUP_ID = "org.carlspring.strongbox";
     private static final String ARTIFACT_ID = "strongbox-commons";
+    private static final String SLF4J_PATH = "org/slf4j/slf4j-log4j12/1.7.26/slf4j-log4j12-1.7.26.jar";
+    private static final String SLF4J_UINFO_PREFIX = "org.slf4j|slf4j-log4j12|1.7.26|";
 
     @Inject
     @RepositoryIndexCreatorQualifier(RepositoryTypeEnum.HOSTED)
     private RepositoryIndexCreator repositoryIndexCreator;
 
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    private Resource slf4jJarArtifact = new ClassPathResource("artifacts/slf4j-log4j12-1.7.26.jar");
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -101,12 +121,88 @@ public class RepositoryHostedIndexCreatorTest
         RepositoryPath indexPath = repositoryIndexCreator.apply(repository).resolve("nexus-maven-repository-index.gz");
         String beforeChecksum = MessageDigestUtils.calculateChecksum(indexPath, "SHA-1");
 
+        // Nothing has changed, so the index is not packed again.
+        repositoryIndexCreator.apply(repository);
+        assertThat(MessageDigestUtils.calculateChecksum(indexPath, "SHA-1")).isEqualTo(beforeChecksum);
+
+        storeSlf4j(repository);
         repositoryIndexCreator.apply(repository);
         String afterChecksum = MessageDigestUtils.calculateChecksum(indexPath, "SHA-1");
 
         assertThat(beforeChecksum).isNotEqualTo(afterChecksum);
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void outdatedIndexChunksShouldBePruned(@MavenRepository(repositoryId = REPOSITORY_RELEASES,
+                                                                   setup = MavenIndexedRepositorySetup.class)
+                                                  Repository repository,
+                                                  @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                     id = GROUP_ID + ":" + ARTIFACT_ID,
+                                                                     versions = { "1.0",
+                                                                                  "1.1" })
+                                                  List<Path> artifactPaths)
+            throws Exception
+    {
+        final Path indexDirectory = repositoryIndexCreator.apply(repository).toFile().toPath();
+
+        final Path outdatedChunk = indexDirectory.resolve("nexus-maven-repository-index.42.gz");
+        final Path outdatedChunkChecksum = indexDirectory.resolve("nexus-maven-repository-index.42.gz.sha1");
+        Files.write(outdatedChunk, new byte[0]);
+        Files.write(outdatedChunkChecksum, new byte[0]);
+
+        storeSlf4j(repository);
+        repositoryIndexCreator.apply(repository);
+
+        assertThat(outdatedChunk).doesNotExist();
+        assertThat(outdatedChunkChecksum).doesNotExist();
+
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(
+                indexDirectory.resolve("nexus-maven-repository-index.properties")))
+        {
+            properties.load(inputStream);
+        }
+        assertThat(properties.getProperty("nexus.index.chain-id")).isNotNull();
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void newIndexChunkShouldOnlyHoldTheChangedArtifact(@MavenRepository(repositoryId = REPOSITORY_RELEASES,
+                                                                               setup = MavenIndexedRepositorySetup.class)
+                                                              Repository repository,
+                                                              @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                                 id = GROUP_ID + ":" + ARTIFACT_ID,
+                                                                                 versions = { "1.0",
+                                                                                              "1.1" })
+                                                              List<Path> artifactPaths)
+            throws Exception
+    {
+        final Path indexDirectory = repositoryIndexCreator.apply(repository).toFile().toPath();
+
+        // Added
+        RepositoryPath slf4jPath = storeSlf4j(repository);
+        repositoryIndexCreator.apply(repository);
+
+        List<Document> chunk = readLastChunk(indexDirectory);
+        assertThat(chunk).allMatch(d -> d.get(ArtifactInfo.DELETED) == null);
+        assertThat(chunk.stream().map(d -> d.get(ArtifactInfo.UINFO)).collect(Collectors.toList()))
+                .isNotEmpty()
+                .allMatch(uinfo -> uinfo.startsWith(SLF4J_UINFO_PREFIX));
+
+        // Deleted
+        RepositoryFiles.delete(slf4jPath, false);
+        repositoryIndexCreator.apply(repository);
+
+        chunk = readLastChunk(indexDirectory);
+        assertThat(chunk).allMatch(d -> d.get(ArtifactInfo.UINFO) == null);
+        assertThat(chunk.stream().map(d -> d.get(ArtifactInfo.DELETED)).collect(Collectors.toList()))
+                .isNotEmpty()
+                .allMatch(uinfo -> uinfo.startsWith(SLF4J_UINFO_PREFIX));
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -138,6 +234,61 @@ public class RepositoryHostedIndexCreatorTest
         assertThat(thread3.exception).isNull();
     }
 
+    private RepositoryPath storeSlf4j(Repository repository)
+            throws Exception
+    {
+        RepositoryPath slf4jPath = repositoryPathResolver.resolve(repository, SLF4J_PATH);
+        artifactManagementService.validateAndStore(slf4jPath, slf4jJarArtifact.getInputStream());
+
+        return slf4jPath;
+    }
+
+    /**
+     * @return the artifact documents, and the deletion markers, of the newest chunk, which has to be the one
+     *         advertised by the index properties
+     */
+    private List<Document> readLastChunk(Path indexDirectory)
+            throws IOException
+    {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(
+                indexDirectory.resolve("nexus-maven-repository-index.properties")))
+        {
+            properties.load(inputStream);
+        }
+
+        final String lastChunk = properties.getProperty("nexus.index.incremental-0");
+        assertThat(lastChunk).isNotNull();
+
+        final Path chunkPath = indexDirectory.resolve("nexus-maven-repository-index." + lastChunk + ".gz");
+        assertThat(chunkPath).exists();
+        try (Stream<Path> paths = Files.list(indexDirectory))
+        {
+            assertThat(paths.map(p -> p.getFileName().toString())
+                            .filter(f -> f.matches("nexus-maven-repository-index\\.\\d+\\.gz"))
+                            .map(f -> Integer.parseInt(f.split("\\.")[1]))
+                            .max(Integer::compareTo)).contains(Integer.parseInt(lastChunk));
+        }
+
+        final List<Document> documents = new ArrayList<>();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(chunkPath)))
+        {
+            final IndexDataReader reader = new IndexDataReader(inputStream);
+            reader.readHeader();
+
+            Document document;
+            while ((document = reader.readDocument()) != null)
+            {
+                if (document.get(ArtifactInfo.UINFO) != null || document.get(ArtifactInfo.DELETED) != null)
+                {
+                    documents.add(document);
+                }
+            }
+        }
+
+        return documents;
+    }
+
     private class PackedRepositoryIndexGeneratorThread
             extends Thread
     {
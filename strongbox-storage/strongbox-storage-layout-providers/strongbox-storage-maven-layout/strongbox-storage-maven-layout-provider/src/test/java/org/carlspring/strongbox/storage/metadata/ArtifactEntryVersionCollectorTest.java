@@ -0,0 +1,218 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.repository.metadata.Plugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+/**
+ * Checks that the database backed {@link ArtifactEntryVersionCollector} produces the same
+ * <code>maven-metadata.xml</code> as the filesystem based {@link VersionCollector}.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class ArtifactEntryVersionCollectorTest
+{
+
+    private static final String R1 = "aevct-releases1";
+
+    private static final String R2 = "aevct-releases2";
+
+    private static final String R3 = "aevct-releases3";
+
+    private static final String S1 = "aevct-snapshots1";
+
+    @Inject
+    private ArtifactEntryVersionCollector artifactEntryVersionCollector;
+
+    @Inject
+    private MavenMetadataManager mavenMetadataManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testReleaseMetadataIsIdentical(@MavenRepository(repositoryId = R1)
+                                               Repository repository,
+                                               @MavenTestArtifact(repositoryId = R1,
+                                                                  id = "org.carlspring.strongbox.collector:releases",
+                                                                  versions = { "1.0",
+                                                                               "1.1",
+                                                                               "1.10",
+                                                                               "1.2",
+                                                                               "2.0-alpha-1",
+                                                                               "2.0" },
+                                                                  classifiers = { "javadoc",
+                                                                                  "sources" })
+                                               List<Path> artifacts)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/collector/releases");
+
+        assertMetadataIsIdentical(artifactBasePath);
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPluginMetadataIsIdentical(@MavenRepository(repositoryId = R2)
+                                              Repository repository,
+                                              @MavenTestArtifact(repositoryId = R2,
+                                                                 id = "org.carlspring.strongbox.collector:collector-maven-plugin",
+                                                                 versions = { "1.0",
+                                                                              "1.1" },
+                                                                 packaging = "maven-plugin")
+                                              List<Path> artifacts)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/collector/collector-maven-plugin");
+
+        VersionCollectionRequest fileSystemRequest = new VersionCollector().collectVersions(artifactBasePath);
+        VersionCollectionRequest artifactEntryRequest = artifactEntryVersionCollector.collectVersions(artifactBasePath);
+
+        assertEquals(toString(fileSystemRequest.getPlugins()), toString(artifactEntryRequest.getPlugins()));
+
+        assertMetadataIsIdentical(artifactBasePath);
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testPluginNameIsReadFromTheStoredPom(@MavenRepository(repositoryId = R3)
+                                                     Repository repository)
+            throws Exception
+    {
+        String pom = "<project>\n" +
+                     "  <modelVersion>4.0.0</modelVersion>\n" +
+                     "  <groupId>org.carlspring.strongbox.collector</groupId>\n" +
+                     "  <artifactId>named-maven-plugin</artifactId>\n" +
+                     "  <version>1.0</version>\n" +
+                     "  <packaging>maven-plugin</packaging>\n" +
+                     "  <name>Named Collector Plugin</name>\n" +
+                     "</project>\n";
+
+        RepositoryPath pomPath = repositoryPathResolver.resolve(repository,
+                                                                "org/carlspring/strongbox/collector/named-maven-plugin/1.0/named-maven-plugin-1.0.pom");
+        artifactManagementService.store(pomPath, new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8)));
+
+        ArtifactEntry pomEntry = artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                                      repository.getId(),
+                                                                      RepositoryFiles.relativizePath(pomPath));
+        assertEquals("maven-plugin", pomEntry.getPackaging());
+        assertEquals("Named Collector Plugin", pomEntry.getName());
+
+        RepositoryPath artifactBasePath = pomPath.getParent().getParent();
+
+        VersionCollectionRequest fileSystemRequest = new VersionCollector().collectVersions(artifactBasePath);
+        assertEquals("named-maven-plugin:Named Collector Plugin:named",
+                     toString(fileSystemRequest.getPlugins()));
+
+        // The POM isn't read again, so that the entries alone make the same plugin.
+        Files.write(pomPath.toFile().toPath(), "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        VersionCollectionRequest artifactEntryRequest = artifactEntryVersionCollector.collectVersions(artifactBasePath);
+        assertEquals(toString(fileSystemRequest.getPlugins()), toString(artifactEntryRequest.getPlugins()));
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testSnapshotMetadataIsIdentical(@MavenRepository(repositoryId = S1,
+                                                                 policy = RepositoryPolicyEnum.SNAPSHOT)
+                                                Repository repository,
+                                                @MavenTestArtifact(repositoryId = S1,
+                                                                   id = "org.carlspring.strongbox.collector:snapshots",
+                                                                   versions = { "1.0-20190101.101010-1",
+                                                                                "1.0-20190101.101010-2",
+                                                                                "1.0-20190101.101010-3",
+                                                                                "1.1-20190102.101010-1",
+                                                                                "2.0-20190103.101010-1",
+                                                                                "2.0-20190103.101010-2" },
+                                                                   classifiers = { "javadoc" })
+                                                List<Path> artifacts)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/collector/snapshots");
+
+        assertMetadataIsIdentical(artifactBasePath);
+    }
+
+    private void assertMetadataIsIdentical(RepositoryPath artifactBasePath)
+            throws Exception
+    {
+        VersionCollectionRequest fileSystemRequest = new VersionCollector().collectVersions(artifactBasePath);
+        VersionCollectionRequest artifactEntryRequest = artifactEntryVersionCollector.collectVersions(artifactBasePath);
+
+        assertFalse(artifactEntryRequest.getVersioning().getVersions().isEmpty());
+        assertEquals(fileSystemRequest.getVersioning().getVersions(),
+                     artifactEntryRequest.getVersioning().getVersions());
+
+        mavenMetadataManager.generateMetadata(artifactBasePath, fileSystemRequest);
+        String fileSystemMetadata = readMetadata(artifactBasePath);
+
+        mavenMetadataManager.generateMetadata(artifactBasePath, artifactEntryRequest);
+        String artifactEntryMetadata = readMetadata(artifactBasePath);
+
+        assertEquals(fileSystemMetadata, artifactEntryMetadata);
+    }
+
+    private String readMetadata(RepositoryPath artifactBasePath)
+            throws IOException
+    {
+        Path metadataPath = MetadataHelper.getMetadataPath(artifactBasePath);
+        String metadata = new String(Files.readAllBytes(metadataPath), StandardCharsets.UTF_8);
+
+        // The <lastUpdated/> tag is set to the current time on every generation.
+        return metadata.replaceAll("<lastUpdated>\\d*</lastUpdated>", "");
+    }
+
+    private String toString(List<Plugin> plugins)
+    {
+        return plugins.stream()
+                      .map(p -> p.getArtifactId() + ":" + p.getName() + ":" + p.getPrefix())
+                      .collect(Collectors.joining(","));
+    }
+
+}
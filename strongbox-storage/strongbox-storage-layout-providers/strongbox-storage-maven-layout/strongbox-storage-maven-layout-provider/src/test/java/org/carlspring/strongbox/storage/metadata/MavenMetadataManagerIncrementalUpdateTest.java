@@ -0,0 +1,227 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class MavenMetadataManagerIncrementalUpdateTest
+{
+
+    private static final String R1 = "mmmiut-releases1";
+
+    private static final String R2 = "mmmiut-releases2";
+
+    private static final String R3 = "mmmiut-releases3";
+
+    private static final String R4 = "mmmiut-releases4";
+
+    @Inject
+    private MavenMetadataManager mavenMetadataManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testAddAndRemoveVersion(@MavenRepository(repositoryId = R1)
+                                        Repository repository,
+                                        @MavenTestArtifact(repositoryId = R1,
+                                                           id = "org.carlspring.strongbox.incremental:add-remove",
+                                                           versions = { "1.0",
+                                                                        "1.1" })
+                                        List<Path> artifacts)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/incremental/add-remove");
+        mavenMetadataManager.generateMetadata(artifactBasePath,
+                                              new VersionCollector().collectVersions(artifactBasePath));
+
+        assertTrue(mavenMetadataManager.addVersion(artifactBasePath, "1.10"));
+        assertTrue(mavenMetadataManager.addVersion(artifactBasePath, "2.0-SNAPSHOT"));
+
+        Metadata metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        assertEquals(Arrays.asList("1.0", "1.1", "1.10", "2.0-SNAPSHOT"), metadata.getVersioning().getVersions());
+        assertEquals("2.0-SNAPSHOT", metadata.getVersioning().getLatest());
+        assertEquals("1.10", metadata.getVersioning().getRelease());
+
+        assertTrue(mavenMetadataManager.removeVersion(artifactBasePath, "1.10"));
+        assertTrue(mavenMetadataManager.removeVersion(artifactBasePath, "2.0-SNAPSHOT"));
+
+        metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        assertEquals(Arrays.asList("1.0", "1.1"), metadata.getVersioning().getVersions());
+        assertEquals("1.1", metadata.getVersioning().getLatest());
+        assertEquals("1.1", metadata.getVersioning().getRelease());
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testNoMetadataToUpdate(@MavenRepository(repositoryId = R2)
+                                       Repository repository)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/incremental/missing");
+
+        assertFalse(mavenMetadataManager.addVersion(artifactBasePath, "1.0"));
+        assertFalse(mavenMetadataManager.removeVersion(artifactBasePath, "1.0"));
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testConcurrentAddVersion(@MavenRepository(repositoryId = R3)
+                                         Repository repository,
+                                         @MavenTestArtifact(repositoryId = R3,
+                                                            id = "org.carlspring.strongbox.incremental:concurrent",
+                                                            versions = { "1.0" })
+                                         List<Path> artifacts)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/incremental/concurrent");
+        mavenMetadataManager.generateMetadata(artifactBasePath,
+                                              new VersionCollector().collectVersions(artifactBasePath));
+
+        List<String> versions = IntStream.rangeClosed(1, 20)
+                                         .mapToObj(i -> "2." + i)
+                                         .collect(Collectors.toList());
+        versions.parallelStream().forEach(v -> {
+            try
+            {
+                mavenMetadataManager.addVersion(artifactBasePath, v);
+            }
+            catch (Exception e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Metadata metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        assertTrue(metadata.getVersioning().getVersions().containsAll(versions));
+        assertEquals(versions.size() + 1, metadata.getVersioning().getVersions().size());
+        assertEquals("2.20", metadata.getVersioning().getLatest());
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testConcurrentSnapshotVersions(@MavenRepository(repositoryId = R4)
+                                               Repository repository,
+                                               @MavenTestArtifact(repositoryId = R4,
+                                                                  id = "org.carlspring.strongbox.incremental:snapshot",
+                                                                  versions = { "1.0" })
+                                               List<Path> artifacts)
+            throws Exception
+    {
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(repository,
+                                                                         "org/carlspring/strongbox/incremental/snapshot");
+        mavenMetadataManager.generateMetadata(artifactBasePath,
+                                              new VersionCollector().collectVersions(artifactBasePath));
+
+        RepositoryPath snapshotBasePath = artifactBasePath.resolve("2.0-SNAPSHOT");
+        Files.createDirectories(snapshotBasePath);
+        Metadata snapshotMetadata = mavenMetadataManager.generateSnapshotVersioningMetadata(
+                "org.carlspring.strongbox.incremental", "snapshot", snapshotBasePath, "2.0-SNAPSHOT", true);
+
+        // The snapshot metadata is stored in the lock of it's own file, which the incremental updates take as well.
+        RepositoryPath snapshotMetadataPath = (RepositoryPath) MetadataHelper.getSnapshotMetadataPath(artifactBasePath,
+                                                                                                      "2.0-SNAPSHOT");
+        Lock lock = repositoryPathLock.lock(snapshotMetadataPath).writeLock();
+        CompletableFuture<Void> store;
+        lock.lock();
+        try
+        {
+            store = CompletableFuture.runAsync(() -> {
+                try
+                {
+                    mavenMetadataManager.storeMetadata(artifactBasePath,
+                                                       "2.0-SNAPSHOT",
+                                                       snapshotMetadata,
+                                                       MetadataType.SNAPSHOT_VERSION_LEVEL);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            assertThrows(TimeoutException.class, () -> store.get(500, TimeUnit.MILLISECONDS));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        store.get(10, TimeUnit.SECONDS);
+
+        List<String> builds = IntStream.rangeClosed(1, 20)
+                                       .mapToObj(i -> "2.0-20190101.000000-" + i)
+                                       .collect(Collectors.toList());
+        builds.parallelStream().forEach(v -> {
+            try
+            {
+                mavenMetadataManager.addTimestampedSnapshotVersion(artifactBasePath, v, null, "jar");
+            }
+            catch (Exception e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Metadata metadata = mavenMetadataManager.readMetadata(snapshotBasePath);
+        assertEquals(builds.stream().sorted().collect(Collectors.toList()),
+                     metadata.getVersioning()
+                             .getSnapshotVersions()
+                             .stream()
+                             .map(SnapshotVersion::getVersion)
+                             .sorted()
+                             .collect(Collectors.toList()));
+
+        metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        assertEquals(Arrays.asList("1.0", "2.0-SNAPSHOT"), metadata.getVersioning().getVersions());
+    }
+
+}
@@ -5,32 +5,23 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
 
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.npm.metadata.PackageEntry;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResult;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.npm.metadata.Versions;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
-import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathLock;
-import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
-import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
-import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,18 +36,9 @@ public class NpmPackageFeedParser
     @Inject
     private ArtifactTagService artifactTagService;
 
-    @Inject
-    private RepositoryPathResolver repositoryPathResolver;
-
-    @Inject
-    private ArtifactEntryService artifactEntryService;
-    
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
 
-    @Inject
-    private RepositoryPathLock repositoryPathLock;
-
     public void parseSearchResult(Repository repository,
                                   SearchResults searchResults)
         throws IOException
@@ -82,19 +64,7 @@ public class NpmPackageFeedParser
             artifactToSaveSet.add(remoteArtifactEntry);
         }
 
-        saveArtifactEntrySet(repository, artifactToSaveSet);
-    }
-
-    private void saveArtifactEntrySet(Repository repository,
-                                      Set<ArtifactEntry> artifactToSaveSet)
-        throws IOException
-    {
-        for (ArtifactEntry e : artifactToSaveSet)
-        {
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(e);
-
-            saveArtifactEntry(repositoryPath);
-        }
+        repositoryArtifactIdGroupService.addArtifactsToGroups(artifactToSaveSet);
     }
 
     @Transactional
@@ -141,39 +111,10 @@ public class NpmPackageFeedParser
             artifactToSaveSet.add(remoteArtifactEntry);
         }
 
-        saveArtifactEntrySet(repository, artifactToSaveSet);
+        repositoryArtifactIdGroupService.addArtifactsToGroups(artifactToSaveSet);
 
     }
 
-    private void saveArtifactEntry(RepositoryPath repositoryPath)
-        throws IOException
-    {
-        ArtifactEntry e = repositoryPath.getArtifactEntry();
-        
-        Repository repository = repositoryPath.getRepository();
-        Storage storage = repository.getStorage();
-        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
-
-        Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
-        lock.lock();
-
-        try
-        {
-            if (artifactEntryService.artifactExists(e.getStorageId(), e.getRepositoryId(),
-                                                    e.getArtifactCoordinates().toPath()))
-            {
-                return;
-            }
-
-            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
-        } 
-        finally
-        {
-            lock.unlock();
-        }
-    }
-
     private RemoteArtifactEntry parseVersion(String storageId,
                                              String repositoryId,
                                              PackageVersion packageVersion)
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.repository;
 
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
@@ -24,6 +25,7 @@ import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.validation.artifact.version.GenericReleaseVersionValidator;
 import org.carlspring.strongbox.storage.validation.artifact.version.GenericSnapshotVersionValidator;
 import org.carlspring.strongbox.storage.validation.deployment.RedeploymentValidator;
+import org.carlspring.strongbox.util.ThrowingConsumer;
 import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfiguration;
 import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfigurationDto;
 
@@ -36,22 +38,31 @@ import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 @Component
@@ -60,6 +71,8 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
     private static final int CHANGES_BATCH_SIZE = 500;
 
+    private static final int CHANGES_TRANSACTION_BATCH_SIZE = 100;
+
     private static final Logger logger = LoggerFactory.getLogger(NpmRepositoryFeatures.class);
 
     @Inject
@@ -93,6 +106,15 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
     @Inject
     private NpmPackageFeedParser npmPackageFeedParser;
 
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Value("${strongbox.npm.remote.changes.transaction-batch-size:" + CHANGES_TRANSACTION_BATCH_SIZE + "}")
+    private int changesTransactionBatchSize;
+
     private Set<String> defaultArtifactCoordinateValidators;
 
     @PostConstruct
@@ -187,40 +209,94 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             logger.warn(String.format("Remote npm configuration not found for [%s]/[%s]", storageId, repositoryId));
             return;
         }
-        Long lastCnahgeId = configuration.getLastChangeId();
+        Long configuredChangeId = configuration.getLastChangeId();
+        Long lastCnahgeId = Math.max(configuredChangeId, readCheckpoint(repository));
         String replicateUrl = configuration.getReplicateUrl();
 
+        // The last change of every persisted batch is saved in the vault, so that the next run continues right after
+        // it, even if this one fails halfway through. The configuration is only saved once the run is over.
+        ThrowingConsumer<Long, IOException> checkpoint = changeId -> writeCheckpoint(repository, changeId);
+
         Long nextChangeId = lastCnahgeId;
         do
         {
             lastCnahgeId = nextChangeId;
+            nextChangeId = fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId, checkpoint);
+        } while (nextChangeId > lastCnahgeId);
+
+        if (nextChangeId > configuredChangeId)
+        {
             mutableConfiguration.setLastChangeId(nextChangeId);
             configurationManagementService.saveRepository(storageId, mutableRepository);
+        }
+        Files.deleteIfExists(getCheckpointPath(repository));
+    }
 
-            nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId + 1));
-        } while (nextChangeId > lastCnahgeId);
+    /**
+     * @return the last change persisted by a run which didn't finish, or {@code 0}
+     */
+    Long readCheckpoint(Repository repository)
+        throws IOException
+    {
+        Path checkpointPath = getCheckpointPath(repository);
+        if (!Files.exists(checkpointPath))
+        {
+            return 0L;
+        }
+
+        String checkpoint = new String(Files.readAllBytes(checkpointPath), StandardCharsets.UTF_8).trim();
+        try
+        {
+            return Long.valueOf(checkpoint);
+        }
+        catch (NumberFormatException e)
+        {
+            logger.warn(String.format("Ignoring the invalid NPM changes feed checkpoint [%s] of [%s].", checkpoint,
+                                      checkpointPath));
+
+            return 0L;
+        }
     }
 
-    private Integer fetchRemoteChangesFeed(Repository repository,
-                                           String replicateUrl,
-                                           Long since)
+    void writeCheckpoint(Repository repository,
+                         Long changeId)
         throws IOException
     {
-        int result = 0;
+        Path checkpointPath = getCheckpointPath(repository);
+        Files.createDirectories(checkpointPath.getParent());
+        Files.write(checkpointPath, String.valueOf(changeId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path getCheckpointPath(Repository repository)
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(),
+                         "npm",
+                         "changes",
+                         repository.getStorage().getId(),
+                         repository.getId() + ".checkpoint");
+    }
+
+    private Long fetchRemoteChangesFeed(Repository repository,
+                                        String replicateUrl,
+                                        Long lastChangeId,
+                                        ThrowingConsumer<Long, IOException> checkpoint)
+        throws IOException
+    {
+        Long result = lastChangeId;
         Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
         try
         {
-            logger.debug(String.format("Fetching remote cnages for [%s] since [%s].", replicateUrl, since));
+            logger.debug(String.format("Fetching remote cnages for [%s] since [%s].", replicateUrl, lastChangeId + 1));
 
             WebTarget service = restClient.target(replicateUrl);
             service = service.path("_changes");
-            service = service.queryParam("since", since);
+            service = service.queryParam("since", lastChangeId + 1);
             service = service.queryParam("include_docs", true);
             service = service.queryParam("limit", CHANGES_BATCH_SIZE);
 
             Invocation request = service.request().buildGet();
 
-            result = fetchRemoteChangesFeed(repository, request);
+            result = fetchRemoteChangesFeed(repository, request, lastChangeId, checkpoint);
         } 
         finally
         {
@@ -230,84 +306,145 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         return result;
     }
 
-    private int fetchRemoteChangesFeed(Repository repository,
-                                       Invocation request)
+    /**
+     * Reads the changes one by one, straight from the response, and persists their package feeds in batches of
+     * {@link #changesTransactionBatchSize}, each one in a single transaction.
+     *
+     * @return the sequence number of the last persisted change
+     */
+    Long fetchRemoteChangesFeed(Repository repository,
+                                Invocation request,
+                                Long lastChangeId,
+                                ThrowingConsumer<Long, IOException> checkpoint)
         throws IOException
     {
-        int result = 0;
+        Long result = lastChangeId;
 
         RemoteRepository remoteRepository = repository.getRemoteRepository();
         NpmRemoteRepositoryConfiguration repositoryConfiguration = (NpmRemoteRepositoryConfiguration) remoteRepository.getCustomConfiguration();
 
         JsonFactory jfactory = new JsonFactory();
 
-        try (InputStream is = request.invoke(InputStream.class))
+        List<PackageFeed> packageFeedBatch = new ArrayList<>(changesTransactionBatchSize);
+        Long batchLastChangeId = null;
+        try (InputStream is = request.invoke(InputStream.class);
+             JsonParser jp = jfactory.createParser(is))
         {
-
-            JsonParser jp = jfactory.createParser(is);
             jp.setCodec(npmJacksonMapper);
 
             Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT, "npm changes feed should be JSON object.");
             Assert.isTrue(jp.nextFieldName().equals("results"), "npm changes feed should contains `results` field.");
             Assert.isTrue(jp.nextToken() == JsonToken.START_ARRAY, "npm changes feed `results` should be array.");
 
-            StringBuffer sb = new StringBuffer();
-            while (jp.nextToken() != null)
+            while (jp.nextToken() == JsonToken.START_OBJECT)
             {
-                JsonToken nextToken = jp.currentToken();
-                if (nextToken == JsonToken.END_ARRAY)
-                {
-                    break;
-                }
-
-                JsonNode node = jp.readValueAsTree();
-                sb.append(node.toString());
-
-                String changeValue = sb.toString();
-
                 Change change;
                 try
                 {
-                    change = npmJacksonMapper.readValue(changeValue, Change.class);
+                    change = jp.readValueAs(Change.class);
                 }
                 catch (Exception e)
                 {
-                    logger.error(String.format("Failed to parse NPM cnahges feed [%s] since [%s]: %n %s",
+                    logger.error(String.format("Failed to parse NPM cnahges feed [%s] since [%s].",
                                                repositoryConfiguration.getReplicateUrl(),
-                                               repositoryConfiguration.getLastChangeId(),
-                                               changeValue),
+                                               result),
                                  e);
 
-                    return result;
+                    break;
                 }
 
-                PackageFeed packageFeed = change.getDoc();
-                try
+                if (change.getDoc() != null)
                 {
-                    npmPackageFeedParser.parseFeed(repository, packageFeed);
+                    packageFeedBatch.add(change.getDoc());
                 }
-                catch (Exception e)
-                {
-                    logger.error(String.format("Failed to parse NPM feed [%s/%s]",
-                                               ((RepositoryData)repository).getRemoteRepository().getUrl(),
-                                               packageFeed.getName()),
-                                 e);
+                batchLastChangeId = Long.valueOf(change.getSeq());
 
+                if (packageFeedBatch.size() >= changesTransactionBatchSize)
+                {
+                    result = persistChanges(repository, packageFeedBatch, batchLastChangeId, checkpoint);
+                    batchLastChangeId = null;
                 }
-
-                result = change.getSeq();
-                sb = new StringBuffer();
             }
 
+            if (batchLastChangeId != null)
+            {
+                result = persistChanges(repository, packageFeedBatch, batchLastChangeId, checkpoint);
+            }
         }
 
         logger.debug(String.format("Fetched remote cnages for  [%s] since [%s].",
                                    repositoryConfiguration.getReplicateUrl(),
-                                   repositoryConfiguration.getLastChangeId()));
+                                   lastChangeId + 1));
 
         return result;
     }
 
+    private Long persistChanges(Repository repository,
+                                List<PackageFeed> packageFeedBatch,
+                                Long batchLastChangeId,
+                                ThrowingConsumer<Long, IOException> checkpoint)
+        throws IOException
+    {
+        persistChanges(repository, packageFeedBatch);
+        packageFeedBatch.clear();
+
+        checkpoint.accept(batchLastChangeId);
+
+        return batchLastChangeId;
+    }
+
+    private void persistChanges(Repository repository,
+                                List<PackageFeed> packageFeedBatch)
+    {
+        if (packageFeedBatch.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                for (PackageFeed packageFeed : packageFeedBatch)
+                {
+                    try
+                    {
+                        npmPackageFeedParser.parseFeed(repository, packageFeed);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UndeclaredThrowableException(e);
+                    }
+                }
+
+                return null;
+            });
+
+            return;
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to persist a batch of [%s] NPM feeds for [%s], persisting them one by one.",
+                                      packageFeedBatch.size(),
+                                      ((RepositoryData)repository).getRemoteRepository().getUrl()),
+                        e);
+        }
+
+        for (PackageFeed packageFeed : packageFeedBatch)
+        {
+            try
+            {
+                npmPackageFeedParser.parseFeed(repository, packageFeed);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to parse NPM feed [%s/%s]",
+                                           ((RepositoryData)repository).getRemoteRepository().getUrl(),
+                                           packageFeed.getName()),
+                             e);
+            }
+        }
+    }
+
     private void fetchRemotePackageFeed(String storageId,
                                         String repositoryId,
                                         String packageId)
@@ -0,0 +1,265 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.jackson.NpmJacksonMapperFactory;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.util.ThrowingConsumer;
+import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfiguration;
+
+import javax.ws.rs.client.Invocation;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The changes are read from the response with the mocked {@link NpmPackageFeedParser}, so that what is persisted,
+ * and when, can be followed.
+ */
+public class NpmRepositoryFeaturesChangesFeedTest
+{
+
+    private static final int TRANSACTION_BATCH_SIZE = 3;
+
+    @TempDir
+    Path vault;
+
+    private NpmRepositoryFeatures npmRepositoryFeatures = new NpmRepositoryFeatures();
+
+    private NpmPackageFeedParser npmPackageFeedParser = mock(NpmPackageFeedParser.class);
+
+    private PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private RepositoryData repository = mock(RepositoryData.class);
+
+    /**
+     * The packages in the order they were passed to the parser.
+     */
+    private List<String> parsed = Collections.synchronizedList(new ArrayList<>());
+
+    private List<Long> checkpoints = new ArrayList<>();
+
+    private ThrowingConsumer<Long, IOException> checkpoint = changeId ->
+    {
+        checkpoints.add(changeId);
+        npmRepositoryFeatures.writeCheckpoint(repository, changeId);
+    };
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        PropertiesBooter propertiesBooter = mock(PropertiesBooter.class);
+        when(propertiesBooter.getVaultDirectory()).thenReturn(vault.toString());
+
+        ReflectionTestUtils.setField(npmRepositoryFeatures, "npmJacksonMapper",
+                                     NpmJacksonMapperFactory.createObjectMapper());
+        ReflectionTestUtils.setField(npmRepositoryFeatures, "npmPackageFeedParser", npmPackageFeedParser);
+        ReflectionTestUtils.setField(npmRepositoryFeatures, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(npmRepositoryFeatures, "propertiesBooter", propertiesBooter);
+        ReflectionTestUtils.setField(npmRepositoryFeatures, "changesTransactionBatchSize", TRANSACTION_BATCH_SIZE);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn("storage-npm");
+
+        NpmRemoteRepositoryConfiguration configuration = mock(NpmRemoteRepositoryConfiguration.class);
+        when(configuration.getReplicateUrl()).thenReturn("https://replicate.npmjs.com");
+
+        RemoteRepository remoteRepository = mock(RemoteRepository.class);
+        when(remoteRepository.getUrl()).thenReturn("https://registry.npmjs.org");
+        when(remoteRepository.getCustomConfiguration()).thenReturn(configuration);
+
+        when(repository.getId()).thenReturn("npm-proxy");
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        doAnswer(invocation ->
+        {
+            parsed.add(invocation.<PackageFeed>getArgument(1).getName());
+
+            return null;
+        }).when(npmPackageFeedParser).parseFeed(any(), any());
+    }
+
+    @Test
+    public void changesShouldBePersistedInBatches()
+            throws Exception
+    {
+        // The 5th change is a deleted package, without a document.
+        String feed = changesFeed(1, 8, 5);
+
+        Long lastChangeId = npmRepositoryFeatures.fetchRemoteChangesFeed(repository, invocation(feed), 0L, checkpoint);
+
+        assertEquals(Long.valueOf(8), lastChangeId);
+        assertEquals(Arrays.asList("p1", "p2", "p3", "p4", "p6", "p7", "p8"), parsed);
+        // A checkpoint, and a transaction, per batch of package feeds; the last one is incomplete.
+        assertEquals(Arrays.asList(3L, 7L, 8L), checkpoints);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(Long.valueOf(8), npmRepositoryFeatures.readCheckpoint(repository));
+    }
+
+    @Test
+    public void changesShouldBePersistedWhileTheyAreBeingRead()
+            throws Exception
+    {
+        String feed = changesFeed(1, 8);
+        // The response is cut off within the 5th change.
+        int cutOff = feed.indexOf("{\"seq\":5,") + 5;
+        InputStream response = new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8), 0, cutOff);
+
+        Long lastChangeId = npmRepositoryFeatures.fetchRemoteChangesFeed(repository, invocation(response), 0L,
+                                                                         checkpoint);
+
+        // Everything read up to the broken change is persisted, and nothing more.
+        assertEquals(Long.valueOf(4), lastChangeId);
+        assertEquals(Arrays.asList("p1", "p2", "p3", "p4"), parsed);
+        assertEquals(Arrays.asList(3L, 4L), checkpoints);
+    }
+
+    @Test
+    public void fetchShouldResumeAfterTheLastPersistedBatch()
+            throws Exception
+    {
+        String feed = changesFeed(1, 8);
+        // The connection is lost after the 7th change, when two batches were persisted.
+        byte[] content = feed.getBytes(StandardCharsets.UTF_8);
+        int lostAt = feed.indexOf("{\"seq\":8,");
+        InputStream response = new FilterInputStream(new ByteArrayInputStream(content, 0, lostAt))
+        {
+            @Override
+            public int read(byte[] b,
+                            int off,
+                            int len)
+                    throws IOException
+            {
+                int n = super.read(b, off, len);
+                if (n == -1)
+                {
+                    throw new IOException("Connection reset");
+                }
+
+                return n;
+            }
+        };
+
+        assertThrows(IOException.class,
+                     () -> npmRepositoryFeatures.fetchRemoteChangesFeed(repository, invocation(response), 0L,
+                                                                        checkpoint));
+
+        assertEquals(Arrays.asList(3L, 6L), checkpoints);
+        Long resumeFrom = npmRepositoryFeatures.readCheckpoint(repository);
+        assertEquals(Long.valueOf(6), resumeFrom);
+
+        // The next run starts right after the checkpoint.
+        Long lastChangeId = npmRepositoryFeatures.fetchRemoteChangesFeed(repository,
+                                                                         invocation(changesFeed(7, 10)),
+                                                                         resumeFrom,
+                                                                         checkpoint);
+
+        assertEquals(Long.valueOf(10), lastChangeId);
+        // Every package was persisted once, although the first run read the 7th change too.
+        assertEquals(IntStream.rangeClosed(1, 10).mapToObj(i -> "p" + i).collect(Collectors.toList()), parsed);
+        assertEquals(Arrays.asList(3L, 6L, 9L, 10L), checkpoints);
+    }
+
+    @Test
+    public void failedBatchShouldBePersistedOneByOne()
+            throws Exception
+    {
+        doAnswer(invocation ->
+        {
+            String name = invocation.<PackageFeed>getArgument(1).getName();
+            parsed.add(name);
+            if ("p2".equals(name))
+            {
+                throw new IOException("Broken package.");
+            }
+
+            return null;
+        }).when(npmPackageFeedParser).parseFeed(any(), any());
+
+        Long lastChangeId = npmRepositoryFeatures.fetchRemoteChangesFeed(repository, invocation(changesFeed(1, 4)),
+                                                                         0L, checkpoint);
+
+        assertEquals(Long.valueOf(4), lastChangeId);
+        // The batch transaction fails on the 2nd package and is rolled back, then the packages of the batch are
+        // persisted one by one and only the broken one is lost.
+        assertEquals(Arrays.asList("p1", "p2", "p1", "p2", "p3", "p4"), parsed);
+        verify(transactionManager).rollback(any());
+        verify(npmPackageFeedParser, times(2)).parseFeed(eq(repository),
+                                                           argThat(f -> "p1".equals(f.getName())));
+        verify(npmPackageFeedParser, times(1)).parseFeed(eq(repository),
+                                                           argThat(f -> "p3".equals(f.getName())));
+        // The checkpoint moves on anyway.
+        assertEquals(Arrays.asList(3L, 4L), checkpoints);
+    }
+
+    private static Invocation invocation(String feed)
+    {
+        return invocation(new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Invocation invocation(InputStream response)
+    {
+        Invocation invocation = mock(Invocation.class);
+        when(invocation.invoke(InputStream.class)).thenReturn(response);
+
+        return invocation;
+    }
+
+    /**
+     * @return the changes feed with the changes from {@code first} to {@code last}, each one of its own package
+     */
+    private static String changesFeed(int first,
+                                      int last,
+                                      int... deleted)
+    {
+        StringBuilder feed = new StringBuilder("{\"results\":[");
+        for (int seq = first; seq <= last; seq++)
+        {
+            if (seq > first)
+            {
+                feed.append(',');
+            }
+            feed.append(String.format("{\"seq\":%s,\"id\":\"p%s\",\"changes\":[{\"rev\":\"1-%s\"}]", seq, seq, seq));
+
+            int s = seq;
+            if (IntStream.of(deleted).noneMatch(d -> d == s))
+            {
+                feed.append(String.format(",\"doc\":{\"_id\":\"p%s\",\"name\":\"p%s\"}", seq, seq));
+            }
+            feed.append('}');
+        }
+
+        return feed.append(String.format("],\"last_seq\":%s}", last)).toString();
+    }
+
+}
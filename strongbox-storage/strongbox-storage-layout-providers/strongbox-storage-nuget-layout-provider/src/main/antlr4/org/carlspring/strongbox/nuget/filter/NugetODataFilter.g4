@@ -15,9 +15,16 @@ filterExp
 tokenExp
 :
     vTokenExpLeft = tokenExpLeft vFilterOp = filterOp vTokenExpRight = tokenExpRight
+    | vTokenExpSearch = tokenExpSearch
     | TAG
 ;
 
+tokenExpSearch
+:
+    SUBSTRING_OF '(' vSearchValue = tokenExpRight ',' vSearchAttribute = tokenExpLeft ')'
+    | STARTS_WITH '(' vSearchAttribute = tokenExpLeft ',' vSearchValue = tokenExpRight ')'
+;
+
 tokenExpRight
 :
     '\'' VALUE '\''
@@ -56,6 +63,16 @@ TO_LOWER
     'tolower'
 ;
 
+SUBSTRING_OF
+:
+    'substringof'
+;
+
+STARTS_WITH
+:
+    'startswith'
+;
+
 TAG
 :
     'IsLatestVersion'
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.nuget.filter;
 import org.apache.commons.lang3.StringUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.criteria.ArtifactEntryCriteria;
+import org.carlspring.strongbox.data.criteria.Expression;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.Predicate.BooleanOperator;
@@ -12,6 +13,9 @@ import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.FilterExpCon
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpContext;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpFunctionContext;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpLeftContext;
+import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpSearchContext;
+
+import java.util.Locale;
 
 /**
  * This class purpose is to construct {@link Predicate} instance which can be
@@ -84,6 +88,10 @@ public class NugetODataQueryVisitor extends NugetODataFilterBaseVisitor<Predicat
 
             return Predicate.of(ExpOperator.CONTAINS.of("tagSet.name", ArtifactTag.LAST_VERSION));
         }
+        else if (ctx.vTokenExpSearch != null)
+        {
+            return visitTokenExpSearch(ctx.vTokenExpSearch);
+        }
 
         Predicate p = visitTokenExpLeft(ctx.vTokenExpLeft);
 
@@ -94,6 +102,28 @@ public class NugetODataQueryVisitor extends NugetODataFilterBaseVisitor<Predicat
         return p;
     }
 
+    /**
+     * The `substringof` and `startswith` functions are matched with `LIKE` here, which could be replaced with the
+     * package ids from the search index later.
+     */
+    @Override
+    public Predicate visitTokenExpSearch(TokenExpSearchContext ctx)
+    {
+        Predicate p = visitTokenExpLeft(ctx.vSearchAttribute);
+
+        Expression e = p.getExpression();
+        String attributeValue = StringUtils.unwrap(ctx.vSearchValue.getText(), "'");
+        if (e.getProperty().endsWith(".toLowerCase()"))
+        {
+            attributeValue = attributeValue.toLowerCase(Locale.ENGLISH);
+        }
+
+        e.setOperator(ExpOperator.LIKE);
+        e.setValue(ctx.SUBSTRING_OF() != null ? "%" + attributeValue + "%" : attributeValue + "%");
+
+        return p;
+    }
+
     @Override
     public Predicate visitTokenExpLeft(TokenExpLeftContext ctx)
     {
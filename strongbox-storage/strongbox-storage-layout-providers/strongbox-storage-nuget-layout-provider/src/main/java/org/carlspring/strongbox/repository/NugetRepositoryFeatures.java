@@ -1,7 +1,6 @@
 package org.carlspring.strongbox.repository;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
 import org.carlspring.strongbox.client.ArtifactTransportException;
 import org.carlspring.strongbox.configuration.Configuration;
@@ -14,12 +13,7 @@ import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
-import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathLock;
-import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ArtifactEntryService;
@@ -44,7 +38,6 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.locks.Lock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,12 +69,6 @@ public class NugetRepositoryFeatures
     @Inject
     private ArtifactTagService artifactTagService;
 
-    @Inject
-    private RepositoryPathLock repositoryPathLock;
-
-    @Inject
-    private RepositoryPathResolver repositoryPathResolver;
-
     @Inject
     private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
 
@@ -99,6 +86,9 @@ public class NugetRepositoryFeatures
 
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private NugetSearchIndex nugetSearchIndex;
     
     private Set<String> defaultMavenArtifactCoordinateValidators;
 
@@ -231,28 +221,16 @@ public class NugetRepositoryFeatures
             }
 
             artifactToSaveSet.add(remoteArtifactEntry);
-        }
-
-        for (ArtifactEntry e : artifactToSaveSet)
-        {
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, (NugetArtifactCoordinates) e.getArtifactCoordinates());
 
-            Storage storage = repository.getStorage();
-            ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
-            
-            Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
-            lock.lock();
-            
-            try
-            {
-                RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-                repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
-            }
-            finally
-            {
-                lock.unlock();
-            }
+            nugetSearchIndex.index(repository,
+                                   packageId,
+                                   packageVersion,
+                                   packageEntry.getProperties().getTitle(),
+                                   packageEntry.getProperties().getTags(),
+                                   packageEntry.getProperties().getDescription());
         }
+
+        repositoryArtifactIdGroupService.addArtifactsToGroups(artifactToSaveSet);
     }
 
     protected Configuration getConfiguration()
@@ -0,0 +1,908 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Expression;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.NugetLayoutProvider;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Trigram index of the NuGet package ids, titles, tags and descriptions, which is used to resolve the search terms
+ * and the `substringof` and `startswith` filters into the list of matching package ids, instead of the
+ * `LIKE '%term%'` conditions, which can't use any database index.
+ * <p>
+ * The index of a repository is built in the background, out of it's artifact entries and the stored nuspec files,
+ * when it's searched for the first time. Once built, it's kept up to date on every package store and delete. The
+ * builds parse every nuspec of the repository, so they are run on their own bounded executor
+ * (`strongbox.nuget.search-index.build-threads` and `strongbox.nuget.search-index.build-queue-capacity`), rather than
+ * the one of the event handlers.
+ * <p>
+ * The searches don't wait for the index: until it's built, a search term matches the package id with the
+ * `LIKE '%term%'` condition, as it did before the index, since the title, tags and description are not stored with
+ * the artifact entries. The filters only match the lower case package id, so until the index is built, and for the
+ * filters matching too many packages, their `LIKE` conditions are kept.
+ * <p>
+ * The index is kept in memory, on every node, and is only updated from the events of the node itself. In a cluster,
+ * the packages stored and deleted through the other nodes are not seen until the index is built again, which can be
+ * done periodically with `strongbox.nuget.search-index.max-age-seconds`: the index which is older than that is built
+ * again in the background, and replaced once the new one is ready.
+ */
+@Component
+public class NugetSearchIndex
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NugetSearchIndex.class);
+
+    static final int GRAM_SIZE = 3;
+
+    /**
+     * The number of package ids above which the matches are not worth an `IN` condition anymore.
+     */
+    static final int MAX_PACKAGE_IDS = 1024;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    static final String PACKAGE_ID_PROPERTY = "artifactCoordinates.coordinates.id";
+
+    static final String PACKAGE_ID_LOWER_CASE_PROPERTY = PACKAGE_ID_PROPERTY + ".toLowerCase()";
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.nuget.search-index.build-threads:1}")
+    private int buildThreads;
+
+    @Value("${strongbox.nuget.search-index.build-queue-capacity:100}")
+    private int buildQueueCapacity;
+
+    @Value("${strongbox.nuget.search-index.max-age-seconds:0}")
+    private long maxAgeSeconds;
+
+    /**
+     * Leaf repository (storageId:repositoryId) -> index.
+     */
+    private final ConcurrentMap<String, RepositorySearchIndex> repositoryIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Leaf repository (storageId:repositoryId) -> the index being built to replace the one which is too old.
+     */
+    private final ConcurrentMap<String, RepositorySearchIndex> successorIndexes = new ConcurrentHashMap<>();
+
+    private Executor buildExecutor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        buildExecutor = new ThreadPoolExecutor(buildThreads,
+                                               buildThreads,
+                                               0L,
+                                               TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(buildQueueCapacity),
+                                               new CustomizableThreadFactory("nuget-search-index-"));
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (buildExecutor instanceof ExecutorService)
+        {
+            ((ExecutorService) buildExecutor).shutdownNow();
+        }
+    }
+
+    /**
+     * @return the predicate matching the packages, which have the search term in their id, title, tags or
+     *         description, or only in their id, until the index of the repository is built
+     */
+    public Predicate searchTermPredicate(Repository repository,
+                                         String searchTerm)
+    {
+        String term = searchTerm.toLowerCase(Locale.ENGLISH);
+
+        Set<String> packageIds = search(repository, term, (d, t) -> d.matches(t), Integer.MAX_VALUE);
+        if (packageIds == null)
+        {
+            return Predicate.of(ExpOperator.LIKE.of(PACKAGE_ID_PROPERTY, "%" + searchTerm + "%"));
+        }
+
+        return Predicate.of(ExpOperator.IN.of(PACKAGE_ID_PROPERTY, new ArrayList<>(packageIds)));
+    }
+
+    /**
+     * Replaces the `LIKE` conditions of the `substringof(..., tolower(Id))` and `startswith(tolower(Id), ...)`
+     * filters with the ids of the matching packages, where possible.
+     */
+    public Predicate routeFilterPredicate(Repository repository,
+                                          Predicate predicate)
+    {
+        Expression e = predicate.getExpression();
+        if (e != null && ExpOperator.LIKE.equals(e.getOperator()) &&
+            PACKAGE_ID_LOWER_CASE_PROPERTY.equals(e.getProperty()) && e.getValue() instanceof String)
+        {
+            routeFilterExpression(repository, e);
+        }
+
+        for (Predicate childPredicate : predicate.getChildPredicateList())
+        {
+            routeFilterPredicate(repository, childPredicate);
+        }
+
+        return predicate;
+    }
+
+    private void routeFilterExpression(Repository repository,
+                                       Expression e)
+    {
+        String pattern = (String) e.getValue();
+        boolean substring = pattern.startsWith("%");
+        String term = pattern.substring(substring ? 1 : 0, pattern.length() - 1);
+
+        BiPredicate<PackageDocument, String> matcher = substring ?
+                                                       (d, t) -> d.getId().contains(t) :
+                                                       (d, t) -> d.getId().startsWith(t);
+        Set<String> packageIds = search(repository, term, matcher, MAX_PACKAGE_IDS);
+        if (packageIds == null)
+        {
+            return;
+        }
+
+        e.setProperty(PACKAGE_ID_PROPERTY);
+        e.setOperator(ExpOperator.IN);
+        e.setValue(new ArrayList<>(packageIds));
+    }
+
+    /**
+     * @param limit the number of the matching package ids above which the index is not used
+     * @return the matching package ids, or `null` if they can't be resolved with the index
+     */
+    private Set<String> search(Repository repository,
+                               String term,
+                               BiPredicate<PackageDocument, String> matcher,
+                               int limit)
+    {
+        Collection<Repository> leafRepositories = repository.isGroupRepository() ?
+                                                  groupRepositorySetCollector.collect(repository, true) :
+                                                  Collections.singleton(repository);
+
+        // The indexes of all the leaf repositories are looked up, so that the missing ones are all being built.
+        Set<String> result = new HashSet<>();
+        boolean resolved = true;
+        for (Repository leafRepository : leafRepositories)
+        {
+            RepositorySearchIndex index = getIndex(leafRepository);
+            resolved = resolved && index.isReady() && index.search(term, matcher, result, limit);
+        }
+        if (!resolved)
+        {
+            return null;
+        }
+
+        // The `IN` condition can't be empty.
+        if (result.isEmpty())
+        {
+            result.add("");
+        }
+
+        return result;
+    }
+
+    private RepositorySearchIndex getIndex(Repository repository)
+    {
+        String key = repository.getStorageIdAndRepositoryId();
+
+        RepositorySearchIndex index = repositoryIndexes.get(key);
+        if (index != null)
+        {
+            rebuildIfTooOld(repository, index);
+
+            return index;
+        }
+
+        RepositorySearchIndex newIndex = new RepositorySearchIndex();
+        index = repositoryIndexes.putIfAbsent(key, newIndex);
+        if (index != null)
+        {
+            return index;
+        }
+
+        // The next search tries again, if the index can't be built.
+        if (!execute(repository, () -> {
+            if (!build(repository, newIndex))
+            {
+                repositoryIndexes.remove(key, newIndex);
+            }
+        }))
+        {
+            repositoryIndexes.remove(key, newIndex);
+        }
+
+        return newIndex;
+    }
+
+    private void rebuildIfTooOld(Repository repository,
+                                 RepositorySearchIndex index)
+    {
+        if (maxAgeSeconds <= 0 || !index.isReady() || index.getAge() < TimeUnit.SECONDS.toMillis(maxAgeSeconds))
+        {
+            return;
+        }
+
+        String key = repository.getStorageIdAndRepositoryId();
+        RepositorySearchIndex successor = new RepositorySearchIndex();
+        if (successorIndexes.putIfAbsent(key, successor) != null)
+        {
+            return;
+        }
+
+        // The old index is searched, and both of them are updated, until the new one is ready.
+        if (!execute(repository, () -> {
+            if (build(repository, successor) && successorIndexes.get(key) == successor)
+            {
+                repositoryIndexes.replace(key, index, successor);
+            }
+
+            successorIndexes.remove(key, successor);
+        }))
+        {
+            successorIndexes.remove(key, successor);
+        }
+    }
+
+    /**
+     * @return `false` if there are too many builds waiting already
+     */
+    private boolean execute(Repository repository,
+                            Runnable build)
+    {
+        try
+        {
+            buildExecutor.execute(build);
+
+            return true;
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.warn("Too many search indexes are being built, the one of [{}] will be built later.",
+                        repository.getStorageIdAndRepositoryId());
+
+            return false;
+        }
+    }
+
+    /**
+     * @return the indexes of the repository, which are to be updated
+     */
+    private List<RepositorySearchIndex> getIndexes(Repository repository)
+    {
+        String key = repository.getStorageIdAndRepositoryId();
+
+        List<RepositorySearchIndex> result = new ArrayList<>(2);
+        for (RepositorySearchIndex index : new RepositorySearchIndex[]{ repositoryIndexes.get(key),
+                                                                        successorIndexes.get(key) })
+        {
+            if (index != null)
+            {
+                result.add(index);
+            }
+        }
+
+        return result;
+    }
+
+    private void discard(Repository repository,
+                         RepositorySearchIndex index)
+    {
+        String key = repository.getStorageIdAndRepositoryId();
+
+        repositoryIndexes.remove(key, index);
+        successorIndexes.remove(key, index);
+    }
+
+    /**
+     * @return `true` if the index has been built
+     */
+    private boolean build(Repository repository,
+                          RepositorySearchIndex index)
+    {
+        logger.debug("Building the search index of [{}].", repository.getStorageIdAndRepositoryId());
+
+        long start = System.currentTimeMillis();
+        try
+        {
+            for (int skip = 0; true; skip += REBUILD_PAGE_SIZE)
+            {
+                List<NugetArtifactCoordinates> page = findPackages(repository, skip);
+                for (NugetArtifactCoordinates c : page)
+                {
+                    index.addIfNotRemoved(c.getId(), c.getVersion(), readNuspecText(repository, c));
+                }
+
+                if (page.size() < REBUILD_PAGE_SIZE)
+                {
+                    break;
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to build the search index of [%s].",
+                                       repository.getStorageIdAndRepositoryId()),
+                         e);
+
+            return false;
+        }
+
+        index.ready();
+
+        logger.info("Built the search index of [{}] with [{}] packages in [{}] ms.",
+                    repository.getStorageIdAndRepositoryId(),
+                    index.size(),
+                    System.currentTimeMillis() - start);
+
+        return true;
+    }
+
+    private List<NugetArtifactCoordinates> findPackages(Repository repository,
+                                                        int skip)
+    {
+        Map<String, String> coordinates = Collections.singletonMap(NugetArtifactCoordinates.EXTENSION, "nupkg");
+
+        return new TransactionTemplate(transactionManager).execute(t -> {
+            List<NugetArtifactCoordinates> result = new ArrayList<>();
+            for (ArtifactEntry entry : artifactEntryService.findArtifactList(repository.getStorage().getId(),
+                                                                             repository.getId(),
+                                                                             coordinates,
+                                                                             Collections.emptySet(),
+                                                                             skip,
+                                                                             REBUILD_PAGE_SIZE,
+                                                                             null,
+                                                                             true))
+            {
+                NugetArtifactCoordinates c = (NugetArtifactCoordinates) entry.getArtifactCoordinates();
+                result.add(new NugetArtifactCoordinates(c.getId(), c.getVersion(), c.getType()));
+            }
+
+            return result;
+        });
+    }
+
+    String readNuspecText(Repository repository,
+                          NugetArtifactCoordinates c)
+    {
+        RepositoryPath nuspecPath = repositoryPathResolver.resolve(repository,
+                                                                   String.format("%s/%s/%s.nuspec",
+                                                                                 c.getId(),
+                                                                                 c.getVersion(),
+                                                                                 c.getId()));
+        if (!Files.exists(nuspecPath))
+        {
+            return null;
+        }
+
+        try (InputStream is = Files.newInputStream(nuspecPath))
+        {
+            Nuspec nuspec = Nuspec.parse(is);
+
+            return text(nuspec.getTitle(), nuspec.getTags(), nuspec.getDescription());
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to read [%s].", nuspecPath), e);
+
+            return null;
+        }
+    }
+
+    /**
+     * Adds a package version to the index of the repository, if it's already there.
+     */
+    public void index(Repository repository,
+                      String packageId,
+                      String packageVersion,
+                      String title,
+                      List<String> tags,
+                      String description)
+    {
+        String text = text(title, tags, description);
+        for (RepositorySearchIndex index : getIndexes(repository))
+        {
+            index.add(packageId, packageVersion, text);
+        }
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryPath path = event.getPath();
+        Repository repository = path.getFileSystem().getRepository();
+        if (!NugetLayoutProvider.ALIAS.equals(repository.getLayout()))
+        {
+            return;
+        }
+
+        for (RepositorySearchIndex index : getIndexes(repository))
+        {
+            try
+            {
+                if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+                {
+                    handleStored(index, path);
+                }
+                else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+                {
+                    handleDeleted(repository, index, path);
+                }
+            }
+            catch (Exception e)
+            {
+                logger.warn(String.format("Failed to update the search index of [%s], it will be built again.",
+                                          repository.getStorageIdAndRepositoryId()),
+                            e);
+
+                discard(repository, index);
+            }
+        }
+    }
+
+    private void handleStored(RepositorySearchIndex index,
+                              RepositoryPath path)
+            throws Exception
+    {
+        // The nuspec is stored right after the package, so this is where the whole package is known.
+        String fileName = path.getFileName().toString();
+        if (!fileName.endsWith(".nuspec"))
+        {
+            return;
+        }
+
+        try (InputStream is = Files.newInputStream(path))
+        {
+            Nuspec nuspec = Nuspec.parse(is);
+            index.add(nuspec.getId(),
+                      nuspec.getVersion().toString(),
+                      text(nuspec.getTitle(), nuspec.getTags(), nuspec.getDescription()));
+        }
+    }
+
+    private void handleDeleted(Repository repository,
+                               RepositorySearchIndex index,
+                               RepositoryPath path)
+            throws Exception
+    {
+        String[] segments = RepositoryFiles.relativizePath(path).split("/");
+        if (segments.length == 0 || segments[0].isEmpty())
+        {
+            discard(repository, index);
+        }
+        else if (segments.length == 1)
+        {
+            index.remove(segments[0], null);
+        }
+        else if (segments.length == 2 || segments[segments.length - 1].endsWith(".nupkg"))
+        {
+            index.remove(segments[0], segments[1]);
+        }
+    }
+
+    static String text(String title,
+                       List<String> tags,
+                       String description)
+    {
+        StringBuilder sb = new StringBuilder();
+        if (title != null)
+        {
+            sb.append(title).append('\n');
+        }
+        if (tags != null)
+        {
+            sb.append(String.join(" ", tags)).append('\n');
+        }
+        if (description != null)
+        {
+            sb.append(description);
+        }
+
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /**
+     * The index of a single (leaf) repository: lower case package id -> package, and trigram -> lower case package
+     * ids. Shorter terms than the trigrams are matched against all the packages.
+     */
+    public static class RepositorySearchIndex
+    {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final long created = System.currentTimeMillis();
+
+        private final Map<String, PackageDocument> packages = new HashMap<>();
+
+        private final Map<String, Set<String>> postings = new HashMap<>();
+
+        /**
+         * The package versions removed while the index is being built, which shouldn't be added by the build.
+         */
+        private final Set<String> removedWhileBuilding = new HashSet<>();
+
+        private volatile boolean ready;
+
+        boolean isReady()
+        {
+            return ready;
+        }
+
+        long getAge()
+        {
+            return System.currentTimeMillis() - created;
+        }
+
+        public void ready()
+        {
+            lock.writeLock().lock();
+            try
+            {
+                ready = true;
+                removedWhileBuilding.clear();
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+
+        public int size()
+        {
+            lock.readLock().lock();
+            try
+            {
+                return packages.size();
+            }
+            finally
+            {
+                lock.readLock().unlock();
+            }
+        }
+
+        void addIfNotRemoved(String packageId,
+                             String packageVersion,
+                             String text)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                String id = packageId.toLowerCase(Locale.ENGLISH);
+                if (removedWhileBuilding.contains(id + "/" + packageVersion) || removedWhileBuilding.contains(id))
+                {
+                    return;
+                }
+
+                doAdd(packageId, packageVersion, text);
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+
+        public void add(String packageId,
+                        String packageVersion,
+                        String text)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                doAdd(packageId, packageVersion, text);
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void doAdd(String packageId,
+                           String packageVersion,
+                           String text)
+        {
+            String id = packageId.toLowerCase(Locale.ENGLISH);
+
+            PackageDocument document = packages.get(id);
+            if (document == null)
+            {
+                document = new PackageDocument(id);
+                packages.put(id, document);
+                addPostings(id, id);
+            }
+
+            document.getPackageIds().add(packageId);
+            document.getVersions().add(packageVersion.toLowerCase(Locale.ENGLISH));
+
+            // The text of the last stored version is the one to be searched, like the NuGet galleries do.
+            if (text != null)
+            {
+                String lowerCaseText = text.toLowerCase(Locale.ENGLISH);
+                String previousText = document.getText();
+                if (!lowerCaseText.equals(previousText))
+                {
+                    document.setText(lowerCaseText);
+                    removePostings(id, previousText);
+                    addPostings(id, lowerCaseText);
+                }
+            }
+        }
+
+        /**
+         * @param packageVersion the version to remove, or `null` for the whole package
+         */
+        void remove(String packageId,
+                    String packageVersion)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                String id = packageId.toLowerCase(Locale.ENGLISH);
+                if (!ready)
+                {
+                    removedWhileBuilding.add(packageVersion == null ? id : id + "/" + packageVersion);
+                }
+
+                PackageDocument document = packages.get(id);
+                if (document == null)
+                {
+                    return;
+                }
+
+                if (packageVersion != null)
+                {
+                    document.getVersions().remove(packageVersion.toLowerCase(Locale.ENGLISH));
+                    if (!document.getVersions().isEmpty())
+                    {
+                        return;
+                    }
+                }
+
+                packages.remove(id);
+                removePostings(id, id);
+                removePostings(id, document.getText());
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Adds the ids of the matching packages to the result.
+         *
+         * @return `false` if the number of the matching packages is above the limit
+         */
+        public boolean search(String term,
+                              BiPredicate<PackageDocument, String> matcher,
+                              Set<String> result,
+                              int limit)
+        {
+            lock.readLock().lock();
+            try
+            {
+                for (PackageDocument document : candidates(term))
+                {
+                    if (!matcher.test(document, term))
+                    {
+                        continue;
+                    }
+
+                    result.addAll(document.getPackageIds());
+                    if (result.size() > limit)
+                    {
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+            finally
+            {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Collection<PackageDocument> candidates(String term)
+        {
+            if (term.length() < GRAM_SIZE)
+            {
+                return packages.values();
+            }
+
+            Set<String> ids = null;
+            for (String gram : grams(term))
+            {
+                Set<String> gramIds = postings.get(gram);
+                if (gramIds == null)
+                {
+                    return Collections.emptySet();
+                }
+
+                if (ids == null)
+                {
+                    ids = new HashSet<>(gramIds);
+                    continue;
+                }
+
+                ids.retainAll(gramIds);
+                if (ids.isEmpty())
+                {
+                    return Collections.emptySet();
+                }
+            }
+
+            Set<PackageDocument> result = new HashSet<>();
+            for (String id : ids)
+            {
+                result.add(packages.get(id));
+            }
+
+            return result;
+        }
+
+        private void addPostings(String id,
+                                 String text)
+        {
+            for (String gram : grams(text))
+            {
+                postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        }
+
+        private void removePostings(String id,
+                                    String text)
+        {
+            if (text == null)
+            {
+                return;
+            }
+
+            // The document is still there if only it's text has been changed, and the grams can overlap.
+            PackageDocument document = packages.get(id);
+            for (String gram : grams(text))
+            {
+                if (document != null && document.contains(gram))
+                {
+                    continue;
+                }
+
+                Set<String> gramIds = postings.get(gram);
+                if (gramIds == null)
+                {
+                    continue;
+                }
+
+                gramIds.remove(id);
+                if (gramIds.isEmpty())
+                {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        static Set<String> grams(String text)
+        {
+            Set<String> result = new HashSet<>();
+            for (int i = 0; i + GRAM_SIZE <= text.length(); i++)
+            {
+                result.add(text.substring(i, i + GRAM_SIZE));
+            }
+
+            return result;
+        }
+
+    }
+
+    public static class PackageDocument
+    {
+
+        private final String id;
+
+        private final Set<String> packageIds = new HashSet<>();
+
+        private final Set<String> versions = new HashSet<>();
+
+        private String text;
+
+        PackageDocument(String id)
+        {
+            this.id = id;
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        Set<String> getPackageIds()
+        {
+            return packageIds;
+        }
+
+        Set<String> getVersions()
+        {
+            return versions;
+        }
+
+        String getText()
+        {
+            return text;
+        }
+
+        void setText(String text)
+        {
+            this.text = text;
+        }
+
+        public boolean matches(String term)
+        {
+            return id.contains(term) || text != null && text.contains(term);
+        }
+
+        boolean contains(String gram)
+        {
+            return id.contains(gram) || text != null && text.contains(gram);
+        }
+
+    }
+
+}
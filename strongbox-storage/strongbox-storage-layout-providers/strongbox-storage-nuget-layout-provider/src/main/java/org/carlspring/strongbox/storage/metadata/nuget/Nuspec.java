@@ -102,6 +102,24 @@ public class Nuspec implements Serializable
     @XmlElementWrapper(name = "files", namespace = NUSPEC_XML_NAMESPACE_2011)
     private List<NugetFile> files;
 
+    /**
+     * The context is thread safe, but expensive to create, so it's shared by all the parsed nuspecs.
+     */
+    private static volatile JAXBContext jaxbContext;
+
+    private static JAXBContext getJaxbContext()
+        throws JAXBException
+    {
+        JAXBContext result = jaxbContext;
+        if (result == null)
+        {
+            result = JAXBContext.newInstance(Nuspec.class);
+            jaxbContext = result;
+        }
+
+        return result;
+    }
+
     /**
      * Recovers package information from XML
      *
@@ -116,7 +134,7 @@ public class Nuspec implements Serializable
     {
         try
         {
-            JAXBContext context = JAXBContext.newInstance(Nuspec.class);
+            JAXBContext context = getJaxbContext();
             Unmarshaller unmarshaller = context.createUnmarshaller();
             unmarshaller.setEventHandler(new NuspecXmlValidationEventHandler());
             XMLReader reader = XMLReaderFactory.createXMLReader();
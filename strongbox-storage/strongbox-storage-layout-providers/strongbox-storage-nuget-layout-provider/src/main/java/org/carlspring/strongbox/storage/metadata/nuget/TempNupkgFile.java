@@ -17,31 +17,39 @@
 
 package org.carlspring.strongbox.storage.metadata.nuget;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.FileChannel;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
 
 /**
- * Nuget nupkg file representation
+ * Nuget nupkg file representation.
+ * <p>
+ * The package is read only once: it's copied into the package file, while its hash is calculated and its
+ * specification is extracted out of the stream on the fly.
  *
  * @author sviridov
  */
@@ -82,23 +90,96 @@ public class TempNupkgFile implements AutoCloseable, Nupkg
         throws IOException,
                NugetFormatException
     {
+        this(inputStream, File.createTempFile("nupkg", "jnuget").toPath());
+    }
+
+    /**
+     * Creates a NuGet package from a stream, copying it into the given file, which is removed on {@link #close()}.
+     *
+     * @param inputStream
+     *            stream with package
+     * @param packageFile
+     *            file to copy the package to
+     * @throws IOException
+     *             data reading, or writing, error
+     * @throws NugetFormatException
+     *             the stream does not contain the NuGet package or the format
+     *             of the package does not conform to the standard
+     */
+    public TempNupkgFile(InputStream inputStream,
+                         Path packageFile)
+        throws IOException,
+               NugetFormatException
+    {
+        this.file = packageFile.toFile();
+
+        MessageDigest messageDigest;
         try
         {
-            this.file = File.createTempFile("nupkg", "jnuget");
+            messageDigest = MessageDigest.getInstance(MessageDigestAlgorithms.SHA_512);
+        }
+        catch (NoSuchAlgorithmException ex)
+        {
+            throw new NugetFormatException("Unable to calculate hash of package", ex);
+        }
 
-            this.hash = copyDataAndCalculateHash(inputStream, this.file);
+        try
+        {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(packageFile));
+                 InputStream packageStream = new TeeInputStream(new DigestInputStream(inputStream, messageDigest),
+                                                                outputStream))
+            {
+                this.nuspec = copyDataAndLoadNuspec(packageStream);
+            }
+            this.hash = DatatypeConverter.printBase64Binary(messageDigest.digest());
 
-            try (final FileInputStream fileInputStream = new FileInputStream(file))
+            if (this.nuspec == null)
             {
-                this.nuspec = loadNuspec(fileInputStream);
+                // The Zip stream could have missed the specification (e.g. if it's a stored entry with a data
+                // descriptor), but the central directory of the package file can't.
+                this.nuspec = loadNuspec(file);
             }
         }
-        catch (NoSuchAlgorithmException ex)
+        catch (IOException | NugetFormatException | RuntimeException ex)
         {
-            throw new NugetFormatException("Unable to calculate hash of package", ex);
+            close();
+            throw ex;
         }
     }
 
+    /**
+     * Reads the whole package stream, extracting the specification file along the way.
+     *
+     * @param packageStream
+     *            stream package
+     * @return specification file, or null if the Zip stream hasn't got to it
+     * @throws IOException
+     *             read error
+     * @throws NugetFormatException
+     *             XML in the package archive does not conform to the NuGet
+     *             specification
+     */
+    private static Nuspec copyDataAndLoadNuspec(InputStream packageStream)
+        throws IOException,
+               NugetFormatException
+    {
+        Nuspec result = null;
+        try
+        {
+            result = loadNuspec(new CloseShieldInputStream(packageStream));
+        }
+        catch (ZipException ex)
+        {
+            // The rest of the package is still copied, the specification is then read from the file.
+        }
+
+        // Whatever follows the last entry (or the entry the Zip stream has stopped at), including the central
+        // directory.
+        IOUtils.copy(packageStream, NullOutputStream.NULL_OUTPUT_STREAM);
+
+        return result;
+    }
+
     /**
      * Extract specification file from stream with NuPkg package
      *
@@ -128,86 +209,62 @@ public class TempNupkgFile implements AutoCloseable, Nupkg
                 return null;
             }
 
-            return Nuspec.parse(zipInputStream);
+            return Nuspec.parse(new CloseShieldInputStream(zipInputStream));
         }
     }
 
     /**
-     * ZIP attachment is Nuspec XML specification
+     * Extract specification file from the NuPkg package file
      *
-     * @param entry
-     *            zip attachment
-     * @return true if the attachment matches the attachment with the
-     *         specification
-     */
-    private static boolean isNuspecZipEntry(ZipEntry entry)
-    {
-        return !entry.isDirectory() && entry.getName().endsWith(Nuspec.DEFAULT_FILE_EXTENSION);
-    }
-
-    /**
-     * Creates a temporary file based on the stream.
-     *
-     * @param inputStream
-     *            data stream
-     * @param targetFile
-     *            file to copy the package to
-     * @return data file
+     * @param packageFile
+     *            package file
+     * @return specification file
      * @throws IOException
-     *             read / write error
-     * @throws NoSuchAlgorithmException
-     *             the system does not have an algorithm for calculating the
-     *             value of HASH
+     *             read error
+     * @throws NugetFormatException
+     *             XML in the package archive does not conform to the NuGet
+     *             specification
      */
-    private static String copyDataAndCalculateHash(InputStream inputStream,
-                                                   File targetFile)
+    private static Nuspec loadNuspec(File packageFile)
         throws IOException,
-               NoSuchAlgorithmException
+               NugetFormatException
     {
-        MessageDigest messageDigest = MessageDigest.getInstance(MessageDigestAlgorithms.SHA_512);
-        DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
-
-        try (FileOutputStream fileOutputStream = new FileOutputStream(targetFile);
-                ReadableByteChannel src = Channels.newChannel(digestInputStream);
-                FileChannel dest = fileOutputStream.getChannel();)
+        try (ZipFile zipFile = new ZipFile(packageFile))
         {
-            fastChannelCopy(src, dest);
-
-            byte[] digest = digestInputStream.getMessageDigest().digest();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements())
+            {
+                ZipEntry entry = entries.nextElement();
+                if (!isNuspecZipEntry(entry))
+                {
+                    continue;
+                }
+
+                try (InputStream inputStream = zipFile.getInputStream(entry))
+                {
+                    return Nuspec.parse(inputStream);
+                }
+            }
 
-            return DatatypeConverter.printBase64Binary(digest);
+            return null;
+        }
+        catch (ZipException ex)
+        {
+            return null;
         }
     }
 
     /**
-     * Copies data from one channel to another
+     * ZIP attachment is Nuspec XML specification
      *
-     * @param src
-     *            channel source
-     * @param dest
-     *            destination channel
-     * @throws IOException
-     *             input / output error
+     * @param entry
+     *            zip attachment
+     * @return true if the attachment matches the attachment with the
+     *         specification
      */
-    private static void fastChannelCopy(final ReadableByteChannel src,
-                                        final WritableByteChannel dest)
-        throws IOException
+    private static boolean isNuspecZipEntry(ZipEntry entry)
     {
-        final ByteBuffer buffer = ByteBuffer.allocateDirect(16 * 1024);
-
-        while (src.read(buffer) != -1)
-        {
-            buffer.flip();
-            dest.write(buffer);
-            buffer.compact();
-        }
-
-        buffer.flip();
-
-        while (buffer.hasRemaining())
-        {
-            dest.write(buffer);
-        }
+        return !entry.isDirectory() && entry.getName().endsWith(Nuspec.DEFAULT_FILE_EXTENSION);
     }
 
     public String getHash()
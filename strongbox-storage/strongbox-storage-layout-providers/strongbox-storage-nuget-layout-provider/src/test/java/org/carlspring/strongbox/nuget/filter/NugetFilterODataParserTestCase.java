@@ -40,6 +40,8 @@ public class NugetFilterODataParserTestCase
 
     private static final String REPOSITORY_RELEASES = "nfodpt-releases";
 
+    private static final String REPOSITORY_RELEASES_SUBSTRING = "nfodpt-substring-releases";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -79,4 +81,34 @@ public class NugetFilterODataParserTestCase
         assertEquals(Long.valueOf(1), queryTemplate.select(selector));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    @Transactional
+    public void testSearchSubstring(@NugetRepository(repositoryId = REPOSITORY_RELEASES_SUBSTRING)
+                                    Repository repository,
+                                    @NugetTestArtifact(repositoryId = REPOSITORY_RELEASES_SUBSTRING,
+                                                       id = "Org.Carlspring.Strongbox.Nuget.Test.Nfpts",
+                                                       versions = { "1.0.0",
+                                                                    "1.0.1",
+                                                                    "1.0.2"})
+                                    Path artifactPath)
+    {
+
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+
+        NugetODataFilterQueryParser t = new NugetODataFilterQueryParser(
+                "substringof('test.nfpts', tolower(Id)) and startswith(tolower(Id), 'org.carlspring') and Version eq '1.0.2'");
+        Predicate predicate = t.parseQuery().getPredicate();
+
+        selector.where(predicate)
+                .and(Predicate.of(ExpOperator.EQ.of("storageId", repository.getStorage().getId())))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", repository.getId())));
+
+        selector.select("count(*)");
+
+        QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        assertEquals(Long.valueOf(1), queryTemplate.select(selector));
+    }
+
 }
@@ -0,0 +1,390 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Expression;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.nuget.filter.NugetODataFilterQueryParser;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.repository.NugetSearchIndex.PackageDocument;
+import org.carlspring.strongbox.repository.NugetSearchIndex.RepositorySearchIndex;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * The index builds are run by the test itself, so that the searches can be checked before and after them.
+ */
+public class NugetSearchIndexTest
+{
+
+    private static final BiPredicate<PackageDocument, String> MATCHES = (d, t) -> d.matches(t);
+
+    private static final String STORAGE_ID = "storage-nuget";
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private ArtifactEntryService artifactEntryService = mock(ArtifactEntryService.class);
+
+    private Repository repository = mock(Repository.class);
+
+    private List<Runnable> builds = new ArrayList<>();
+
+    /**
+     * The packages which are in the database, as `id/version`.
+     */
+    private List<String> storedPackages = new ArrayList<>();
+
+    private NugetSearchIndex nugetSearchIndex;
+
+    @BeforeEach
+    public void setUp()
+    {
+        NugetSearchIndex index = new NugetSearchIndex();
+        ReflectionTestUtils.setField(index, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(index, "groupRepositorySetCollector", mock(GroupRepositorySetCollector.class));
+        ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(index, "buildExecutor", (Executor) builds::add);
+
+        // The nuspec files are not there, the text of the packages is indexed with `index(...)` only.
+        nugetSearchIndex = spy(index);
+        doReturn(null).when(nugetSearchIndex).readNuspecText(any(), any());
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+
+        when(repository.getId()).thenReturn(REPOSITORY_ID);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getStorageIdAndRepositoryId()).thenReturn(STORAGE_ID + ":" + REPOSITORY_ID);
+
+        when(artifactEntryService.findArtifactList(eq(STORAGE_ID), eq(REPOSITORY_ID), anyMap(), anySet(), anyInt(),
+                                                   anyInt(), any(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    int skip = invocation.getArgument(4);
+                    int limit = invocation.getArgument(5);
+
+                    return storedPackages.stream().skip(skip).limit(limit).map(p -> {
+                        String[] idAndVersion = p.split("/");
+
+                        ArtifactEntry entry = new ArtifactEntry();
+                        entry.setArtifactCoordinates(new NugetArtifactCoordinates(idAndVersion[0],
+                                                                                  idAndVersion[1],
+                                                                                  "nupkg"));
+
+                        return entry;
+                    }).collect(Collectors.toList());
+                });
+    }
+
+    @Test
+    public void gramsShouldBeAllTheSubstringsOfTheGramSize()
+    {
+        assertEquals(new HashSet<>(Arrays.asList("jso", "son", "on.", "n.n", ".ne", "net")),
+                     RepositorySearchIndex.grams("json.net"));
+        assertTrue(RepositorySearchIndex.grams("js").isEmpty());
+    }
+
+    @Test
+    public void packagesShouldBeFoundByTheirIdAndText()
+    {
+        RepositorySearchIndex index = new RepositorySearchIndex();
+        index.add("Newtonsoft.Json", "12.0.1", "Json.NET\njson\nHigh-performance JSON framework");
+        index.add("Serilog", "2.8.0", "Serilog\nlogging\nStructured logging");
+        index.add("NLog", "4.6.0", null);
+        index.ready();
+
+        assertEquals(Collections.singleton("Newtonsoft.Json"), search(index, "newtonsoft"));
+        assertEquals(Collections.singleton("Newtonsoft.Json"), search(index, "performance"));
+        assertEquals(new HashSet<>(Arrays.asList("Serilog", "NLog")), search(index, "log"));
+        // Shorter than a trigram.
+        assertEquals(new HashSet<>(Arrays.asList("Serilog", "NLog")), search(index, "lo"));
+        // All the grams are there, but not in a row.
+        assertTrue(search(index, "jsonet").isEmpty());
+    }
+
+    @Test
+    public void textOfTheLastStoredVersionShouldBeSearched()
+    {
+        RepositorySearchIndex index = new RepositorySearchIndex();
+        index.add("Foo", "1.0.0", "alpha");
+        index.add("Foo", "2.0.0", "beta");
+        index.ready();
+
+        assertTrue(search(index, "alpha").isEmpty());
+        assertEquals(Collections.singleton("Foo"), search(index, "beta"));
+    }
+
+    @Test
+    public void packageShouldBeRemovedWithItsLastVersion()
+    {
+        RepositorySearchIndex index = new RepositorySearchIndex();
+        index.add("Foo", "1.0.0", "some text");
+        index.add("Foo", "2.0.0", "some text");
+        index.ready();
+
+        index.remove("foo", "1.0.0");
+        assertEquals(Collections.singleton("Foo"), search(index, "text"));
+
+        index.remove("FOO", "2.0.0");
+        assertTrue(search(index, "text").isEmpty());
+        assertTrue(search(index, "foo").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void packagesRemovedWhileBuildingShouldNotBeAdded()
+    {
+        RepositorySearchIndex index = new RepositorySearchIndex();
+        index.remove("Foo", "1.0.0");
+        index.remove("Bar", null);
+
+        index.addIfNotRemoved("Foo", "1.0.0", null);
+        index.addIfNotRemoved("Foo", "2.0.0", null);
+        index.addIfNotRemoved("Bar", "1.0.0", null);
+        index.ready();
+
+        assertEquals(Collections.singleton("Foo"), search(index, "foo"));
+        assertTrue(search(index, "bar").isEmpty());
+
+        // Once built, a removed package can be stored again.
+        index.remove("Bar", null);
+        index.addIfNotRemoved("Bar", "1.0.0", null);
+        assertEquals(Collections.singleton("Bar"), search(index, "bar"));
+    }
+
+    @Test
+    public void searchShouldStopAboveTheLimit()
+    {
+        RepositorySearchIndex index = new RepositorySearchIndex();
+        for (int i = 0; i < 3; i++)
+        {
+            index.add("Package" + i, "1.0.0", null);
+        }
+        index.ready();
+
+        assertTrue(index.search("package", MATCHES, new HashSet<>(), 3));
+        assertFalse(index.search("package", MATCHES, new HashSet<>(), 2));
+    }
+
+    @Test
+    public void searchTermShouldBeResolvedOnceTheIndexIsBuilt()
+    {
+        // Not built yet, the package id is matched only.
+        assertLikePackageId("%JSon%", nugetSearchIndex.searchTermPredicate(repository, "JSon"));
+
+        storedPackages.add("Newtonsoft.Json/12.0.1");
+        storedPackages.add("Foo.Bar/1.0.0");
+        storedPackages.add("Serilog/2.8.0");
+        runBuilds();
+
+        nugetSearchIndex.index(repository, "Foo.Bar", "1.0.0", "Foo", null, "Reads JSON files");
+
+        // The title, tags and description are searched too, regardless of the case.
+        assertEquals(Arrays.asList("Foo.Bar", "Newtonsoft.Json"),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "JSon").getExpression()));
+        // The `IN` condition can't be empty.
+        assertEquals(Collections.singletonList(""),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "missing").getExpression()));
+    }
+
+    @Test
+    public void searchTermShouldNotWaitForTheIndexToBeBuilt()
+    {
+        storedPackages.add("Newtonsoft.Json/12.0.1");
+
+        nugetSearchIndex.searchTermPredicate(repository, "newtonsoft");
+        assertEquals(1, builds.size());
+
+        // Searched again while the index is being built, which is not started twice.
+        assertLikePackageId("%newtonsoft%", nugetSearchIndex.searchTermPredicate(repository, "newtonsoft"));
+        assertEquals(1, builds.size());
+
+        runBuilds();
+        assertEquals(Collections.singletonList("Newtonsoft.Json"),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "newtonsoft").getExpression()));
+    }
+
+    @Test
+    public void rejectedBuildShouldBeSubmittedAgainByTheNextSearch()
+    {
+        ReflectionTestUtils.setField(nugetSearchIndex, "buildExecutor", (Executor) r -> {
+            throw new RejectedExecutionException();
+        });
+        storedPackages.add("Newtonsoft.Json/12.0.1");
+
+        assertLikePackageId("%json%", nugetSearchIndex.searchTermPredicate(repository, "json"));
+
+        ReflectionTestUtils.setField(nugetSearchIndex, "buildExecutor", (Executor) builds::add);
+        assertLikePackageId("%json%", nugetSearchIndex.searchTermPredicate(repository, "json"));
+        assertEquals(1, builds.size());
+
+        runBuilds();
+        assertEquals(Collections.singletonList("Newtonsoft.Json"),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "json").getExpression()));
+    }
+
+    @Test
+    public void filtersShouldBeRoutedToTheIndexOnceItIsBuilt()
+    {
+        String filter = "substringof('json', tolower(Id)) and startswith(tolower(Id), 'newtonsoft')";
+
+        // Not built yet, the `LIKE` conditions are kept.
+        List<Expression> expressions = expressions(nugetSearchIndex.routeFilterPredicate(repository, parse(filter)));
+        assertEquals(2, expressions.size());
+        for (Expression e : expressions)
+        {
+            assertEquals(ExpOperator.LIKE, e.getOperator());
+            assertEquals(NugetSearchIndex.PACKAGE_ID_LOWER_CASE_PROPERTY, e.getProperty());
+        }
+
+        storedPackages.add("Newtonsoft.Json/12.0.1");
+        storedPackages.add("Newtonsoft.Bson/1.0.2");
+        storedPackages.add("Json.Schema/3.0.0");
+        storedPackages.add("Foo.Bar/1.0.0");
+        runBuilds();
+        nugetSearchIndex.index(repository, "Foo.Bar", "1.0.0", "Foo", null, "Reads JSON files");
+
+        expressions = expressions(nugetSearchIndex.routeFilterPredicate(repository, parse(filter)));
+        assertEquals(2, expressions.size());
+        // The filters match the package id only, unlike the search term.
+        assertEquals(Arrays.asList("Json.Schema", "Newtonsoft.Json"), inValues(expressions.get(0)));
+        assertEquals(Arrays.asList("Newtonsoft.Bson", "Newtonsoft.Json"), inValues(expressions.get(1)));
+    }
+
+    @Test
+    public void filtersMatchingTooManyPackagesShouldKeepTheirLikeCondition()
+    {
+        for (int i = 0; i <= NugetSearchIndex.MAX_PACKAGE_IDS; i++)
+        {
+            storedPackages.add("Package" + i + "/1.0.0");
+        }
+        nugetSearchIndex.routeFilterPredicate(repository, parse("startswith(tolower(Id), 'package')"));
+        runBuilds();
+
+        Expression e = expressions(nugetSearchIndex.routeFilterPredicate(repository,
+                                                                          parse("startswith(tolower(Id), 'package')")))
+                               .get(0);
+        assertEquals(ExpOperator.LIKE, e.getOperator());
+
+        // The search term has no such limit, as it can't be resolved without the index.
+        assertEquals(NugetSearchIndex.MAX_PACKAGE_IDS + 1,
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "package").getExpression()).size());
+    }
+
+    @Test
+    public void tooOldIndexShouldBeReplacedOnceBuiltAgain()
+            throws Exception
+    {
+        ReflectionTestUtils.setField(nugetSearchIndex, "maxAgeSeconds", 1L);
+
+        storedPackages.add("Foo/1.0.0");
+        nugetSearchIndex.searchTermPredicate(repository, "foo");
+        runBuilds();
+
+        // Stored through another node.
+        storedPackages.add("Bar/1.0.0");
+        assertEquals(Collections.singletonList(""),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "bar").getExpression()));
+
+        Thread.sleep(1100);
+
+        // The old index is searched until the new one is built.
+        nugetSearchIndex.searchTermPredicate(repository, "bar");
+        assertEquals(1, builds.size());
+        // Stored through this node, while the new index is being built.
+        nugetSearchIndex.index(repository, "Baz", "1.0.0", null, null, null);
+        assertEquals(Collections.singletonList(""),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "bar").getExpression()));
+        runBuilds();
+
+        assertEquals(Arrays.asList("Bar", "Baz"),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "ba").getExpression()));
+        assertEquals(Collections.singletonList("Foo"),
+                     inValues(nugetSearchIndex.searchTermPredicate(repository, "foo").getExpression()));
+    }
+
+    private void runBuilds()
+    {
+        List<Runnable> pending = new ArrayList<>(builds);
+        builds.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static Set<String> search(RepositorySearchIndex index,
+                                      String term)
+    {
+        Set<String> result = new HashSet<>();
+        assertTrue(index.search(term, MATCHES, result, Integer.MAX_VALUE));
+
+        return result;
+    }
+
+    private static Predicate parse(String filter)
+    {
+        return new NugetODataFilterQueryParser(filter).parseQuery().getPredicate();
+    }
+
+    private static List<Expression> expressions(Predicate predicate)
+    {
+        List<Expression> result = new ArrayList<>();
+        if (predicate.getExpression() != null)
+        {
+            result.add(predicate.getExpression());
+        }
+        for (Predicate childPredicate : predicate.getChildPredicateList())
+        {
+            result.addAll(expressions(childPredicate));
+        }
+
+        return result;
+    }
+
+    private static void assertLikePackageId(String value,
+                                            Predicate predicate)
+    {
+        Expression e = predicate.getExpression();
+        assertEquals(ExpOperator.LIKE, e.getOperator());
+        assertEquals(NugetSearchIndex.PACKAGE_ID_PROPERTY, e.getProperty());
+        assertEquals(value, e.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> inValues(Expression e)
+    {
+        assertEquals(ExpOperator.IN, e.getOperator());
+        assertEquals(NugetSearchIndex.PACKAGE_ID_PROPERTY, e.getProperty());
+
+        return ((List<String>) e.getValue()).stream().sorted().collect(Collectors.toList());
+    }
+
+}
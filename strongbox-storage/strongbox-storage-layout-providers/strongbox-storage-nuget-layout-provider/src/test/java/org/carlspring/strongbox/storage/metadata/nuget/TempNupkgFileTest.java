@@ -36,6 +36,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
@@ -105,6 +106,29 @@ public class TempNupkgFileTest
         }
     }
 
+    @ExtendWith(ArtifactManagementTestExecutionListener.class)
+    @Test
+    public void testCopyNupkgToPackageFile(@NugetTestArtifact(id = "NUnit",
+                                                              versions = "2.5.9.10348")
+                                           Path artifactNupkgPath)
+            throws Exception
+    {
+        // GIVEN
+        Path packageFile = Files.createTempDirectory("nupkg").resolve("package.nupkg");
+
+        // WHEN
+        try (InputStream nupkgInputStream = new BufferedInputStream(Files.newInputStream(artifactNupkgPath));
+             TempNupkgFile nupkgFile = new TempNupkgFile(nupkgInputStream, packageFile))
+        {
+            // THEN
+            assertEquals("NUnit", nupkgFile.getNuspec().getId(), "Package ID");
+            assertEquals(Files.size(artifactNupkgPath), Files.size(packageFile), "Package size");
+            assertEquals(Files.size(artifactNupkgPath), (long) nupkgFile.getSize(), "Package size");
+        }
+
+        assertFalse(Files.exists(packageFile), "Package file removed");
+    }
+
     /**
      * @throws IOException          error read test data
      * @throws NugetFormatException invalid format exception
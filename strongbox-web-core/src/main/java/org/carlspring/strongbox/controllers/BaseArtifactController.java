@@ -3,10 +3,12 @@ package org.carlspring.strongbox.controllers;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.utils.ArtifactControllerHelper;
+import org.carlspring.strongbox.web.ArtifactTransferExecutor;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.springframework.http.HttpHeaders;
@@ -20,6 +22,9 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private ArtifactTransferExecutor artifactTransferExecutor;
+
     protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
                                                       HttpServletResponse response,
                                                       HttpHeaders httpHeaders,
@@ -27,7 +32,7 @@ public abstract class BaseArtifactController
             throws Exception
     {
         logger.debug("Resolved path: {}", repositoryPath);
-        ArtifactControllerHelper.provideArtifactHeaders(response, repositoryPath);
+        provideArtifactHeaders(response, repositoryPath);
         if (response.getStatus() == HttpStatus.NOT_FOUND.value())
         {
             return false;
@@ -37,8 +42,41 @@ public abstract class BaseArtifactController
             return true;
         }
 
-        
-        try (InputStream is = artifactResolutionService.getInputStream(repositoryPath);)
+        // The artifact is opened by the thread which copies it, as it holds the read lock until it is closed.
+        if (artifactTransferExecutor.transfer(request, () ->
+        {
+            provideArtifactContent(response, httpHeaders, repositoryPath);
+
+            return null;
+        }))
+        {
+            logger.debug("Transferring [{}] asynchronously.", repositoryPath);
+
+            return true;
+        }
+
+        provideArtifactContent(response, httpHeaders, repositoryPath);
+
+        return true;
+    }
+
+    /**
+     * Sets the headers of the download, or the 404 status, if the artifact isn't there. They are set before the
+     * content is transferred, which might already have been written by the time the download response returns.
+     */
+    protected void provideArtifactHeaders(HttpServletResponse response,
+                                          RepositoryPath repositoryPath)
+            throws IOException
+    {
+        ArtifactControllerHelper.provideArtifactHeaders(response, repositoryPath);
+    }
+
+    private void provideArtifactContent(HttpServletResponse response,
+                                        HttpHeaders httpHeaders,
+                                        RepositoryPath repositoryPath)
+            throws Exception
+    {
+        try (InputStream is = artifactResolutionService.getInputStream(repositoryPath))
         {
             if (ArtifactControllerHelper.isRangedRequest(httpHeaders))
             {
@@ -49,8 +87,6 @@ public abstract class BaseArtifactController
             
             copyToResponse(is, response);
         }
-
-        return true;
     }
 
 }
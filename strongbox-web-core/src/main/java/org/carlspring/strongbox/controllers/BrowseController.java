@@ -17,7 +17,6 @@ import java.nio.file.Files;
 import java.util.Map;
 import java.util.Optional;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
@@ -25,6 +24,7 @@ import io.swagger.annotations.ApiResponses;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -50,6 +50,9 @@ public class BrowseController
     // must be the same as @RequestMapping value on the class definition
     public final static String ROOT_CONTEXT = "/api/browse";
 
+    @Value("${strongbox.browse.page-size:1000}")
+    private int pageSize;
+
     private volatile DirectoryListingService directoryListingService;
     
     public DirectoryListingService getDirectoryListingService()
@@ -80,7 +83,7 @@ public class BrowseController
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
-                return ResponseEntity.ok(objectMapper.writer().writeValueAsString(directoryListing));
+                return toJsonResponseEntity(directoryListing);
             }
 
             model.addAttribute("showBack", false);
@@ -125,7 +128,7 @@ public class BrowseController
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
-                return ResponseEntity.ok(objectMapper.writer().writeValueAsString(directoryListing));
+                return toJsonResponseEntity(directoryListing);
             }
 
             model.addAttribute("currentUrl", StringUtils.chomp(request.getRequestURI(), "/"));
@@ -152,6 +155,10 @@ public class BrowseController
                              MediaType.APPLICATION_JSON_VALUE })
     public Object repositoryContent(@RepositoryMapping Repository repository,
                                     @PathVariable("path") String rawPath,
+                                    @ApiParam(value = "The cursor of the page, as returned with the previous page")
+                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                    @ApiParam(value = "The maximum number of entries of the page")
+                                    @RequestParam(name = "limit", required = false) Integer limit,
                                     HttpServletRequest request,
                                     ModelMap model,
                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader)
@@ -178,11 +185,21 @@ public class BrowseController
                 return getNotFoundResponseEntity("Requested repository doesn't allow browsing.", acceptHeader);
             }
 
-            DirectoryListing directoryListing = getDirectoryListingService().fromRepositoryPath(repositoryPath);
+            int pageLimit = limit == null || limit <= 0 ? pageSize : Math.min(limit, pageSize);
+
+            DirectoryListing directoryListing;
+            try
+            {
+                directoryListing = getDirectoryListingService().fromRepositoryPath(repositoryPath, cursor, pageLimit);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return getBadRequestResponseEntity(e.getMessage(), acceptHeader);
+            }
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
-                return ResponseEntity.ok(objectMapper.writer().writeValueAsString(directoryListing));
+                return toJsonResponseEntity(directoryListing);
             }
             
             URL resourceUrl = RepositoryFiles.readResourceUrl(repositoryPath);
@@ -196,6 +213,14 @@ public class BrowseController
             model.addAttribute("directories", directoryListing.getDirectories());
             model.addAttribute("files", directoryListing.getFiles());
 
+            if (directoryListing.getNextCursor() != null)
+            {
+                model.addAttribute("nextUrl", String.format("%s/?cursor=%s&limit=%s",
+                                                            currentUrl,
+                                                            directoryListing.getNextCursor(),
+                                                            pageLimit));
+            }
+
             return new ModelAndView("directoryListing", model);
         }
         catch (Exception e)
@@ -205,6 +230,17 @@ public class BrowseController
         }
     }
 
+    /**
+     * The listing is written by the message converter straight to the response, instead of being rendered into a
+     * string first.
+     */
+    private ResponseEntity<DirectoryListing> toJsonResponseEntity(DirectoryListing directoryListing)
+    {
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_JSON)
+                             .body(directoryListing);
+    }
+
     protected boolean probeForDirectoryListing(final RepositoryPath repositoryPath)
             throws IOException
     {
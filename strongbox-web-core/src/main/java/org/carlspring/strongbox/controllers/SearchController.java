@@ -57,6 +57,8 @@ public class SearchController
                                  @RequestParam(name = "repositoryId", required = false) final String repositoryId,
                                  @ApiParam(value = "The search query", required = true)
                                  @RequestParam(name = "q") final String query,
+                                 @ApiParam(value = "The search provider (Lucene, or OrientDB)", required = false)
+                                 @RequestParam(name = "searchProvider", required = false) final String searchProvider,
                                  HttpServletRequest request)
             throws IOException, SearchException
     {
@@ -68,7 +70,7 @@ public class SearchController
 
         if (accept.equalsIgnoreCase(MediaType.TEXT_PLAIN_VALUE))
         {
-            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q);
+            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider);
 
             return ResponseEntity.ok(artifacts.toString());
         }
@@ -77,7 +79,7 @@ public class SearchController
             // Apparently, the JSON root tag's name is based on the name of the object
             // which the Jersey method returns, hence this is "artifacts".
             @SuppressWarnings("UnnecessaryLocalVariable")
-            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q);
+            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider);
 
             return ResponseEntity.ok(artifacts);
         }
@@ -85,12 +87,17 @@ public class SearchController
 
     private SearchResults getSearchResults(String storageId,
                                            String repositoryId,
-                                           String query)
+                                           String query,
+                                           String searchProvider)
             throws SearchException
     {
-        return artifactSearchService.search(new SearchRequest(storageId,
-                                                              repositoryId,
-                                                              query));
+        SearchRequest searchRequest = new SearchRequest(storageId, repositoryId, query);
+        if (searchProvider != null)
+        {
+            searchRequest.addOption(ArtifactSearchService.OPTION_SEARCH_PROVIDER, searchProvider);
+        }
+
+        return artifactSearchService.search(searchRequest);
     }
 
 }
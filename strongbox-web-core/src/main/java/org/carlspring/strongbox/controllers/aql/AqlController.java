@@ -1,6 +1,5 @@
 package org.carlspring.strongbox.controllers.aql;
 
-import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.controllers.BaseController;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -36,13 +35,13 @@ public class AqlController extends BaseController
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query)
+    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query,
+                                 @ApiParam(value = "Whether to generate the dependency snippets", required = false) @RequestParam(name = "snippets", required = false, defaultValue = "true") boolean snippets)
         throws IOException
     {
-        AqlQueryParser parser = new AqlQueryParser(query);
-        Selector<ArtifactEntry> selector = parser.parseQuery();
+        Selector<ArtifactEntry> selector = aqlSearchService.parseQuery(query);
 
-        SearchResults result = aqlSearchService.search(selector);
+        SearchResults result = aqlSearchService.search(selector, snippets);
 
         return ResponseEntity.ok(result);
     }
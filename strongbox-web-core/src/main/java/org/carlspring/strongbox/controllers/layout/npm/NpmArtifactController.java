@@ -11,6 +11,7 @@ import org.carlspring.strongbox.npm.NpmSearchRequest;
 import org.carlspring.strongbox.npm.NpmViewRequest;
 import org.carlspring.strongbox.npm.metadata.*;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.NpmPackageDesc;
 import org.carlspring.strongbox.providers.layout.NpmPackageSupplier;
@@ -21,24 +22,26 @@ import org.carlspring.strongbox.repository.NpmRepositoryFeatures.SearchPackagesE
 import org.carlspring.strongbox.repository.NpmRepositoryFeatures.ViewPackageEventListener;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -46,11 +49,12 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.IOUtils;
-import org.javatuples.Pair;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -72,6 +76,10 @@ public class NpmArtifactController
 
     private static final String FIELD_NAME_LENGTH = "length";
 
+    private static final String FIELD_NAME_CONTENT_TYPE = "content_type";
+
+    private static final String FIELD_NAME_DATA = "data";
+
     private static final String FIELD_NAME_ATTACHMENTS = "_attachments";
 
     private static final String FIELD_NAME_VERSION = "versions";
@@ -353,30 +361,42 @@ public class NpmArtifactController
         final String repositoryId = repository.getId();
 
         logger.info("npm publish request for {}/{}/{}", storageId, repositoryId, name);
-        Pair<PackageVersion, Path> packageEntry;
+
+        // The package is decoded only once, into the temporary directory of the repository, as its path depends on
+        // the version, which could come after the attachment.
+        RepositoryPath packageTgzTmp = RepositoryFiles.temporary(
+                repositoryPathResolver.resolve(repository, UUID.randomUUID() + ".tgz"));
+        Path packageTgzFile = packageTgzTmp.toFile().toPath();
         try
         {
-            packageEntry = extractPackage(name, request.getInputStream());
-        }
-        catch (IllegalArgumentException e)
-        {
-            logger.error("Failed to extract npm package data", e);
-            return ResponseEntity.badRequest().build();
-        }
+            PublishedPackage publishedPackage;
+            try
+            {
+                publishedPackage = extractPackage(name, request.getInputStream(), packageTgzFile);
+            }
+            catch (IllegalArgumentException e)
+            {
+                logger.error("Failed to extract npm package data", e);
+                return ResponseEntity.badRequest().build();
+            }
 
-        PackageVersion packageJson = packageEntry.getValue0();
-        Path packageTgz = packageEntry.getValue1();
+            PackageVersion packageJson = publishedPackage.getPackageVersion();
 
-        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(name, packageJson.getVersion());
+            NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(name, packageJson.getVersion());
 
-        storeNpmPackage(repository, coordinates, packageJson, packageTgz);
+            storeNpmPackage(repository, coordinates, publishedPackage, packageTgzFile);
+        }
+        finally
+        {
+            Files.deleteIfExists(packageTgzFile);
+        }
 
         return ResponseEntity.ok("");
     }
 
     private void storeNpmPackage(Repository repository,
                                  NpmArtifactCoordinates coordinates,
-                                 PackageVersion packageDef,
+                                 PublishedPackage publishedPackage,
                                  Path packageTgzTmp)
         throws IOException,
                ProviderImplementationException,
@@ -389,59 +409,62 @@ public class NpmArtifactController
             artifactManagementService.validateAndStore(repositoryPath, is);
         }
 
-        Path packageJsonTmp = extractPackageJson(packageTgzTmp);
-        RepositoryPath packageJsonPath = repositoryPathResolver.resolve(repository, repositoryPath.resolveSibling("package.json"));
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageJsonTmp)))
+        String packageJsonSource;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
+        {
+            packageJsonSource = extrectPackageJson(is);
+        }
+        if (packageJsonSource != null)
         {
-            artifactManagementService.validateAndStore(packageJsonPath, is);
+            RepositoryPath packageJsonPath = repositoryPathResolver.resolve(repository,
+                                                                            repositoryPath.resolveSibling("package.json"));
+            artifactManagementService.validateAndStore(packageJsonPath,
+                                                       new ByteArrayInputStream(
+                                                               packageJsonSource.getBytes(StandardCharsets.UTF_8)));
         }
 
+        PackageVersion packageDef = publishedPackage.getPackageVersion();
         String shasum = Optional.ofNullable(packageDef.getDist()).map(p -> p.getShasum()).orElse(null);
         if (shasum == null)
         {
-            logger.warn(String.format("No checksum provided for package [%s]", packageDef.getName()));
-            return;
+            logger.debug(String.format("No checksum provided for package [%s], using the calculated one.",
+                                       packageDef.getName()));
+            shasum = publishedPackage.getShasum();
         }
 
         String packageFileName = repositoryPath.getFileName().toString();
         RepositoryPath checksumPath = repositoryPath.resolveSibling(packageFileName + ".sha1");
         artifactManagementService.validateAndStore(checksumPath,
-                                                      new ByteArrayInputStream(shasum.getBytes("UTF-8")));
-
-        Files.delete(packageTgzTmp);
-        Files.delete(packageJsonTmp);
+                                                   new ByteArrayInputStream(shasum.getBytes(StandardCharsets.UTF_8)));
     }
 
-    private Pair<PackageVersion, Path> extractPackage(String packageName,
-                                                      ServletInputStream in)
+    /**
+     * Parses the publish document straight from the request. Only the package version metadata is kept in memory,
+     * while the attachment is decoded into the given file.
+     */
+    private PublishedPackage extractPackage(String packageName,
+                                            InputStream in,
+                                            Path packageTgzTmp)
         throws IOException
     {
-        Path packageSourceTmp = Files.createTempFile("package", "source");
-        Files.copy(in, packageSourceTmp, StandardCopyOption.REPLACE_EXISTING);
-
         PackageVersion packageVersion = null;
-        Path packageTgzPath = null;
+        String shasum = null;
 
         JsonFactory jfactory = new JsonFactory();
-        try (InputStream tmpIn = new BufferedInputStream(Files.newInputStream(packageSourceTmp));
-             JsonParser jp = jfactory.createParser(tmpIn);)
+        try (JsonParser jp = jfactory.createParser(in))
         {
             jp.setCodec(npmJacksonMapper);
 
             Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT, "npm package source should be JSON object.");
 
-            while (jp.nextToken() != null)
+            while (jp.nextToken() == JsonToken.FIELD_NAME)
             {
                 String fieldName = jp.getCurrentName();
-                // read value
-                if (fieldName == null)
-                {
-                    continue;
-                }
+                jp.nextToken();
+
                 switch (fieldName)
                 {
                 case FIELD_NAME_VERSION:
-                    jp.nextValue();
                     JsonNode node = jp.readValueAsTree();
                     Assert.isTrue(node.size() == 1, "npm package source should contain only one version.");
 
@@ -450,90 +473,112 @@ public class NpmArtifactController
 
                     break;
                 case FIELD_NAME_ATTACHMENTS:
-                    Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT,
+                    Assert.isTrue(jp.currentToken() == JsonToken.START_OBJECT,
                                   String.format("Failed to parse npm package source for illegal type [%s] of attachment.",
                                                 jp.currentToken().name()));
 
                     String packageAttachmentName = jp.nextFieldName();
+                    Assert.notNull(packageAttachmentName,
+                                   String.format("Failed to parse npm package source for [%s], attachment not found",
+                                                 packageName));
                     logger.info(String.format("Found npm package attachment [%s]", packageAttachmentName));
 
-                    moveToAttachment(jp, packageAttachmentName);
-                    packageTgzPath = extractPackage(jp);
+                    shasum = extractPackage(jp, packageAttachmentName, packageTgzTmp);
 
-                    jp.nextToken();
-                    jp.nextToken();
+                    // Only one attachment is expected, any others are ignored.
+                    while (jp.nextToken() == JsonToken.FIELD_NAME)
+                    {
+                        jp.nextToken();
+                        jp.skipChildren();
+                    }
+
+                    break;
+                default:
+                    // The readme and the rest of the package document are not needed here.
+                    jp.skipChildren();
 
                     break;
                 }
             }
         }
 
-        Files.delete(packageSourceTmp);
-
-        if (packageVersion == null || packageTgzPath == null)
+        if (packageVersion == null || shasum == null)
         {
             throw new IllegalArgumentException(
                     String.format("Failed to parse npm package source for [%s], attachment not found", packageName));
         }
 
-        return Pair.with(packageVersion, packageTgzPath);
+        return new PublishedPackage(packageVersion, shasum);
     }
 
-    private Path extractPackage(JsonParser jp)
+    /**
+     * Decodes the attachment data into the given file, calculating it's length and SHA-1 checksum on the fly.
+     *
+     * @return the hexadecimal SHA-1 checksum of the package
+     */
+    private String extractPackage(JsonParser jp,
+                                  String packageAttachmentName,
+                                  Path packageTgzTmp)
         throws IOException
     {
-        Path packageTgzTmp = Files.createTempFile("package", "tgz");
-        try (OutputStream packageTgzOut = new BufferedOutputStream(Files.newOutputStream(packageTgzTmp,
-                                                                                         StandardOpenOption.TRUNCATE_EXISTING)))
+        Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT,
+                      String.format("Failed to parse npm package source for [%s], illegal attachment content type [%s].",
+                                    packageAttachmentName, jp.currentToken().name()));
+
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance(MessageDigestAlgorithms.SHA_1);
+        }
+        catch (NoSuchAlgorithmException e)
         {
-            jp.readBinaryValue(packageTgzOut);
+            throw new IOException(e);
         }
 
-        long packageSize = Files.size(packageTgzTmp);
+        Long packageSize = null;
+        Long declaredPackageSize = null;
+        while (jp.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String fieldName = jp.getCurrentName();
+            jp.nextToken();
 
-        Assert.isTrue(FIELD_NAME_LENGTH.equals(jp.nextFieldName()), "Failed to validate package content length.");
-        jp.nextToken();
+            switch (fieldName)
+            {
+            case FIELD_NAME_CONTENT_TYPE:
+                String contentType = jp.getValueAsString();
+                Assert.isTrue("application/octet-stream".equals(contentType),
+                              String.format("Failed to parse npm package source for [%s], unknown content type [%s]",
+                                            packageAttachmentName, contentType));
+
+                break;
+            case FIELD_NAME_DATA:
+                try (CountingOutputStream packageTgzOut = new CountingOutputStream(
+                        new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(packageTgzTmp)),
+                                               digest)))
+                {
+                    jp.readBinaryValue(packageTgzOut);
+                    packageSize = packageTgzOut.getByteCount();
+                }
 
-        Assert.isTrue(packageSize == jp.getLongValue(), "Invalid package content length.");
-        jp.nextToken();
+                break;
+            case FIELD_NAME_LENGTH:
+                declaredPackageSize = jp.getLongValue();
 
-        return packageTgzTmp;
-    }
+                break;
+            default:
+                jp.skipChildren();
 
-    private Path extractPackageJson(Path packageTgzTmp)
-        throws IOException
-    {
-        String packageJsonSource;
-        try (InputStream packageTgzIn = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
-        {
-            packageJsonSource = extrectPackageJson(packageTgzIn);
+                break;
+            }
         }
-        Path packageJsonTmp = Files.createTempFile("package", "json");
-        Files.write(packageJsonTmp, packageJsonSource.getBytes("UTF-8"), StandardOpenOption.TRUNCATE_EXISTING);
-
-        return packageJsonTmp;
-    }
-
-    private void moveToAttachment(JsonParser jp,
-                                  String packageAttachmentName)
-        throws IOException
-    {
-        Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT,
-                      String.format("Failed to parse npm package source for [%s], illegal attachment content type [%s].",
-                                    packageAttachmentName, jp.currentToken().name()));
 
-        jp.nextToken();
-        String contentType = jp.nextTextValue();
-        Assert.isTrue("application/octet-stream".equals(contentType),
-                      String.format("Failed to parse npm package source for [%s], unknown content type [%s]",
-                                    packageAttachmentName, contentType));
+        Assert.notNull(packageSize,
+                       String.format("Failed to parse npm package source for [%s], data not found",
+                                     packageAttachmentName));
+        Assert.notNull(declaredPackageSize, "Failed to validate package content length.");
+        Assert.isTrue(packageSize.equals(declaredPackageSize), "Invalid package content length.");
 
-        String dataFieldName = jp.nextFieldName();
-        Assert.isTrue("data".equals(dataFieldName),
-                      String.format("Failed to parse npm package source for [%s], data not found",
-                                    packageAttachmentName));
-
-        jp.nextToken();
+        return MessageDigestUtils.convertToHexadecimalString(digest);
     }
 
     private PackageVersion extractPackageVersion(String packageName,
@@ -578,5 +623,30 @@ public class NpmArtifactController
             return null;
         }
     }
-    
+
+    private static class PublishedPackage
+    {
+
+        private final PackageVersion packageVersion;
+
+        private final String shasum;
+
+        PublishedPackage(PackageVersion packageVersion,
+                         String shasum)
+        {
+            this.packageVersion = packageVersion;
+            this.shasum = shasum;
+        }
+
+        PackageVersion getPackageVersion()
+        {
+            return packageVersion;
+        }
+
+        String getShasum()
+        {
+            return shasum;
+        }
+    }
+
 }
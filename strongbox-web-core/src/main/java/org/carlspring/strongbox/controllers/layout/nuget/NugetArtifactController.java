@@ -13,10 +13,12 @@ import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.io.ReplacingInputStream;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterQueryParser;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.repository.NugetRepositoryFeatures.RepositorySearchEventListener;
+import org.carlspring.strongbox.repository.NugetSearchIndex;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
 import org.carlspring.strongbox.storage.metadata.nuget.Nupkg;
@@ -30,7 +32,6 @@ import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
@@ -38,14 +39,13 @@ import javax.xml.bind.JAXBException;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -54,7 +54,11 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.fileupload.MultipartStream;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.servlet.ServletRequestContext;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
@@ -87,6 +91,9 @@ public class NugetArtifactController
     @Inject
     private RepositorySearchEventListener repositorySearchEventListener;
 
+    @Inject
+    private NugetSearchIndex nugetSearchIndex;
+
     @DeleteMapping(path = { "{storageId}/{repositoryId}/{packageId}/{version}" })
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     public ResponseEntity deletePackage(@RequestHeader(name = "X-NuGet-ApiKey", required = false) String apiKey,
@@ -139,7 +146,7 @@ public class NugetArtifactController
 
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
         
-        Predicate predicate = createSearchPredicate(filter, normalizedSearchTerm);
+        Predicate predicate = createSearchPredicate(repository, filter, normalizedSearchTerm);
         Long count = provider.count(storageId, repositoryId, predicate);
 
         return new ResponseEntity<>(String.valueOf(count), HttpStatus.OK);
@@ -318,7 +325,7 @@ public class NugetArtifactController
         paginator.setLimit(top);
         paginator.setProperty(orderBy);
 
-        Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
+        Predicate rootPredicate = createSearchPredicate(repository, filter, searchTerm);
 
         return searchNupkg(storageId, repositoryId, provider, paginator, rootPredicate);
     }
@@ -345,7 +352,8 @@ public class NugetArtifactController
                        .collect(Collectors.toList());
     }
 
-    private Predicate createSearchPredicate(String filter,
+    private Predicate createSearchPredicate(Repository repository,
+                                            String filter,
                                             String searchTerm)
     {
         Predicate rootPredicate = Predicate.empty();
@@ -353,15 +361,14 @@ public class NugetArtifactController
         if (filter != null && !filter.trim().isEmpty())
         {
            NugetODataFilterQueryParser t = new NugetODataFilterQueryParser(filter);
-           rootPredicate = t.parseQuery().getPredicate();
+           rootPredicate = nugetSearchIndex.routeFilterPredicate(repository, t.parseQuery().getPredicate());
         }
 
         rootPredicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
 
         if (searchTerm != null && !searchTerm.trim().isEmpty())
         {
-            rootPredicate.and(Predicate.of(ExpOperator.LIKE.of("artifactCoordinates.coordinates.id",
-                                                               "%" + searchTerm + "%")));
+            rootPredicate.and(nugetSearchIndex.searchTermPredicate(repository, searchTerm));
         }
         return rootPredicate;
     }
@@ -422,8 +429,7 @@ public class NugetArtifactController
         URI resourceUri;
         try
         {
-            ServletInputStream is = request.getInputStream();
-            InputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType), is);
+            InputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType), request);
 
             if (packagePartInputStream == null)
             {
@@ -509,10 +515,22 @@ public class NugetArtifactController
         String path = String.format("%s/%s/%s", packageId, packageVersion, fileName);
 
         RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
-        if (provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath))
+        provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
+    }
+
+    @Override
+    protected void provideArtifactHeaders(HttpServletResponse response,
+                                          RepositoryPath repositoryPath)
+            throws IOException
+    {
+        super.provideArtifactHeaders(response, repositoryPath);
+        if (response.getStatus() == HttpStatus.NOT_FOUND.value())
         {
-            response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", fileName));
+            return;
         }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                           String.format("attachment; filename=\"%s\"", repositoryPath.getFileName()));
     }
 
     private String extractBoundary(String contentType)
@@ -530,72 +548,53 @@ public class NugetArtifactController
         return boundaryString;
     }
 
+    /**
+     * Returns the stream of the package part, which is read straight from the request, as it's being stored.
+     */
     private InputStream extractPackageMultipartStream(String boundaryString,
-                                                      ServletInputStream is)
-            throws IOException
+                                                      HttpServletRequest request)
+            throws IOException, FileUploadException
     {
         if (StringUtils.isEmpty(boundaryString))
         {
             return null;
         }
 
-        final Path packagePartFile = Files.createTempFile("nupkg", "part");
-        try (OutputStream packagePartOutputStream = new BufferedOutputStream(Files.newOutputStream(packagePartFile)))
-        {
-
-            writePackagePart(boundaryString, is, packagePartOutputStream);
-        }
-
-        return new BufferedInputStream(Files.newInputStream(packagePartFile));
-    }
-
-    private void writePackagePart(String boundaryString,
-                                  InputStream is,
-                                  OutputStream packagePartOutputStream)
-        throws IOException
-    {
         // According to the specification, the final Boundary of MultipartStream should be prefixed with
         // `0x0D0x0A0x2D0x2D` characters, but seems that Nuget command line tool has broken Multipart Boundary format.
         // We need to fix missing starting byte of ending Mulipart boundary (0x0D), which is incorrectly generated by
         // NuGet `push` implementation.
-        byte[] boundary = boundaryString.getBytes();
         byte[] boundaryPrefixToFix = {0x00, 0x0A, 0x2D, 0x2D};
         byte[] boundaryPrefixTarget = {0x00, 0x0D, 0x0A, 0x2D, 0x2D};
 
-        byte[] replacementPattern = new byte[boundary.length + 4];
-        byte[] replacementTarget = new byte[boundary.length + 5];
-
-        System.arraycopy(boundaryPrefixToFix, 0, replacementPattern, 0, 4);
-        System.arraycopy(boundaryPrefixTarget, 0, replacementTarget, 0, 5);
-
-        System.arraycopy(boundary, 0, replacementPattern, 4, boundary.length);
-        System.arraycopy(boundary, 0, replacementTarget, 4, boundary.length);
-
-        Path streamContentPath = Files.createTempFile("boundaryString", "nupkg");
-        ReplacingInputStream replacingIs = new ReplacingInputStream(is, boundaryPrefixToFix, boundaryPrefixTarget);
-        long len = Files.copy(replacingIs, streamContentPath,
-                   StandardCopyOption.REPLACE_EXISTING);
-        System.out.println(len);
-
-        try (InputStream streamContentIs = new BufferedInputStream(Files.newInputStream(streamContentPath)))
+        InputStream requestInputStream = new ReplacingInputStream(request.getInputStream(),
+                                                                  boundaryPrefixToFix,
+                                                                  boundaryPrefixTarget);
+        FileItemIterator parts = new ServletFileUpload().getItemIterator(new ServletRequestContext(request)
         {
-            MultipartStream multipartStream = new MultipartStream(streamContentIs, boundary, 4096, null);
-            multipartStream.skipPreamble();
-            String header = multipartStream.readHeaders();
-
-            // Package Multipart Header should be like follows:
-            // Content-Disposition: form-data; name="package";
-            // filename="package"
-            // Content-Type: application/octet-stream
-            if (!header.contains("package"))
+            @Override
+            public InputStream getInputStream()
             {
-                logger.error("Invalid package multipart format");
-                return;
+                return requestInputStream;
             }
+        });
 
-            int contentLength = multipartStream.readBodyData(packagePartOutputStream);
-            logger.info(String.format("NuGet package content length [%s]", contentLength));
+        // Package Multipart Header should be like follows:
+        // Content-Disposition: form-data; name="package";
+        // filename="package"
+        // Content-Type: application/octet-stream
+        while (parts.hasNext())
+        {
+            FileItemStream part = parts.next();
+            if (!part.isFormField())
+            {
+                return part.openStream();
+            }
         }
+
+        logger.error("Invalid package multipart format");
+
+        return null;
     }
 
     private URI storePackage(String storageId,
@@ -603,7 +602,12 @@ public class NugetArtifactController
                              InputStream is)
         throws Exception
     {
-        try (TempNupkgFile nupkgFile = new TempNupkgFile(is))
+        // The package is copied only once, into the temporary directory of the repository, as its path depends on the
+        // specification inside of it.
+        RepositoryPath packagePath = RepositoryFiles.temporary(
+                repositoryPathResolver.resolve(storageId, repositoryId, UUID.randomUUID() + ".nupkg"));
+
+        try (TempNupkgFile nupkgFile = new TempNupkgFile(is, packagePath.toFile().toPath()))
         {
             Nuspec nuspec = nupkgFile.getNuspec();
             if (nuspec == null)
@@ -621,30 +625,18 @@ public class NugetArtifactController
                                         nuspecVersion);
 
             RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            artifactManagementService.validateAndStore(repositoryPath, nupkgFile.getStream());
-
-            Path nuspecFile = Files.createTempFile(nuspec.getId(), "nuspec");
-            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(nuspecFile)))
+            try (InputStream packageInputStream = nupkgFile.getStream())
             {
-                nuspec.saveTo(outputStream);
-            }
-            path = String.format("%s/%s/%s.nuspec", nuspecId, nuspecVersion, nuspecId);
-            repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(nuspecFile)))
-            {
-                artifactManagementService.validateAndStore(repositoryPath, bis);
+                artifactManagementService.validateAndStore(repositoryPath, packageInputStream);
             }
 
-            Path hashFile = Files.createTempFile(String.format("%s.%s", nuspecId, nuspecVersion),
-                                                "nupkg.sha512");
+            ByteArrayOutputStream nuspecOutputStream = new ByteArrayOutputStream();
+            nuspec.saveTo(nuspecOutputStream);
 
-            try (OutputStream bos = new BufferedOutputStream(Files.newOutputStream(hashFile)))
-            {
-                Writer writer = new OutputStreamWriter(bos);
-                writer.write(nupkgFile.getHash());
-                writer.flush();
-                bos.flush();
-            }
+            path = String.format("%s/%s/%s.nuspec", nuspecId, nuspecVersion, nuspecId);
+            repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
+            artifactManagementService.validateAndStore(repositoryPath,
+                                                       new ByteArrayInputStream(nuspecOutputStream.toByteArray()));
 
             path = String.format("%s/%s/%s.%s.nupkg.sha512",
                                  nuspecId,
@@ -652,10 +644,9 @@ public class NugetArtifactController
                                  nuspecId,
                                  nuspecVersion);
             repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(hashFile)))
-            {
-                artifactManagementService.validateAndStore(repositoryPath, bis);
-            }
+            artifactManagementService.validateAndStore(repositoryPath,
+                                                       new ByteArrayInputStream(
+                                                               nupkgFile.getHash().getBytes(StandardCharsets.UTF_8)));
         }
 
         return new URI("");
@@ -0,0 +1,60 @@
+package org.carlspring.strongbox.interceptors;
+
+import org.carlspring.strongbox.providers.io.RepositoryPathScope;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Opens a {@link RepositoryPathScope} for each request, so that the paths resolved while handling it share their
+ * attributes and artifact entries.
+ */
+public class RepositoryPathScopeInterceptor
+        extends HandlerInterceptorAdapter
+{
+
+    private static final String SCOPE_REQUEST_ATTRIBUTE = RepositoryPathScope.class.getName();
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request,
+                             final HttpServletResponse response,
+                             final Object handler)
+    {
+        request.setAttribute(SCOPE_REQUEST_ATTRIBUTE, RepositoryPathScope.open());
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request,
+                                final HttpServletResponse response,
+                                final Object handler,
+                                final Exception ex)
+    {
+        close(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request,
+                                               final HttpServletResponse response,
+                                               final Object handler)
+    {
+        // The scope is bound to the container thread, which is released here.
+        close(request);
+    }
+
+    private void close(final HttpServletRequest request)
+    {
+        RepositoryPathScope scope = (RepositoryPathScope) request.getAttribute(SCOPE_REQUEST_ATTRIBUTE);
+        if (scope == null)
+        {
+            return;
+        }
+
+        request.removeAttribute(SCOPE_REQUEST_ATTRIBUTE);
+        scope.close();
+    }
+
+}
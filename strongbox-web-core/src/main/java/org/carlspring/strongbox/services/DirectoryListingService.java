@@ -18,6 +18,20 @@ public interface DirectoryListingService
 
     DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException;
+
+    /**
+     * Lists a page of the directory content, sorted by name.
+     *
+     * @param cursor
+     *            the {@link DirectoryListing#getNextCursor()} of the previous page, or <code>null</code> for the first
+     *            page
+     * @param limit
+     *            the maximum number of entries (directories and files) of the page, or <code>0</code> for no limit
+     */
+    DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                        String cursor,
+                                        int limit)
+        throws IOException;
     
     DirectoryListing fromPath(Path root, Path path)
             throws IOException;
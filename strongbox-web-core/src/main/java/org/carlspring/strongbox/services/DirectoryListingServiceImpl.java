@@ -3,21 +3,22 @@ package org.carlspring.strongbox.services;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
-import java.util.ArrayList;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.TreeMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.domain.FileContent;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -29,6 +30,15 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
 
     private static final Logger logger = LoggerFactory.getLogger(DirectoryListingService.class);
 
+    private static final String DIRECTORY_ATTRIBUTES = RepositoryFiles.formatAttributes(RepositoryFileAttributeType.STORAGE_ID,
+                                                                                         RepositoryFileAttributeType.REPOSITORY_ID,
+                                                                                         RepositoryFileAttributeType.ARTIFACT_PATH);
+
+    private static final String FILE_ATTRIBUTES = RepositoryFiles.formatAttributes(RepositoryFileAttributeType.STORAGE_ID,
+                                                                                    RepositoryFileAttributeType.REPOSITORY_ID,
+                                                                                    RepositoryFileAttributeType.ARTIFACT_PATH,
+                                                                                    RepositoryFileAttributeType.RESOURCE_URL);
+
     private String baseUrl;
 
     public DirectoryListingServiceImpl(String baseUrl)
@@ -79,83 +89,147 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
     public DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException
     {
-        return fromPath(path);
+        return fromPath(path, null, 0);
+    }
+
+    @Override
+    public DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                               String cursor,
+                                               int limit)
+        throws IOException
+    {
+        return fromPath(path, cursor, limit);
     }
 
-    private DirectoryListing fromPath(Path path)
+    private DirectoryListing fromPath(Path path,
+                                      String cursor,
+                                      int limit)
         throws IOException
     {
         path = path.normalize();
 
+        String after = decodeCursor(cursor);
+
+        // Only the entries of the requested page (and the first one of the next page) are kept in memory, sorted by
+        // name, while the directory is being read.
+        TreeMap<String, Path> page = new TreeMap<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(path, this::isListed))
+        {
+            for (Path contentPath : directoryStream)
+            {
+                String name = contentPath.getFileName().toString();
+                if (after != null && name.compareTo(after) <= 0)
+                {
+                    continue;
+                }
+
+                page.put(name, contentPath);
+                if (limit > 0 && page.size() > limit + 1)
+                {
+                    page.pollLastEntry();
+                }
+            }
+        }
+
         DirectoryListing directoryListing = new DirectoryListing();
+        if (limit > 0 && page.size() > limit)
+        {
+            page.pollLastEntry();
+            directoryListing.setNextCursor(encodeCursor(page.lastKey()));
+        }
 
-        Map<String, List<FileContent>> content = generateDirectoryListing(path);
+        for (Path contentPath : page.values())
+        {
+            BasicFileAttributes basicAttributes = Files.readAttributes(contentPath, BasicFileAttributes.class);
 
-        directoryListing.setDirectories(content.get("directories"));
-        directoryListing.setFiles(content.get("files"));
+            FileContent file = generateFileContent(contentPath, basicAttributes);
+            if (basicAttributes.isDirectory())
+            {
+                directoryListing.getDirectories().add(file);
+            }
+            else
+            {
+                directoryListing.getFiles().add(file);
+            }
+        }
 
         return directoryListing;
     }
 
-    private Map<String, List<FileContent>> generateDirectoryListing(Path path)
-        throws IOException
+    private boolean isListed(Path path)
     {
-        List<FileContent> directories = new ArrayList<>();
-        List<FileContent> files = new ArrayList<>();
-
-        List<Path> contentPaths;
-        try (Stream<Path> pathStream = Files.list(path))
+        if (path.getFileName().toString().startsWith("."))
         {
-            contentPaths = pathStream
-                                   .filter(p -> !p.toFile().getName().startsWith("."))
-                                   .filter(p -> {
-                                       try
-                                       {
-                                           return !Files.isHidden(p);
-                                       }
-                                       catch (IOException e)
-                                       {
-                                           logger.debug("Error accessing path {}", p);
-                                           return false;
-                                       }
-                                   })
-                                   .sorted()
-                                   .collect(Collectors.toList());
+            return false;
         }
 
-        for (Path contentPath : contentPaths)
+        try
+        {
+            return !Files.isHidden(path);
+        }
+        catch (IOException e)
         {
-            FileContent file = new FileContent(contentPath.getFileName().toString());
+            logger.debug("Error accessing path {}", path);
+            return false;
+        }
+    }
+
+    /**
+     * Reads only the attributes which are listed, instead of all of them, as some of the repository attributes (like
+     * the artifact coordinates) are expensive to resolve.
+     */
+    private FileContent generateFileContent(Path contentPath,
+                                            BasicFileAttributes basicAttributes)
+        throws IOException
+    {
+        FileContent file = new FileContent(contentPath.getFileName().toString());
 
-            Map<String, Object> fileAttributes = Files.readAttributes(contentPath, "*");
+        Map<String, Object> fileAttributes = Collections.emptyMap();
+        if (contentPath instanceof RepositoryPath)
+        {
+            fileAttributes = Files.readAttributes(contentPath,
+                                                  basicAttributes.isDirectory() ? DIRECTORY_ATTRIBUTES : FILE_ATTRIBUTES);
+        }
 
-            file.setStorageId((String) fileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
-            file.setRepositoryId((String) fileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+        file.setStorageId((String) fileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
+        file.setRepositoryId((String) fileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+        file.setArtifactPath((String) fileAttributes.get(RepositoryFileAttributeType.ARTIFACT_PATH.getName()));
 
-            file.setArtifactPath((String) fileAttributes.get("artifactPath"));
+        if (basicAttributes.isDirectory())
+        {
+            file.setUrl(calculateDirectoryUrl(file));
 
-            if (Boolean.TRUE.equals(fileAttributes.get("isDirectory")))
-            {
-                file.setUrl(calculateDirectoryUrl(file));
+            return file;
+        }
 
-                directories.add(file);
+        file.setUrl((URL) fileAttributes.get(RepositoryFileAttributeType.RESOURCE_URL.getName()));
 
-                continue;
-            }
+        file.setLastModified(new Date(basicAttributes.lastModifiedTime().toMillis()));
+        file.setSize(basicAttributes.size());
 
-            file.setUrl((URL) fileAttributes.get(RepositoryFileAttributeType.RESOURCE_URL.getName()));
+        return file;
+    }
 
-            file.setLastModified(new Date(((FileTime) fileAttributes.get("lastModifiedTime")).toMillis()));
-            file.setSize((Long) fileAttributes.get("size"));
+    private static String encodeCursor(String name)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
 
-            files.add(file);
+    private static String decodeCursor(String cursor)
+    {
+        if (StringUtils.isBlank(cursor))
+        {
+            return null;
         }
 
-        Map<String, List<FileContent>> listing = new HashMap<>();
-        listing.put("directories", directories);
-        listing.put("files", files);
-
-        return listing;
+        try
+        {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException(String.format("Invalid cursor [%s].", cursor), e);
+        }
     }
 
     /**
@@ -185,7 +259,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
             throw new RuntimeException(message);
         }
 
-        return fromPath(path);
+        return fromPath(path, null, 0);
     }
 
     private URL calculateDirectoryUrl(FileContent file)
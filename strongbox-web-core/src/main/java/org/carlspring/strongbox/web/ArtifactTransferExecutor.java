@@ -0,0 +1,153 @@
+package org.carlspring.strongbox.web;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Transfers the artifacts to the clients on its own threads, so that a slow client doesn't hold a servlet container
+ * thread for the whole download.
+ * <br>
+ * The transfer is a blocking copy, which keeps the read lock of the artifact acquired and released on the same thread,
+ * and is throttled to the pace of the client. The number of transfers in progress is bounded: when there are already
+ * {@code threads} transfers running and {@code queue-capacity} ones waiting for a thread, {@link #transfer} declines
+ * and the download is served on the container thread, as if the asynchronous transfers were disabled.
+ * <br>
+ * The failures of the transfer are handled by the exception handlers, like the ones of a synchronous download.
+ */
+@Component
+public class ArtifactTransferExecutor
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactTransferExecutor.class);
+
+    @Value("${strongbox.download.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.download.async.threads:200}")
+    private int threads;
+
+    @Value("${strongbox.download.async.queue-capacity:2000}")
+    private int queueCapacity;
+
+    /**
+     * The timeout of the transfer in milliseconds, {@code 0} for none (a stalled client is then disconnected by the
+     * idle timeout of the connector).
+     */
+    @Value("${strongbox.download.async.timeout:0}")
+    private long timeout;
+
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix("artifact-transfer-");
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setAllowCoreThreadTimeOut(true);
+        taskExecutor.setQueueCapacity(queueCapacity);
+        taskExecutor.initialize();
+
+        permits = new Semaphore(threads + queueCapacity);
+
+        logger.info("Initialized the asynchronous artifact transfers with [{}] threads and a queue of [{}].",
+                    threads,
+                    queueCapacity);
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (taskExecutor != null)
+        {
+            taskExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Starts the asynchronous processing of the request, and runs the transfer on a transfer thread.
+     *
+     * @return false, if the transfer was declined and should be run by the caller
+     */
+    public boolean transfer(HttpServletRequest request,
+                            Callable<?> transfer)
+            throws Exception
+    {
+        if (!enabled || !request.isAsyncSupported())
+        {
+            return false;
+        }
+
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        if (asyncManager.isConcurrentHandlingStarted())
+        {
+            return false;
+        }
+
+        if (!permits.tryAcquire())
+        {
+            logger.debug("Too many transfers in progress, transferring [{}] synchronously.", request.getRequestURI());
+
+            return false;
+        }
+
+        // The permit is released by whichever comes first: the end of the transfer, or the completion of the request
+        // (after a timeout or a client disconnect, the transfer might never run).
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () ->
+        {
+            if (released.compareAndSet(false, true))
+            {
+                permits.release();
+            }
+        };
+
+        WebAsyncTask<Object> task = new WebAsyncTask<>(timeout, taskExecutor, () ->
+        {
+            try
+            {
+                return transfer.call();
+            }
+            finally
+            {
+                release.run();
+            }
+        });
+        task.onCompletion(release);
+
+        try
+        {
+            asyncManager.startCallableProcessing(task);
+        }
+        catch (Exception e)
+        {
+            release.run();
+
+            throw e;
+        }
+
+        return true;
+    }
+
+}
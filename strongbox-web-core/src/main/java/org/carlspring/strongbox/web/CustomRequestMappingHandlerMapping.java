@@ -2,6 +2,7 @@ package org.carlspring.strongbox.web;
 
 import org.carlspring.strongbox.configuration.StoragesConfigurationManager;
 import org.carlspring.strongbox.interceptors.ArtifactRequestInterceptor;
+import org.carlspring.strongbox.interceptors.RepositoryPathScopeInterceptor;
 import org.carlspring.strongbox.interceptors.RepositoryRequestInterceptor;
 
 import javax.inject.Inject;
@@ -31,6 +32,7 @@ public class CustomRequestMappingHandlerMapping
     @Override
     protected void detectMappedInterceptors(List<HandlerInterceptor> mappedInterceptors)
     {
+        mappedInterceptors.add(new RepositoryPathScopeInterceptor());
         mappedInterceptors.add(new RepositoryRequestInterceptor());
         mappedInterceptors.addAll(BeanFactoryUtils.beansOfTypeIncludingAncestors(obtainApplicationContext(),
                                                                                  ArtifactRequestInterceptor.class, true,
@@ -14,6 +14,7 @@ import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementT
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,6 +30,7 @@ import static org.carlspring.strongbox.rest.client.RestAssuredArtifactClient.OK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -194,6 +196,66 @@ public class BrowseControllerTest
         assertTrue(htmlResponse.contains(link), "Expected to have found [ " + link + " ] in the response html");
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testRepositoryContentsPages(@MavenRepository(repositoryId = REPOSITORY)
+                                            Repository repository,
+                                            @MavenTestArtifact(repositoryId = REPOSITORY,
+                                                               id = "org.carlspring.strongbox.browsing:test-browsing-pages",
+                                                               versions = "1.0")
+                                            Path artifactPath)
+            throws IOException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl() + "/{storageId}/{repositoryId}/{artifactPath}";
+
+        RepositoryPath artifactParentPath = ((RepositoryPath) artifactPath.normalize()).getParent();
+        String artifactParentPathStr = RepositoryFiles.relativizePath(artifactParentPath);
+
+        DirectoryListing listing = given().accept(MediaType.APPLICATION_JSON_VALUE)
+                                          .when()
+                                          .get(url, storageId, repositoryId, artifactParentPathStr)
+                                          .as(DirectoryListing.class);
+
+        assertNull(listing.getNextCursor());
+
+        List<String> expectedNames = listing.getFiles()
+                                            .stream()
+                                            .map(FileContent::getName)
+                                            .collect(Collectors.toList());
+
+        List<String> pagedNames = new ArrayList<>();
+        String cursor = null;
+        do
+        {
+            DirectoryListing page = given().accept(MediaType.APPLICATION_JSON_VALUE)
+                                           .param("limit", 4)
+                                           .param("cursor", cursor == null ? "" : cursor)
+                                           .when()
+                                           .get(url, storageId, repositoryId, artifactParentPathStr)
+                                           .prettyPeek()
+                                           .as(DirectoryListing.class);
+
+            assertTrue(page.getFiles().size() <= 4, "Page exceeds the limit");
+            page.getFiles().forEach(f -> pagedNames.add(f.getName()));
+
+            cursor = page.getNextCursor();
+        }
+        while (cursor != null);
+
+        assertEquals(expectedNames, pagedNames, "Pages do not match the full listing");
+
+        given().accept(MediaType.APPLICATION_JSON_VALUE)
+               .param("cursor", "not a cursor")
+               .when()
+               .get(url, storageId, repositoryId, artifactParentPathStr)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     public void testRepositoryContentsWithRepositoryNotFound()
     {
@@ -0,0 +1,77 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.providers.search.LuceneSearchProvider;
+import org.carlspring.strongbox.providers.search.OrientDbSearchProvider;
+import org.carlspring.strongbox.services.ArtifactSearchService;
+import org.carlspring.strongbox.storage.search.SearchRequest;
+import org.carlspring.strongbox.storage.search.SearchResults;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how the request parameters are passed to the {@link ArtifactSearchService}, which picks the provider.
+ */
+public class SearchControllerTest
+{
+
+    private SearchController searchController = new SearchController();
+
+    private ArtifactSearchService artifactSearchService = mock(ArtifactSearchService.class);
+
+    private MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    public void setUp()
+            throws Exception
+    {
+        searchController.artifactSearchService = artifactSearchService;
+        when(artifactSearchService.search(any())).thenReturn(new SearchResults());
+
+        request.addHeader("accept", MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    public void searchProviderShouldBePassedAsAnOption()
+            throws Exception
+    {
+        searchController.search("storage0", "releases", "artifactId=foo;", OrientDbSearchProvider.ALIAS, request);
+        searchController.search(null, null, "artifactId=foo;", LuceneSearchProvider.ALIAS, request);
+
+        ArgumentCaptor<SearchRequest> searchRequest = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(artifactSearchService, times(2)).search(searchRequest.capture());
+
+        assertEquals("storage0", searchRequest.getAllValues().get(0).getStorageId());
+        assertEquals("releases", searchRequest.getAllValues().get(0).getRepositoryId());
+        assertEquals(OrientDbSearchProvider.ALIAS,
+                     searchRequest.getAllValues().get(0).getOption(ArtifactSearchService.OPTION_SEARCH_PROVIDER));
+        assertEquals(LuceneSearchProvider.ALIAS,
+                     searchRequest.getAllValues().get(1).getOption(ArtifactSearchService.OPTION_SEARCH_PROVIDER));
+    }
+
+    @Test
+    public void searchProviderShouldBeLeftToTheServiceByDefault()
+            throws Exception
+    {
+        searchController.search(null, null, "artifactId%3Dfoo%3B", null, request);
+
+        ArgumentCaptor<SearchRequest> searchRequest = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(artifactSearchService).search(searchRequest.capture());
+
+        assertEquals("artifactId=foo;", searchRequest.getValue().getQuery());
+        assertNull(searchRequest.getValue().getOption(ArtifactSearchService.OPTION_SEARCH_PROVIDER));
+        assertFalse(searchRequest.getValue().getOptions().containsKey(ArtifactSearchService.OPTION_SEARCH_PROVIDER));
+    }
+
+}
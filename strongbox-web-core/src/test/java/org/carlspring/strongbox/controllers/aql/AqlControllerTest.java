@@ -136,6 +136,56 @@ public class AqlControllerTest
                .body("artifact", Matchers.hasSize(6));
     }
 
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testSearchWithoutSnippets(@MavenRepository(storageId = STORAGE_SC_TEST,
+                                                           repositoryId = REPOSITORY_RELEASES)
+                                          Repository repository,
+                                          @MavenTestArtifact(storageId = STORAGE_SC_TEST,
+                                                             repositoryId = REPOSITORY_RELEASES,
+                                                             resource = A1)
+                                          Path artifact1,
+                                          @MavenTestArtifact(storageId = STORAGE_SC_TEST,
+                                                             repositoryId = REPOSITORY_RELEASES,
+                                                             resource = A2)
+                                          Path artifact2)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String query = String.format("storage:%s+repository:%s+groupId:org.carlspring.strongbox.searches",
+                                           storageId,
+                                           repositoryId);
+
+        String url = getContextBaseUrl();
+        // The projected fields are all there, without the snippets.
+        given().accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", query)
+               .queryParam("snippets", false)
+               .when()
+               .get(url)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifact", Matchers.hasSize(4))
+               .body("artifact.storageId", Matchers.everyItem(Matchers.equalTo(storageId)))
+               .body("artifact.repositoryId", Matchers.everyItem(Matchers.equalTo(repositoryId)))
+               .body("artifact.url", Matchers.hasItem(Matchers.endsWith(A1)))
+               .body("artifact.url", Matchers.hasItem(Matchers.endsWith(A2)))
+               .body("artifact.artifactCoordinates.version", Matchers.hasItems("1.0.11.3", "1.0.11.3.1"))
+               .body("artifact.snippets.flatten()", Matchers.empty());
+
+        // The snippets are still generated by default.
+        given().accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", query)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifact", Matchers.hasSize(4))
+               .body("artifact.snippets.flatten()", Matchers.not(Matchers.empty()));
+    }
+
     @Test
     public void testSearchInvalidMavenCoordinates()
     {
@@ -14,6 +14,9 @@ import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementT
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -125,4 +128,48 @@ public class NpmArtifactControllerTest
                .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(Files.size(packagePath))));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPublishWithAttachmentBeforeVersions(@NpmRepository(repositoryId = REPOSITORY_RELEASES)
+                                                        Repository repository,
+                                                        @NpmTestArtifact(id = "npm-test-publish-order",
+                                                                         versions = "1.0.0",
+                                                                         scope = "@carlspring")
+                                                        Path packagePath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of("@carlspring/npm-test-publish-order", "1.0.0");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode publishJson = objectMapper.readTree(packagePath.resolveSibling("publish.json").toFile());
+
+        // The publish document is parsed as a stream, so the order of the fields shouldn't matter.
+        ObjectNode reorderedPublishJson = objectMapper.createObjectNode();
+        reorderedPublishJson.put("readme", "# npm-test-publish-order");
+        reorderedPublishJson.set("_attachments", publishJson.get("_attachments"));
+        reorderedPublishJson.set("versions", publishJson.get("versions"));
+        reorderedPublishJson.set("name", publishJson.get("name"));
+
+        String url = getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/{artifactId}";
+        given().contentType(MediaType.APPLICATION_JSON_VALUE)
+               .body(objectMapper.writeValueAsBytes(reorderedPublishJson))
+               .when()
+               .put(url, storageId, repositoryId, coordinates.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        given().contentType(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, coordinates.toResource())
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .assertThat()
+               .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(Files.size(packagePath))));
+    }
+
 }
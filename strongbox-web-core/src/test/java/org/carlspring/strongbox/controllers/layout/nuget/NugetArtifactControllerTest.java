@@ -6,6 +6,7 @@ import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.repository.NugetSearchIndex;
 import org.carlspring.strongbox.rest.common.NugetRestAssuredBaseTest;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeed;
@@ -20,9 +21,12 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import io.restassured.http.ContentType;
 import io.restassured.http.Header;
@@ -34,8 +38,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -56,9 +62,14 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
 
     private static final String REPOSITORY_RELEASES_1 = "nuget-test-releases";
 
+    private static final String REPOSITORY_SEARCH_INDEX = "nuget-test-search-index";
+
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private NugetSearchIndex nugetSearchIndex;
+
     @Override
     @BeforeEach
     public void init()
@@ -240,7 +251,18 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                    .then()
                    .statusCode(HttpStatus.OK.value())
                    .assertThat()
-                   .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(packageSize)));
+                   .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(packageSize)))
+                   .header(HttpHeaders.CONTENT_DISPOSITION,
+                           equalTo(String.format("attachment; filename=\"%s.%s.nupkg\"", packageId, packageVersion)));
+
+            // The missing package is not offered as an attachment.
+            given().header(HttpHeaders.USER_AGENT, "NuGet/*")
+                   .when()
+                   .get(url, storageId, repositoryId, packageId, "0.0.0-missing")
+                   .then()
+                   .statusCode(HttpStatus.NOT_FOUND.value())
+                   .assertThat()
+                   .header(HttpHeaders.CONTENT_DISPOSITION, nullValue());
         }
         finally
         {
@@ -315,6 +337,59 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .body("feed.entry[0].title", equalTo(coordinates.getId()));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPackageSearchWhileTheIndexIsBuilt(@NugetRepository(storageId = STORAGE_ID,
+                                                                       repositoryId = REPOSITORY_SEARCH_INDEX)
+                                                      Repository repository,
+                                                      @NugetTestArtifact(storageId = STORAGE_ID,
+                                                                         repositoryId = REPOSITORY_SEARCH_INDEX,
+                                                                         id = "Org.Carlspring.Strongbox.Nuget.Test.Building",
+                                                                         versions = "1.0.0")
+                                                      Path packagePath)
+        throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        // The index build is held back, until the package has been searched.
+        List<Runnable> builds = Collections.synchronizedList(new ArrayList<>());
+        Object buildExecutor = ReflectionTestUtils.getField(nugetSearchIndex, "buildExecutor");
+        ReflectionTestUtils.setField(nugetSearchIndex, "buildExecutor", (Executor) builds::add);
+        try
+        {
+            String url = getContextBaseUrl() +
+                         "/storages/{storageId}/{repositoryId}/Search()/$count?searchTerm={searchTerm}&targetFramework=";
+            given().header(HttpHeaders.USER_AGENT, "NuGet/*")
+                   .when()
+                   .get(url, storageId, repositoryId, "Test.Building")
+                   .then()
+                   .statusCode(HttpStatus.OK.value())
+                   .and()
+                   .assertThat()
+                   .body(equalTo("1"));
+
+            url = getContextBaseUrl() +
+                  "/storages/{storageId}/{repositoryId}/Search()?$skip={skip}&$top={stop}&searchTerm={searchTerm}&targetFramework=";
+            given().header(HttpHeaders.USER_AGENT, "NuGet/*")
+                   .when()
+                   .get(url, storageId, repositoryId, 0, 30, "Test.Building")
+                   .then()
+                   .statusCode(HttpStatus.OK.value())
+                   .and()
+                   .assertThat()
+                   .body("feed.entry[0].title", equalTo("Org.Carlspring.Strongbox.Nuget.Test.Building"));
+
+            assertFalse(builds.isEmpty());
+        }
+        finally
+        {
+            ReflectionTestUtils.setField(nugetSearchIndex, "buildExecutor", buildExecutor);
+            new ArrayList<>(builds).forEach(Runnable::run);
+        }
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -10,12 +10,19 @@ import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecution
 import org.carlspring.strongbox.testing.artifact.TestArtifact;
 import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
 import org.carlspring.strongbox.testing.storage.repository.TestRepository;
+import org.carlspring.strongbox.web.ArtifactTransferExecutor;
+
+import javax.inject.Inject;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,9 +30,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
 /**
  * @author Martin Todorov
@@ -38,6 +52,11 @@ public class RawArtifactControllerTest
 
     private static final String REPOSITORY_RELEASES = "ract-raw-releases";
 
+    private static final String REPOSITORY_ASYNC_DOWNLOADS = "ract-raw-async-downloads";
+
+    @Inject
+    private ArtifactTransferExecutor artifactTransferExecutor;
+
     @Override
     @BeforeEach
     public void init()
@@ -108,4 +127,74 @@ public class RawArtifactControllerTest
         assertTrue(Files.exists(artifactRepositoryPath.toAbsolutePath()), "Artifact does not exist!");
     }
 
+    /**
+     * The downloads are sent one after another from the test thread, which is released as soon as a transfer is
+     * started, so that they are all read at the same time, beyond the bound of the executor.
+     */
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testConcurrentAsynchronousDownloads(@TestRepository(layout = RawLayoutProvider.ALIAS,
+                                                                    repositoryId = REPOSITORY_ASYNC_DOWNLOADS)
+                                                    Repository repository,
+                                                    @TestArtifact(repositoryId = REPOSITORY_ASYNC_DOWNLOADS,
+                                                                  resource = "org/foo/bar/blah-async.zip",
+                                                                  generator = NullArtifactGenerator.class,
+                                                                  size = 1024 * 1024)
+                                                    Path artifactPath)
+            throws Exception
+    {
+        final String url = "/storages/{storageId}/{repositoryId}/org/foo/bar/blah-async.zip";
+        final byte[] content = Files.readAllBytes(artifactPath);
+        final int downloads = 50;
+
+        Object threads = ReflectionTestUtils.getField(artifactTransferExecutor, "threads");
+        Object queueCapacity = ReflectionTestUtils.getField(artifactTransferExecutor, "queueCapacity");
+
+        ReflectionTestUtils.setField(artifactTransferExecutor, "enabled", true);
+        ReflectionTestUtils.setField(artifactTransferExecutor, "threads", 4);
+        ReflectionTestUtils.setField(artifactTransferExecutor, "queueCapacity", 4);
+        artifactTransferExecutor.init();
+        try
+        {
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+            List<MvcResult> results = new ArrayList<>();
+            for (int i = 0; i < downloads; i++)
+            {
+                results.add(mockMvc.perform(get(url, repository.getStorage().getId(), repository.getId())
+                                                    .header(HttpHeaders.USER_AGENT, "Raw/*"))
+                                   .andReturn());
+            }
+
+            int asynchronous = 0;
+            for (MvcResult result : results)
+            {
+                if (result.getRequest().isAsyncStarted())
+                {
+                    asynchronous++;
+
+                    result.getAsyncResult(TimeUnit.MINUTES.toMillis(1));
+                    result = mockMvc.perform(asyncDispatch(result)).andReturn();
+                }
+
+                assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+                assertArrayEquals(content, result.getResponse().getContentAsByteArray());
+            }
+
+            // The ones beyond the bound are served on the request thread.
+            assertTrue(asynchronous > 0);
+            assertEquals(8, ((Semaphore) ReflectionTestUtils.getField(artifactTransferExecutor, "permits"))
+                                    .availablePermits());
+        }
+        finally
+        {
+            artifactTransferExecutor.destroy();
+
+            ReflectionTestUtils.setField(artifactTransferExecutor, "enabled", false);
+            ReflectionTestUtils.setField(artifactTransferExecutor, "threads", threads);
+            ReflectionTestUtils.setField(artifactTransferExecutor, "queueCapacity", queueCapacity);
+        }
+    }
+
 }
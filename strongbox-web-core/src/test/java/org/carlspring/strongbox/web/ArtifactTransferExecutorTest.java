@@ -0,0 +1,179 @@
+package org.carlspring.strongbox.web;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArtifactTransferExecutorTest
+{
+
+    private static final int CHUNKS = 5;
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private ArtifactTransferExecutor executor = new ArtifactTransferExecutor();
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.destroy();
+    }
+
+    @Test
+    public void slowReadersShouldBeTransferredAsynchronously()
+            throws Exception
+    {
+        int threads = 50;
+        int readers = 2000;
+        init(threads, readers);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(readers);
+
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (int i = 0; i < readers; i++)
+        {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockHttpServletRequest request = newRequest(response);
+
+            assertTrue(executor.transfer(request, () ->
+            {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try
+                {
+                    slowCopy(response);
+                }
+                finally
+                {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+
+                return null;
+            }));
+            // The request thread is released right away, whatever the pace of the reader.
+            assertTrue(request.isAsyncStarted());
+
+            responses.add(response);
+        }
+
+        assertTrue(done.await(1, TimeUnit.MINUTES));
+        assertTrue(maxRunning.get() <= threads);
+        for (MockHttpServletResponse response : responses)
+        {
+            assertEquals(CHUNKS * CHUNK_SIZE, response.getContentAsByteArray().length);
+        }
+    }
+
+    @Test
+    public void transfersBeyondTheCapacityShouldBeDeclined()
+            throws Exception
+    {
+        int threads = 2;
+        int queueCapacity = 3;
+        init(threads, queueCapacity);
+
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads + queueCapacity);
+        Callable<?> blockedTransfer = () ->
+        {
+            gate.await();
+            done.countDown();
+
+            return null;
+        };
+
+        int accepted = 0;
+        for (int i = 0; i < 2 * (threads + queueCapacity); i++)
+        {
+            MockHttpServletRequest request = newRequest(new MockHttpServletResponse());
+            if (executor.transfer(request, blockedTransfer))
+            {
+                accepted++;
+            }
+            else
+            {
+                // Left to the caller, to be transferred synchronously.
+                assertFalse(request.isAsyncStarted());
+            }
+        }
+        assertEquals(threads + queueCapacity, accepted);
+
+        gate.countDown();
+        assertTrue(done.await(1, TimeUnit.MINUTES));
+
+        // The capacity is given back once the transfers are over.
+        boolean acceptedAgain = false;
+        for (int i = 0; i < 100 && !acceptedAgain; i++)
+        {
+            acceptedAgain = executor.transfer(newRequest(new MockHttpServletResponse()), () -> null);
+            Thread.sleep(10);
+        }
+        assertTrue(acceptedAgain);
+    }
+
+    @Test
+    public void transferShouldBeDeclinedWhenDisabled()
+            throws Exception
+    {
+        executor.init();
+
+        MockHttpServletRequest request = newRequest(new MockHttpServletResponse());
+
+        assertFalse(executor.transfer(request, () -> null));
+        assertFalse(request.isAsyncStarted());
+    }
+
+    private void init(int threads,
+                      int queueCapacity)
+    {
+        ReflectionTestUtils.setField(executor, "enabled", true);
+        ReflectionTestUtils.setField(executor, "threads", threads);
+        ReflectionTestUtils.setField(executor, "queueCapacity", queueCapacity);
+        executor.init();
+    }
+
+    private MockHttpServletRequest newRequest(MockHttpServletResponse response)
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/storages/storage0/releases/artifact.jar");
+        request.setAsyncSupported(true);
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(new StandardServletAsyncWebRequest(request,
+                                                                                                      response));
+
+        return request;
+    }
+
+    /**
+     * Writes the artifact at the pace of a slow reader.
+     */
+    private void slowCopy(MockHttpServletResponse response)
+            throws Exception
+    {
+        OutputStream os = response.getOutputStream();
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (int i = 0; i < CHUNKS; i++)
+        {
+            os.write(chunk);
+            os.flush();
+
+            Thread.sleep(2);
+        }
+    }
+
+}